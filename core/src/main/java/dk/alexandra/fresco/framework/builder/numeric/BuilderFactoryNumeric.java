@@ -3,6 +3,7 @@ package dk.alexandra.fresco.framework.builder.numeric;
 import dk.alexandra.fresco.framework.BuilderFactory;
 import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
+import java.util.Optional;
 
 /**
  * The core factory to implement when creating a numeric protocol. Every {@link
@@ -29,6 +30,21 @@ public interface BuilderFactoryNumeric extends BuilderFactory<ProtocolBuilderNum
     return new DefaultPreprocessedValues(builder);
   }
 
+  /**
+   * Creates a protocol suite specific implementation of a computation directory which is not
+   * defined in core, e.g. comparison. Libraries look up their directories through this method and
+   * fall back to their generic implementation if none is returned.
+   *
+   * @param directoryType the type of directory requested
+   * @param builder the builder the directory should append protocols to
+   * @param <T> the type of directory requested
+   * @return a suite specific implementation of the directory, if the suite has one
+   */
+  default <T extends ComputationDirectory> Optional<T> createComputationDirectory(
+      Class<T> directoryType, ProtocolBuilderNumeric builder) {
+    return Optional.empty();
+  }
+
   @Override
   default ProtocolBuilderNumeric createSequential() {
     return new ProtocolBuilderNumeric(this, false);
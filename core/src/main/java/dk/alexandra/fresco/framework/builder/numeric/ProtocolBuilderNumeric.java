@@ -1,7 +1,9 @@
 package dk.alexandra.fresco.framework.builder.numeric;
 
+import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.builder.ProtocolBuilderImpl;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
+import java.util.Optional;
 
 /**
  * Central class for building protocols that are based on numeric protocol suites. This class
@@ -59,4 +61,18 @@ public class ProtocolBuilderNumeric extends ProtocolBuilderImpl<ProtocolBuilderN
     return preprocessedValues;
   }
 
+  /**
+   * Looks up a protocol suite specific implementation of a computation directory which is not
+   * defined in core. See {@link BuilderFactoryNumeric#createComputationDirectory(Class,
+   * ProtocolBuilderNumeric)}.
+   *
+   * @param directoryType the type of directory requested
+   * @param <T> the type of directory requested
+   * @return the suite specific directory for this builder, if the suite has one
+   */
+  public <T extends ComputationDirectory> Optional<T> computationDirectory(
+      Class<T> directoryType) {
+    return factory.createComputationDirectory(directoryType, this);
+  }
+
 }
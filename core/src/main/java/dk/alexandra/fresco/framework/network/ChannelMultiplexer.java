@@ -0,0 +1,225 @@
+package dk.alexandra.fresco.framework.network;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Multiplexes any number of logical channels over a single {@link CloseableNetwork}.
+ *
+ * <p>Each channel is exposed as a {@link Network} of its own, and messages sent on a channel are
+ * only ever received on the channel with the same id at the other parties. This allows several
+ * computations to run concurrently over one set of peer connections. Channel ids must be agreed
+ * upon by all parties.</p>
+ *
+ * <p>Every message is prefixed with the id of its channel. One daemon thread per opposing party
+ * reads messages from the underlying network and dispatches them to the queue of the appropriate
+ * channel. Messages arriving for a channel which has not yet been opened locally are buffered
+ * until it is. Messages arriving for a channel which has been closed are dropped, so a late
+ * message from another party does not bring a closed channel back to life. The underlying network
+ * must allow concurrent calls to {@link Network#send(int, byte[])}.</p>
+ */
+public class ChannelMultiplexer implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChannelMultiplexer.class);
+  private static final int HEADER_SIZE = Integer.BYTES;
+  private static final Duration RECEIVE_TIMEOUT = Duration.ofMillis(100);
+  private final int myId;
+  private final CloseableNetwork network;
+  private final Map<Integer, List<BlockingQueue<byte[]>>> queues;
+  private final Set<Integer> closedChannels;
+  private final List<Thread> dispatchers;
+  private final AtomicBoolean alive;
+
+  /**
+   * Creates a new multiplexer on top of the given network, and starts dispatching incoming
+   * messages.
+   *
+   * @param myId the id of this party
+   * @param network the network carrying all channels
+   */
+  public ChannelMultiplexer(int myId, CloseableNetwork network) {
+    this.myId = myId;
+    this.network = network;
+    this.queues = new ConcurrentHashMap<>();
+    this.closedChannels = ConcurrentHashMap.newKeySet();
+    this.alive = new AtomicBoolean(true);
+    this.dispatchers = new ArrayList<>();
+    for (int partyId = 1; partyId <= network.getNoOfParties(); partyId++) {
+      if (partyId != myId) {
+        final int otherId = partyId;
+        Thread thread = new Thread(() -> dispatch(otherId));
+        thread.setDaemon(true);
+        thread.setName("Multiplexer-P" + myId + "-P" + otherId);
+        dispatchers.add(thread);
+        thread.start();
+      }
+    }
+  }
+
+  /**
+   * Returns a network view of the channel with the given id.
+   *
+   * <p>Opening the same channel twice returns views sharing the same message queues. Opening a
+   * channel which has been closed starts a new, empty channel with the same id. Any message sent on
+   * the old channel that arrives after this point is received on the new one, so channel ids should
+   * only be reused once all parties are done with the old channel.</p>
+   *
+   * @param channelId id of the channel
+   * @return the channel
+   */
+  public Network openChannel(int channelId) {
+    queues.compute(channelId, (id, partyQueues) -> {
+      closedChannels.remove(id);
+      return partyQueues;
+    });
+    return new Channel(channelId);
+  }
+
+  /**
+   * Discards any messages buffered for the given channel, and drops any message arriving for it
+   * until it is opened again. Should be called when a channel is no longer used, in order to
+   * release its resources.
+   *
+   * @param channelId id of the channel
+   */
+  public void closeChannel(int channelId) {
+    queues.compute(channelId, (id, partyQueues) -> {
+      closedChannels.add(id);
+      return null;
+    });
+  }
+
+  /**
+   * Gets the number of parties.
+   */
+  public int getNoOfParties() {
+    return network.getNoOfParties();
+  }
+
+  /**
+   * Stops dispatching and closes the underlying network.
+   */
+  @Override
+  public void close() {
+    if (alive.getAndSet(false)) {
+      ExceptionConverter.safe(() -> {
+        network.close();
+        return null;
+      }, "Unable to close the underlying network");
+      for (Thread dispatcher : dispatchers) {
+        dispatcher.interrupt();
+      }
+    }
+  }
+
+  private void dispatch(int partyId) {
+    try {
+      while (alive.get()) {
+        ByteBuffer message = ByteBuffer.wrap(network.receive(partyId));
+        int channelId = message.getInt();
+        byte[] payload = new byte[message.remaining()];
+        message.get(payload);
+        BlockingQueue<byte[]> queue = getQueue(channelId, partyId);
+        if (queue == null) {
+          logger.debug("P{}: Dropped message from P{} on closed channel {}", myId, partyId,
+              channelId);
+        } else {
+          queue.add(payload);
+        }
+      }
+    } catch (RuntimeException e) {
+      if (alive.get()) {
+        logger.warn("P{}: Stopped dispatching messages from P{}", myId, partyId, e);
+      }
+    }
+  }
+
+  /**
+   * Gets the queue of messages from the given party on the given channel, creating the queues of
+   * the channel if needed. Returns null if the channel has been closed.
+   */
+  private BlockingQueue<byte[]> getQueue(int channelId, int partyId) {
+    List<BlockingQueue<byte[]>> partyQueues = queues.get(channelId);
+    if (partyQueues == null) {
+      // the closed check and the creation must be atomic with respect to closeChannel
+      partyQueues = queues.compute(channelId, (id, existing) -> {
+        if (existing != null || closedChannels.contains(id)) {
+          return existing;
+        }
+        List<BlockingQueue<byte[]>> created = new ArrayList<>(getNoOfParties());
+        for (int i = 0; i < getNoOfParties(); i++) {
+          created.add(new LinkedBlockingQueue<>());
+        }
+        return created;
+      });
+    }
+    return partyQueues == null ? null : partyQueues.get(partyId - 1);
+  }
+
+  private class Channel implements Network {
+
+    private final int channelId;
+
+    private Channel(int channelId) {
+      this.channelId = channelId;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      if (partyId == myId) {
+        getOpenQueue(partyId).add(data);
+      } else {
+        network.send(partyId, ByteBuffer.allocate(HEADER_SIZE + data.length)
+            .putInt(channelId)
+            .put(data)
+            .array());
+      }
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      BlockingQueue<byte[]> queue = getOpenQueue(partyId);
+      byte[] data = poll(queue);
+      while (data == null) {
+        if (!alive.get()) {
+          throw new RuntimeException("P" + myId + ": Unable to receive from P" + partyId
+              + " on channel " + channelId + ". Multiplexer closed");
+        }
+        data = poll(queue);
+      }
+      return data;
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+
+    private BlockingQueue<byte[]> getOpenQueue(int partyId) {
+      BlockingQueue<byte[]> queue = getQueue(channelId, partyId);
+      if (queue == null) {
+        throw new IllegalStateException("P" + myId + ": Channel " + channelId + " is closed");
+      }
+      return queue;
+    }
+
+    private byte[] poll(BlockingQueue<byte[]> queue) {
+      return ExceptionConverter.safe(
+          () -> queue.poll(RECEIVE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS),
+          "Receive interrupted");
+    }
+  }
+}
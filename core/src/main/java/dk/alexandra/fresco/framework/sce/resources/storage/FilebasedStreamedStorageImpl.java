@@ -18,8 +18,15 @@ import org.slf4j.LoggerFactory;
  */
 public class FilebasedStreamedStorageImpl implements StreamedStorage {
 
+  /**
+   * Number of objects written to a stream between resets of the stream. An object stream keeps a
+   * reference to every object written since the last reset, so without resets the memory used
+   * grows with the size of the stream.
+   */
+  private static final int RESET_INTERVAL = 1 << 12;
   private Map<String, ObjectInputStream> oiss;
   private Map<String, ObjectOutputStream> ooss;
+  private final Map<String, Integer> writeCounts = new HashMap<>();
   private Storage storage;
   private static final Logger logger = LoggerFactory.getLogger(FilebasedStreamedStorageImpl.class);
 
@@ -90,7 +97,11 @@ public class FilebasedStreamedStorageImpl implements StreamedStorage {
       ooss.put(name, oos);
     }
     try {
-      ooss.get(name).writeObject(o);
+      ObjectOutputStream oos = ooss.get(name);
+      oos.writeObject(o);
+      if (writeCounts.merge(name, 1, Integer::sum) % RESET_INTERVAL == 0) {
+        oos.reset();
+      }
     } catch (IOException e) {
       throw new RuntimeException("IOException writing to store name " + name, e);
     }
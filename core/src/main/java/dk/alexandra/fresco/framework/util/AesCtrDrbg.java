@@ -19,6 +19,8 @@ public class AesCtrDrbg implements Drbg {
   private static final int KEY_LENGTH = 16;
   private static final long RESEED_LIMIT = 1L << 48;
   private static final int UPDATE_LIMIT = 1 << 16;
+  // The plaintext of the keystream. This is never written to, so it is shared by all instances
+  private static final byte[] ZEROES = new byte[UPDATE_LIMIT];
   private Cipher cipher;
   private int generatedBytes;
   private int reseedCounter;
@@ -56,45 +58,46 @@ public class AesCtrDrbg implements Drbg {
 
   @Override
   public void nextBytes(byte[] bytes) {
-    if (bytes.length <= UPDATE_LIMIT) {
-      nextBytesBounded(new byte[bytes.length], bytes);
-    } else {
-      int offset = 0;
-      byte[] temp = new byte[UPDATE_LIMIT];
-      byte[] zeroes = new byte[temp.length];
-      while (bytes.length - offset > UPDATE_LIMIT) {
-        nextBytesBounded(zeroes, temp);
-        System.arraycopy(temp, 0, bytes, offset, temp.length);
-        offset += UPDATE_LIMIT;
-      }
-      temp = new byte[bytes.length - offset];
-      zeroes = new byte[bytes.length - offset];
-      nextBytesBounded(zeroes, temp);
-      System.arraycopy(temp, 0, bytes, offset, temp.length);
+    nextBytes(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Fills a range of the given byte array with pseudo-random bytes. The keystream is written
+   * directly into the array, so no buffers are allocated, and the output is the same as that of
+   * {@link #nextBytes(byte[])} on an array of the given length.
+   */
+  @Override
+  public void nextBytes(byte[] bytes, int offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > bytes.length) {
+      throw new IllegalArgumentException("Range [" + offset + ", " + (offset + length)
+          + ") is out of bounds for an array of length " + bytes.length);
+    }
+    int end = offset + length;
+    while (end - offset > UPDATE_LIMIT) {
+      nextBytesBounded(bytes, offset, UPDATE_LIMIT);
+      offset += UPDATE_LIMIT;
     }
+    nextBytesBounded(bytes, offset, end - offset);
   }
 
   /**
-   * Generates enough pseudo-random bytes to fill a given array.
-   * <p>
-   * Note: this method is unsafe the sense that it expects two array of equal size at most
-   * {@value #UPDATE_LIMIT} and does not check for this.
-   * </p>
+   * Writes the keystream, i.e. the encryption of zeroes, into a range of at most {@value
+   * #UPDATE_LIMIT} bytes of an array.
    *
-   * @param zeroes an array of zero bytes of length equal to output array.
-   * @param output an array of size at most {@value #UPDATE_LIMIT} which will be filled with pseudo
-   *        random bytes.
+   * @param output the array to write to
+   * @param offset the start of the range
+   * @param length the length of the range, at most {@value #UPDATE_LIMIT}
    */
-  void nextBytesBounded(byte[] zeroes, byte[] output) {
-    if (generatedBytes + output.length > UPDATE_LIMIT) {
+  private void nextBytesBounded(byte[] output, int offset, int length) {
+    if (generatedBytes + length > UPDATE_LIMIT) {
       update();
     }
     try {
-      this.cipher.update(zeroes, 0, zeroes.length, output);
+      this.cipher.update(ZEROES, 0, length, output, offset);
     } catch (ShortBufferException e) {
       throw new IllegalArgumentException("Exception generating bits", e);
     }
-    generatedBytes += output.length;
+    generatedBytes += length;
   }
 
   /**
@@ -25,4 +25,19 @@ public interface Drbg {
    * @param bytes The byte array which will be overwritten with random data.
    */
   void nextBytes(byte[] bytes);
+
+  /**
+   * Fills a range of the given byte array with deterministic pseudo-random bytes. The bytes are the
+   * same as those written by {@link #nextBytes(byte[])} on an array of the given length.
+   * Implementations may override this to write directly into the array.
+   *
+   * @param bytes The byte array which will be partially overwritten with random data.
+   * @param offset The start of the range to overwrite.
+   * @param length The length of the range to overwrite.
+   */
+  default void nextBytes(byte[] bytes, int offset, int length) {
+    byte[] random = new byte[length];
+    nextBytes(random);
+    System.arraycopy(random, 0, bytes, offset, length);
+  }
 }
@@ -0,0 +1,52 @@
+package dk.alexandra.fresco.framework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A batch of independent DRBGs which are used together, such as the PRGs seeded by each of the
+ * seed OTs of an OT extension.
+ *
+ * <p>Fills one output per DRBG in a single call, each written directly into its own row of a
+ * flat array, so no per-DRBG buffers are allocated. The rows are generated in parallel.</p>
+ */
+public final class DrbgBatch {
+
+  private final List<Drbg> drbgs;
+
+  /**
+   * Creates a new batch.
+   *
+   * @param drbgs the DRBGs of the batch
+   */
+  public DrbgBatch(List<? extends Drbg> drbgs) {
+    this.drbgs = new ArrayList<>(drbgs);
+  }
+
+  /**
+   * Gets the number of DRBGs in the batch.
+   *
+   * @return the number of DRBGs
+   */
+  public int getSize() {
+    return drbgs.size();
+  }
+
+  /**
+   * Fills row <i>i</i> of a flat array, i.e. bytes <i>i * rowLength</i> to <i>(i + 1) *
+   * rowLength</i>, with pseudo-random bytes of DRBG <i>i</i>, as by
+   * {@link Drbg#nextBytes(byte[], int, int)}.
+   *
+   * @param rows the flat array, of length exactly {@link #getSize()} * rowLength
+   * @param rowLength the number of bytes to generate with each DRBG
+   */
+  public void nextBytes(byte[] rows, int rowLength) {
+    if (rows.length != drbgs.size() * rowLength) {
+      throw new IllegalArgumentException("Expected " + drbgs.size() * rowLength
+          + " bytes for " + drbgs.size() + " rows, but got " + rows.length);
+    }
+    IntStream.range(0, drbgs.size()).parallel()
+        .forEach(i -> drbgs.get(i).nextBytes(rows, i * rowLength, rowLength));
+  }
+}
@@ -0,0 +1,103 @@
+package dk.alexandra.fresco.framework.util;
+
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * AES under a fixed, public key, used as a random permutation <i>&pi;</i> of 128 bit blocks.
+ *
+ * <p>Besides the permutation itself, this implements the tweakable correlation robust hash
+ * <i>H(i, x) = &pi;(&pi;(x) &oplus; i) &oplus; &pi;(x)</i> of Guo et al. (<a
+ * href="https://eprint.iacr.org/2019/074.pdf">https://eprint.iacr.org/2019/074.pdf</a>), which
+ * may replace a cryptographic hash function when hashing blocks in OT extension, at the cost of
+ * two AES evaluations rather than a full hash. The key is not secret, so the same key must be
+ * used by all parties.</p>
+ *
+ * <p>Instances are not thread safe.</p>
+ */
+public class FixedKeyAes {
+
+  /**
+   * The byte length of a block.
+   */
+  public static final int BLOCK_BYTES = 16;
+  private final Cipher cipher;
+  private final byte[] block = new byte[BLOCK_BYTES];
+
+  /**
+   * Creates a new fixed-key AES permutation.
+   *
+   * @param key the public key of {@value #BLOCK_BYTES} bytes
+   */
+  public FixedKeyAes(byte[] key) {
+    if (key.length != BLOCK_BYTES) {
+      throw new IllegalArgumentException("Key must be exactly " + BLOCK_BYTES
+          + " bytes, but the given key is " + key.length + " bytes long");
+    }
+    this.cipher = ExceptionConverter.safe(() -> {
+      Cipher aes = Cipher.getInstance("AES/ECB/NoPadding");
+      aes.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"));
+      return aes;
+    }, "Unable to initialize AES");
+  }
+
+  /**
+   * Applies the permutation to each block of a range of bytes.
+   *
+   * @param input the array to read from
+   * @param inputOffset the start of the blocks to read
+   * @param output the array to write to, which may be the input array
+   * @param outputOffset the start of the blocks to write
+   * @param length the number of bytes, a multiple of {@value #BLOCK_BYTES}
+   */
+  public void permute(byte[] input, int inputOffset, byte[] output, int outputOffset,
+      int length) {
+    if (length % BLOCK_BYTES != 0) {
+      throw new IllegalArgumentException(
+          "Length must be a multiple of " + BLOCK_BYTES + ", but was " + length);
+    }
+    try {
+      cipher.update(input, inputOffset, length, output, outputOffset);
+    } catch (ShortBufferException e) {
+      throw new IllegalArgumentException("Output is too short", e);
+    }
+  }
+
+  /**
+   * Computes the tweakable correlation robust hash of a block.
+   *
+   * @param tweak the tweak <i>i</i>, which must not be reused for different inputs that may be
+   *     correlated
+   * @param high the most significant word of the block <i>x</i>
+   * @param low the least significant word of the block <i>x</i>
+   * @param result the array to write the hash to, most significant word at <code>offset</code>
+   *     and least significant word at <code>offset + 1</code>
+   * @param offset the offset of the hash in the result
+   */
+  public void hash(long tweak, long high, long low, long[] result, int offset) {
+    toBlock(high, low);
+    permute(block, 0, block, 0, BLOCK_BYTES);
+    long permutedHigh = getWord(0);
+    long permutedLow = getWord(Long.BYTES);
+    toBlock(permutedHigh, permutedLow ^ tweak);
+    permute(block, 0, block, 0, BLOCK_BYTES);
+    result[offset] = getWord(0) ^ permutedHigh;
+    result[offset + 1] = getWord(Long.BYTES) ^ permutedLow;
+  }
+
+  private void toBlock(long high, long low) {
+    for (int i = 0; i < Long.BYTES; i++) {
+      block[i] = (byte) (high >>> (Byte.SIZE * (Long.BYTES - 1 - i)));
+      block[Long.BYTES + i] = (byte) (low >>> (Byte.SIZE * (Long.BYTES - 1 - i)));
+    }
+  }
+
+  private long getWord(int offset) {
+    long word = 0;
+    for (int i = 0; i < Long.BYTES; i++) {
+      word = word << Byte.SIZE | (block[offset + i] & 0xFFL);
+    }
+    return word;
+  }
+}
@@ -26,15 +26,24 @@ public class MathUtils {
   }
 
   /**
-   * Find square root modulo a prime (if the square root exists). Implements Tonelli–Shanks
-   * algorithm (https://en.wikipedia.org/wiki/Tonelli%E2%80%93Shanks_algorithm). Variable names
-   * correspond to variable names in article.
+   * Find square root modulo a prime (if the square root exists). If the modulus is 3 modulo 4 the
+   * square root is computed directly as <i>n<sup>(p + 1) / 4</sup></i>, which only takes a single
+   * exponentiation. Otherwise this implements Tonelli–Shanks algorithm
+   * (https://en.wikipedia.org/wiki/Tonelli%E2%80%93Shanks_algorithm). Variable names correspond
+   * to variable names in article.
    *
    * @param value value to find square root of (n)
    * @param modulus prime modulus (p)
    * @return square root (if it exists)
    */
   public static BigInteger modularSqrt(BigInteger value, BigInteger modulus) {
+    if (modulus.testBit(0) && modulus.testBit(1)) {
+      BigInteger root = value.modPow(modulus.add(BigInteger.ONE).shiftRight(2), modulus);
+      if (!root.multiply(root).mod(modulus).equals(value.mod(modulus))) {
+        throw new IllegalArgumentException("Value has no square root in field");
+      }
+      return root;
+    }
     // check if square root exists
     if (!isQuadraticResidue(value, modulus)) {
       throw new IllegalArgumentException("Value has no square root in field");
@@ -113,4 +122,24 @@ public class MathUtils {
     return new Pair<>(q, s);
   }
 
+
+  /**
+   * Computes the 64 most significant bits of the unsigned 128-bit product of two longs, i.e., the
+   * unsigned counterpart of Java 9's <code>Math.multiplyHigh</code>.
+   *
+   * @param left the left factor, interpreted as unsigned
+   * @param right the right factor, interpreted as unsigned
+   * @return the high half of the product
+   */
+  public static long multiplyHighUnsigned(long left, long right) {
+    long leftLow = left & 0xffffffffL;
+    long leftHigh = left >>> 32;
+    long rightLow = right & 0xffffffffL;
+    long rightHigh = right >>> 32;
+    long lowProduct = leftLow * rightLow;
+    long cross = leftHigh * rightLow + (lowProduct >>> 32);
+    long mid = leftLow * rightHigh + (cross & 0xffffffffL);
+    return leftHigh * rightHigh + (cross >>> 32) + (mid >>> 32);
+  }
+
 }
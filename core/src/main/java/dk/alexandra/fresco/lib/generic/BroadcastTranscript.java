@@ -0,0 +1,95 @@
+package dk.alexandra.fresco.lib.generic;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Session-level transcript of received broadcasts, for validating many broadcasts at once.
+ *
+ * <p>Rather than exchanging a digest of the messages of each broadcast, protocols update a
+ * running SHA-256 digest with the messages as they are received, and the parties compare their
+ * digests once, using either {@link BroadcastTranscriptValidationProtocol} within a computation or
+ * {@link #validate(Network)} outside of one, e.g., during round synchronization. This must happen
+ * before any value depending on the broadcast messages is revealed, e.g., before a mac check or
+ * output. Since the digests are only equal if the messages are received in the same order, all
+ * parties must update the transcript in the same order, which is the case when it is updated by
+ * native protocols during evaluation.</p>
+ *
+ * <p>Instances are not thread safe.</p>
+ */
+public class BroadcastTranscript {
+
+  private final MessageDigest messageDigest;
+  private boolean pending;
+
+  /**
+   * Creates new {@link BroadcastTranscript}. <p>Requires SHA-256 message digest.</p>
+   */
+  public BroadcastTranscript() {
+    this.messageDigest = ExceptionConverter.safe(() -> MessageDigest.getInstance("SHA-256"),
+        "Configuration error, SHA-256 is needed for BroadcastTranscript");
+  }
+
+  /**
+   * Adds a received broadcast message to the transcript. <p>The message is prefixed by its length,
+   * so a sequence of messages can not collide with a different split of the same bytes.</p>
+   *
+   * @param message the message
+   */
+  public void update(byte[] message) {
+    messageDigest.update(ByteBuffer.allocate(Integer.BYTES).putInt(message.length).array());
+    messageDigest.update(message);
+    pending = true;
+  }
+
+  /**
+   * Adds received broadcast messages to the transcript.
+   *
+   * @param messages the messages, in the order they were received
+   */
+  public void update(List<byte[]> messages) {
+    for (byte[] message : messages) {
+      update(message);
+    }
+  }
+
+  /**
+   * Indicates whether messages have been added since the last call to {@link #digest()}.
+   *
+   * @return true if there are messages left to validate
+   */
+  public boolean hasPendingMessages() {
+    return pending;
+  }
+
+  /**
+   * Exchanges the digest of the messages added since the last validation with the other parties
+   * directly on a network, and checks that all digests are equal. <p>Does nothing if no messages
+   * have been added.</p>
+   *
+   * @param network the network to exchange digests on
+   * @throws MaliciousException if validation fails
+   */
+  public void validate(Network network) {
+    if (hasPendingMessages()) {
+      SecureBroadcastUtil broadcast = new SecureBroadcastUtil(network);
+      byte[] digest = digest();
+      broadcast.sendDigest(digest);
+      broadcast.receiveAndValidateDigests(digest);
+    }
+  }
+
+  /**
+   * Computes the digest of the messages added since the last call and resets the transcript.
+   *
+   * @return the digest
+   */
+  public byte[] digest() {
+    pending = false;
+    return messageDigest.digest();
+  }
+}
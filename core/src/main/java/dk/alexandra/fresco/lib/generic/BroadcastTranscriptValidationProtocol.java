@@ -0,0 +1,50 @@
+package dk.alexandra.fresco.lib.generic;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * Generic native protocol validating all broadcasts recorded in a {@link BroadcastTranscript}.
+ * <p>Unlike {@link BroadcastValidationProtocol}, which validates the messages of a single
+ * broadcast, this exchanges a single digest for all messages received since the last validation,
+ * so a whole batch of broadcasts is validated in one round. The protocol completes without
+ * interaction if no messages have been recorded.</p>
+ */
+public class BroadcastTranscriptValidationProtocol<ResourcePoolT extends ResourcePool> implements
+    NativeProtocol<Void, ResourcePoolT> {
+
+  private final BroadcastTranscript transcript;
+  private SecureBroadcastUtil broadcast;
+  private byte[] digest;
+
+  /**
+   * Creates new {@link BroadcastTranscriptValidationProtocol}.
+   *
+   * @param transcript transcript of the broadcasts received that need to be validated
+   */
+  public BroadcastTranscriptValidationProtocol(BroadcastTranscript transcript) {
+    this.transcript = transcript;
+  }
+
+  @Override
+  public Void out() {
+    throw new IllegalStateException("out() called on native protocol with void return");
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, ResourcePoolT resourcePool, Network network) {
+    if (round == 0) {
+      if (!transcript.hasPendingMessages()) {
+        return EvaluationStatus.IS_DONE;
+      }
+      broadcast = new SecureBroadcastUtil(network);
+      digest = transcript.digest();
+      broadcast.sendDigest(digest);
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      broadcast.receiveAndValidateDigests(digest);
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+}
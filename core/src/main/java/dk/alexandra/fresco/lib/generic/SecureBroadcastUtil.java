@@ -60,10 +60,18 @@ public class SecureBroadcastUtil {
    */
   public byte[] computeAndSendDigests(List<byte[]> messages) {
     byte[] digest = computeDigest(messages);
-    network.sendToAll(digest);
+    sendDigest(digest);
     return digest;
   }
 
+  /**
+   * Sends an already computed digest, such as that of a {@link BroadcastTranscript}, to other
+   * parties.
+   */
+  public void sendDigest(byte[] digest) {
+    network.sendToAll(digest);
+  }
+
   /**
    * Receives digests from other parties and checks that these are consistent with own digest.
    */
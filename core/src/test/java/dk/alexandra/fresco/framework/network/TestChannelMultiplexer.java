@@ -0,0 +1,108 @@
+package dk.alexandra.fresco.framework.network;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestChannelMultiplexer {
+
+  private ExecutorService executor;
+  private List<ChannelMultiplexer> multiplexers;
+
+  @Before
+  public void setUp() throws Exception {
+    executor = Executors.newCachedThreadPool();
+    Map<Integer, NetworkConfiguration> confs = NetworkUtil.getNetworkConfigurations(2);
+    List<Future<CloseableNetwork>> networks = new ArrayList<>();
+    for (int id = 1; id <= 2; id++) {
+      NetworkConfiguration conf = confs.get(id);
+      networks.add(executor.submit(() -> new SocketNetwork(conf)));
+    }
+    multiplexers = new ArrayList<>();
+    for (int id = 1; id <= 2; id++) {
+      multiplexers.add(new ChannelMultiplexer(id, networks.get(id - 1).get()));
+    }
+  }
+
+  @After
+  public void tearDown() {
+    multiplexers.forEach(ChannelMultiplexer::close);
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testChannelsAreSeparated() {
+    Network firstAtOne = multiplexers.get(0).openChannel(1);
+    Network secondAtOne = multiplexers.get(0).openChannel(2);
+    firstAtOne.send(2, new byte[]{1});
+    secondAtOne.send(2, new byte[]{2});
+    firstAtOne.send(2, new byte[]{3, 4});
+    Network secondAtTwo = multiplexers.get(1).openChannel(2);
+    Network firstAtTwo = multiplexers.get(1).openChannel(1);
+    assertArrayEquals(new byte[]{2}, secondAtTwo.receive(1));
+    assertArrayEquals(new byte[]{1}, firstAtTwo.receive(1));
+    assertArrayEquals(new byte[]{3, 4}, firstAtTwo.receive(1));
+  }
+
+  @Test
+  public void testSendToSelf() {
+    Network channel = multiplexers.get(0).openChannel(42);
+    channel.sendToAll(new byte[]{7});
+    assertArrayEquals(new byte[]{7}, channel.receive(1));
+    assertArrayEquals(new byte[]{7}, multiplexers.get(1).openChannel(42).receive(1));
+  }
+
+  @Test
+  public void testConcurrentChannels() throws Exception {
+    int channels = 8;
+    List<Future<byte[]>> received = new ArrayList<>();
+    for (int i = 0; i < channels; i++) {
+      final int channelId = i;
+      executor.submit(() -> multiplexers.get(1).openChannel(channelId)
+          .send(1, new byte[]{(byte) channelId}));
+      received.add(executor.submit(() -> multiplexers.get(0).openChannel(channelId).receive(2)));
+    }
+    for (int i = 0; i < channels; i++) {
+      assertArrayEquals(new byte[]{(byte) i}, received.get(i).get());
+    }
+  }
+
+  @Test
+  public void testLateMessageOnClosedChannelIsDropped() {
+    multiplexers.get(0).openChannel(1);
+    multiplexers.get(0).closeChannel(1);
+    multiplexers.get(1).openChannel(1).send(1, new byte[]{1});
+    // messages from one party are dispatched in order, so the late message has been handled once
+    // the next one is received
+    multiplexers.get(1).openChannel(2).send(1, new byte[]{2});
+    assertArrayEquals(new byte[]{2}, multiplexers.get(0).openChannel(2).receive(2));
+    Network reopened = multiplexers.get(0).openChannel(1);
+    multiplexers.get(1).openChannel(1).send(1, new byte[]{3});
+    assertArrayEquals(new byte[]{3}, reopened.receive(2));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReceiveOnClosedChannel() {
+    Network channel = multiplexers.get(0).openChannel(1);
+    multiplexers.get(0).closeChannel(1);
+    channel.receive(2);
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testReceiveAfterClose() {
+    Network channel = multiplexers.get(0).openChannel(1);
+    multiplexers.get(0).close();
+    channel.receive(2);
+  }
+}
@@ -64,9 +64,39 @@ public class TestAesCtrDrbg {
   }
 
   @Test(expected = IllegalArgumentException.class)
-  public void testNextBytesBounded() {
+  public void testNextBytesOutOfBounds() {
     AesCtrDrbg drbg = new AesCtrDrbg(new byte[32]);
-    drbg.nextBytesBounded(new byte[20], new byte[10]);
+    drbg.nextBytes(new byte[10], 5, 10);
+  }
+
+  @Test
+  public void testKnownAnswer() {
+    byte[] seed = new byte[32];
+    for (int i = 0; i < seed.length; i++) {
+      seed[i] = (byte) i;
+    }
+    byte[] bytes = new byte[16];
+    new AesCtrDrbg(seed).nextBytes(bytes);
+    assertArrayEquals(new byte[] {7, -2, -17, 116, -31, -43, 3, 110, -112, 14, -18, 17, -114,
+        -108, -110, -109}, bytes);
+  }
+
+  @Test
+  public void testNextBytesRangeMatchesNextBytes() {
+    byte[] seed = new byte[32];
+    new Random(7).nextBytes(seed);
+    AesCtrDrbg drbg = new AesCtrDrbg(seed);
+    AesCtrDrbg rangeDrbg = new AesCtrDrbg(seed);
+    // lengths below, at and above the update limit
+    for (int length : new int[] {0, 17, 1 << 16, (1 << 16) + 3, 3 * (1 << 16) + 1}) {
+      byte[] expected = new byte[length];
+      drbg.nextBytes(expected);
+      byte[] actual = new byte[length + 10];
+      rangeDrbg.nextBytes(actual, 4, length);
+      assertArrayEquals(expected, Arrays.copyOfRange(actual, 4, 4 + length));
+      assertArrayEquals(new byte[4], Arrays.copyOfRange(actual, 0, 4));
+      assertArrayEquals(new byte[6], Arrays.copyOfRange(actual, 4 + length, length + 10));
+    }
   }
 
   @Test
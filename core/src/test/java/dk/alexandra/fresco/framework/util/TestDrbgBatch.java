@@ -0,0 +1,53 @@
+package dk.alexandra.fresco.framework.util;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class TestDrbgBatch {
+
+  private static List<Drbg> drbgs(int size) {
+    List<Drbg> drbgs = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      drbgs.add(AesCtrDrbgFactory.fromDerivedSeed((byte) i));
+    }
+    return drbgs;
+  }
+
+  @Test
+  public void testRowsMatchIndividualDrbgs() {
+    int size = 9;
+    int rowLength = 100;
+    List<Drbg> expected = drbgs(size);
+    DrbgBatch batch = new DrbgBatch(drbgs(size));
+    for (int round = 0; round < 3; round++) {
+      byte[] rows = new byte[size * rowLength];
+      batch.nextBytes(rows, rowLength);
+      for (int i = 0; i < size; i++) {
+        byte[] row = new byte[rowLength];
+        expected.get(i).nextBytes(row);
+        assertArrayEquals(row, Arrays.copyOfRange(rows, i * rowLength, (i + 1) * rowLength));
+      }
+    }
+  }
+
+  @Test
+  public void testDefaultRangeNextBytes() {
+    // a DRBG which does not override the ranged nextBytes
+    Drbg drbg = new HmacDrbg(new byte[] {1, 2, 3});
+    Drbg expectedDrbg = new HmacDrbg(new byte[] {1, 2, 3});
+    byte[] expected = new byte[10];
+    expectedDrbg.nextBytes(expected);
+    byte[] actual = new byte[14];
+    drbg.nextBytes(actual, 2, 10);
+    assertArrayEquals(expected, Arrays.copyOfRange(actual, 2, 12));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongLength() {
+    new DrbgBatch(drbgs(2)).nextBytes(new byte[5], 3);
+  }
+}
@@ -0,0 +1,68 @@
+package dk.alexandra.fresco.framework.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.Test;
+
+public class TestFixedKeyAes {
+
+  private final byte[] key = {3, 1, 4, 1, 5, 9, 2, 6, 5, 3, 5, 8, 9, 7, 9, 3};
+
+  private byte[] aes(byte[] input) throws Exception {
+    Cipher cipher = Cipher.getInstance("AES/ECB/NoPadding");
+    cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"));
+    return cipher.doFinal(input);
+  }
+
+  @Test
+  public void testPermute() throws Exception {
+    byte[] input = new byte[5 * FixedKeyAes.BLOCK_BYTES];
+    new Random(1).nextBytes(input);
+    byte[] output = new byte[input.length + 4];
+    new FixedKeyAes(key).permute(input, 0, output, 4, input.length);
+    assertArrayEquals(aes(input), Arrays.copyOfRange(output, 4, output.length));
+    // in place
+    byte[] inPlace = input.clone();
+    new FixedKeyAes(key).permute(inPlace, 0, inPlace, 0, inPlace.length);
+    assertArrayEquals(aes(input), inPlace);
+  }
+
+  @Test
+  public void testHash() throws Exception {
+    long tweak = 42;
+    long high = 0x0123456789ABCDEFL;
+    long low = 0xFEDCBA9876543210L;
+    byte[] permuted = aes(ByteBuffer.allocate(16).putLong(high).putLong(low).array());
+    ByteBuffer masked = ByteBuffer.wrap(permuted.clone());
+    long permutedLow = masked.getLong(Long.BYTES);
+    masked.putLong(Long.BYTES, permutedLow ^ tweak);
+    byte[] expected = aes(masked.array());
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] ^= permuted[i];
+    }
+    long[] result = new long[3];
+    FixedKeyAes aes = new FixedKeyAes(key);
+    aes.hash(tweak, high, low, result, 1);
+    assertArrayEquals(expected, ByteBuffer.allocate(16).putLong(result[1]).putLong(result[2])
+        .array());
+    long[] otherTweak = new long[2];
+    aes.hash(tweak + 1, high, low, otherTweak, 0);
+    assertFalse(otherTweak[0] == result[1] && otherTweak[1] == result[2]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPartialBlock() {
+    new FixedKeyAes(key).permute(new byte[20], 0, new byte[20], 0, 20);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongKeyLength() {
+    new FixedKeyAes(new byte[32]);
+  }
+}
@@ -3,8 +3,10 @@ package dk.alexandra.fresco.framework.util;
 import static org.junit.Assert.assertEquals;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 
 public class TestMathUtils {
@@ -35,6 +37,22 @@ public class TestMathUtils {
     assertEquals(actual.pow(2).mod(bigModulus), value);
   }
 
+  @Test
+  public void testModularSqrtThreeModFour() {
+    BigInteger threeModFour = new BigInteger("103");
+    for (int i = 0; i < 103; i++) {
+      BigInteger value = BigInteger.valueOf(i).pow(2).mod(threeModFour);
+      BigInteger actual = MathUtils.modularSqrt(value, threeModFour);
+      assertEquals(value, actual.pow(2).mod(threeModFour));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testModularSqrtThreeModFourNoSqrt() {
+    // -1 is not a square modulo a prime which is 3 modulo 4
+    MathUtils.modularSqrt(new BigInteger("102"), new BigInteger("103"));
+  }
+
   @Test
   public void testSum() {
     List<BigInteger> summands = Arrays.asList(
@@ -54,4 +72,23 @@ public class TestMathUtils {
     MathUtils.modularSqrt(new BigInteger("23"), modulus);
   }
 
+  @Test
+  public void testMultiplyHighUnsigned() {
+    Random random = new Random(42);
+    List<Long> values = new ArrayList<>(
+        Arrays.asList(0L, 1L, -1L, Long.MAX_VALUE, Long.MIN_VALUE, 0xffffffffL));
+    for (int i = 0; i < 100; i++) {
+      values.add(random.nextLong());
+    }
+    for (long left : values) {
+      for (long right : values) {
+        BigInteger expected = unsigned(left).multiply(unsigned(right)).shiftRight(Long.SIZE);
+        assertEquals(expected, unsigned(MathUtils.multiplyHighUnsigned(left, right)));
+      }
+    }
+  }
+
+  private static BigInteger unsigned(long value) {
+    return new BigInteger(Long.toUnsignedString(value));
+  }
 }
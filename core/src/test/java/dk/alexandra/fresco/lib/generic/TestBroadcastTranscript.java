@@ -0,0 +1,118 @@
+package dk.alexandra.fresco.lib.generic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestBroadcastTranscript extends AbstractDummyArithmeticTest {
+
+  @Test
+  public void testDigestMatchesForSameMessages() {
+    BroadcastTranscript first = new BroadcastTranscript();
+    BroadcastTranscript second = new BroadcastTranscript();
+    first.update(new byte[]{1, 2});
+    first.update(new byte[]{3});
+    second.update(Arrays.asList(new byte[]{1, 2}, new byte[]{3}));
+    assertArrayEquals(first.digest(), second.digest());
+  }
+
+  @Test
+  public void testDigestDependsOnSplit() {
+    BroadcastTranscript first = new BroadcastTranscript();
+    BroadcastTranscript second = new BroadcastTranscript();
+    first.update(Arrays.asList(new byte[]{1, 2}, new byte[]{3}));
+    second.update(Arrays.asList(new byte[]{1}, new byte[]{2, 3}));
+    assertFalse(Arrays.equals(first.digest(), second.digest()));
+  }
+
+  @Test
+  public void testDigestResets() {
+    BroadcastTranscript transcript = new BroadcastTranscript();
+    assertFalse(transcript.hasPendingMessages());
+    transcript.update(new byte[]{1});
+    assertTrue(transcript.hasPendingMessages());
+    byte[] digest = transcript.digest();
+    assertFalse(transcript.hasPendingMessages());
+    transcript.update(new byte[]{1});
+    assertArrayEquals(digest, transcript.digest());
+  }
+
+  @Test
+  public void testEvaluateWithoutMessagesReturnsDone() {
+    EvaluationStatus status =
+        new BroadcastTranscriptValidationProtocol<>(new BroadcastTranscript())
+            .evaluate(0, null, null);
+    assertEquals(EvaluationStatus.IS_DONE, status);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testOutThrows() {
+    new BroadcastTranscriptValidationProtocol<>(new BroadcastTranscript()).out();
+  }
+
+  @Test
+  public void testValidTranscriptThree() {
+    runTest(new TestTranscriptValidation<>(false), EvaluationStrategy.SEQUENTIAL_BATCHED, 3);
+  }
+
+  @Test
+  public void testInvalidTranscriptThree() {
+    runTest(new TestTranscriptValidation<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED, 3);
+  }
+
+  private static class TestTranscriptValidation<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private final boolean corrupt;
+
+    TestTranscriptValidation(boolean corrupt) {
+      this.corrupt = corrupt;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          BroadcastTranscript transcript = new BroadcastTranscript();
+          Random random = new Random(42);
+          for (int i = 0; i < 10; i++) {
+            byte[] message = new byte[32];
+            random.nextBytes(message);
+            if (corrupt && i == 5 && conf.getMyId() == 2) {
+              message[0] = (byte) ~message[0];
+            }
+            transcript.update(message);
+          }
+          Application<Void, ProtocolBuilderNumeric> testApplication = root -> {
+            root.append(new BroadcastTranscriptValidationProtocol<>(transcript));
+            return () -> null;
+          };
+          boolean thrown = false;
+          try {
+            runApplication(testApplication);
+          } catch (Exception e) {
+            assertTrue(e.getCause() instanceof MaliciousException);
+            thrown = true;
+          }
+          assertEquals(corrupt, thrown);
+          assertFalse(transcript.hasPendingMessages());
+        }
+      };
+    }
+  }
+}
@@ -34,21 +34,19 @@ import dk.alexandra.fresco.suite.spdz.storage.SpdzMascotDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzOpenedValueStoreImpl;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzStorageDataSupplier;
 import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
-import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesNaorPinkasOt;
+import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesChouOrlandiOt;
 import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproResourcePool;
-import dk.alexandra.fresco.suite.tinytables.util.Util;
-import dk.alexandra.fresco.tools.ot.base.DhParameters;
-import dk.alexandra.fresco.tools.ot.base.NaorPinkasOt;
+import dk.alexandra.fresco.tools.ot.base.ChouOrlandiOt;
 import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotExtension;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.io.File;
 import java.math.BigInteger;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import javax.crypto.spec.DHParameterSpec;
 
 /**
  * Utility for reading all configuration from command line.
@@ -94,12 +92,20 @@ public class CmdLineProtocolSuite {
       String tinyTablesFilePath = properties.getProperty(tinytablesFileOption, "tinytables");
       this.protocolSuite = tinyTablesPreProFromCmdLine(properties);
       Drbg random = new AesCtrDrbg();
-      TinyTablesOt baseOt = new TinyTablesNaorPinkasOt(Util.otherPlayerId(myId), random,
-          DhParameters
-              .getStaticDhParams());
-      this.resourcePool = new TinyTablesPreproResourcePool(myId, baseOt,
+      Map<Integer, TinyTablesOt> baseOts = new HashMap<>();
+      for (int otherId = 1; otherId <= noOfPlayers; otherId++) {
+        if (otherId != myId) {
+          baseOts.put(otherId, new TinyTablesChouOrlandiOt(otherId, random));
+        }
+      }
+      boolean packed = Boolean.parseBoolean(properties.getProperty("tinytables.packed", "false"));
+      // TinyTables is semi-honest, so it may use the cheaper silent OT extension
+      boolean silentOt =
+          Boolean.parseBoolean(properties.getProperty("tinytables.silentot", "false"));
+      this.resourcePool = new TinyTablesPreproResourcePool(myId, noOfPlayers, baseOts,
           random, 128, 40, 16000, new File(
-              tinyTablesFilePath), networkSupplier);
+              tinyTablesFilePath), networkSupplier, packed,
+          silentOt ? RotExtension.SILENT : RotExtension.BRISTOL);
     } else {
       this.protocolSuite = tinyTablesFromCmdLine(properties);
       this.resourcePool = new ResourcePoolImpl(myId, noOfPlayers);
@@ -152,11 +158,9 @@ public class CmdLineProtocolSuite {
     if (strategy == PreprocessingStrategy.DUMMY) {
       supplier = new SpdzDummyDataSupplier(myId, noOfPlayers, definition, modulus);
     } else if (strategy == PreprocessingStrategy.STATIC) {
-      int noOfThreadsUsed = 1;
-      String storageName = SpdzStorageDataSupplier.STORAGE_NAME_PREFIX + noOfThreadsUsed + "_"
-              + myId + "_" + 0 + "_";
       supplier = new SpdzStorageDataSupplier(
-              new FilebasedStreamedStorageImpl(new InMemoryStorage()), storageName, noOfPlayers);
+              new FilebasedStreamedStorageImpl(new InMemoryStorage()), getStorageName(myId),
+              noOfPlayers);
     } else {
       // MASCOT preprocessing
       int prgSeedLength = 256;
@@ -188,6 +192,15 @@ public class CmdLineProtocolSuite {
         AesCtrDrbg::new);
   }
 
+  /**
+   * Gets the name of the storage read by the static SPDZ preprocessing strategy.
+   */
+  static String getStorageName(int myId) {
+    int noOfThreadsUsed = 1;
+    return SpdzStorageDataSupplier.STORAGE_NAME_PREFIX + noOfThreadsUsed + "_" + myId + "_" + 0
+        + "_";
+  }
+
   private DRes<List<DRes<SInt>>> createPipe(int pipeLength, Network network,
       SpdzResourcePool resourcePool) {
     SpdzProtocolSuite spdzProtocolSuite = (SpdzProtocolSuite) protocolSuite;
@@ -224,13 +237,12 @@ public class CmdLineProtocolSuite {
     return AesCtrDrbgFactory.fromDerivedSeed(seed);
   }
 
-  private Map<Integer, RotList> getSeedOts(int myId, int parties, int prgSeedLength, Drbg drbg,
+  static Map<Integer, RotList> getSeedOts(int myId, int parties, int prgSeedLength, Drbg drbg,
       Network network) {
     Map<Integer, RotList> seedOts = new HashMap<>();
     for (int otherId = 1; otherId <= parties; otherId++) {
       if (myId != otherId) {
-        DHParameterSpec dhSpec = DhParameters.getStaticDhParams();
-        Ot ot = new NaorPinkasOt(otherId, drbg, network, dhSpec);
+        Ot ot = new ChouOrlandiOt(otherId, drbg, network);
         RotList currentSeedOts = new RotList(drbg, prgSeedLength);
         if (myId < otherId) {
           currentSeedOts.send(ot);
@@ -252,7 +264,7 @@ public class CmdLineProtocolSuite {
   private ProtocolSuite<?, ?> tinyTablesFromCmdLine(Properties properties) {
     String tinytablesFileOption = "tinytables.file";
     String tinyTablesFilePath = properties.getProperty(tinytablesFileOption, "tinytables");
-    return new TinyTablesProtocolSuite(myId, new File(tinyTablesFilePath));
+    return new TinyTablesProtocolSuite(myId, new File(tinyTablesFilePath), true);
   }
 
 }
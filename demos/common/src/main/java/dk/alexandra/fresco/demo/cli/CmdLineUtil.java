@@ -164,12 +164,32 @@ public class CmdLineUtil<ResourcePoolT extends ResourcePool, BuilderT extends Pr
 
   private void parseAndSetupNetwork() throws ParseException {
     int myId = parseNonzeroInt("i");
-    final Map<Integer, Party> parties = new HashMap<>();
+    final Map<Integer, Party> parties = parseParties(this.cmd.getOptionValues("p"));
+    if (!parties.containsKey(myId)) {
+      throw new ParseException("This party is given the id " + myId
+          + " but this id is not present in the list of parties: " + parties.keySet());
+    }
+
+    this.networkConfiguration = new NetworkConfigurationImpl(myId, parties);
+    if (logPerformance) {
+      this.network = () -> new NetworkLoggingDecorator(new SocketNetwork(networkConfiguration));
+    } else {
+      this.network = () -> new SocketNetwork(networkConfiguration);
+    }
+  }
 
-    for (String partyOptions : this.cmd.getOptionValues("p")) {
-      String[] p = partyOptions.split(":");
+  /**
+   * Parses connection data of parties on the form [id]:[hostname]:[port].
+   *
+   * @param partyOptions the connection data of each party
+   * @return the parties indexed by id
+   */
+  static Map<Integer, Party> parseParties(String[] partyOptions) throws ParseException {
+    final Map<Integer, Party> parties = new HashMap<>();
+    for (String partyOption : partyOptions) {
+      String[] p = partyOption.split(":");
       if (p.length != 3) {
-        throw new ParseException("Could not parse '" + partyOptions
+        throw new ParseException("Could not parse '" + partyOption
             + "' as [id]:[host]:[port]");
       }
       try {
@@ -183,20 +203,10 @@ public class CmdLineUtil<ResourcePoolT extends ResourcePool, BuilderT extends Pr
         }
         parties.put(id, party);
       } catch (NumberFormatException | UnknownHostException e) {
-        throw new ParseException("Could not parse '" + partyOptions + "': " + e.getMessage());
+        throw new ParseException("Could not parse '" + partyOption + "': " + e.getMessage());
       }
     }
-    if (!parties.containsKey(myId)) {
-      throw new ParseException("This party is given the id " + myId
-          + " but this id is not present in the list of parties: " + parties.keySet());
-    }
-
-    this.networkConfiguration = new NetworkConfigurationImpl(myId, parties);
-    if (logPerformance) {
-      this.network = () -> new NetworkLoggingDecorator(new SocketNetwork(networkConfiguration));
-    } else {
-      this.network = () -> new SocketNetwork(networkConfiguration);
-    }
+    return parties;
   }
 
   private int getMaxBatchSize() throws ParseException {
@@ -0,0 +1,162 @@
+package dk.alexandra.fresco.demo.cli;
+
+import dk.alexandra.fresco.framework.Party;
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.configuration.NetworkConfigurationImpl;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
+import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.framework.sce.resources.storage.StreamedStorage;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.preprocessing.MascotPreprocessingWriter;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzMascotDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzStorageDataSupplier;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+/**
+ * Standalone runner generating SPDZ preprocessed material with MASCOT.
+ *
+ * <p>Each party runs this with the same arguments except for its id. The material is written to
+ * the folder {@value SpdzStorageDataSupplier#STORAGE_FOLDER} in the working directory, in the
+ * format read by {@link SpdzStorageDataSupplier}, and can later be used by the online phase with
+ * the SPDZ preprocessing strategy <code>STATIC</code> (<code>-Dspdz.preprocessingStrategy=STATIC
+ * </code>). This allows preprocessing to run ahead of time, e.g. overnight, so the online phase
+ * only has to read the material. Exponentiation pipes are not generated, since they are computed
+ * using the online phase.</p>
+ */
+public class MascotPreprocessingRunner {
+
+  private static final int PRG_SEED_LENGTH = 256;
+
+  private MascotPreprocessingRunner() {
+  }
+
+  private static Options buildOptions() {
+    Options options = new Options();
+    options.addOption(
+        Option.builder("i").desc("The id of this player. Must be a unique positive integer.")
+            .longOpt("id").required(true).hasArg().build());
+    options.addOption(Option.builder("p")
+        .desc("Connection data for a party. Use -p multiple times to specify many players. "
+            + "Must be on the form [id]:[hostname]:[port].")
+        .longOpt("party").required(true).hasArgs().build());
+    options.addOption(Option.builder("m")
+        .desc("Bit length of the modulus. Defaults to 128.")
+        .longOpt("mod-bit-length").hasArg().build());
+    options.addOption(Option.builder("t")
+        .desc("Number of multiplication triples to generate. Defaults to 0.")
+        .longOpt("triples").hasArg().build());
+    options.addOption(Option.builder("n")
+        .desc("Number of input masks to generate towards each party. Defaults to 0.")
+        .longOpt("input-masks").hasArg().build());
+    options.addOption(Option.builder("b")
+        .desc("Number of random bits to generate. Defaults to 0.")
+        .longOpt("bits").hasArg().build());
+    options.addOption(Option.builder("r")
+        .desc("Number of random elements to generate. Defaults to 0.")
+        .longOpt("random-elements").hasArg().build());
+    options.addOption(Option.builder("c")
+        .desc("Number of elements generated by MASCOT at a time. Defaults to 1024.")
+        .longOpt("batch-size").hasArg().build());
+    return options;
+  }
+
+  private static int parseInt(CommandLine cmd, String option, int defaultValue, int minimum)
+      throws ParseException {
+    if (!cmd.hasOption(option)) {
+      return defaultValue;
+    }
+    try {
+      int value = Integer.parseInt(cmd.getOptionValue(option));
+      if (value < minimum) {
+        throw new ParseException(option + " must be at least " + minimum);
+      }
+      return value;
+    } catch (NumberFormatException e) {
+      throw new ParseException(
+          "Cannot parse '" + cmd.getOptionValue(option) + "' as an integer");
+    }
+  }
+
+  /**
+   * Runs MASCOT and writes the preprocessed material.
+   *
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) throws IOException {
+    Options options = buildOptions();
+    int myId;
+    Map<Integer, Party> parties;
+    int modBitLength;
+    int triples;
+    int inputMasks;
+    int bits;
+    int randomElements;
+    int batchSize;
+    try {
+      CommandLine cmd = new DefaultParser().parse(options, args);
+      myId = parseInt(cmd, "i", 0, 1);
+      parties = CmdLineUtil.parseParties(cmd.getOptionValues("p"));
+      if (!parties.containsKey(myId)) {
+        throw new ParseException("This party is given the id " + myId
+            + " but this id is not present in the list of parties: " + parties.keySet());
+      }
+      modBitLength = parseInt(cmd, "m", 128, 8);
+      triples = parseInt(cmd, "t", 0, 0);
+      inputMasks = parseInt(cmd, "n", 0, 0);
+      bits = parseInt(cmd, "b", 0, 0);
+      randomElements = parseInt(cmd, "r", 0, 0);
+      batchSize = parseInt(cmd, "c", 1024, 1);
+    } catch (ParseException e) {
+      System.err.println("Error while parsing arguments: " + e.getLocalizedMessage());
+      System.err.println();
+      new HelpFormatter().printHelp("java -cp <jar> " + MascotPreprocessingRunner.class.getName(),
+          options);
+      throw new IllegalArgumentException("Error while parsing arguments: "
+          + e.getLocalizedMessage(), e);
+    }
+    int noOfParties = parties.size();
+    FieldDefinition definition =
+        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(modBitLength));
+    try (CloseableNetwork network =
+        new SocketNetwork(new NetworkConfigurationImpl(myId, parties))) {
+      Drbg drbg = new AesCtrDrbg();
+      Map<Integer, RotList> seedOts =
+          CmdLineProtocolSuite.getSeedOts(myId, noOfParties, PRG_SEED_LENGTH, drbg, network);
+      FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
+      try (MascotResourcePoolImpl resourcePool = new MascotResourcePoolImpl(myId, noOfParties, 1,
+          drbg, seedOts, new MascotSecurityParameters(), definition, true)) {
+        Mascot mascot = new Mascot(resourcePool, network, ssk);
+        new File(SpdzStorageDataSupplier.STORAGE_FOLDER).mkdirs();
+        StreamedStorage storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+        MascotPreprocessingWriter writer = new MascotPreprocessingWriter(mascot, storage,
+            CmdLineProtocolSuite.getStorageName(myId), batchSize);
+        writer.writeKeys(definition, ssk);
+        writer.writeTriples(triples);
+        for (int partyId = 1; partyId <= noOfParties; partyId++) {
+          writer.writeInputMasks(partyId, inputMasks);
+        }
+        writer.writeBits(bits);
+        writer.writeRandomElements(randomElements);
+        storage.shutdown();
+      }
+    }
+  }
+}
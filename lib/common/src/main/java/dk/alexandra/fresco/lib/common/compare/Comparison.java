@@ -11,13 +11,15 @@ import dk.alexandra.fresco.framework.value.SInt;
 public interface Comparison extends ComputationDirectory {
 
   /**
-   * Create a new Comparison using the given builder.
+   * Create a new Comparison using the given builder. If the protocol suite of the builder supplies
+   * its own implementation of this directory, that is used instead of {@link DefaultComparison}.
    *
    * @param builder The root builder to use.
    * @return A new Comparison computation directory.
    */
   static Comparison using(ProtocolBuilderNumeric builder) {
-    return new DefaultComparison(builder);
+    return builder.computationDirectory(Comparison.class)
+        .orElseGet(() -> new DefaultComparison(builder));
   }
 
   /**
@@ -14,13 +14,16 @@ import java.util.List;
 public interface AdvancedNumeric extends ComputationDirectory {
 
   /**
-   * Create a new AdvancedNumeric using the given builder.
+   * Create a new AdvancedNumeric using the given builder. If the protocol suite of the builder
+   * supplies its own implementation of this directory, that is used instead of {@link
+   * DefaultAdvancedNumeric}.
    *
    * @param builder The root builder to use.
    * @return A new AdvancedNumeric computation directory.
    */
   static AdvancedNumeric using(ProtocolBuilderNumeric builder) {
-    return new DefaultAdvancedNumeric(builder);
+    return builder.computationDirectory(AdvancedNumeric.class)
+        .orElseGet(() -> new DefaultAdvancedNumeric(builder));
   }
 
   /**
@@ -38,7 +38,7 @@ public class DefaultAdvancedNumeric implements AdvancedNumeric {
 
   private final ProtocolBuilderNumeric builder;
 
-  DefaultAdvancedNumeric(ProtocolBuilderNumeric builder) {
+  protected DefaultAdvancedNumeric(ProtocolBuilderNumeric builder) {
     this.builder = builder;
   }
 
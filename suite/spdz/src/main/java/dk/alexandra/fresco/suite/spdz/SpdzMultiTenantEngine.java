@@ -0,0 +1,176 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.BuilderFactory;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.ProtocolEvaluator;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.network.ChannelMultiplexer;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzOpenedValueStoreImpl;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzSharedDataPool;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Engine running several SPDZ applications concurrently on top of a single set of peer connections
+ * and a single source of pre-processed material.
+ *
+ * <p>Each application is identified by a session id which must be agreed upon by all parties and
+ * must not be reused while the session is running. Every session gets its own channel on the
+ * shared network, its own {@link SpdzOpenedValueStoreImpl} and thus its own MAC check schedule,
+ * while triples, masks, bits etc. are drawn from a {@link SpdzSharedDataPool}.</p>
+ */
+public class SpdzMultiTenantEngine implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(SpdzMultiTenantEngine.class);
+  private static final AtomicInteger threadCounter = new AtomicInteger(1);
+  private static final int CONTROL_CHANNEL = 0;
+  private static final int DEFAULT_CHUNK_SIZE = 128;
+
+  private final int myId;
+  private final int noOfParties;
+  private final SpdzProtocolSuite protocolSuite;
+  private final ProtocolEvaluator<SpdzResourcePool> evaluator;
+  private final Function<byte[], Drbg> drbgSupplier;
+  private final ChannelMultiplexer multiplexer;
+  private final SpdzSharedDataPool pool;
+  private final Set<Integer> activeSessions;
+  private final ExecutorService executorService;
+
+  /**
+   * Creates a new engine.
+   *
+   * @param myId the id of this party
+   * @param network the network connecting this party to all others. Owned by the engine from this
+   *     point on.
+   * @param protocolSuite the protocol suite to evaluate applications with
+   * @param supplier the supplier of pre-processed material shared by all sessions
+   * @param drbgSupplier function instantiating DRBG with given seed
+   * @param chunkSize number of elements of pre-processed material handed to a session at a time
+   */
+  public SpdzMultiTenantEngine(int myId, CloseableNetwork network,
+      SpdzProtocolSuite protocolSuite, SpdzDataSupplier supplier,
+      Function<byte[], Drbg> drbgSupplier, int chunkSize) {
+    this.myId = myId;
+    this.noOfParties = network.getNoOfParties();
+    this.protocolSuite = protocolSuite;
+    this.evaluator = new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), protocolSuite);
+    this.drbgSupplier = drbgSupplier;
+    this.multiplexer = new ChannelMultiplexer(myId, network);
+    this.pool = new SpdzSharedDataPool(myId, supplier, multiplexer.openChannel(CONTROL_CHANNEL),
+        chunkSize);
+    this.activeSessions = ConcurrentHashMap.newKeySet();
+    this.executorService = Executors.newCachedThreadPool(r -> {
+      Thread thread = new Thread(r, "SpdzMultiTenant-" + threadCounter.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Default call to {@link #SpdzMultiTenantEngine(int, CloseableNetwork, SpdzProtocolSuite,
+   * SpdzDataSupplier, Function, int)} with default chunk size.
+   */
+  public SpdzMultiTenantEngine(int myId, CloseableNetwork network,
+      SpdzProtocolSuite protocolSuite, SpdzDataSupplier supplier,
+      Function<byte[], Drbg> drbgSupplier) {
+    this(myId, network, protocolSuite, supplier, drbgSupplier, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Starts evaluating an application in a new session.
+   *
+   * @param sessionId non-negative id of the session, agreed upon by all parties
+   * @param application the application to evaluate
+   * @return a future holding the output of the application
+   */
+  public <OutputT> Future<OutputT> startApplication(int sessionId,
+      Application<OutputT, ProtocolBuilderNumeric> application) {
+    if (sessionId < 0) {
+      throw new IllegalArgumentException("Session id must be non-negative, but was " + sessionId);
+    }
+    if (!activeSessions.add(sessionId)) {
+      throw new IllegalArgumentException("Session " + sessionId + " is already running");
+    }
+    Callable<OutputT> callable = () -> {
+      try {
+        return evalApplication(sessionId, application).out();
+      } finally {
+        pool.closeSession(sessionId);
+        multiplexer.closeChannel(toChannel(sessionId));
+        activeSessions.remove(sessionId);
+      }
+    };
+    return executorService.submit(callable);
+  }
+
+  /**
+   * Evaluates an application in a new session and waits for its output.
+   *
+   * @param sessionId non-negative id of the session, agreed upon by all parties
+   * @param application the application to evaluate
+   * @param timeout maximum time to wait for the output
+   * @return the output of the application
+   */
+  public <OutputT> OutputT runApplication(int sessionId,
+      Application<OutputT, ProtocolBuilderNumeric> application, Duration timeout) {
+    Future<OutputT> future = startApplication(sessionId, application);
+    try {
+      return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException | TimeoutException e) {
+      throw new RuntimeException("Internal error in waiting", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Execution exception when running the application", e.getCause());
+    }
+  }
+
+  /**
+   * Stops accepting applications and closes the shared network.
+   */
+  @Override
+  public void close() {
+    executorService.shutdown();
+    pool.close();
+    multiplexer.close();
+  }
+
+  private <OutputT> DRes<OutputT> evalApplication(int sessionId,
+      Application<OutputT, ProtocolBuilderNumeric> application) {
+    logger.info("Running application {} in session {}", application, sessionId);
+    SpdzResourcePool resourcePool = new SpdzResourcePoolImpl(myId, noOfParties,
+        new SpdzOpenedValueStoreImpl(), pool.openSession(sessionId), drbgSupplier);
+    Network network = multiplexer.openChannel(toChannel(sessionId));
+    BuilderFactory<ProtocolBuilderNumeric> builderFactory = protocolSuite.init(resourcePool);
+    ProtocolBuilderNumeric builder = builderFactory.createSequential();
+    DRes<OutputT> output = application.buildComputation(builder);
+    long then = System.currentTimeMillis();
+    evaluator.eval(builder.build(), resourcePool, network);
+    logger.info("The application {} in session {} finished evaluation in {} ms.", application,
+        sessionId, System.currentTimeMillis() - then);
+    application.close();
+    return output;
+  }
+
+  private static int toChannel(int sessionId) {
+    return sessionId + 1;
+  }
+}
@@ -4,9 +4,9 @@ import dk.alexandra.fresco.framework.builder.numeric.NumericResourcePool;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.lib.generic.BroadcastTranscript;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
-import java.security.MessageDigest;
 
 /**
  * The resource pool for Spdz. Represents the resources used for on invocation of the spdz protocol
@@ -15,11 +15,13 @@ import java.security.MessageDigest;
 public interface SpdzResourcePool extends NumericResourcePool {
 
   /**
-   * Gets the message digest for this protocol suite invocation.
+   * Returns the transcript of the broadcasts received in this session. <p>Input protocols record
+   * the masked inputs they receive in it, and the transcript is validated lazily by the round
+   * synchronization, before any mac check or output, rather than once per input.</p>
    *
-   * @return the message digest
+   * @return the broadcast transcript
    */
-  MessageDigest getMessageDigest();
+  BroadcastTranscript getBroadcastTranscript();
 
   /**
    * Creates new DRBG, given a seed.
@@ -4,18 +4,17 @@ import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.util.Drbg;
-import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.lib.generic.BroadcastTranscript;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
-import java.security.MessageDigest;
 import java.util.function.Function;
 
 public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResourcePool {
 
   private static final int DRBG_SEED_LENGTH = 256;
 
-  private final MessageDigest messageDigest;
+  private final BroadcastTranscript broadcastTranscript;
   private final OpenedValueStore<SpdzSInt, FieldElement> openedValueStore;
   private final SpdzDataSupplier dataSupplier;
   private final Function<byte[], Drbg> drbgSupplier;
@@ -37,9 +36,7 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
     super(myId, noOfPlayers);
     this.dataSupplier = dataSupplier;
     this.openedValueStore = openedValueStore;
-    this.messageDigest = ExceptionConverter.safe(
-        () -> MessageDigest.getInstance("SHA-256"),
-        "Configuration error, SHA-256 is needed for Spdz");
+    this.broadcastTranscript = new BroadcastTranscript();
     this.drbgSupplier = drbgSupplier;
     this.drbgSeedBitLength = drbgSeedBitLength;
   }
@@ -75,8 +72,8 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
   }
 
   @Override
-  public MessageDigest getMessageDigest() {
-    return messageDigest;
+  public BroadcastTranscript getBroadcastTranscript() {
+    return broadcastTranscript;
   }
 
   @Override
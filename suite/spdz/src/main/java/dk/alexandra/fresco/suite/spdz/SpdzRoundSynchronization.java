@@ -8,6 +8,7 @@ import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.lib.generic.BroadcastTranscript;
 import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMacCheckProtocol;
@@ -17,7 +18,8 @@ import java.util.stream.StreamSupport;
 
 /**
  * A default implementation of the round synchronization for spdz - mostly doing the MAC check if
- * needed.
+ * needed. <p>Before each MAC check, and at the end of the evaluation, the broadcasts recorded in
+ * the {@link BroadcastTranscript} of the resource pool are validated.</p>
  */
 public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResourcePool> {
 
@@ -69,20 +71,26 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
     evaluator.eval(sequential.build(), resourcePool, network);
   }
 
+  private void validateAndMacCheck(SpdzResourcePool resourcePool, Network network) {
+    resourcePool.getBroadcastTranscript().validate(network);
+    doMacCheck(resourcePool, network);
+  }
+
   @Override
   public void finishedBatch(int gatesEvaluated, SpdzResourcePool resourcePool, Network network) {
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
     if (isCheckRequired) {
-      doMacCheck(resourcePool, network);
+      validateAndMacCheck(resourcePool, network);
       isCheckRequired = false;
     } else if (store.exceedsThreshold(openValueThreshold)) {
-      doMacCheck(resourcePool, network);
+      validateAndMacCheck(resourcePool, network);
       isCheckRequired = false;
     }
   }
 
   @Override
   public void finishedEval(SpdzResourcePool resourcePool, Network network) {
+    resourcePool.getBroadcastTranscript().validate(network);
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
     if (store.hasPendingValues()) {
       doMacCheck(resourcePool, network);
@@ -97,7 +105,7 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
         .anyMatch(p -> p instanceof SpdzOutputProtocol);
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
     if (store.hasPendingValues() && isCheckRequired) {
-      doMacCheck(resourcePool, network);
+      validateAndMacCheck(resourcePool, network);
     }
   }
 
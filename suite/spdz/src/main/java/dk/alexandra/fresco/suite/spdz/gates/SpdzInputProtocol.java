@@ -1,6 +1,5 @@
 package dk.alexandra.fresco.suite.spdz.gates;
 
-import dk.alexandra.fresco.framework.MaliciousException;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
@@ -11,6 +10,13 @@ import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import java.math.BigInteger;
 
+/**
+ * Native protocol for inputting data. <p>The input party broadcasts its input masked by an input
+ * mask. Rather than validating the broadcast here, which would cost an extra round per input, the
+ * masked input is recorded in the session's {@link
+ * dk.alexandra.fresco.lib.generic.BroadcastTranscript}, which the round synchronization validates
+ * before any mac check or output.</p>
+ */
 public class SpdzInputProtocol extends SpdzNativeProtocol<SInt> {
 
   private SpdzInputMask inputMask; // is opened by this gate.
@@ -18,7 +24,6 @@ public class SpdzInputProtocol extends SpdzNativeProtocol<SInt> {
   private FieldElement valueMasked;
   protected SpdzSInt out;
   private int inputter;
-  private byte[] digest;
 
   public SpdzInputProtocol(BigInteger input, int inputter) {
     this.input = input;
@@ -39,17 +44,10 @@ public class SpdzInputProtocol extends SpdzNativeProtocol<SInt> {
         network.sendToAll(serializer.serialize(bcValue));
       }
       return EvaluationStatus.HAS_MORE_ROUNDS;
-    } else if (round == 1) {
+    } else {
       byte[] receivedBytes = network.receive(inputter);
+      spdzResourcePool.getBroadcastTranscript().update(receivedBytes);
       this.valueMasked = serializer.deserialize(receivedBytes);
-      this.digest =
-          sendBroadcastValidation(spdzResourcePool.getMessageDigest(), network, receivedBytes);
-      return EvaluationStatus.HAS_MORE_ROUNDS;
-    } else {
-      boolean validated = receiveBroadcastValidation(network, digest);
-      if (!validated) {
-        throw new MaliciousException("Broadcast digests did not match");
-      }
       FieldElement maskedValue = dataSupplier.getSecretSharedKey().multiply(valueMasked);
       SpdzSInt valueMaskedElement = new SpdzSInt(valueMasked, maskedValue);
       this.out = this.inputMask.getMask().add(valueMaskedElement, myId);
@@ -0,0 +1,131 @@
+package dk.alexandra.fresco.suite.spdz.preprocessing;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.sce.resources.storage.StreamedStorage;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzStorageDataSupplier;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.InputMask;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates preprocessed material with {@link Mascot} ahead of time and writes it to a
+ * {@link StreamedStorage} in the format read by {@link SpdzStorageDataSupplier}.
+ *
+ * <p>This allows the preprocessing to be run offline, e.g. in a separate process, and the online
+ * phase to later run on the stored material with the static preprocessing strategy. All parties
+ * must request the same amounts of material in the same order, since the underlying MASCOT
+ * protocols are interactive. Material is generated and written in batches, so only a single
+ * batch is kept in memory at a time.</p>
+ */
+public class MascotPreprocessingWriter {
+
+  private static final Logger logger = LoggerFactory.getLogger(MascotPreprocessingWriter.class);
+  private final Mascot mascot;
+  private final StreamedStorage storage;
+  private final String storageName;
+  private final int batchSize;
+
+  /**
+   * Creates a new writer.
+   *
+   * @param mascot the MASCOT instance generating the material
+   * @param storage the storage to write to
+   * @param storageName the name of the storage to write to, i.e. the storage name later given to
+   *     {@link SpdzStorageDataSupplier}
+   * @param batchSize number of elements generated by MASCOT at a time
+   */
+  public MascotPreprocessingWriter(Mascot mascot, StreamedStorage storage, String storageName,
+      int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize);
+    }
+    this.mascot = mascot;
+    this.storage = storage;
+    this.storageName = storageName;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Writes the modulus and the mac key share of this party. This must be written once for each
+   * storage.
+   *
+   * @param definition the field definition used by MASCOT
+   * @param macKeyShare the mac key share used by MASCOT
+   */
+  public void writeKeys(FieldDefinition definition, FieldElement macKeyShare) {
+    storage.putNext(storageName + SpdzStorageDataSupplier.MODULUS_KEY, definition.getModulus());
+    storage.putNext(storageName + SpdzStorageDataSupplier.SSK_KEY, macKeyShare);
+  }
+
+  /**
+   * Generates and writes multiplication triples.
+   *
+   * @param numTriples number of triples
+   */
+  public void writeTriples(int numTriples) {
+    Iterator<MultiplicationTriple> triples = mascot.tripleIterator(numTriples, batchSize);
+    int written = 0;
+    while (triples.hasNext()) {
+      storage.putNext(storageName + SpdzStorageDataSupplier.TRIPLE_STORAGE,
+          MascotFormatConverter.toSpdzTriple(triples.next()));
+      if (++written % batchSize == 0 || written == numTriples) {
+        logger.debug("Wrote " + written + " of " + numTriples + " triples");
+      }
+    }
+  }
+
+  /**
+   * Generates and writes input masks towards a party.
+   *
+   * @param towardsPartyId the id of the party the masks are opened to
+   * @param numMasks number of masks
+   */
+  public void writeInputMasks(int towardsPartyId, int numMasks) {
+    write("input masks towards " + towardsPartyId, numMasks,
+        batch -> mascot.getInputMasks(towardsPartyId, batch),
+        (InputMask mask) -> storage.putNext(
+            storageName + SpdzStorageDataSupplier.INPUT_STORAGE + towardsPartyId,
+            MascotFormatConverter.toSpdzInputMask(mask)));
+  }
+
+  /**
+   * Generates and writes random bits.
+   *
+   * @param numBits number of bits
+   */
+  public void writeBits(int numBits) {
+    write("bits", numBits, mascot::getRandomBits, (AuthenticatedElement bit) -> storage.putNext(
+        storageName + SpdzStorageDataSupplier.BIT_STORAGE, MascotFormatConverter.toSpdzSInt(bit)));
+  }
+
+  /**
+   * Generates and writes random elements.
+   *
+   * @param numElements number of elements
+   */
+  public void writeRandomElements(int numElements) {
+    write("random elements", numElements, mascot::getRandomElements,
+        (AuthenticatedElement element) -> storage.putNext(
+            storageName + SpdzStorageDataSupplier.RANDOM_ELEMENT_STORAGE,
+            MascotFormatConverter.toSpdzSInt(element)));
+  }
+
+  private <T> void write(String description, int amount, IntFunction<List<T>> generator,
+      Consumer<T> writer) {
+    int written = 0;
+    while (written < amount) {
+      int batch = Math.min(batchSize, amount - written);
+      generator.apply(batch).forEach(writer);
+      written += batch;
+      logger.debug("Wrote " + written + " of " + amount + " " + description);
+    }
+  }
+}
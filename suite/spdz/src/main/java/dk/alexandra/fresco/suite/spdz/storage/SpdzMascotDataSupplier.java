@@ -21,6 +21,7 @@ import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.security.SecureRandom;
 import java.util.ArrayDeque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -41,7 +42,6 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
   private final Function<Integer, SpdzSInt[]> preprocessedValues;
   private final FieldElement ssk;
 
-  private final ArrayDeque<MultiplicationTriple> triples;
   private final Map<Integer, ArrayDeque<InputMask>> masks;
   private final ArrayDeque<AuthenticatedElement> randomElements;
   private final ArrayDeque<AuthenticatedElement> randomBits;
@@ -51,6 +51,7 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
   private final Drbg drbg;
   private final Map<Integer, RotList> seedOts;
   private Mascot mascot;
+  private Iterator<MultiplicationTriple> triples;
 
   /**
    * Creates {@link SpdzMascotDataSupplier}.
@@ -63,7 +64,9 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
    * @param modBitLength bit length of modulus
    * @param preprocessedValues callback to generate exponentiation pipes
    * @param prgSeedLength bit length of prg
-   * @param batchSize batch size in which Mascot will generate pre-processed material
+   * @param batchSize batch size in which Mascot will generate pre-processed material. Triples
+   *     are generated lazily, in batches of exactly this size (see {@link
+   *     Mascot#tripleIterator(long, int, int)})
    * @param ssk mac key share
    * @param seedOts pre-computed base OTs
    * @param drbg source of randomness
@@ -78,7 +81,6 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     this.tripleNetwork = tripleNetwork;
     this.fieldDefinition = fieldDefinition;
     this.preprocessedValues = preprocessedValues;
-    this.triples = new ArrayDeque<>();
     this.masks = new HashMap<>();
     for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
       masks.put(partyId, new ArrayDeque<>());
@@ -119,13 +121,7 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
   @Override
   public SpdzTriple getNextTriple() {
     ensureInitialized();
-    if (triples.isEmpty()) {
-      logger.trace("Getting another triple batch");
-      triples.addAll(mascot.getTriples(batchSize));
-      logger.trace("Got another triple batch");
-    }
-    MultiplicationTriple triple = triples.pop();
-    return MascotFormatConverter.toSpdzTriple(triple);
+    return MascotFormatConverter.toSpdzTriple(triples.next());
   }
 
   @Override
@@ -189,5 +185,6 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
         new MascotResourcePoolImpl(myId, numberOfPlayers, instanceId, drbg, seedOts,
             new MascotSecurityParameters(modBitLength, prgSeedLength,
                 numCandidatesPerTriple), this.fieldDefinition), tripleNetwork.get(), ssk);
+    triples = mascot.tripleIterator(Long.MAX_VALUE, batchSize, batchSize);
   }
 }
@@ -0,0 +1,273 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A thread-safe pool of pre-processed material shared by several concurrently running SPDZ
+ * applications.
+ *
+ * <p>Material is drawn from a single underlying {@link SpdzDataSupplier} and handed out to
+ * sessions in chunks. Since all parties must use matching shares, the order in which chunks are
+ * drawn from the underlying supplier must be the same at all parties. To ensure this, party 1
+ * acts as leader: whenever one of its sessions needs a new chunk, it draws the chunk and announces
+ * the session, sequence number and kind of the chunk on a dedicated control channel. All other
+ * parties run a background thread which draws chunks in the announced order and sets them aside
+ * for the session that will ask for it.</p>
+ *
+ * <p>Each application must be given a session id agreed upon by all parties, and the applications
+ * themselves must be deterministic, so that the n'th chunk requested by a session is of the same
+ * kind at all parties.</p>
+ */
+public class SpdzSharedDataPool implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(SpdzSharedDataPool.class);
+  private static final int LEADER_ID = 1;
+  private static final int TRIPLE = -1;
+  private static final int BIT = -2;
+  private static final int RANDOM_ELEMENT = -3;
+  private static final int EXP_PIPE = -4;
+
+  private final int myId;
+  private final SpdzDataSupplier supplier;
+  private final Network controlNetwork;
+  private final int chunkSize;
+  private final Map<Integer, Map<Integer, Chunk>> announced;
+  private final Thread follower;
+  private volatile boolean alive;
+
+  /**
+   * Creates a new pool.
+   *
+   * @param myId the id of this party
+   * @param supplier the underlying supplier of pre-processed material. Will only be accessed by
+   *     one thread at a time.
+   * @param controlNetwork network used exclusively by the pool to announce drawn chunks
+   * @param chunkSize number of elements handed out to a session at a time
+   */
+  public SpdzSharedDataPool(int myId, SpdzDataSupplier supplier, Network controlNetwork,
+      int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive, but was " + chunkSize);
+    }
+    this.myId = myId;
+    this.supplier = Objects.requireNonNull(supplier);
+    this.controlNetwork = Objects.requireNonNull(controlNetwork);
+    this.chunkSize = chunkSize;
+    this.announced = new HashMap<>();
+    this.alive = true;
+    if (myId == LEADER_ID) {
+      this.follower = null;
+    } else {
+      this.follower = new Thread(this::follow);
+      this.follower.setDaemon(true);
+      this.follower.setName("SpdzSharedDataPool-P" + myId);
+      this.follower.start();
+    }
+  }
+
+  /**
+   * Creates a {@link SpdzDataSupplier} for a single session, drawing its material from this pool.
+   *
+   * <p>The returned supplier must only be used by the application running the session.</p>
+   *
+   * @param sessionId id of the session, agreed upon by all parties
+   * @return a data supplier
+   */
+  public SpdzDataSupplier openSession(int sessionId) {
+    return new SessionDataSupplier(sessionId);
+  }
+
+  /**
+   * Discards any material set aside for the given session.
+   *
+   * @param sessionId id of the session
+   */
+  public void closeSession(int sessionId) {
+    synchronized (announced) {
+      announced.remove(sessionId);
+    }
+  }
+
+  /**
+   * Stops following the announcements of the leader.
+   */
+  @Override
+  public void close() {
+    alive = false;
+    if (follower != null) {
+      follower.interrupt();
+    }
+  }
+
+  private void follow() {
+    try {
+      while (alive) {
+        ByteBuffer announcement = ByteBuffer.wrap(controlNetwork.receive(LEADER_ID));
+        int sessionId = announcement.getInt();
+        int sequenceNumber = announcement.getInt();
+        int kind = announcement.getInt();
+        Chunk chunk = draw(kind);
+        synchronized (announced) {
+          announced.computeIfAbsent(sessionId, id -> new HashMap<>()).put(sequenceNumber, chunk);
+          announced.notifyAll();
+        }
+      }
+    } catch (RuntimeException e) {
+      if (alive) {
+        logger.error("P{}: Stopped following the pre-processing announcements", myId, e);
+        alive = false;
+        synchronized (announced) {
+          announced.notifyAll();
+        }
+      }
+    }
+  }
+
+  private Chunk lease(int sessionId, int sequenceNumber, int kind) {
+    if (myId == LEADER_ID) {
+      synchronized (supplier) {
+        Chunk chunk = draw(kind);
+        byte[] announcement = ByteBuffer.allocate(3 * Integer.BYTES)
+            .putInt(sessionId)
+            .putInt(sequenceNumber)
+            .putInt(kind)
+            .array();
+        for (int partyId = 1; partyId <= controlNetwork.getNoOfParties(); partyId++) {
+          if (partyId != myId) {
+            controlNetwork.send(partyId, announcement);
+          }
+        }
+        return chunk;
+      }
+    } else {
+      synchronized (announced) {
+        Chunk chunk = removeAnnounced(sessionId, sequenceNumber);
+        while (chunk == null) {
+          if (!alive) {
+            throw new IllegalStateException("Pre-processing pool is closed");
+          }
+          try {
+            announced.wait();
+          } catch (InterruptedException e) {
+            throw new RuntimeException("Interrupted while waiting for pre-processed material", e);
+          }
+          chunk = removeAnnounced(sessionId, sequenceNumber);
+        }
+        if (chunk.kind != kind) {
+          throw new IllegalStateException("Session " + sessionId + " requested material of kind "
+              + kind + " but leader announced kind " + chunk.kind);
+        }
+        return chunk;
+      }
+    }
+  }
+
+  private Chunk removeAnnounced(int sessionId, int sequenceNumber) {
+    Map<Integer, Chunk> chunks = announced.get(sessionId);
+    return chunks == null ? null : chunks.remove(sequenceNumber);
+  }
+
+  private Chunk draw(int kind) {
+    synchronized (supplier) {
+      if (kind == EXP_PIPE) {
+        return new Chunk(kind, supplier::getNextExpPipe, 1);
+      } else if (kind == TRIPLE) {
+        return new Chunk(kind, supplier::getNextTriple, chunkSize);
+      } else if (kind == BIT) {
+        return new Chunk(kind, supplier::getNextBit, chunkSize);
+      } else if (kind == RANDOM_ELEMENT) {
+        return new Chunk(kind, supplier::getNextRandomFieldElement, chunkSize);
+      } else if (kind > 0) {
+        return new Chunk(kind, () -> supplier.getNextInputMask(kind), chunkSize);
+      } else {
+        throw new IllegalArgumentException("Unknown kind of pre-processed material " + kind);
+      }
+    }
+  }
+
+  private static class Chunk {
+
+    private final int kind;
+    private final List<Object> elements;
+
+    private Chunk(int kind, Supplier<?> supplier, int size) {
+      this.kind = kind;
+      this.elements = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        elements.add(supplier.get());
+      }
+    }
+  }
+
+  private class SessionDataSupplier implements SpdzDataSupplier {
+
+    private final int sessionId;
+    private final Map<Integer, ArrayDeque<Object>> buffers;
+    private int sequenceNumber;
+
+    private SessionDataSupplier(int sessionId) {
+      this.sessionId = sessionId;
+      this.buffers = new HashMap<>();
+      this.sequenceNumber = 0;
+    }
+
+    @Override
+    public SpdzTriple getNextTriple() {
+      return (SpdzTriple) next(TRIPLE);
+    }
+
+    @Override
+    public SpdzSInt[] getNextExpPipe() {
+      return (SpdzSInt[]) next(EXP_PIPE);
+    }
+
+    @Override
+    public SpdzInputMask getNextInputMask(int towardPlayerId) {
+      return (SpdzInputMask) next(towardPlayerId);
+    }
+
+    @Override
+    public SpdzSInt getNextBit() {
+      return (SpdzSInt) next(BIT);
+    }
+
+    @Override
+    public FieldDefinition getFieldDefinition() {
+      return supplier.getFieldDefinition();
+    }
+
+    @Override
+    public FieldElement getSecretSharedKey() {
+      return supplier.getSecretSharedKey();
+    }
+
+    @Override
+    public SpdzSInt getNextRandomFieldElement() {
+      return (SpdzSInt) next(RANDOM_ELEMENT);
+    }
+
+    private Object next(int kind) {
+      ArrayDeque<Object> buffer = buffers.computeIfAbsent(kind, k -> new ArrayDeque<>());
+      if (buffer.isEmpty()) {
+        buffer.addAll(lease(sessionId, sequenceNumber++, kind).elements);
+      }
+      return buffer.pop();
+    }
+  }
+}
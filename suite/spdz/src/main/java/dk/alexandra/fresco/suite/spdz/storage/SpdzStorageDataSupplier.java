@@ -38,6 +38,7 @@ public class SpdzStorageDataSupplier implements SpdzDataSupplier {
   public static final String EXP_PIPE_STORAGE = "EXP";
   public static final String TRIPLE_STORAGE = "TRIPLE";
   public static final String BIT_STORAGE = "BIT";
+  public static final String RANDOM_ELEMENT_STORAGE = "RANDOM";
 
   private StreamedStorage storage;
   private String storageName;
@@ -46,6 +47,8 @@ public class SpdzStorageDataSupplier implements SpdzDataSupplier {
   private int expPipeCounter = 0;
   private int[] inputMaskCounters;
   private int bitCounter = 0;
+  private int randomElementCounter = 0;
+  private boolean hasRandomElements = true;
 
   private FieldElement ssk;
   private FieldDefinition definition;
@@ -160,9 +163,34 @@ public class SpdzStorageDataSupplier implements SpdzDataSupplier {
     return this.ssk;
   }
 
+  /**
+   * Gets the next random element from the random element storage. If there is no random element
+   * storage, which is the case for storages not generated by MASCOT, the first factor of the next
+   * triple is used instead. The storage is considered missing if not even the first random element
+   * can be read from it. Once a random element has been read, running out of random elements is an
+   * error, like running out of triples or bits, rather than a reason to switch to triples.
+   */
   @Override
   public SpdzSInt getNextRandomFieldElement() {
-    // TODO: We should probably have a random element storage stream
+    if (hasRandomElements) {
+      SpdzSInt element;
+      try {
+        element = this.storage.getNext(storageName + RANDOM_ELEMENT_STORAGE);
+      } catch (NoMoreElementsException e) {
+        if (randomElementCounter > 0) {
+          logger.error("Random element no. " + randomElementCounter
+              + " was not present in the storage: " + storageName + RANDOM_ELEMENT_STORAGE);
+          throw new IllegalArgumentException("Random element no. " + randomElementCounter
+              + " was not present in the storage: " + storageName + RANDOM_ELEMENT_STORAGE, e);
+        }
+        logger.debug("No random elements in the storage " + storageName + RANDOM_ELEMENT_STORAGE
+            + ", using triples instead");
+        hasRandomElements = false;
+        return this.getNextTriple().getA();
+      }
+      randomElementCounter++;
+      return element;
+    }
     return this.getNextTriple().getA();
   }
 }
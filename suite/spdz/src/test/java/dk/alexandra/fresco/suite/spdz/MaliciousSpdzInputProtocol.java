@@ -1,6 +1,5 @@
 package dk.alexandra.fresco.suite.spdz;
 
-import dk.alexandra.fresco.framework.MaliciousException;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
@@ -10,9 +9,6 @@ import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzNativeProtocol;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import java.math.BigInteger;
-import java.security.MessageDigest;
-import java.util.Arrays;
-import java.util.List;
 
 public class MaliciousSpdzInputProtocol extends SpdzNativeProtocol<SInt> {
 
@@ -21,7 +17,6 @@ public class MaliciousSpdzInputProtocol extends SpdzNativeProtocol<SInt> {
   private FieldElement valueMasked;
   protected SpdzSInt out;
   private int inputter;
-  private byte[] digest;
 
   public MaliciousSpdzInputProtocol(BigInteger input, int inputter) {
     this.input = input;
@@ -41,16 +36,12 @@ public class MaliciousSpdzInputProtocol extends SpdzNativeProtocol<SInt> {
         network.sendToAll(definition.serialize(bcValue));
       }
       return EvaluationStatus.HAS_MORE_ROUNDS;
-    } else if (round == 1) {
-      this.valueMasked = definition.deserialize(network.receive(inputter));
-      this.digest = sendMaliciousBroadcastValidation(spdzResourcePool.getMessageDigest(), network,
-          valueMasked, spdzResourcePool.getFieldDefinition());
-      return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
-      boolean validated = receiveMaliciousBroadcastValidation(network, digest);
-      if (!validated) {
-        throw new MaliciousException("Broadcast digests did not match");
-      }
+      byte[] receivedBytes = network.receive(inputter);
+      this.valueMasked = definition.deserialize(receivedBytes);
+      byte[] corrupted = receivedBytes.clone();
+      corrupted[0] = (byte) ~corrupted[0];
+      spdzResourcePool.getBroadcastTranscript().update(corrupted);
       FieldElement maskedValue = dataSupplier.getSecretSharedKey().multiply(valueMasked);
       SpdzSInt valueMaskedElm = new SpdzSInt(valueMasked, maskedValue);
       this.out = this.inputMask.getMask().add(valueMaskedElm, myId);
@@ -62,29 +53,4 @@ public class MaliciousSpdzInputProtocol extends SpdzNativeProtocol<SInt> {
   public SpdzSInt out() {
     return out;
   }
-
-  private byte[] sendMaliciousBroadcastValidation(MessageDigest dig, Network network,
-      FieldElement b, FieldDefinition fieldDefinition) {
-    dig.update(fieldDefinition.serialize(b));
-    return sendAndReset(dig, network);
-  }
-
-  private byte[] sendAndReset(MessageDigest dig, Network network) {
-    byte[] digest = dig.digest();
-    dig.reset();
-    digest[0] = (byte) 0xFF;
-    network.sendToAll(digest);
-    return digest;
-  }
-
-  private boolean receiveMaliciousBroadcastValidation(Network network, byte[] digest) {
-    // TODO: should we check that we get messages from all players?
-    boolean validated = true;
-    List<byte[]> digests = network.receiveFromAll();
-    for (byte[] d : digests) {
-      boolean equals = Arrays.equals(d, digest);
-      validated = validated && equals;
-    }
-    return validated;
-  }
 }
@@ -0,0 +1,192 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
+import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.framework.sce.resources.storage.StreamedStorage;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.preprocessing.MascotPreprocessingWriter;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzMascotDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzStorageDataSupplier;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestMascotPreprocessingWriter {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int TRIPLES = 10;
+  private static final int MASKS = 3;
+  private static final int BITS = 5;
+  private static final int RANDOM_ELEMENTS = 4;
+  private final MascotSecurityParameters parameters = new MascotSecurityParameters();
+  private final BigIntegerFieldDefinition definition =
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128));
+  private ExecutorService executorService;
+  private File folder;
+
+  @Before
+  public void setUp() throws IOException {
+    executorService = Executors.newCachedThreadPool();
+    folder = Files.createTempDirectory("mascot").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+    for (File file : folder.listFiles()) {
+      file.delete();
+    }
+    folder.delete();
+  }
+
+  private String storageName(int myId) {
+    return new File(folder, "SPDZ_" + myId + "_").getPath();
+  }
+
+  private Map<Integer, RotList> seedOts(int myId, Drbg drbg, Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= NO_OF_PARTIES; otherId++) {
+      if (otherId != myId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, parameters.getPrgSeedLength());
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  private Void generate(int myId, NetManager netManager) {
+    Network network = netManager.createExtraNetwork(myId);
+    Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed(new byte[] {(byte) myId});
+    FieldElement ssk =
+        SpdzMascotDataSupplier.createRandomSsk(definition, parameters.getPrgSeedLength());
+    Mascot mascot = new Mascot(new MascotResourcePoolImpl(myId, NO_OF_PARTIES, 1, drbg,
+        seedOts(myId, drbg, network), parameters, definition), network, ssk);
+    StreamedStorage storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    MascotPreprocessingWriter writer =
+        new MascotPreprocessingWriter(mascot, storage, storageName(myId), 4);
+    writer.writeKeys(definition, ssk);
+    writer.writeTriples(TRIPLES);
+    for (int partyId = 1; partyId <= NO_OF_PARTIES; partyId++) {
+      writer.writeInputMasks(partyId, MASKS);
+    }
+    writer.writeBits(BITS);
+    writer.writeRandomElements(RANDOM_ELEMENTS);
+    storage.shutdown();
+    return null;
+  }
+
+  private BigInteger open(List<SpdzSInt> shares, FieldElement macKey) {
+    FieldElement value = definition.createElement(0);
+    FieldElement mac = definition.createElement(0);
+    for (SpdzSInt share : shares) {
+      value = value.add(share.getShare());
+      mac = mac.add(share.getMac());
+    }
+    assertEquals(definition.convertToUnsigned(value.multiply(macKey)),
+        definition.convertToUnsigned(mac));
+    return definition.convertToUnsigned(value);
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    try (NetManager netManager = new NetManager(Arrays.asList(11000, 11001))) {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+        int finalMyId = myId;
+        futures.add(executorService.submit(() -> generate(finalMyId, netManager)));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    }
+    List<SpdzStorageDataSupplier> suppliers = new ArrayList<>();
+    FieldElement macKey = definition.createElement(0);
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      SpdzStorageDataSupplier supplier = new SpdzStorageDataSupplier(
+          new FilebasedStreamedStorageImpl(new InMemoryStorage()), storageName(myId),
+          NO_OF_PARTIES);
+      assertEquals(definition.getModulus(), supplier.getFieldDefinition().getModulus());
+      macKey = macKey.add(supplier.getSecretSharedKey());
+      suppliers.add(supplier);
+    }
+    for (int i = 0; i < TRIPLES; i++) {
+      List<SpdzSInt> left = new ArrayList<>();
+      List<SpdzSInt> right = new ArrayList<>();
+      List<SpdzSInt> product = new ArrayList<>();
+      for (SpdzStorageDataSupplier supplier : suppliers) {
+        SpdzTriple triple = supplier.getNextTriple();
+        left.add(triple.getA());
+        right.add(triple.getB());
+        product.add(triple.getC());
+      }
+      assertEquals(open(left, macKey).multiply(open(right, macKey)).mod(definition.getModulus()),
+          open(product, macKey));
+    }
+    for (int towardsPartyId = 1; towardsPartyId <= NO_OF_PARTIES; towardsPartyId++) {
+      for (int i = 0; i < MASKS; i++) {
+        List<SpdzSInt> shares = new ArrayList<>();
+        FieldElement realValue = null;
+        for (SpdzStorageDataSupplier supplier : suppliers) {
+          SpdzInputMask mask = supplier.getNextInputMask(towardsPartyId);
+          shares.add(mask.getMask());
+          if (mask.getRealValue() != null) {
+            realValue = mask.getRealValue();
+          }
+        }
+        assertEquals(definition.convertToUnsigned(realValue), open(shares, macKey));
+      }
+    }
+    for (int i = 0; i < BITS; i++) {
+      List<SpdzSInt> shares = new ArrayList<>();
+      for (SpdzStorageDataSupplier supplier : suppliers) {
+        shares.add(supplier.getNextBit());
+      }
+      BigInteger bit = open(shares, macKey);
+      assertTrue(bit.equals(BigInteger.ZERO) || bit.equals(BigInteger.ONE));
+    }
+    for (int i = 0; i < RANDOM_ELEMENTS; i++) {
+      List<SpdzSInt> shares = new ArrayList<>();
+      for (SpdzStorageDataSupplier supplier : suppliers) {
+        shares.add(supplier.getNextRandomFieldElement());
+      }
+      open(shares, macKey);
+    }
+  }
+}
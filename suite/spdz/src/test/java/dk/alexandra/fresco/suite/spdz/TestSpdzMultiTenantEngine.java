@@ -0,0 +1,127 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzMultiTenantEngine {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int SESSIONS = 6;
+  private final BigInteger modulus = ModulusFinder.findSuitableModulus(128);
+  private ExecutorService executor;
+  private List<SpdzMultiTenantEngine> engines;
+
+  @Before
+  public void setUp() throws Exception {
+    executor = Executors.newCachedThreadPool();
+    Map<Integer, NetworkConfiguration> confs =
+        NetworkUtil.getNetworkConfigurations(NO_OF_PARTIES);
+    List<Future<CloseableNetwork>> networks = new ArrayList<>();
+    for (int id = 1; id <= NO_OF_PARTIES; id++) {
+      NetworkConfiguration conf = confs.get(id);
+      networks.add(executor.submit(() -> new SocketNetwork(conf)));
+    }
+    engines = new ArrayList<>();
+    for (int id = 1; id <= NO_OF_PARTIES; id++) {
+      SpdzDummyDataSupplier supplier = new SpdzDummyDataSupplier(id, NO_OF_PARTIES,
+          new BigIntegerFieldDefinition(modulus),
+          new BigInteger(modulus.bitLength(), new Random(0)).mod(modulus));
+      engines.add(new SpdzMultiTenantEngine(id, networks.get(id - 1).get(),
+          new SpdzProtocolSuite(64), supplier, AesCtrDrbg::new, 4));
+    }
+  }
+
+  @After
+  public void tearDown() {
+    engines.forEach(SpdzMultiTenantEngine::close);
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testConcurrentSessions() throws Exception {
+    List<List<Future<BigInteger>>> results = new ArrayList<>();
+    for (int id = 1; id <= NO_OF_PARTIES; id++) {
+      List<Future<BigInteger>> partyResults = new ArrayList<>();
+      for (int session = 0; session < SESSIONS; session++) {
+        partyResults.add(engines.get(id - 1).startApplication(session, application(id, session)));
+      }
+      results.add(partyResults);
+    }
+    for (int session = 0; session < SESSIONS; session++) {
+      BigInteger expected = expected(session);
+      for (List<Future<BigInteger>> partyResults : results) {
+        assertEquals(expected, partyResults.get(session).get());
+      }
+    }
+  }
+
+  @Test
+  public void testSessionIdReuse() {
+    for (int round = 0; round < 3; round++) {
+      List<Future<BigInteger>> partyResults = new ArrayList<>();
+      for (int id = 1; id <= NO_OF_PARTIES; id++) {
+        SpdzMultiTenantEngine engine = engines.get(id - 1);
+        Application<BigInteger, ProtocolBuilderNumeric> app = application(id, round);
+        partyResults.add(executor.submit(
+            () -> engine.runApplication(7, app, Duration.ofMinutes(1))));
+      }
+      for (Future<BigInteger> result : partyResults) {
+        assertEquals(expected(round),
+            ExceptionConverter.safe(result::get, "Session failed"));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeSessionId() {
+    engines.get(0).startApplication(-1, application(1, 0));
+  }
+
+  /**
+   * Computes (x + i) * y * y for the inputs x = 3 + i of party 1 and y = 5 of party 2.
+   */
+  private Application<BigInteger, ProtocolBuilderNumeric> application(int myId, int session) {
+    return builder -> {
+      Numeric numeric = builder.numeric();
+      BigInteger x = BigInteger.valueOf(3 + session);
+      BigInteger y = BigInteger.valueOf(5);
+      DRes<SInt> left = numeric.input(myId == 1 ? x : null, 1);
+      DRes<SInt> right = numeric.input(myId == 2 ? y : null, 2);
+      return builder.seq(seq -> {
+        DRes<SInt> sum = seq.numeric().add(BigInteger.valueOf(session), left);
+        DRes<SInt> product = seq.numeric().mult(sum, right);
+        return seq.numeric().mult(product, right);
+      }).seq((seq, product) -> seq.numeric().open(product));
+    };
+  }
+
+  private BigInteger expected(int session) {
+    return BigInteger.valueOf((3 + 2 * session) * 25);
+  }
+}
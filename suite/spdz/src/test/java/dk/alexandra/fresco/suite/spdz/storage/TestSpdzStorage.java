@@ -1,15 +1,27 @@
 package dk.alexandra.fresco.suite.spdz.storage;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
 import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
 import java.io.File;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
 
 public class TestSpdzStorage {
 
+  private static final FieldDefinition DEFINITION =
+      new BigIntegerFieldDefinition(BigInteger.valueOf(251));
+
   /**
    * Removes all files in this directory with given file names.
    */
@@ -85,4 +97,46 @@ public class TestSpdzStorage {
             "invalid", 2);
     supplier.getNextRandomFieldElement();
   }
+
+  @Test
+  public void testDataSupplierRandomElmFallsBackToTriples() {
+    String name = "noRandom";
+    SpdzSInt element = createElement(5);
+    FilebasedStreamedStorageImpl storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    storage.putNext(name + SpdzStorageDataSupplier.TRIPLE_STORAGE,
+        new SpdzTriple(element, createElement(6), createElement(30)));
+    storage.shutdown();
+    SpdzStorageDataSupplier supplier = new SpdzStorageDataSupplier(
+        new FilebasedStreamedStorageImpl(new InMemoryStorage()), name, 2);
+    assertEquals(DEFINITION.convertToUnsigned(element.getShare()),
+        DEFINITION.convertToUnsigned(supplier.getNextRandomFieldElement().getShare()));
+    removeFiles(Collections.singletonList(name + SpdzStorageDataSupplier.TRIPLE_STORAGE));
+  }
+
+  @Test
+  public void testDataSupplierRandomElmRunsDry() {
+    String name = "dryRandom";
+    List<String> fileNames = Arrays.asList(name + SpdzStorageDataSupplier.TRIPLE_STORAGE,
+        name + SpdzStorageDataSupplier.RANDOM_ELEMENT_STORAGE);
+    FilebasedStreamedStorageImpl storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
+    storage.putNext(fileNames.get(0),
+        new SpdzTriple(createElement(5), createElement(6), createElement(30)));
+    storage.putNext(fileNames.get(1), createElement(7));
+    storage.shutdown();
+    SpdzStorageDataSupplier supplier = new SpdzStorageDataSupplier(
+        new FilebasedStreamedStorageImpl(new InMemoryStorage()), name, 2);
+    supplier.getNextRandomFieldElement();
+    try {
+      supplier.getNextRandomFieldElement();
+      fail("Should not fall back to triples once the random elements run out");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().startsWith("Random element no. 1"));
+    } finally {
+      removeFiles(fileNames);
+    }
+  }
+
+  private SpdzSInt createElement(int value) {
+    return new SpdzSInt(DEFINITION.createElement(value), DEFINITION.createElement(value));
+  }
 }
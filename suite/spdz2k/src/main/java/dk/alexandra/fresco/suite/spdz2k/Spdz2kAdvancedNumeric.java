@@ -0,0 +1,68 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.lib.common.math.DefaultAdvancedNumeric;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.protocols.computations.Spdz2kBitDecomposition;
+import dk.alexandra.fresco.suite.spdz2k.protocols.computations.Spdz2kRightShift;
+import java.util.List;
+
+/**
+ * Implementation of {@link AdvancedNumeric} for the SPDZ2k protocol suite. <p>Right shifts,
+ * truncation and bit decomposition are replaced by ring-native computations which work modulo
+ * <i>2<sup>k</sup></i> without inverting powers of two; the remaining functionality is inherited
+ * from {@link DefaultAdvancedNumeric}. Right shifts interpret their input as an unsigned k-bit
+ * integer whereas truncation interprets it as a signed k-bit integer and is exact.</p>
+ */
+public class Spdz2kAdvancedNumeric<PlainT extends CompUInt<?, ?, PlainT>> extends
+    DefaultAdvancedNumeric {
+
+  private final ProtocolBuilderNumeric builder;
+
+  Spdz2kAdvancedNumeric(ProtocolBuilderNumeric builder) {
+    super(builder);
+    this.builder = builder;
+  }
+
+  @Override
+  public DRes<List<SInt>> toBits(DRes<SInt> in, int maxInputLength) {
+    return builder.seq(new Spdz2kBitDecomposition<PlainT>(in, maxInputLength));
+  }
+
+  @Override
+  public DRes<SInt> rightShift(DRes<SInt> input) {
+    return rightShift(input, 1);
+  }
+
+  @Override
+  public DRes<SInt> rightShift(DRes<SInt> input, int shifts) {
+    DRes<RightShiftResult> result = rightShiftWithRemainder(input, shifts, false, false);
+    return () -> result.out().getResult();
+  }
+
+  @Override
+  public DRes<RightShiftResult> rightShiftWithRemainder(DRes<SInt> input) {
+    return rightShiftWithRemainder(input, 1);
+  }
+
+  @Override
+  public DRes<RightShiftResult> rightShiftWithRemainder(DRes<SInt> input, int shifts) {
+    return rightShiftWithRemainder(input, shifts, false, true);
+  }
+
+  @Override
+  public DRes<SInt> truncate(DRes<SInt> input, int shifts) {
+    DRes<RightShiftResult> result = rightShiftWithRemainder(input, shifts, true, false);
+    return () -> result.out().getResult();
+  }
+
+  private DRes<RightShiftResult> rightShiftWithRemainder(DRes<SInt> input, int shifts,
+      boolean signed, boolean calculateRemainder) {
+    return builder.seq(
+        new Spdz2kRightShift<PlainT>(input, shifts, signed, calculateRemainder));
+  }
+
+}
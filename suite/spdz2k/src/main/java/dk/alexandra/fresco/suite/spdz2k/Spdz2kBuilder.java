@@ -1,10 +1,13 @@
 package dk.alexandra.fresco.suite.spdz2k;
 
 import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
@@ -20,9 +23,12 @@ import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kRandomElementPro
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kSubtractFromKnownProtocol;
 import java.math.BigInteger;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
- * Basic native builder for the SPDZ2k protocol suite.
+ * Basic native builder for the SPDZ2k protocol suite. <p>Also supplies the ring-native {@link
+ * Spdz2kComparison} and {@link Spdz2kAdvancedNumeric} directories, which are picked up when using
+ * {@link Comparison} and {@link AdvancedNumeric}.</p>
  *
  * @param <PlainT> the type representing open values
  */
@@ -116,6 +122,18 @@ public class Spdz2kBuilder<PlainT extends CompUInt<?, ?, PlainT>> implements
     };
   }
 
+  @Override
+  public <T extends ComputationDirectory> Optional<T> createComputationDirectory(
+      Class<T> directoryType, ProtocolBuilderNumeric builder) {
+    if (directoryType == Comparison.class) {
+      return Optional.of(directoryType.cast(new Spdz2kComparison<PlainT>(builder)));
+    } else if (directoryType == AdvancedNumeric.class) {
+      return Optional.of(directoryType.cast(new Spdz2kAdvancedNumeric<PlainT>(builder)));
+    } else {
+      return Optional.empty();
+    }
+  }
+
   /**
    * Get result from deferred and downcast result to {@link Spdz2kSInt<PlainT>}.
    */
@@ -0,0 +1,67 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.protocols.computations.Spdz2kMostSignificantBit;
+import dk.alexandra.fresco.suite.spdz2k.protocols.computations.Spdz2kZeroTest;
+import java.math.BigInteger;
+
+/**
+ * Ring-native implementation of {@link Comparison} for the SPDZ2k protocol suite. <p>Inputs are
+ * interpreted as signed k-bit integers. Comparisons are reduced to extracting the most significant
+ * bit of a difference, see {@link Spdz2kMostSignificantBit}, and equality to a zero test on the
+ * relevant number of bits, see {@link Spdz2kZeroTest}. Neither relies on the invertibility of
+ * elements, and no statistical security margin is needed since masks are uniform in the ring.
+ * Consequently, {@link #compareLEQ(DRes, DRes)} and {@link #compareLEQLong(DRes, DRes)} coincide
+ * and require that the difference of the inputs fits in a signed k-bit integer.</p>
+ */
+public class Spdz2kComparison<PlainT extends CompUInt<?, ?, PlainT>> implements Comparison {
+
+  private final ProtocolBuilderNumeric builder;
+  private final int maxBitLength;
+
+  Spdz2kComparison(ProtocolBuilderNumeric builder) {
+    this.builder = builder;
+    this.maxBitLength = builder.getBasicNumericContext().getMaxBitLength();
+  }
+
+  @Override
+  public DRes<SInt> equals(int bitLength, DRes<SInt> x, DRes<SInt> y) {
+    return compareZero(builder.numeric().sub(x, y), bitLength);
+  }
+
+  @Override
+  public DRes<SInt> equals(DRes<SInt> x, DRes<SInt> y) {
+    return compareZero(builder.numeric().sub(x, y), maxBitLength);
+  }
+
+  @Override
+  public DRes<SInt> compareLEQ(DRes<SInt> x, DRes<SInt> y) {
+    Numeric numeric = builder.numeric();
+    DRes<SInt> negative = builder.seq(
+        new Spdz2kMostSignificantBit<PlainT>(numeric.sub(y, x)));
+    return numeric.sub(BigInteger.ONE, negative);
+  }
+
+  @Override
+  public DRes<SInt> compareLEQLong(DRes<SInt> x, DRes<SInt> y) {
+    return compareLEQ(x, y);
+  }
+
+  @Override
+  public DRes<SInt> sign(DRes<SInt> x) {
+    Numeric numeric = builder.numeric();
+    DRes<SInt> negative = builder.seq(new Spdz2kMostSignificantBit<PlainT>(x));
+    return numeric.sub(BigInteger.ONE, numeric.mult(BigInteger.valueOf(2), negative));
+  }
+
+  @Override
+  public DRes<SInt> compareZero(DRes<SInt> x, int bitLength) {
+    return builder.seq(new Spdz2kZeroTest<PlainT>(x, bitLength));
+  }
+
+}
@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.suite.spdz2k.datatypes;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.MathUtils;
 import java.math.BigInteger;
 
 /**
@@ -10,7 +11,6 @@ import java.math.BigInteger;
  */
 public class CompUInt128 implements CompUInt<UInt64, UInt64, CompUInt128> {
 
-  private static final CompUInt128 ONE = new CompUInt128(1);
   private final long high;
   private final int mid;
   private final int low;
@@ -75,62 +75,35 @@ public class CompUInt128 implements CompUInt<UInt64, UInt64, CompUInt128> {
 
   @Override
   public CompUInt128 add(CompUInt128 other) {
-    long newLow = Integer.toUnsignedLong(this.low) + Integer.toUnsignedLong(other.low);
-    long lowOverflow = newLow >>> 32;
-    long newMid = Integer.toUnsignedLong(this.mid)
-        + Integer.toUnsignedLong(other.mid)
-        + lowOverflow;
-    long midOverflow = newMid >>> 32;
-    long newHigh = this.high + other.high + midOverflow;
-    return new CompUInt128(newHigh, (int) newMid, (int) newLow);
+    long thisLow = toLong();
+    long newLow = thisLow + other.toLong();
+    long carry = Long.compareUnsigned(newLow, thisLow) < 0 ? 1L : 0L;
+    return fromLongs(this.high + other.high + carry, newLow);
   }
 
   @Override
   public CompUInt128 multiply(CompUInt128 other) {
-    long thisLowAsLong = UInt.toUnLong(this.low);
-    long thisMidAsLong = UInt.toUnLong(this.mid);
-    long otherLowAsLong = UInt.toUnLong(other.low);
-    long otherMidAsLong = UInt.toUnLong(other.mid);
-
-    // low
-    long t1 = thisLowAsLong * otherLowAsLong;
-    long t2 = thisLowAsLong * otherMidAsLong;
-    long t3 = thisLowAsLong * other.high;
-
-    // mid
-    long t4 = thisMidAsLong * otherLowAsLong;
-    long t5 = thisMidAsLong * otherMidAsLong;
-    int t6 = (int) (this.mid * other.high);
-
-    // high
-    long t7 = this.high * otherLowAsLong;
-    int t8 = (int) (this.high * other.mid);
+    long thisLow = toLong();
+    long otherLow = other.toLong();
     // we don't need the product of this.high and other.high since those overflow 2^128
-
-    long m1 = (t1 >>> 32) + (t2 & 0xffffffffL);
-    int m2 = (int) m1;
-    long newMid = UInt.toUnLong(m2) + (t4 & 0xffffffffL);
-
-    long newHigh = (t2 >>> 32)
-        + t3
-        + (t4 >>> 32)
-        + t5
-        + (UInt.toUnLong(t6) << 32)
-        + t7
-        + (UInt.toUnLong(t8) << 32)
-        + (m1 >>> 32)
-        + (newMid >>> 32);
-    return new CompUInt128(newHigh, (int) newMid, (int) t1);
+    long newHigh = MathUtils.multiplyHighUnsigned(thisLow, otherLow)
+        + thisLow * other.high
+        + this.high * otherLow;
+    return fromLongs(newHigh, thisLow * otherLow);
   }
 
   @Override
   public CompUInt128 subtract(CompUInt128 other) {
-    return this.add(other.negateUInt());
+    long thisLow = toLong();
+    long otherLow = other.toLong();
+    long borrow = Long.compareUnsigned(thisLow, otherLow) < 0 ? 1L : 0L;
+    return fromLongs(this.high - other.high - borrow, thisLow - otherLow);
   }
 
   @Override
   public CompUInt128 negateUInt() {
-    return new CompUInt128(~high, ~mid, ~low).add(ONE);
+    long thisLow = toLong();
+    return fromLongs(~high + (thisLow == 0 ? 1L : 0L), -thisLow);
   }
 
   @Override
@@ -197,6 +170,17 @@ public class CompUInt128 implements CompUInt<UInt64, UInt64, CompUInt128> {
     return bytes;
   }
 
+  /**
+   * Returns the 64 most significant bits.
+   */
+  long getHigh() {
+    return high;
+  }
+
+  static CompUInt128 fromLongs(long high, long low) {
+    return new CompUInt128(high, (int) (low >>> 32), (int) low);
+  }
+
   static BigInteger extractValue(FieldElement element) {
     return ((CompUInt128) element).toBigInteger();
   }
@@ -0,0 +1,122 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+
+/**
+ * Mutable counterpart of {@link CompUInt128}, intended for long chains of arithmetic such as sums
+ * and inner products. <p>All operations update this accumulator in place and return it, so no
+ * objects are allocated until the result is read via {@link #toCompUInt128()}. Instances are not
+ * thread-safe.</p>
+ */
+public class CompUInt128Accumulator {
+
+  private long high;
+  private long low;
+
+  /**
+   * Creates new accumulator with value zero.
+   */
+  public CompUInt128Accumulator() {
+    this(0L, 0L);
+  }
+
+  /**
+   * Creates new accumulator with the value of {@code initial}.
+   */
+  public CompUInt128Accumulator(CompUInt128 initial) {
+    this(initial.getHigh(), initial.toLong());
+  }
+
+  CompUInt128Accumulator(long high, long low) {
+    this.high = high;
+    this.low = low;
+  }
+
+  /**
+   * Adds {@code other} to this.
+   */
+  public CompUInt128Accumulator add(CompUInt128 other) {
+    addLongs(other.getHigh(), other.toLong());
+    return this;
+  }
+
+  /**
+   * Subtracts {@code other} from this.
+   */
+  public CompUInt128Accumulator subtract(CompUInt128 other) {
+    long otherLow = other.toLong();
+    long borrow = Long.compareUnsigned(low, otherLow) < 0 ? 1L : 0L;
+    high = high - other.getHigh() - borrow;
+    low = low - otherLow;
+    return this;
+  }
+
+  /**
+   * Multiplies this by {@code other}.
+   */
+  public CompUInt128Accumulator multiply(CompUInt128 other) {
+    long otherLow = other.toLong();
+    high = MathUtils.multiplyHighUnsigned(low, otherLow) + low * other.getHigh() + high * otherLow;
+    low = low * otherLow;
+    return this;
+  }
+
+  /**
+   * Adds the product of {@code left} and {@code right} to this.
+   */
+  public CompUInt128Accumulator addProduct(CompUInt128 left, CompUInt128 right) {
+    long leftLow = left.toLong();
+    long rightLow = right.toLong();
+    addLongs(
+        MathUtils.multiplyHighUnsigned(leftLow, rightLow)
+            + leftLow * right.getHigh()
+            + left.getHigh() * rightLow,
+        leftLow * rightLow);
+    return this;
+  }
+
+  /**
+   * Negates this.
+   */
+  public CompUInt128Accumulator negate() {
+    high = ~high + (low == 0 ? 1L : 0L);
+    low = -low;
+    return this;
+  }
+
+  /**
+   * Resets this to zero.
+   */
+  public CompUInt128Accumulator reset() {
+    high = 0L;
+    low = 0L;
+    return this;
+  }
+
+  /**
+   * Check if current value is zero.
+   */
+  public boolean isZero() {
+    return high == 0 && low == 0;
+  }
+
+  /**
+   * Returns the current value as an immutable {@link CompUInt128}.
+   */
+  public CompUInt128 toCompUInt128() {
+    return CompUInt128.fromLongs(high, low);
+  }
+
+  @Override
+  public String toString() {
+    return toCompUInt128().toString();
+  }
+
+  private void addLongs(long otherHigh, long otherLow) {
+    long newLow = low + otherLow;
+    long carry = Long.compareUnsigned(newLow, low) < 0 ? 1L : 0L;
+    high = high + otherHigh + carry;
+    low = newLow;
+  }
+
+}
@@ -6,6 +6,8 @@ import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.suite.spdz2k.util.UIntSerializer;
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
 
 public class CompUInt128Factory implements CompUIntFactory<CompUInt128> {
 
@@ -89,6 +91,35 @@ public class CompUInt128Factory implements CompUIntFactory<CompUInt128> {
     }
   }
 
+  @Override
+  public CompUInt128 innerProduct(List<CompUInt128> left, List<CompUInt128> right) {
+    CompUInt128Accumulator accumulator = new CompUInt128Accumulator();
+    for (int i = 0; i < left.size(); i++) {
+      accumulator.addProduct(left.get(i), right.get(i));
+    }
+    return accumulator.toCompUInt128();
+  }
+
+  @Override
+  public List<CompUInt128> innerProducts(List<List<CompUInt128>> lefts,
+      List<CompUInt128> right) {
+    CompUInt128Vector rightVector = CompUInt128Vector.fromList(right);
+    List<CompUInt128> products = new ArrayList<>(lefts.size());
+    for (List<CompUInt128> left : lefts) {
+      products.add(CompUInt128Vector.fromList(left).innerProduct(rightVector));
+    }
+    return products;
+  }
+
+  @Override
+  public CompUInt128 sum(List<CompUInt128> elements) {
+    CompUInt128Accumulator accumulator = new CompUInt128Accumulator();
+    for (CompUInt128 element : elements) {
+      accumulator.add(element);
+    }
+    return accumulator.toCompUInt128();
+  }
+
   @Override
   public CompUInt128 zero() {
     return ZERO;
@@ -0,0 +1,197 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size vector of {@link CompUInt128} values stored in struct-of-arrays layout, i.e., as two
+ * {@code long[]} holding the 64 most and least significant bits of each element. <p>Bulk
+ * operations run as tight loops over primitive arrays and do not allocate per element. Operations
+ * named after their arithmetic counterpart update this vector in place.</p>
+ */
+public class CompUInt128Vector {
+
+  private final long[] high;
+  private final long[] low;
+
+  /**
+   * Creates new vector of {@code size} zero elements.
+   */
+  public CompUInt128Vector(int size) {
+    this(new long[size], new long[size]);
+  }
+
+  /**
+   * Creates new vector from the most and least significant 64 bits of each element. The arrays
+   * are used directly, not copied.
+   */
+  public CompUInt128Vector(long[] high, long[] low) {
+    if (high.length != low.length) {
+      throw new IllegalArgumentException(
+          "High and low parts must have same length but were " + high.length + " and "
+              + low.length);
+    }
+    this.high = high;
+    this.low = low;
+  }
+
+  /**
+   * Creates new vector holding the values of {@code elements}.
+   */
+  public static CompUInt128Vector fromList(List<CompUInt128> elements) {
+    CompUInt128Vector vector = new CompUInt128Vector(elements.size());
+    for (int i = 0; i < elements.size(); i++) {
+      vector.set(i, elements.get(i));
+    }
+    return vector;
+  }
+
+  /**
+   * Returns number of elements.
+   */
+  public int size() {
+    return low.length;
+  }
+
+  /**
+   * Returns element at {@code index}.
+   */
+  public CompUInt128 get(int index) {
+    return CompUInt128.fromLongs(high[index], low[index]);
+  }
+
+  /**
+   * Sets element at {@code index}.
+   */
+  public void set(int index, CompUInt128 value) {
+    high[index] = value.getHigh();
+    low[index] = value.toLong();
+  }
+
+  /**
+   * Returns the underlying array of the 64 most significant bits of each element.
+   */
+  public long[] getHigh() {
+    return high;
+  }
+
+  /**
+   * Returns the underlying array of the 64 least significant bits of each element.
+   */
+  public long[] getLow() {
+    return low;
+  }
+
+  /**
+   * Adds {@code other} to this, element-wise.
+   */
+  public CompUInt128Vector add(CompUInt128Vector other) {
+    checkSize(other);
+    for (int i = 0; i < low.length; i++) {
+      long newLow = low[i] + other.low[i];
+      high[i] += other.high[i] + (Long.compareUnsigned(newLow, low[i]) < 0 ? 1L : 0L);
+      low[i] = newLow;
+    }
+    return this;
+  }
+
+  /**
+   * Subtracts {@code other} from this, element-wise.
+   */
+  public CompUInt128Vector subtract(CompUInt128Vector other) {
+    checkSize(other);
+    for (int i = 0; i < low.length; i++) {
+      long borrow = Long.compareUnsigned(low[i], other.low[i]) < 0 ? 1L : 0L;
+      high[i] -= other.high[i] + borrow;
+      low[i] -= other.low[i];
+    }
+    return this;
+  }
+
+  /**
+   * Multiplies this by {@code other}, element-wise.
+   */
+  public CompUInt128Vector multiply(CompUInt128Vector other) {
+    checkSize(other);
+    for (int i = 0; i < low.length; i++) {
+      long thisLow = low[i];
+      long otherLow = other.low[i];
+      high[i] = MathUtils.multiplyHighUnsigned(thisLow, otherLow)
+          + thisLow * other.high[i]
+          + high[i] * otherLow;
+      low[i] = thisLow * otherLow;
+    }
+    return this;
+  }
+
+  /**
+   * Multiplies each element of this by {@code scalar}.
+   */
+  public CompUInt128Vector multiply(CompUInt128 scalar) {
+    long scalarHigh = scalar.getHigh();
+    long scalarLow = scalar.toLong();
+    for (int i = 0; i < low.length; i++) {
+      long thisLow = low[i];
+      high[i] = MathUtils.multiplyHighUnsigned(thisLow, scalarLow)
+          + thisLow * scalarHigh
+          + high[i] * scalarLow;
+      low[i] = thisLow * scalarLow;
+    }
+    return this;
+  }
+
+  /**
+   * Computes the inner product of this and {@code other}.
+   */
+  public CompUInt128 innerProduct(CompUInt128Vector other) {
+    checkSize(other);
+    long accHigh = 0L;
+    long accLow = 0L;
+    for (int i = 0; i < low.length; i++) {
+      long thisLow = low[i];
+      long otherLow = other.low[i];
+      long productLow = thisLow * otherLow;
+      long newLow = accLow + productLow;
+      accHigh += MathUtils.multiplyHighUnsigned(thisLow, otherLow)
+          + thisLow * other.high[i]
+          + high[i] * otherLow
+          + (Long.compareUnsigned(newLow, accLow) < 0 ? 1L : 0L);
+      accLow = newLow;
+    }
+    return CompUInt128.fromLongs(accHigh, accLow);
+  }
+
+  /**
+   * Computes the sum of all elements.
+   */
+  public CompUInt128 sum() {
+    long accHigh = 0L;
+    long accLow = 0L;
+    for (int i = 0; i < low.length; i++) {
+      long newLow = accLow + low[i];
+      accHigh += high[i] + (Long.compareUnsigned(newLow, accLow) < 0 ? 1L : 0L);
+      accLow = newLow;
+    }
+    return CompUInt128.fromLongs(accHigh, accLow);
+  }
+
+  /**
+   * Returns elements of this vector as a list of {@link CompUInt128}.
+   */
+  public List<CompUInt128> toList() {
+    List<CompUInt128> elements = new ArrayList<>(low.length);
+    for (int i = 0; i < low.length; i++) {
+      elements.add(get(i));
+    }
+    return elements;
+  }
+
+  private void checkSize(CompUInt128Vector other) {
+    if (other.size() != size()) {
+      throw new IllegalArgumentException(
+          "Vectors must have same size but were " + size() + " and " + other.size());
+    }
+  }
+
+}
@@ -0,0 +1,212 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+
+/**
+ * Unsigned 256-bit integer composed of two 128-bit halves, i.e., k = s = 128. <p>Backed by four
+ * longs, stored from most to least significant. Both halves are exposed as {@link CompUInt128}
+ * instances, which are plain 128-bit unsigned integers.</p>
+ */
+public class CompUInt256 implements CompUInt<CompUInt128, CompUInt128, CompUInt256> {
+
+  private static final CompUInt256 ONE = new CompUInt256(0L, 0L, 0L, 1L);
+  private final long high;
+  private final long midHigh;
+  private final long midLow;
+  private final long low;
+
+  /**
+   * Creates new {@link CompUInt256}. <p>Do <b>not</b> pad bytes by default.</p>
+   *
+   * @param bytes bytes interpreted in big-endian order.
+   */
+  public CompUInt256(byte[] bytes) {
+    this(bytes, false);
+  }
+
+  /**
+   * Creates new {@link CompUInt256}.
+   *
+   * @param bytes bytes interpreted in big-endian order.
+   * @param requiresPadding indicates if the bytes need to be padded up to 32 bytes.
+   */
+  public CompUInt256(byte[] bytes, boolean requiresPadding) {
+    byte[] padded = requiresPadding ? CompUInt.pad(bytes, 256) : bytes;
+    if (padded.length == 16) {
+      // we are instantiating from the least significant bits only
+      this.high = 0L;
+      this.midHigh = 0L;
+      this.midLow = toLong(padded, 0);
+      this.low = toLong(padded, 8);
+    } else {
+      this.high = toLong(padded, 0);
+      this.midHigh = toLong(padded, 8);
+      this.midLow = toLong(padded, 16);
+      this.low = toLong(padded, 24);
+    }
+  }
+
+  /**
+   * Creates new {@link CompUInt256} from {@link BigInteger}.
+   */
+  public CompUInt256(BigInteger value) {
+    this(value.toByteArray(), true);
+  }
+
+  CompUInt256(long high, long midHigh, long midLow, long low) {
+    this.high = high;
+    this.midHigh = midHigh;
+    this.midLow = midLow;
+    this.low = low;
+  }
+
+  CompUInt256(CompUInt128 value) {
+    this(0L, 0L, value.getMostSignificant().toLong(), value.toLong());
+  }
+
+  CompUInt256(long value) {
+    this(0L, 0L, 0L, value);
+  }
+
+  @Override
+  public CompUInt256 add(CompUInt256 other) {
+    long newLow = low + other.low;
+    long carry = Long.compareUnsigned(newLow, low) < 0 ? 1L : 0L;
+    long newMidLow = midLow + other.midLow + carry;
+    carry = carryOf(midLow, newMidLow, carry);
+    long newMidHigh = midHigh + other.midHigh + carry;
+    carry = carryOf(midHigh, newMidHigh, carry);
+    long newHigh = high + other.high + carry;
+    return new CompUInt256(newHigh, newMidHigh, newMidLow, newLow);
+  }
+
+  @Override
+  public CompUInt256 multiply(CompUInt256 other) {
+    long[] left = {low, midLow, midHigh, high};
+    long[] right = {other.low, other.midLow, other.midHigh, other.high};
+    long[] result = new long[4];
+    for (int i = 0; i < 4; i++) {
+      long carry = 0L;
+      for (int j = 0; j < 4 - i; j++) {
+        long productLow = left[i] * right[j];
+        long productHigh = MathUtils.multiplyHighUnsigned(left[i], right[j]);
+        // add current limb and carry into 128-bit product; this cannot overflow 128 bits
+        long sum = productLow + result[i + j];
+        productHigh += Long.compareUnsigned(sum, productLow) < 0 ? 1L : 0L;
+        long withCarry = sum + carry;
+        productHigh += Long.compareUnsigned(withCarry, sum) < 0 ? 1L : 0L;
+        result[i + j] = withCarry;
+        carry = productHigh;
+      }
+    }
+    return new CompUInt256(result[3], result[2], result[1], result[0]);
+  }
+
+  @Override
+  public CompUInt256 subtract(CompUInt256 other) {
+    return this.add(other.negateUInt());
+  }
+
+  @Override
+  public CompUInt256 negateUInt() {
+    return new CompUInt256(~high, ~midHigh, ~midLow, ~low).add(ONE);
+  }
+
+  @Override
+  public boolean isZero() {
+    return low == 0 && midLow == 0 && midHigh == 0 && high == 0;
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return new BigInteger(1, toByteArray());
+  }
+
+  @Override
+  public CompUInt128 getLeastSignificant() {
+    return new CompUInt128(midLow, (int) (low >>> 32), (int) low);
+  }
+
+  @Override
+  public CompUInt128 getMostSignificant() {
+    return new CompUInt128(high, (int) (midHigh >>> 32), (int) midHigh);
+  }
+
+  @Override
+  public CompUInt128 getLeastSignificantAsHigh() {
+    return getLeastSignificant();
+  }
+
+  @Override
+  public long toLong() {
+    return low;
+  }
+
+  @Override
+  public int toInt() {
+    return (int) low;
+  }
+
+  @Override
+  public CompUInt256 shiftLowIntoHigh() {
+    return new CompUInt256(midLow, low, 0L, 0L);
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 128;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 128;
+  }
+
+  @Override
+  public String toString() {
+    return toBigInteger().toString();
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    byte[] bytes = new byte[32];
+    toByteArray(bytes, 0, high);
+    toByteArray(bytes, 8, midHigh);
+    toByteArray(bytes, 16, midLow);
+    toByteArray(bytes, 24, low);
+    return bytes;
+  }
+
+  static BigInteger extractValue(FieldElement element) {
+    return ((CompUInt256) element).toBigInteger();
+  }
+
+  /**
+   * Computes the carry out of an addition of some value and {@code carryIn} to {@code left},
+   * given the truncated {@code sum}.
+   */
+  private static long carryOf(long left, long sum, long carryIn) {
+    boolean overflow = carryIn == 0
+        ? Long.compareUnsigned(sum, left) < 0
+        : Long.compareUnsigned(sum, left) <= 0;
+    return overflow ? 1L : 0L;
+  }
+
+  private static void toByteArray(byte[] bytes, int start, long value) {
+    for (int i = 7; i >= 0; i--) {
+      bytes[start + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private static long toLong(byte[] bytes, int start) {
+    long result = 0;
+    for (int i = 0; i < 8; i++) {
+      result = (result << 8) | (bytes[start + i] & 0xFFL);
+    }
+    return result;
+  }
+
+}
@@ -96,6 +96,33 @@ public interface CompUIntFactory<CompT extends CompUInt<?, ?, CompT>> extends Fi
   @Override
   CompT deserialize(byte[] bytes);
 
+  /**
+   * Computes inner product of {@code left} and {@code right}. <p>Implementations may override
+   * this with a specialized version that avoids allocating intermediate results.</p>
+   */
+  default CompT innerProduct(List<CompT> left, List<CompT> right) {
+    return UInt.innerProduct(left, right);
+  }
+
+  /**
+   * Computes the inner product of each list in {@code lefts} with {@code right}. <p>Implementations
+   * may override this with a specialized version that converts {@code right} to a more efficient
+   * representation only once.</p>
+   */
+  default List<CompT> innerProducts(List<List<CompT>> lefts, List<CompT> right) {
+    return lefts.stream()
+        .map(left -> innerProduct(left, right))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Computes sum of {@code elements}. <p>Implementations may override this with a specialized
+   * version that avoids allocating intermediate results.</p>
+   */
+  default CompT sum(List<CompT> elements) {
+    return UInt.sum(elements);
+  }
+
   @Override
   default byte[] serialize(FieldElement object) {
     return ((CompT) object).toByteArray();
@@ -0,0 +1,74 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pseudo-random generator of uniformly random ring elements.
+ */
+public class CompUIntPrg<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Drbg drbg;
+  private final CompUIntFactory<PlainT> factory;
+  private final int byteLength;
+  private final int macKeyByteLength;
+
+  /**
+   * Creates new {@link CompUIntPrg}.
+   *
+   * @param seed seed to the underlying DRBG
+   * @param factory factory for ring elements
+   */
+  public CompUIntPrg(StrictBitVector seed, CompUIntFactory<PlainT> factory) {
+    byte[] bytes = seed.toByteArray();
+    if (bytes.length != AesCtrDrbg.SEED_LENGTH) {
+      this.drbg = AesCtrDrbgFactory.fromDerivedSeed(bytes);
+    } else {
+      this.drbg = AesCtrDrbgFactory.fromRandomSeed(bytes);
+    }
+    this.factory = factory;
+    this.byteLength = factory.getCompositeBitLength() / Byte.SIZE;
+    this.macKeyByteLength = factory.getHighBitLength() / Byte.SIZE;
+  }
+
+  /**
+   * Returns the next uniformly random element of the full k + s bit ring.
+   */
+  public PlainT getNext() {
+    byte[] bytes = new byte[byteLength];
+    drbg.nextBytes(bytes);
+    return factory.deserialize(bytes);
+  }
+
+  /**
+   * Returns the next {@code numElements} uniformly random elements of the full k + s bit ring.
+   */
+  public List<PlainT> getNext(int numElements) {
+    List<PlainT> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      elements.add(getNext());
+    }
+    return elements;
+  }
+
+  /**
+   * Returns the next {@code numElements} random elements whose s least significant bits are
+   * random and whose remaining bits are zero. Used as coefficients when checking macs.
+   */
+  public List<PlainT> getNextCoefficients(int numElements) {
+    List<PlainT> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      byte[] bytes = new byte[macKeyByteLength];
+      drbg.nextBytes(bytes);
+      elements.add(factory.deserialize(bytes));
+    }
+    return elements;
+  }
+
+}
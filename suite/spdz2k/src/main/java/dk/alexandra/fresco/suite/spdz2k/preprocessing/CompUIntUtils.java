@@ -0,0 +1,58 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Utilities shared by the OT-based multiplication protocols.
+ */
+final class CompUIntUtils {
+
+  private CompUIntUtils() {
+  }
+
+  /**
+   * Computes <i>sum<sub>j</sub> 2<sup>j</sup> * elements[offset + j]</i> for <i>j</i> in <i>0,
+   * ..., numBits - 1</i>.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> PlainT recombine(List<PlainT> elements,
+      int offset, int numBits) {
+    PlainT accumulator = elements.get(offset + numBits - 1);
+    for (int j = numBits - 2; j >= 0; j--) {
+      accumulator = accumulator.add(accumulator).add(elements.get(offset + j));
+    }
+    return accumulator;
+  }
+
+  /**
+   * Packs the {@code numBits} least significant bits of each element into a single bit vector,
+   * least significant bit first. <p>The number of bits must be divisible by 8.</p>
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> StrictBitVector toChoiceBits(
+      List<PlainT> elements, int numBits) {
+    StrictBitVector bits = new StrictBitVector(elements.size() * numBits);
+    for (int i = 0; i < elements.size(); i++) {
+      boolean[] elementBits = toBits(elements.get(i), numBits);
+      for (int j = 0; j < numBits; j++) {
+        bits.setBit(i * numBits + j, elementBits[j], false);
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Returns the {@code numBits} least significant bits of the element, least significant bit
+   * first.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> boolean[] toBits(PlainT element, int numBits) {
+    BigInteger value = element.toBigInteger();
+    boolean[] bits = new boolean[numBits];
+    for (int j = 0; j < numBits; j++) {
+      bits[j] = value.testBit(j);
+    }
+    return bits;
+  }
+
+}
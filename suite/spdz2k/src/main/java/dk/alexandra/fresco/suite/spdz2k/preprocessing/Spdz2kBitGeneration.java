@@ -0,0 +1,143 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protocol for generating random, authenticated bits over <i>Z<sub>2<sup>k + s</sup></sub></i>.
+ *
+ * <p>Since square roots are not available in the ring, the approach of MASCOT cannot be used.
+ * Instead, every party inputs a batch of random bits of its own choosing. The parties verify
+ * that each input <i>[b]</i> is in fact a bit by checking that <i>b * (b - 1)</i> opens to zero,
+ * and combine the inputs of all parties via XOR, computed as <i>x + y - 2xy</i>. All
+ * multiplications use freshly generated triples, and all opened values are mac-checked before
+ * the bits are returned.</p>
+ */
+public class Spdz2kBitGeneration<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Spdz2kElementGeneration<PlainT> elementGeneration;
+  private final Spdz2kTripleGeneration<PlainT> tripleGeneration;
+  private final List<Spdz2kSInt<PlainT>> toCheck;
+  private final List<PlainT> openedValues;
+
+  /**
+   * Creates new {@link Spdz2kBitGeneration}.
+   */
+  public Spdz2kBitGeneration(Spdz2kPreprocessingResourcePool<PlainT> resourcePool,
+      Spdz2kElementGeneration<PlainT> elementGeneration,
+      Spdz2kTripleGeneration<PlainT> tripleGeneration) {
+    this.resourcePool = resourcePool;
+    this.elementGeneration = elementGeneration;
+    this.tripleGeneration = tripleGeneration;
+    this.toCheck = new ArrayList<>();
+    this.openedValues = new ArrayList<>();
+  }
+
+  /**
+   * Generates a batch of random bits.
+   *
+   * @param numBits number of bits
+   * @return authenticated shares of random bits
+   */
+  public List<Spdz2kSInt<PlainT>> generate(int numBits) {
+    CompUIntFactory<PlainT> factory = resourcePool.getFactory();
+    byte[] randomBytes = new byte[numBits];
+    resourcePool.getRandomGenerator().nextBytes(randomBytes);
+    List<PlainT> ownBits = new ArrayList<>(numBits);
+    for (byte randomByte : randomBytes) {
+      ownBits.add(factory.createElement(randomByte & 1));
+    }
+    List<List<Spdz2kSInt<PlainT>>> perPartyBits = elementGeneration.inputFromAll(ownBits);
+    checkBits(perPartyBits);
+    List<Spdz2kSInt<PlainT>> bits = perPartyBits.get(0);
+    for (int i = 1; i < perPartyBits.size(); i++) {
+      bits = xor(bits, perPartyBits.get(i));
+    }
+    elementGeneration.check(toCheck, openedValues);
+    toCheck.clear();
+    openedValues.clear();
+    return bits;
+  }
+
+  /**
+   * Checks that all inputs are bits, i.e., that <i>b * (b - 1) = 0</i>.
+   */
+  private void checkBits(List<List<Spdz2kSInt<PlainT>>> perPartyBits) {
+    List<Spdz2kSInt<PlainT>> inputs = new ArrayList<>();
+    List<Spdz2kSInt<PlainT>> inputsMinusOne = new ArrayList<>();
+    PlainT minusOne = resourcePool.getFactory().createElement(1).negateUInt();
+    for (List<Spdz2kSInt<PlainT>> bits : perPartyBits) {
+      for (Spdz2kSInt<PlainT> bit : bits) {
+        inputs.add(bit);
+        inputsMinusOne.add(addConstant(bit, minusOne));
+      }
+    }
+    List<Spdz2kSInt<PlainT>> products = multiply(inputs, inputsMinusOne);
+    for (PlainT product : open(products)) {
+      if (!product.isZero()) {
+        throw new MaliciousException("Input to random bit generation was not a bit");
+      }
+    }
+  }
+
+  private List<Spdz2kSInt<PlainT>> xor(List<Spdz2kSInt<PlainT>> left,
+      List<Spdz2kSInt<PlainT>> right) {
+    List<Spdz2kSInt<PlainT>> products = multiply(left, right);
+    PlainT two = resourcePool.getFactory().createElement(2);
+    List<Spdz2kSInt<PlainT>> result = new ArrayList<>(left.size());
+    for (int i = 0; i < left.size(); i++) {
+      result.add(left.get(i).add(right.get(i)).subtract(products.get(i).multiply(two)));
+    }
+    return result;
+  }
+
+  /**
+   * Multiplies authenticated elements using fresh triples.
+   */
+  private List<Spdz2kSInt<PlainT>> multiply(List<Spdz2kSInt<PlainT>> left,
+      List<Spdz2kSInt<PlainT>> right) {
+    List<Spdz2kTriple<PlainT>> triples = tripleGeneration.triple(left.size());
+    List<Spdz2kSInt<PlainT>> epsilonsAndDeltas = new ArrayList<>(2 * left.size());
+    for (int i = 0; i < left.size(); i++) {
+      epsilonsAndDeltas.add(left.get(i).subtract(triples.get(i).getLeft()));
+    }
+    for (int i = 0; i < left.size(); i++) {
+      epsilonsAndDeltas.add(right.get(i).subtract(triples.get(i).getRight()));
+    }
+    List<PlainT> opened = open(epsilonsAndDeltas);
+    List<Spdz2kSInt<PlainT>> products = new ArrayList<>(left.size());
+    for (int i = 0; i < left.size(); i++) {
+      Spdz2kTriple<PlainT> triple = triples.get(i);
+      PlainT epsilon = opened.get(i);
+      PlainT delta = opened.get(left.size() + i);
+      products.add(triple.getProduct()
+          .add(triple.getRight().multiply(epsilon))
+          .add(triple.getLeft().multiply(delta))
+          .add(toConstant(epsilon.multiply(delta))));
+    }
+    return products;
+  }
+
+  private List<PlainT> open(List<Spdz2kSInt<PlainT>> closed) {
+    List<PlainT> opened = elementGeneration.open(closed);
+    toCheck.addAll(closed);
+    openedValues.addAll(opened);
+    return opened;
+  }
+
+  private Spdz2kSInt<PlainT> addConstant(Spdz2kSInt<PlainT> element, PlainT constant) {
+    return element.add(toConstant(constant));
+  }
+
+  private Spdz2kSInt<PlainT> toConstant(PlainT constant) {
+    return new Spdz2kSInt<>(constant, elementGeneration.getMacKeyShare(),
+        resourcePool.getFactory().zero(), resourcePool.getMyId() == 1);
+  }
+
+}
@@ -0,0 +1,70 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitment;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitmentSerializer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lets all parties input a value each such that no party can choose its value based on the
+ * values of the others. <p>Every party first commits to its value and distributes the
+ * commitment, and then distributes the opening info. For more than two parties the distributed
+ * commitments are validated to be consistent among all parties.</p>
+ */
+class Spdz2kCommitmentBasedInput {
+
+  private final Drbg drbg;
+  private final Network network;
+  private final ByteSerializer<HashBasedCommitment> commitmentSerializer;
+  private final MessageDigest messageDigest;
+
+  Spdz2kCommitmentBasedInput(Drbg drbg, Network network) {
+    this.drbg = drbg;
+    this.network = network;
+    this.commitmentSerializer = new HashBasedCommitmentSerializer();
+    this.messageDigest = ExceptionConverter.safe(() -> MessageDigest.getInstance("SHA-256"),
+        "Configuration error, SHA-256 is needed for Spdz2k pre-processing");
+  }
+
+  /**
+   * Commits to value and returns the opened values of all parties, sorted by party id.
+   */
+  List<byte[]> allCommit(byte[] value) {
+    HashBasedCommitment ownCommitment = new HashBasedCommitment();
+    byte[] ownOpening = ownCommitment.commit(drbg, value);
+    network.sendToAll(commitmentSerializer.serialize(ownCommitment));
+    List<byte[]> rawCommitments = network.receiveFromAll();
+    if (network.getNoOfParties() > 2) {
+      validateBroadcast(rawCommitments);
+    }
+    network.sendToAll(ownOpening);
+    List<byte[]> openings = network.receiveFromAll();
+    List<byte[]> opened = new ArrayList<>(openings.size());
+    for (int i = 0; i < openings.size(); i++) {
+      HashBasedCommitment commitment = commitmentSerializer.deserialize(rawCommitments.get(i));
+      opened.add(commitment.open(openings.get(i)));
+    }
+    return opened;
+  }
+
+  private void validateBroadcast(List<byte[]> messages) {
+    for (byte[] message : messages) {
+      messageDigest.update(message);
+    }
+    byte[] digest = messageDigest.digest();
+    network.sendToAll(digest);
+    for (byte[] otherDigest : network.receiveFromAll()) {
+      if (!Arrays.equals(digest, otherDigest)) {
+        throw new MaliciousException("Broadcast validation failed");
+      }
+    }
+  }
+
+}
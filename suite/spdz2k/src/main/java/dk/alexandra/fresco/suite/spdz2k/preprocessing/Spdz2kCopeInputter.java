@@ -0,0 +1,79 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The <i>inputter</i> party's side of the Correlated Oblivious Product Evaluation (COPE) protocol
+ * over the ring <i>Z<sub>2<sup>k + s</sup></sub></i>.
+ *
+ * <p>For each input <i>x</i> and each bit <i>j</i> of the signer's key share the inputter sends
+ * <i>t<sub>0,j</sub> - t<sub>1,j</sub> + x</i>, where <i>t<sub>0,j</sub>, t<sub>1,j</sub></i> are
+ * drawn from the PRGs seeded by the <i>j</i>'th random OT, and keeps <i>-sum<sub>j</sub>
+ * 2<sup>j</sup> t<sub>0,j</sub></i> as its share of the product. For the other side of the
+ * protocol, see {@link Spdz2kCopeSigner}.</p>
+ */
+public class Spdz2kCopeInputter<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final List<CompUIntPrg<PlainT>> leftPrgs;
+  private final List<CompUIntPrg<PlainT>> rightPrgs;
+  private final int otherId;
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Network network;
+
+  /**
+   * Creates a new {@link Spdz2kCopeInputter} and runs the initialization sub-protocol.
+   *
+   * @param resourcePool the resource pool for the protocol
+   * @param network the network to use for communication
+   * @param otherId the id of the other party
+   */
+  public Spdz2kCopeInputter(Spdz2kPreprocessingResourcePool<PlainT> resourcePool,
+      Network network, int otherId) {
+    this.otherId = otherId;
+    this.resourcePool = resourcePool;
+    this.network = network;
+    RotBatch rot = resourcePool.createRot(otherId, network);
+    List<Pair<StrictBitVector, StrictBitVector>> seeds = rot
+        .send(resourcePool.getMacKeyBitLength(), resourcePool.getPrgSeedLength());
+    this.leftPrgs = new ArrayList<>(seeds.size());
+    this.rightPrgs = new ArrayList<>(seeds.size());
+    for (Pair<StrictBitVector, StrictBitVector> seedPair : seeds) {
+      leftPrgs.add(new CompUIntPrg<>(seedPair.getFirst(), resourcePool.getFactory()));
+      rightPrgs.add(new CompUIntPrg<>(seedPair.getSecond(), resourcePool.getFactory()));
+    }
+  }
+
+  /**
+   * Computes shares of the products of this party's inputs and the other party's mac key share.
+   *
+   * @param inputs input elements
+   * @return shares of products
+   */
+  public List<PlainT> extend(List<PlainT> inputs) {
+    int keyBitLength = leftPrgs.size();
+    List<PlainT> diffs = new ArrayList<>(inputs.size() * keyBitLength);
+    List<PlainT> zeroMasks = new ArrayList<>(inputs.size() * keyBitLength);
+    for (PlainT input : inputs) {
+      for (int j = 0; j < keyBitLength; j++) {
+        PlainT t0 = leftPrgs.get(j).getNext();
+        PlainT t1 = rightPrgs.get(j).getNext();
+        diffs.add(t0.subtract(t1).add(input));
+        zeroMasks.add(t0);
+      }
+    }
+    network.send(otherId, resourcePool.getFactory().getSerializer().serialize(diffs));
+    List<PlainT> productShares = new ArrayList<>(inputs.size());
+    for (int i = 0; i < inputs.size(); i++) {
+      productShares.add(
+          CompUIntUtils.recombine(zeroMasks, i * keyBitLength, keyBitLength).negateUInt());
+    }
+    return productShares;
+  }
+
+}
@@ -0,0 +1,87 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The <i>signer</i> party's side of the Correlated Oblivious Product Evaluation (COPE) protocol
+ * over the ring <i>Z<sub>2<sup>k + s</sup></sub></i>.
+ *
+ * <p>COPE allows two parties, the <i>inputter</i> and the <i>signer</i>, where the inputter holds
+ * input values <i>x<sub>1</sub>, ..., x<sub>n</sub></i>, and the signer holds the s-bit mac key
+ * share <i>&alpha;</i>, to obtain a secret-sharing of <i>&alpha; * x<sub>1</sub>, ..., &alpha; *
+ * x<sub>n</sub></i>. During initialization the signer learns one seed per bit of its key share,
+ * chosen by that bit, via random OT. For the other side of the protocol, see {@link
+ * Spdz2kCopeInputter}.</p>
+ */
+public class Spdz2kCopeSigner<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final List<CompUIntPrg<PlainT>> prgs;
+  private final boolean[] macKeyBits;
+  private final int otherId;
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Network network;
+
+  /**
+   * Creates new cope signer and runs the initialization sub-protocol.
+   *
+   * @param resourcePool the resource pool for the protocol
+   * @param network the network to use for communication
+   * @param otherId the id of the other party
+   * @param macKeyShare this party's share of the mac key
+   */
+  public Spdz2kCopeSigner(Spdz2kPreprocessingResourcePool<PlainT> resourcePool, Network network,
+      int otherId, PlainT macKeyShare) {
+    this.otherId = otherId;
+    this.resourcePool = resourcePool;
+    this.network = network;
+    int keyBitLength = resourcePool.getMacKeyBitLength();
+    if (macKeyShare.toBigInteger().bitLength() > keyBitLength) {
+      throw new IllegalArgumentException(
+          "Mac key share must be at most " + keyBitLength + " bits long");
+    }
+    this.macKeyBits = CompUIntUtils.toBits(macKeyShare, keyBitLength);
+    RotBatch rot = resourcePool.createRot(otherId, network);
+    StrictBitVector choices = CompUIntUtils
+        .toChoiceBits(Collections.singletonList(macKeyShare), keyBitLength);
+    List<StrictBitVector> seeds = rot.receive(choices, resourcePool.getPrgSeedLength());
+    this.prgs = new ArrayList<>(keyBitLength);
+    for (StrictBitVector seed : seeds) {
+      prgs.add(new CompUIntPrg<>(seed, resourcePool.getFactory()));
+    }
+  }
+
+  /**
+   * Computes shares of the products of this party's mac key share and the other party's inputs.
+   *
+   * @param numInputs number of other party's inputs
+   * @return shares of products
+   */
+  public List<PlainT> extend(int numInputs) {
+    int keyBitLength = macKeyBits.length;
+    List<PlainT> diffs = resourcePool.getFactory().getSerializer()
+        .deserializeList(network.receive(otherId));
+    if (diffs.size() != numInputs * keyBitLength) {
+      throw new IllegalStateException(
+          "Expected " + numInputs * keyBitLength + " diffs but got " + diffs.size());
+    }
+    List<PlainT> summands = new ArrayList<>(diffs.size());
+    for (int i = 0; i < numInputs; i++) {
+      for (int j = 0; j < keyBitLength; j++) {
+        PlainT mask = prgs.get(j).getNext();
+        summands.add(macKeyBits[j] ? mask.add(diffs.get(i * keyBitLength + j)) : mask);
+      }
+    }
+    List<PlainT> productShares = new ArrayList<>(numInputs);
+    for (int i = 0; i < numInputs; i++) {
+      productShares.add(CompUIntUtils.recombine(summands, i * keyBitLength, keyBitLength));
+    }
+    return productShares;
+  }
+
+}
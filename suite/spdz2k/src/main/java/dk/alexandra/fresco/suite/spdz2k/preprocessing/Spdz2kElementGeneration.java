@@ -0,0 +1,324 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.TransposeUtils;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actively-secure protocol for generating authenticated, secret-shared ring elements, following
+ * the input and check sub-protocols of SPDZ2k (<a href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>).
+ *
+ * <p>Allows a single party to secret-share elements of <i>Z<sub>2<sup>k + s</sup></sub></i>
+ * among all parties such that each element is authenticated via a secret-shared mac under the
+ * secret-shared, s-bit mac key. Macs are computed using COPE between each pair of parties.</p>
+ */
+public class Spdz2kElementGeneration<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final PlainT macKeyShare;
+  private final CompUIntPrg<PlainT> localSampler;
+  private final CompUIntPrg<PlainT> jointSampler;
+  private final Map<Integer, Spdz2kCopeSigner<PlainT>> copeSigners;
+  private final Map<Integer, Spdz2kCopeInputter<PlainT>> copeInputters;
+  private final Spdz2kCommitmentBasedInput commitmentBasedInput;
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final ByteSerializer<PlainT> serializer;
+  private final Network network;
+
+  /**
+   * Creates new {@link Spdz2kElementGeneration} and initializes COPE with all other parties.
+   *
+   * @param resourcePool the resource pool
+   * @param network the network
+   * @param macKeyShare this party's share of the mac key
+   * @param jointSampler PRG seeded with a seed agreed upon by all parties
+   */
+  public Spdz2kElementGeneration(Spdz2kPreprocessingResourcePool<PlainT> resourcePool,
+      Network network, PlainT macKeyShare, CompUIntPrg<PlainT> jointSampler) {
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.macKeyShare = macKeyShare;
+    this.localSampler = resourcePool.getLocalSampler();
+    this.jointSampler = jointSampler;
+    this.serializer = resourcePool.getFactory().getSerializer();
+    this.commitmentBasedInput = new Spdz2kCommitmentBasedInput(
+        resourcePool.getRandomGenerator(), network);
+    this.copeSigners = new HashMap<>();
+    this.copeInputters = new HashMap<>();
+    initializeCope();
+  }
+
+  /**
+   * Computes this party's authenticated shares of its own inputs. To be called by the input
+   * party.
+   *
+   * @param values values to input
+   * @return authenticated shares of inputs
+   */
+  public List<Spdz2kSInt<PlainT>> input(List<PlainT> values) {
+    return checked(inputUnchecked(values));
+  }
+
+  /**
+   * Computes this party's authenticated shares of another party's inputs.
+   *
+   * @param inputterId id of inputter
+   * @param numInputs number of inputs
+   * @return authenticated shares of inputs
+   */
+  public List<Spdz2kSInt<PlainT>> input(int inputterId, int numInputs) {
+    return checked(inputUnchecked(inputterId, numInputs));
+  }
+
+  /**
+   * Computes this party's authenticated shares of the inputs of all parties, where each party
+   * inputs the same number of values. The mac checks of all inputters are run together, with a
+   * single commitment and opening round.
+   *
+   * @param values this party's values to input
+   * @return authenticated shares of the inputs of each party, ordered by party id
+   */
+  public List<List<Spdz2kSInt<PlainT>>> inputFromAll(List<PlainT> values) {
+    List<UncheckedInput<PlainT>> inputs = new ArrayList<>(resourcePool.getNoOfParties());
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      inputs.add(partyId == resourcePool.getMyId()
+          ? inputUnchecked(values)
+          : inputUnchecked(partyId, values.size()));
+    }
+    List<PlainT> sigmas = new ArrayList<>(inputs.size());
+    List<List<Spdz2kSInt<PlainT>>> elements = new ArrayList<>(inputs.size());
+    for (UncheckedInput<PlainT> input : inputs) {
+      sigmas.add(input.sigma);
+      elements.add(input.elements);
+    }
+    checkSigmas(sigmas);
+    return elements;
+  }
+
+  private UncheckedInput<PlainT> inputUnchecked(List<PlainT> values) {
+    values = new ArrayList<>(values);
+    // extra random element which masks the opened linear combination
+    values.add(localSampler.getNext());
+    List<PlainT> shares = secretShare(values);
+    List<PlainT> macs = macValues(values);
+    List<PlainT> coefficients = sampleCheckCoefficients(values.size());
+    PlainT maskedValue = UInt.innerProduct(values, coefficients);
+    network.sendToAll(serializer.serialize(maskedValue));
+    // so that we can use receiveFromAll correctly later
+    network.receive(resourcePool.getMyId());
+    return new UncheckedInput<>(
+        toAuthenticated(shares.subList(0, shares.size() - 1), macs.subList(0, macs.size() - 1)),
+        computeSigma(maskedValue, coefficients, macs));
+  }
+
+  private UncheckedInput<PlainT> inputUnchecked(int inputterId, int numInputs) {
+    List<PlainT> shares = serializer.deserializeList(network.receive(inputterId));
+    List<PlainT> macs = copeSigners.get(inputterId).extend(numInputs + 1);
+    List<PlainT> coefficients = sampleCheckCoefficients(numInputs + 1);
+    PlainT maskedValue = serializer.deserialize(network.receive(inputterId));
+    return new UncheckedInput<>(
+        toAuthenticated(shares.subList(0, numInputs), macs.subList(0, numInputs)),
+        computeSigma(maskedValue, coefficients, macs));
+  }
+
+  private List<Spdz2kSInt<PlainT>> checked(UncheckedInput<PlainT> input) {
+    checkSigmas(Collections.singletonList(input.sigma));
+    return input.elements;
+  }
+
+  /**
+   * Opens authenticated elements. The opened values are <b>not</b> checked; this must be done
+   * via {@link #check(List, List)}.
+   *
+   * @param closed authenticated elements to open
+   * @return opened values
+   */
+  public List<PlainT> open(List<Spdz2kSInt<PlainT>> closed) {
+    List<PlainT> ownShares = new ArrayList<>(closed.size());
+    for (Spdz2kSInt<PlainT> element : closed) {
+      ownShares.add(element.getShare());
+    }
+    network.sendToAll(serializer.serialize(ownShares));
+    List<PlainT> opened = null;
+    for (byte[] rawShares : network.receiveFromAll()) {
+      List<PlainT> shares = serializer.deserializeList(rawShares);
+      if (opened == null) {
+        opened = shares;
+      } else {
+        for (int i = 0; i < shares.size(); i++) {
+          opened.set(i, opened.get(i).add(shares.get(i)));
+        }
+      }
+    }
+    return opened;
+  }
+
+  /**
+   * Runs a batched mac check on opened values. Checks the full <i>k + s</i> bits of each value.
+   *
+   * @param sharesWithMacs authenticated shares holding mac shares
+   * @param openValues opened, unchecked values
+   */
+  public void check(List<Spdz2kSInt<PlainT>> sharesWithMacs, List<PlainT> openValues) {
+    if (sharesWithMacs.isEmpty()) {
+      return;
+    }
+    List<PlainT> coefficients = jointSampler.getNextCoefficients(sharesWithMacs.size());
+    List<PlainT> macs = new ArrayList<>(sharesWithMacs.size());
+    for (Spdz2kSInt<PlainT> element : sharesWithMacs) {
+      macs.add(element.getMacShare());
+    }
+    runMacCheck(UInt.innerProduct(openValues, coefficients), coefficients, macs);
+  }
+
+  public PlainT getMacKeyShare() {
+    return macKeyShare;
+  }
+
+  /**
+   * Samples coefficients for checking a batch of inputs. The last coefficient is one, so that the
+   * extra random element uniformly masks the opened linear combination.
+   */
+  private List<PlainT> sampleCheckCoefficients(int numElements) {
+    List<PlainT> coefficients = jointSampler.getNextCoefficients(numElements - 1);
+    coefficients.add(resourcePool.getFactory().createElement(1));
+    return coefficients;
+  }
+
+  /**
+   * Checks that <i>(sum of mac shares) = value * (sum of mac key shares)</i> where the mac shares
+   * are combined using the given coefficients.
+   */
+  private void runMacCheck(PlainT value, List<PlainT> coefficients, List<PlainT> macs) {
+    checkSigmas(Collections.singletonList(computeSigma(value, coefficients, macs)));
+  }
+
+  /**
+   * Computes this party's share of <i>(sum of mac shares) - value * (sum of mac key shares)</i>
+   * where the mac shares are combined using the given coefficients.
+   */
+  private PlainT computeSigma(PlainT value, List<PlainT> coefficients, List<PlainT> macs) {
+    PlainT macShare = UInt.innerProduct(macs, coefficients);
+    return macShare.subtract(value.multiply(macKeyShare));
+  }
+
+  /**
+   * Checks that the shares of each of the given sigmas add up to zero. All sigmas are committed
+   * to with a single commitment and opened together.
+   */
+  private void checkSigmas(List<PlainT> sigmas) {
+    List<byte[]> allSigmas = commitmentBasedInput.allCommit(serializer.serialize(sigmas));
+    List<PlainT> sums = new ArrayList<>(sigmas.size());
+    for (int i = 0; i < sigmas.size(); i++) {
+      sums.add(resourcePool.getFactory().zero());
+    }
+    for (byte[] rawSigmas : allSigmas) {
+      List<PlainT> partySigmas = serializer.deserializeList(rawSigmas);
+      if (partySigmas.size() != sigmas.size()) {
+        throw new MaliciousException("Wrong number of sigmas in mac check");
+      }
+      for (int i = 0; i < sums.size(); i++) {
+        sums.set(i, sums.get(i).add(partySigmas.get(i)));
+      }
+    }
+    for (PlainT sum : sums) {
+      if (!sum.isZero()) {
+        throw new MaliciousException("Malicious mac forging detected");
+      }
+    }
+  }
+
+  /**
+   * Computes shares of macs of values known to this party only. The mac of a value <i>v</i> is
+   * <i>v * (&alpha;<sub>1</sub> + ... + &alpha;<sub>n</sub>)</i>.
+   */
+  private List<PlainT> macValues(List<PlainT> values) {
+    List<PlainT> macs = new ArrayList<>(values.size());
+    for (PlainT value : values) {
+      macs.add(value.multiply(macKeyShare));
+    }
+    for (Spdz2kCopeInputter<PlainT> inputter : copeInputters.values()) {
+      List<PlainT> otherMacs = inputter.extend(values);
+      for (int i = 0; i < macs.size(); i++) {
+        macs.set(i, macs.get(i).add(otherMacs.get(i)));
+      }
+    }
+    return macs;
+  }
+
+  /**
+   * Computes additive shares of values and distributes the shares among the parties.
+   */
+  private List<PlainT> secretShare(List<PlainT> values) {
+    int noOfParties = resourcePool.getNoOfParties();
+    List<List<PlainT>> allShares = new ArrayList<>(values.size());
+    for (PlainT value : values) {
+      List<PlainT> shares = localSampler.getNext(noOfParties - 1);
+      PlainT ownShare = value;
+      for (PlainT share : shares) {
+        ownShare = ownShare.subtract(share);
+      }
+      shares.add(resourcePool.getMyId() - 1, ownShare);
+      allShares.add(shares);
+    }
+    List<List<PlainT>> byParty = TransposeUtils.transpose(allShares);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        network.send(partyId, serializer.serialize(byParty.get(partyId - 1)));
+      }
+    }
+    return byParty.get(resourcePool.getMyId() - 1);
+  }
+
+  private List<Spdz2kSInt<PlainT>> toAuthenticated(List<PlainT> shares, List<PlainT> macs) {
+    List<Spdz2kSInt<PlainT>> authenticated = new ArrayList<>(shares.size());
+    for (int i = 0; i < shares.size(); i++) {
+      authenticated.add(new Spdz2kSInt<>(shares.get(i), macs.get(i)));
+    }
+    return authenticated;
+  }
+
+  /**
+   * Initializes COPE with all other parties. Since receive blocks, the party with the lower id
+   * acts as signer first.
+   */
+  private void initializeCope() {
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (resourcePool.getMyId() != partyId) {
+        if (resourcePool.getMyId() < partyId) {
+          copeSigners.put(partyId,
+              new Spdz2kCopeSigner<>(resourcePool, network, partyId, macKeyShare));
+          copeInputters.put(partyId, new Spdz2kCopeInputter<>(resourcePool, network, partyId));
+        } else {
+          copeInputters.put(partyId, new Spdz2kCopeInputter<>(resourcePool, network, partyId));
+          copeSigners.put(partyId,
+              new Spdz2kCopeSigner<>(resourcePool, network, partyId, macKeyShare));
+        }
+      }
+    }
+  }
+
+  /**
+   * Authenticated shares of an input whose mac check has not been performed yet, along with this
+   * party's share of the value that must be zero for the check to pass.
+   */
+  private static class UncheckedInput<PlainT extends CompUInt<?, ?, PlainT>> {
+
+    private final List<Spdz2kSInt<PlainT>> elements;
+    private final PlainT sigma;
+
+    UncheckedInput(List<Spdz2kSInt<PlainT>> elements, PlainT sigma) {
+      this.elements = elements;
+      this.sigma = sigma;
+    }
+  }
+
+}
@@ -0,0 +1,53 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Left hand side of a two-party protocol for computing a secret sharing of the entry wise product
+ * of a bit vector <i><b>a</b></i> held by the <i>left</i> party and a vector of ring elements
+ * <i><b>b</b></i> held by the <i>right</i> party.
+ *
+ * <p>The left party uses its bits as choice bits in a batch of random OTs. For the other side,
+ * see {@link Spdz2kMultiplyRight}.</p>
+ */
+class Spdz2kMultiplyLeft<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final RotBatch rot;
+  private final int otherId;
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Network network;
+
+  Spdz2kMultiplyLeft(Spdz2kPreprocessingResourcePool<PlainT> resourcePool, Network network,
+      int otherId) {
+    this.otherId = otherId;
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.rot = resourcePool.createRot(otherId, network);
+  }
+
+  /**
+   * Computes shares of <i>a<sub>h</sub> * b<sub>h</sub></i> for each of this party's bits
+   * <i>a<sub>h</sub></i> and the other party's corresponding factor <i>b<sub>h</sub></i>.
+   *
+   * @param leftBits this party's bits. The length must be divisible by 8.
+   * @return shares of the products
+   */
+  List<PlainT> multiply(StrictBitVector leftBits) {
+    CompUIntFactory<PlainT> factory = resourcePool.getFactory();
+    List<StrictBitVector> seeds = rot.receive(leftBits, resourcePool.getCompositeBitLength());
+    List<PlainT> diffs = factory.getSerializer().deserializeList(network.receive(otherId));
+    List<PlainT> productShares = new ArrayList<>(seeds.size());
+    for (int h = 0; h < seeds.size(); h++) {
+      PlainT seed = factory.deserialize(seeds.get(h).toByteArray());
+      productShares.add(leftBits.getBit(h, false) ? seed.add(diffs.get(h)) : seed);
+    }
+    return productShares;
+  }
+
+}
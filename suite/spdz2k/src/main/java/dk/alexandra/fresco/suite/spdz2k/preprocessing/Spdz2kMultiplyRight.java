@@ -0,0 +1,61 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Right hand side of a two-party protocol for computing a secret sharing of the entry wise
+ * product of a bit vector <i><b>a</b></i> held by the <i>left</i> party and a vector of ring
+ * elements <i><b>b</b></i> held by the <i>right</i> party.
+ *
+ * <p>For each random OT pair <i>(q<sub>0</sub>, q<sub>1</sub>)</i> the right party sends
+ * <i>q<sub>0</sub> - q<sub>1</sub> + b</i> and keeps <i>-q<sub>0</sub></i> as its share. For the
+ * other side, see {@link Spdz2kMultiplyLeft}.</p>
+ */
+class Spdz2kMultiplyRight<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final RotBatch rot;
+  private final int otherId;
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Network network;
+
+  Spdz2kMultiplyRight(Spdz2kPreprocessingResourcePool<PlainT> resourcePool, Network network,
+      int otherId) {
+    this.otherId = otherId;
+    this.resourcePool = resourcePool;
+    this.network = network;
+    this.rot = resourcePool.createRot(otherId, network);
+  }
+
+  /**
+   * Computes shares of the products of the other party's bits and {@code rightFactors}, where
+   * each right factor is multiplied with {@code bitsPerFactor} consecutive bits.
+   *
+   * @param rightFactors this party's factors
+   * @param bitsPerFactor number of the other party's bits per factor
+   * @return shares of the products
+   */
+  List<PlainT> multiply(List<PlainT> rightFactors, int bitsPerFactor) {
+    CompUIntFactory<PlainT> factory = resourcePool.getFactory();
+    List<Pair<StrictBitVector, StrictBitVector>> seedPairs =
+        rot.send(rightFactors.size() * bitsPerFactor, resourcePool.getCompositeBitLength());
+    List<PlainT> diffs = new ArrayList<>(seedPairs.size());
+    List<PlainT> productShares = new ArrayList<>(seedPairs.size());
+    for (int h = 0; h < seedPairs.size(); h++) {
+      Pair<StrictBitVector, StrictBitVector> seedPair = seedPairs.get(h);
+      PlainT q0 = factory.deserialize(seedPair.getFirst().toByteArray());
+      PlainT q1 = factory.deserialize(seedPair.getSecond().toByteArray());
+      diffs.add(q0.subtract(q1).add(rightFactors.get(h / bitsPerFactor)));
+      productShares.add(q0.negateUInt());
+    }
+    network.send(otherId, factory.getSerializer().serialize(diffs));
+    return productShares;
+  }
+
+}
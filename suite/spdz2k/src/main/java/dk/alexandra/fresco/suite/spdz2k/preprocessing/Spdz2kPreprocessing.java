@@ -0,0 +1,174 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.ByteArrayHelper;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OT-based pre-processing for SPDZ2k (<a href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>).
+ * <br> Supports generation of multiplication triples, random authenticated elements, input masks
+ * and random authenticated bits over <i>Z<sub>2<sup>k + s</sup></sub></i>.
+ *
+ * <p>The network used must not be shared with any other protocol running concurrently, e.g., the
+ * online phase. Use a separate connection, or a dedicated channel of a
+ * {@link dk.alexandra.fresco.framework.network.ChannelMultiplexer}.</p>
+ */
+public class Spdz2kPreprocessing<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+  private final Spdz2kElementGeneration<PlainT> elementGeneration;
+  private final Spdz2kTripleGeneration<PlainT> tripleGeneration;
+  private final Spdz2kBitGeneration<PlainT> bitGeneration;
+
+  /**
+   * Creates new {@link Spdz2kPreprocessing}. Agrees on a joint seed with the other parties and
+   * initializes COPE and OT-based multiplication with each of them.
+   *
+   * @param resourcePool the resource pool
+   * @param network network dedicated to the pre-processing
+   * @param macKeyShare this party's share of the mac key. Must be at most s bits long.
+   */
+  public Spdz2kPreprocessing(Spdz2kPreprocessingResourcePool<PlainT> resourcePool,
+      Network network, PlainT macKeyShare) {
+    this.resourcePool = resourcePool;
+    CompUIntPrg<PlainT> jointSampler = new CompUIntPrg<>(
+        generateJointSeed(resourcePool, network), resourcePool.getFactory());
+    this.elementGeneration =
+        new Spdz2kElementGeneration<>(resourcePool, network, macKeyShare, jointSampler);
+    this.tripleGeneration =
+        new Spdz2kTripleGeneration<>(resourcePool, network, elementGeneration, jointSampler);
+    this.bitGeneration =
+        new Spdz2kBitGeneration<>(resourcePool, elementGeneration, tripleGeneration);
+  }
+
+  /**
+   * Creates new {@link Spdz2kPreprocessing} with a freshly sampled mac key share.
+   */
+  public Spdz2kPreprocessing(Spdz2kPreprocessingResourcePool<PlainT> resourcePool,
+      Network network) {
+    this(resourcePool, network, resourcePool.sampleMacKeyShare());
+  }
+
+  /**
+   * Generates a batch of multiplication triples.
+   *
+   * @param numTriples number of triples in batch
+   * @return multiplication triples
+   */
+  public List<Spdz2kTriple<PlainT>> getTriples(int numTriples) {
+    return tripleGeneration.triple(numTriples);
+  }
+
+  /**
+   * Turns private values of this party into authenticated, secret-shared values. The other
+   * parties must call {@link #input(int, int)} at the same time.
+   *
+   * @param values values to input
+   * @return this party's authenticated shares of the inputs
+   */
+  public List<Spdz2kSInt<PlainT>> input(List<PlainT> values) {
+    return elementGeneration.input(values);
+  }
+
+  /**
+   * Same as {@link #input(List)} but to be called by non-input parties.
+   *
+   * @param inputterId the id of the inputter
+   * @param numElements number of input elements
+   * @return this party's authenticated shares of the inputs
+   */
+  public List<Spdz2kSInt<PlainT>> input(int inputterId, int numElements) {
+    return elementGeneration.input(inputterId, numElements);
+  }
+
+  /**
+   * Creates random authenticated elements, unknown to all parties.
+   *
+   * @param numElements number of elements to create
+   * @return random authenticated elements
+   */
+  public List<Spdz2kSInt<PlainT>> getRandomElements(int numElements) {
+    List<Spdz2kSInt<PlainT>> sums = null;
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      List<Spdz2kSInt<PlainT>> shares = partyId == resourcePool.getMyId()
+          ? input(resourcePool.getLocalSampler().getNext(numElements))
+          : input(partyId, numElements);
+      if (sums == null) {
+        sums = new ArrayList<>(shares);
+      } else {
+        for (int i = 0; i < numElements; i++) {
+          sums.set(i, sums.get(i).add(shares.get(i)));
+        }
+      }
+    }
+    return sums;
+  }
+
+  /**
+   * Generates random input masks.
+   *
+   * @param maskerId the party that knows the plain masks
+   * @param numMasks number of masks to generate
+   * @return input masks
+   */
+  public List<Spdz2kInputMask<PlainT>> getInputMasks(int maskerId, int numMasks) {
+    List<Spdz2kInputMask<PlainT>> masks = new ArrayList<>(numMasks);
+    if (maskerId == resourcePool.getMyId()) {
+      List<PlainT> randomMasks = resourcePool.getLocalSampler().getNext(numMasks);
+      List<Spdz2kSInt<PlainT>> authenticated = input(randomMasks);
+      for (int i = 0; i < numMasks; i++) {
+        masks.add(new Spdz2kInputMask<>(authenticated.get(i), randomMasks.get(i)));
+      }
+    } else {
+      for (Spdz2kSInt<PlainT> share : input(maskerId, numMasks)) {
+        masks.add(new Spdz2kInputMask<>(share));
+      }
+    }
+    return masks;
+  }
+
+  /**
+   * Generates random authenticated bits.
+   *
+   * @param numBits number of bits to generate
+   * @return random bits
+   */
+  public List<Spdz2kSInt<PlainT>> getRandomBits(int numBits) {
+    return bitGeneration.generate(numBits);
+  }
+
+  /**
+   * Returns this party's share of the mac key.
+   */
+  public PlainT getMacKeyShare() {
+    return elementGeneration.getMacKeyShare();
+  }
+
+  public Spdz2kPreprocessingResourcePool<PlainT> getResourcePool() {
+    return resourcePool;
+  }
+
+  /**
+   * Agrees on a random seed by letting every party commit to a random seed and XOR'ing all
+   * seeds.
+   */
+  private static StrictBitVector generateJointSeed(
+      Spdz2kPreprocessingResourcePool<?> resourcePool, Network network) {
+    byte[] seed = new byte[resourcePool.getPrgSeedLength() / Byte.SIZE];
+    resourcePool.getRandomGenerator().nextBytes(seed);
+    List<byte[]> seeds = new Spdz2kCommitmentBasedInput(resourcePool.getRandomGenerator(),
+        network).allCommit(seed);
+    byte[] jointSeed = new byte[seed.length];
+    for (byte[] otherSeed : seeds) {
+      ByteArrayHelper.xor(jointSeed, otherSeed);
+    }
+    return new StrictBitVector(jointSeed);
+  }
+
+}
@@ -0,0 +1,152 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import dk.alexandra.fresco.tools.ot.otextension.BristolRotBatch;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.Map;
+
+/**
+ * Resources needed to run the OT-based SPDZ2k pre-processing protocols.
+ *
+ * @param <PlainT> type of ring elements the material is generated for
+ */
+public class Spdz2kPreprocessingResourcePool<PlainT extends CompUInt<?, ?, PlainT>> extends
+    ResourcePoolImpl {
+
+  private static final int DEFAULT_LAMBDA_SECURITY_PARAM = 64;
+  private static final int DEFAULT_PRG_SEED_LENGTH = 256;
+
+  private final int instanceId;
+  private final Drbg drbg;
+  private final Map<Integer, RotList> seedOts;
+  private final CompUIntFactory<PlainT> factory;
+  private final int lambdaSecurityParam;
+  private final int prgSeedLength;
+  private final CompUIntPrg<PlainT> localSampler;
+
+  /**
+   * Creates new {@link Spdz2kPreprocessingResourcePool}.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param instanceId the instance ID which is unique for this particular resource pool object,
+   *     but only in the given execution.
+   * @param drbg source of randomness
+   * @param seedOts pre-computed base OTs, per other party
+   * @param factory factory for ring elements
+   * @param lambdaSecurityParam OT security parameter num bits
+   * @param prgSeedLength bit length of seed used to underlying prg
+   */
+  public Spdz2kPreprocessingResourcePool(int myId, int noOfParties, int instanceId, Drbg drbg,
+      Map<Integer, RotList> seedOts, CompUIntFactory<PlainT> factory, int lambdaSecurityParam,
+      int prgSeedLength) {
+    super(myId, noOfParties);
+    this.instanceId = instanceId;
+    this.drbg = drbg;
+    this.seedOts = seedOts;
+    this.factory = factory;
+    this.lambdaSecurityParam = lambdaSecurityParam;
+    this.prgSeedLength = prgSeedLength;
+    this.localSampler = new CompUIntPrg<>(new StrictBitVector(prgSeedLength, drbg), factory);
+  }
+
+  /**
+   * Creates new {@link Spdz2kPreprocessingResourcePool} with default security parameters.
+   */
+  public Spdz2kPreprocessingResourcePool(int myId, int noOfParties, int instanceId, Drbg drbg,
+      Map<Integer, RotList> seedOts, CompUIntFactory<PlainT> factory) {
+    this(myId, noOfParties, instanceId, drbg, seedOts, factory, DEFAULT_LAMBDA_SECURITY_PARAM,
+        DEFAULT_PRG_SEED_LENGTH);
+  }
+
+  /**
+   * Creates random oblivious transfer protocol to be used. <p>Since the SPDZ2k preprocessing is
+   * actively secure, this always uses the actively secure {@link RotFactory}, and must never be
+   * changed to the semi-honest {@link
+   * dk.alexandra.fresco.tools.ot.otextension.SilentRotFactory}.</p>
+   *
+   * @param otherId other party that participates in protocol
+   * @param network network
+   * @return instance of random oblivious transfer protocol
+   */
+  public RotBatch createRot(int otherId, Network network) {
+    if (getMyId() == otherId) {
+      throw new IllegalArgumentException("Cannot initialize with self");
+    }
+    CoinTossing ct = new CoinTossing(getMyId(), otherId, drbg);
+    ct.initialize(network);
+    OtExtensionResourcePool otResources = new OtExtensionResourcePoolImpl(getMyId(), otherId,
+        prgSeedLength, lambdaSecurityParam, instanceId, drbg, ct, seedOts.get(otherId));
+    return new BristolRotBatch(new RotFactory(otResources, network), prgSeedLength,
+        lambdaSecurityParam);
+  }
+
+  /**
+   * Samples a fresh mac key share. <p>Following SPDZ2k, the mac key lives in the s-bit ring, so
+   * the share only has its s least significant bits set.</p>
+   */
+  public PlainT sampleMacKeyShare() {
+    byte[] bytes = new byte[getMacKeyBitLength() / Byte.SIZE];
+    drbg.nextBytes(bytes);
+    return factory.deserialize(bytes);
+  }
+
+  /**
+   * Gets PRG for generating random ring elements locally (for this party only).
+   */
+  public CompUIntPrg<PlainT> getLocalSampler() {
+    return localSampler;
+  }
+
+  public CompUIntFactory<PlainT> getFactory() {
+    return factory;
+  }
+
+  public Drbg getRandomGenerator() {
+    return drbg;
+  }
+
+  public int getInstanceId() {
+    return instanceId;
+  }
+
+  public int getLambdaSecurityParam() {
+    return lambdaSecurityParam;
+  }
+
+  public int getPrgSeedLength() {
+    return prgSeedLength;
+  }
+
+  /**
+   * Number of random bits combined into the left factor of a single triple, i.e., k + 2s.
+   */
+  public int getTripleBitLength() {
+    return factory.getCompositeBitLength() + factory.getHighBitLength();
+  }
+
+  /**
+   * Bit length of the mac key, i.e., s.
+   */
+  public int getMacKeyBitLength() {
+    return factory.getHighBitLength();
+  }
+
+  /**
+   * Bit length of ring elements, i.e., k + s.
+   */
+  public int getCompositeBitLength() {
+    return factory.getCompositeBitLength();
+  }
+
+}
@@ -0,0 +1,198 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actively-secure protocol for computing authenticated, secret-shared multiplication triples over
+ * <i>Z<sub>2<sup>k + s</sup></sub></i>, following the triple generation of SPDZ2k (<a
+ * href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>).
+ *
+ * <p>Each party samples a random right factor <i>b</i> and <i>k + 2s</i> random bits
+ * <i>a<sub>h</sub></i> per triple. The products <i>a<sub>h</sub> * b</i> are computed using
+ * OT-based multiplication between every pair of parties, and the bits are then combined into two
+ * left factors <i>a</i> and <i>a'</i> using public, random coefficients. This removes any
+ * leakage on the bits caused by selective failure attacks on the OTs. Finally, the resulting
+ * candidates <i>(a, b, c)</i> and <i>(a', b, c')</i> are authenticated and the latter is
+ * sacrificed to check the former.</p>
+ */
+public class Spdz2kTripleGeneration<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final Spdz2kElementGeneration<PlainT> elementGeneration;
+  private final Map<Integer, Spdz2kMultiplyLeft<PlainT>> leftMultipliers;
+  private final Map<Integer, Spdz2kMultiplyRight<PlainT>> rightMultipliers;
+  private final CompUIntPrg<PlainT> jointSampler;
+  private final Spdz2kPreprocessingResourcePool<PlainT> resourcePool;
+
+  /**
+   * Creates new triple generation protocol and initializes the OT-based multiplication with all
+   * other parties.
+   */
+  public Spdz2kTripleGeneration(Spdz2kPreprocessingResourcePool<PlainT> resourcePool,
+      Network network, Spdz2kElementGeneration<PlainT> elementGeneration,
+      CompUIntPrg<PlainT> jointSampler) {
+    this.resourcePool = resourcePool;
+    this.elementGeneration = elementGeneration;
+    this.jointSampler = jointSampler;
+    this.leftMultipliers = new HashMap<>();
+    this.rightMultipliers = new HashMap<>();
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        if (resourcePool.getMyId() < partyId) {
+          rightMultipliers.put(partyId, new Spdz2kMultiplyRight<>(resourcePool, network, partyId));
+          leftMultipliers.put(partyId, new Spdz2kMultiplyLeft<>(resourcePool, network, partyId));
+        } else {
+          leftMultipliers.put(partyId, new Spdz2kMultiplyLeft<>(resourcePool, network, partyId));
+          rightMultipliers.put(partyId, new Spdz2kMultiplyRight<>(resourcePool, network, partyId));
+        }
+      }
+    }
+  }
+
+  /**
+   * Generates a batch of multiplication triples.
+   *
+   * @param numTriples number of triples to generate
+   * @return valid multiplication triples
+   */
+  public List<Spdz2kTriple<PlainT>> triple(int numTriples) {
+    if (numTriples == 0) {
+      return Collections.emptyList();
+    }
+    int bitsPerTriple = resourcePool.getTripleBitLength();
+    StrictBitVector leftBits = new StrictBitVector(numTriples * bitsPerTriple,
+        resourcePool.getRandomGenerator());
+    List<PlainT> rightFactors = resourcePool.getLocalSampler().getNext(numTriples);
+    List<PlainT> products = multiply(leftBits, rightFactors, bitsPerTriple);
+    List<PlainT> candidates = combine(leftBits, rightFactors, products, bitsPerTriple);
+    List<Spdz2kSInt<PlainT>> authenticated = authenticate(candidates);
+    return sacrifice(authenticated);
+  }
+
+  /**
+   * Computes unauthenticated shares of the products of each (secret-shared) bit and the
+   * (secret-shared) right factor it belongs to.
+   */
+  private List<PlainT> multiply(StrictBitVector leftBits, List<PlainT> rightFactors,
+      int bitsPerTriple) {
+    List<PlainT> products = new ArrayList<>(leftBits.getSize());
+    // own part of the products
+    for (int h = 0; h < leftBits.getSize(); h++) {
+      products.add(leftBits.getBit(h, false)
+          ? rightFactors.get(h / bitsPerTriple)
+          : resourcePool.getFactory().zero());
+    }
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        Spdz2kMultiplyLeft<PlainT> left = leftMultipliers.get(partyId);
+        Spdz2kMultiplyRight<PlainT> right = rightMultipliers.get(partyId);
+        if (resourcePool.getMyId() < partyId) {
+          addInto(products, right.multiply(rightFactors, bitsPerTriple));
+          addInto(products, left.multiply(leftBits));
+        } else {
+          addInto(products, left.multiply(leftBits));
+          addInto(products, right.multiply(rightFactors, bitsPerTriple));
+        }
+      }
+    }
+    return products;
+  }
+
+  /**
+   * Combines the bits and products into candidates <i>(a, b, c, a', c')</i> using jointly sampled
+   * coefficients. The candidates are returned flattened.
+   */
+  private List<PlainT> combine(StrictBitVector leftBits, List<PlainT> rightFactors,
+      List<PlainT> products, int bitsPerTriple) {
+    List<PlainT> candidates = new ArrayList<>(5 * rightFactors.size());
+    for (int i = 0; i < rightFactors.size(); i++) {
+      List<PlainT> masks = jointSampler.getNext(bitsPerTriple);
+      List<PlainT> sacrificeMasks = jointSampler.getNext(bitsPerTriple);
+      PlainT left = resourcePool.getFactory().zero();
+      PlainT product = resourcePool.getFactory().zero();
+      PlainT leftHat = resourcePool.getFactory().zero();
+      PlainT productHat = resourcePool.getFactory().zero();
+      for (int j = 0; j < bitsPerTriple; j++) {
+        int h = i * bitsPerTriple + j;
+        if (leftBits.getBit(h, false)) {
+          left = left.add(masks.get(j));
+          leftHat = leftHat.add(sacrificeMasks.get(j));
+        }
+        product = product.add(masks.get(j).multiply(products.get(h)));
+        productHat = productHat.add(sacrificeMasks.get(j).multiply(products.get(h)));
+      }
+      candidates.add(left);
+      candidates.add(rightFactors.get(i));
+      candidates.add(product);
+      candidates.add(leftHat);
+      candidates.add(productHat);
+    }
+    return candidates;
+  }
+
+  /**
+   * Authenticates the candidate shares of all parties and adds them up.
+   */
+  private List<Spdz2kSInt<PlainT>> authenticate(List<PlainT> candidates) {
+    List<Spdz2kSInt<PlainT>> combined = null;
+    for (List<Spdz2kSInt<PlainT>> shares : elementGeneration.inputFromAll(candidates)) {
+      if (combined == null) {
+        combined = new ArrayList<>(shares);
+      } else {
+        for (int i = 0; i < shares.size(); i++) {
+          combined.set(i, combined.get(i).add(shares.get(i)));
+        }
+      }
+    }
+    return combined;
+  }
+
+  /**
+   * Checks each candidate <i>(a, b, c)</i> by sacrificing <i>(a', b, c')</i>. For random
+   * <i>t</i>, opens <i>&rho; = t * a - a'</i> and checks that <i>t * c - c' - &rho; * b</i> is
+   * zero.
+   */
+  private List<Spdz2kTriple<PlainT>> sacrifice(List<Spdz2kSInt<PlainT>> candidates) {
+    int numTriples = candidates.size() / 5;
+    List<PlainT> randomCoefficients = jointSampler.getNext(numTriples);
+    List<Spdz2kSInt<PlainT>> rhos = new ArrayList<>(2 * numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      Spdz2kSInt<PlainT> left = candidates.get(5 * i);
+      Spdz2kSInt<PlainT> leftHat = candidates.get(5 * i + 3);
+      rhos.add(left.multiply(randomCoefficients.get(i)).subtract(leftHat));
+    }
+    List<PlainT> openRhos = elementGeneration.open(rhos);
+    List<PlainT> paddedRhos = new ArrayList<>(openRhos);
+    for (int i = 0; i < numTriples; i++) {
+      Spdz2kSInt<PlainT> right = candidates.get(5 * i + 1);
+      Spdz2kSInt<PlainT> product = candidates.get(5 * i + 2);
+      Spdz2kSInt<PlainT> productHat = candidates.get(5 * i + 4);
+      rhos.add(product.multiply(randomCoefficients.get(i))
+          .subtract(productHat)
+          .subtract(right.multiply(openRhos.get(i))));
+      paddedRhos.add(resourcePool.getFactory().zero());
+    }
+    elementGeneration.check(rhos, paddedRhos);
+    List<Spdz2kTriple<PlainT>> triples = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      triples.add(new Spdz2kTriple<>(candidates.get(5 * i), candidates.get(5 * i + 1),
+          candidates.get(5 * i + 2)));
+    }
+    return triples;
+  }
+
+  private void addInto(List<PlainT> accumulator, List<PlainT> summands) {
+    for (int i = 0; i < accumulator.size(); i++) {
+      accumulator.set(i, accumulator.get(i).add(summands.get(i)));
+    }
+  }
+
+}
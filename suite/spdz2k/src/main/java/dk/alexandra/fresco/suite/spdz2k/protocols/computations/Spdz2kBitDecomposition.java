@@ -0,0 +1,86 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.computations;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kMultiplyVectorProtocol;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computation for decomposing a value in Z<sub>2<sup>k</sup></sub> into secret shared bits.
+ * <p>Opens <i>c = x + r</i> for a {@link Spdz2kRandomMask} <i>r</i> and computes the bits of
+ * <i>c - r</i> as <i>c<sub>i</sub> xor r<sub>i</sub> xor b<sub>i</sub></i>, where the borrow
+ * <i>b<sub>i</sub> = [c mod 2<sup>i</sup> &lt; r mod 2<sup>i</sup>]</i> is computed for all
+ * <i>i</i> at once by {@link Spdz2kBitwiseLessThan}. The output holds the {@code bitLength} least
+ * significant bits of the input in two's complement, least significant bit first.</p>
+ */
+public class Spdz2kBitDecomposition<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Computation<List<SInt>, ProtocolBuilderNumeric> {
+
+  private final DRes<SInt> input;
+  private final int bitLength;
+
+  /**
+   * Creates new {@link Spdz2kBitDecomposition}.
+   *
+   * @param input the value to decompose
+   * @param bitLength number of bits to output, at most k
+   */
+  public Spdz2kBitDecomposition(DRes<SInt> input, int bitLength) {
+    this.input = input;
+    this.bitLength = bitLength;
+  }
+
+  @Override
+  public DRes<List<SInt>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.seq(new Spdz2kMaskAndOpen(input, bitLength))
+        .seq((seq, maskedInput) -> {
+          Numeric numeric = seq.numeric();
+          BigInteger opened = maskedInput.getFirst();
+          List<DRes<SInt>> bits = maskedInput.getSecond().bits;
+          List<DRes<SInt>> differences = new ArrayList<>(bitLength);
+          for (int i = 0; i < bitLength; i++) {
+            differences.add(opened.testBit(i)
+                ? numeric.sub(BigInteger.ONE, bits.get(i))
+                : bits.get(i));
+          }
+          if (bitLength == 1) {
+            return () -> toSInts(differences);
+          }
+          DRes<List<DRes<SInt>>> borrows = seq.seq(
+              new Spdz2kBitwiseLessThan<PlainT>(opened, bits.subList(0, bitLength - 1), true));
+          List<DRes<SInt>> left = new ArrayList<>(bitLength - 1);
+          List<DRes<SInt>> right = new ArrayList<>(bitLength - 1);
+          for (int i = 1; i < bitLength; i++) {
+            int index = i - 1;
+            left.add(differences.get(i));
+            right.add(() -> borrows.out().get(index).out());
+          }
+          DRes<List<DRes<SInt>>> products =
+              seq.append(new Spdz2kMultiplyVectorProtocol<PlainT>(left, right));
+          List<DRes<SInt>> result = new ArrayList<>(bitLength);
+          result.add(differences.get(0));
+          for (int i = 1; i < bitLength; i++) {
+            // a xor b = a + b - 2ab
+            int index = i - 1;
+            result.add(numeric.sub(numeric.add(left.get(index), right.get(index)),
+                numeric.mult(BigInteger.valueOf(2), () -> products.out().get(index).out())));
+          }
+          return () -> toSInts(result);
+        });
+  }
+
+  private static List<SInt> toSInts(List<DRes<SInt>> bits) {
+    List<SInt> result = new ArrayList<>(bits.size());
+    for (DRes<SInt> bit : bits) {
+      result.add(bit.out());
+    }
+    return result;
+  }
+
+}
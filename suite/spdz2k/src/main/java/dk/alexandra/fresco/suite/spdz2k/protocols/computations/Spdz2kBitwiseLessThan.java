@@ -0,0 +1,157 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.computations;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kMultiplyVectorProtocol;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Computation for comparing a public value <i>c</i> to a value <i>r</i> given as secret shared
+ * bits, i.e., for computing <i>[c &lt; r]</i>. <p>Each bit position is turned into a pair of
+ * a less-than and an equality bit, and pairs for adjacent segments of bits are combined as
+ * <i>(lt<sub>H</sub> + eq<sub>H</sub> lt<sub>L</sub>, eq<sub>H</sub> eq<sub>L</sub>)</i>. All
+ * combinations within a level are done using a single {@link Spdz2kMultiplyVectorProtocol}, so the
+ * number of rounds is logarithmic in the number of bits.</p>
+ *
+ * <p>If all prefixes are requested the combination is done as a parallel prefix computation and
+ * the i'th element of the output is <i>[c mod 2<sup>i+1</sup> &lt; r mod 2<sup>i+1</sup>]</i>,
+ * i.e., the borrow out of bit <i>i</i> when subtracting <i>r</i> from <i>c</i>. Otherwise the
+ * output holds only the comparison of all bits.</p>
+ */
+public class Spdz2kBitwiseLessThan<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Computation<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final BigInteger openValue;
+  private final List<DRes<SInt>> bits;
+  private final boolean allPrefixes;
+
+  /**
+   * Creates new {@link Spdz2kBitwiseLessThan}.
+   *
+   * @param openValue the public value <i>c</i>; only the bits below {@code bits.size()} are used
+   * @param bits secret shared bits of <i>r</i>, least significant bit first
+   * @param allPrefixes whether to compute the comparison for all prefixes of the bits
+   */
+  public Spdz2kBitwiseLessThan(BigInteger openValue, List<DRes<SInt>> bits,
+      boolean allPrefixes) {
+    if (bits.isEmpty()) {
+      throw new IllegalArgumentException("Must compare at least one bit");
+    }
+    this.openValue = openValue;
+    this.bits = bits;
+    this.allPrefixes = allPrefixes;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    Numeric numeric = builder.numeric();
+    int size = bits.size();
+    List<DRes<SInt>> lessThan = new ArrayList<>(size);
+    List<DRes<SInt>> equal = new ArrayList<>(size);
+    DRes<SInt> zero = numeric.known(BigInteger.ZERO);
+    for (int i = 0; i < size; i++) {
+      DRes<SInt> bit = bits.get(i);
+      if (openValue.testBit(i)) {
+        lessThan.add(zero);
+        equal.add(bit);
+      } else {
+        lessThan.add(bit);
+        equal.add(numeric.sub(BigInteger.ONE, bit));
+      }
+    }
+    List<DRes<SInt>> result = allPrefixes
+        ? prefixes(builder, lessThan, equal)
+        : Collections.singletonList(reduce(builder, lessThan, equal));
+    return () -> result;
+  }
+
+  /**
+   * Combines segments pair-wise until a single segment covering all bits remains.
+   */
+  private DRes<SInt> reduce(ProtocolBuilderNumeric builder, List<DRes<SInt>> lessThan,
+      List<DRes<SInt>> equal) {
+    Numeric numeric = builder.numeric();
+    while (lessThan.size() > 1) {
+      int pairs = lessThan.size() / 2;
+      boolean lastLevel = lessThan.size() == 2;
+      List<DRes<SInt>> left = new ArrayList<>(2 * pairs);
+      List<DRes<SInt>> right = new ArrayList<>(2 * pairs);
+      for (int j = 0; j < pairs; j++) {
+        left.add(equal.get(2 * j + 1));
+        right.add(lessThan.get(2 * j));
+      }
+      if (!lastLevel) {
+        for (int j = 0; j < pairs; j++) {
+          left.add(equal.get(2 * j + 1));
+          right.add(equal.get(2 * j));
+        }
+      }
+      DRes<List<DRes<SInt>>> products = multiply(builder, left, right);
+      List<DRes<SInt>> nextLessThan = new ArrayList<>(pairs + 1);
+      List<DRes<SInt>> nextEqual = new ArrayList<>(pairs + 1);
+      for (int j = 0; j < pairs; j++) {
+        nextLessThan.add(numeric.add(lessThan.get(2 * j + 1), get(products, j)));
+        nextEqual.add(lastLevel ? null : get(products, pairs + j));
+      }
+      if (lessThan.size() % 2 == 1) {
+        nextLessThan.add(lessThan.get(lessThan.size() - 1));
+        nextEqual.add(equal.get(equal.size() - 1));
+      }
+      lessThan = nextLessThan;
+      equal = nextEqual;
+    }
+    return lessThan.get(0);
+  }
+
+  /**
+   * Computes all prefixes using the Kogge-Stone construction. A segment that reaches down to the
+   * least significant bit is only ever used as the lower part of a combination, so its equality
+   * bit is not needed.
+   */
+  private List<DRes<SInt>> prefixes(ProtocolBuilderNumeric builder, List<DRes<SInt>> lessThan,
+      List<DRes<SInt>> equal) {
+    Numeric numeric = builder.numeric();
+    int size = lessThan.size();
+    for (int distance = 1; distance < size; distance *= 2) {
+      List<DRes<SInt>> left = new ArrayList<>();
+      List<DRes<SInt>> right = new ArrayList<>();
+      for (int i = distance; i < size; i++) {
+        left.add(equal.get(i));
+        right.add(lessThan.get(i - distance));
+      }
+      for (int i = 2 * distance; i < size; i++) {
+        left.add(equal.get(i));
+        right.add(equal.get(i - distance));
+      }
+      DRes<List<DRes<SInt>>> products = multiply(builder, left, right);
+      List<DRes<SInt>> nextLessThan = new ArrayList<>(lessThan.subList(0, distance));
+      List<DRes<SInt>> nextEqual = new ArrayList<>(equal.subList(0, distance));
+      for (int i = distance; i < size; i++) {
+        nextLessThan.add(numeric.add(lessThan.get(i), get(products, i - distance)));
+        nextEqual.add(i < 2 * distance
+            ? null
+            : get(products, size - distance + i - 2 * distance));
+      }
+      lessThan = nextLessThan;
+      equal = nextEqual;
+    }
+    return lessThan;
+  }
+
+  private DRes<List<DRes<SInt>>> multiply(ProtocolBuilderNumeric builder,
+      List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    return builder.append(new Spdz2kMultiplyVectorProtocol<PlainT>(left, right));
+  }
+
+  private static DRes<SInt> get(DRes<List<DRes<SInt>>> products, int index) {
+    return () -> products.out().get(index).out();
+  }
+
+}
@@ -3,18 +3,17 @@ package dk.alexandra.fresco.suite.spdz2k.protocols.computations;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.Computation;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
-import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
-import dk.alexandra.fresco.lib.generic.BroadcastValidationProtocol;
+import dk.alexandra.fresco.lib.generic.BroadcastTranscript;
 import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kInputOnlyProtocol;
 
 /**
- * Native computation for inputting private data. <p>Consists of native protocols {@link
- * Spdz2kInputOnlyProtocol} and {@link BroadcastValidationProtocol}. The first returns this party's
- * share of the input along with the bytes of the masked input. The second step runs a broadcast
- * validation of the bytes of the masked input (if more than two parties are carrying out the
- * computation).</p>
+ * Native computation for inputting private data. <p>Consists of native protocol {@link
+ * Spdz2kInputOnlyProtocol}, which returns this party's share of the input. The broadcast of the
+ * masked input is not validated per input (if more than two parties are carrying out the
+ * computation), but recorded in a {@link BroadcastTranscript} which is validated for all inputs at
+ * once before the next mac check or output.</p>
  */
 public class Spdz2kInputComputation<PlainT extends CompUInt<?, ?, PlainT>> implements
     Computation<SInt, ProtocolBuilderNumeric> {
@@ -29,13 +28,7 @@ public class Spdz2kInputComputation<PlainT extends CompUInt<?, ?, PlainT>> imple
 
   @Override
   public DRes<SInt> buildComputation(ProtocolBuilderNumeric builder) {
-    DRes<Pair<DRes<SInt>, byte[]>> shareAndMaskBytes = builder
-        .append(new Spdz2kInputOnlyProtocol<>(input, inputPartyId));
-    return builder.seq(seq -> {
-      Pair<DRes<SInt>, byte[]> unwrapped = shareAndMaskBytes.out();
-      seq.append(new BroadcastValidationProtocol<>(unwrapped.getSecond()));
-      return unwrapped.getFirst();
-    });
+    return builder.append(new Spdz2kInputOnlyProtocol<>(input, inputPartyId));
   }
 
 }
@@ -18,6 +18,7 @@ import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
 import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
 import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +33,7 @@ public class Spdz2kMacCheckComputation<
 
   private final CompUIntConverter<HighT, LowT, PlainT> converter;
   private final ByteSerializer<PlainT> serializer;
+  private final CompUIntFactory<PlainT> factory;
   private final Spdz2kDataSupplier<PlainT> supplier;
   private final List<Spdz2kSInt<PlainT>> authenticatedElements;
   private final List<PlainT> openValues;
@@ -55,6 +57,7 @@ public class Spdz2kMacCheckComputation<
     this.openValues = toCheck.getSecond();
     this.converter = converter;
     this.serializer = resourcePool.getFactory().getSerializer();
+    this.factory = resourcePool.getFactory();
     this.supplier = resourcePool.getDataSupplier();
     this.randomCoefficients = sampleCoefficients(
         resourcePool.getRandomGenerator(),
@@ -68,7 +71,6 @@ public class Spdz2kMacCheckComputation<
   @Override
   public DRes<Void> buildComputation(ProtocolBuilderNumeric builder) {
     PlainT macKeyShare = supplier.getSecretSharedKey();
-    PlainT y = UInt.innerProduct(openValues, randomCoefficients);
     Spdz2kSInt<PlainT> r = supplier.getNextRandomElementShare();
     return builder
         .seq(seq -> {
@@ -83,10 +85,10 @@ public class Spdz2kMacCheckComputation<
           }
         })
         .seq((seq, ignored) -> computePValues(seq, authenticatedElements, r))
-        .seq((seq, broadcastPjs) -> computeZValues(seq, authenticatedElements, macKeyShare, y, r,
+        .seq((seq, broadcastPjs) -> computeZValues(seq, authenticatedElements, macKeyShare, r,
             broadcastPjs))
         .seq((seq, commitZjs) -> {
-          if (!UInt.sum(serializer.deserializeList(commitZjs)).isZero()) {
+          if (!factory.sum(serializer.deserializeList(commitZjs)).isZero()) {
             throw new MaliciousException("Mac check failed");
           }
           authenticatedElements.clear();
@@ -116,7 +118,7 @@ public class Spdz2kMacCheckComputation<
 
   private DRes<List<byte[]>> computeZValues(ProtocolBuilderNumeric builder,
       List<Spdz2kSInt<PlainT>> authenticatedElements,
-      PlainT macKeyShare, PlainT y, Spdz2kSInt<PlainT> r,
+      PlainT macKeyShare, Spdz2kSInt<PlainT> r,
       List<byte[]> broadcastPjs) {
     List<PlainT> pjList = serializer.deserializeList(broadcastPjs);
     HighT pLow = UInt.sum(
@@ -125,7 +127,11 @@ public class Spdz2kMacCheckComputation<
     List<PlainT> macShares = authenticatedElements.stream()
         .map(Spdz2kSInt::getMacShare)
         .collect(Collectors.toList());
-    PlainT mj = UInt.innerProduct(macShares, randomCoefficients);
+    // both inner products share the coefficients, so they are computed in one pass
+    List<PlainT> products = factory.innerProducts(Arrays.asList(openValues, macShares),
+        randomCoefficients);
+    PlainT y = products.get(0);
+    PlainT mj = products.get(1);
     PlainT zj = macKeyShare.multiply(y)
         .subtract(mj)
         .subtract(p.multiply(macKeyShare).shiftLowIntoHigh())
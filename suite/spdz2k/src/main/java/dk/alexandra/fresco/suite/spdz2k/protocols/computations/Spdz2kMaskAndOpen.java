@@ -0,0 +1,42 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.computations;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric.RandomAdditiveMask;
+import java.math.BigInteger;
+
+/**
+ * Computation for masking a secret value with a {@link Spdz2kRandomMask} and opening the result.
+ * <p>Outputs the opened value <i>x + r mod 2<sup>k</sup></i> along with the mask.</p>
+ */
+public class Spdz2kMaskAndOpen implements
+    Computation<Pair<BigInteger, RandomAdditiveMask>, ProtocolBuilderNumeric> {
+
+  private final DRes<SInt> input;
+  private final int numBits;
+
+  /**
+   * Creates new {@link Spdz2kMaskAndOpen}.
+   *
+   * @param input the value to mask and open
+   * @param numBits number of least significant bits of the mask to share bit-wise
+   */
+  public Spdz2kMaskAndOpen(DRes<SInt> input, int numBits) {
+    this.input = input;
+    this.numBits = numBits;
+  }
+
+  @Override
+  public DRes<Pair<BigInteger, RandomAdditiveMask>> buildComputation(
+      ProtocolBuilderNumeric builder) {
+    return builder.seq(new Spdz2kRandomMask(numBits))
+        .seq((seq, mask) -> {
+          DRes<BigInteger> opened = seq.numeric().open(seq.numeric().add(input, mask.random));
+          return () -> new Pair<>(opened.out(), mask);
+        });
+  }
+
+}
@@ -0,0 +1,60 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.computations;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Computation for extracting the most significant bit of a value in Z<sub>2<sup>k</sup></sub>,
+ * i.e., for computing <i>[x &lt; 0]</i> when <i>x</i> is interpreted as a signed k-bit integer.
+ * <p>Opens <i>c = x + r</i> for a random mask <i>r</i> with shared bits. Since <i>x mod
+ * 2<sup>k-1</sup> = c' - r' + 2<sup>k-1</sup>[c' &lt; r']</i> where <i>c'</i> and <i>r'</i>
+ * are <i>c</i> and <i>r</i> reduced modulo <i>2<sup>k-1</sup></i>, the most significant bit
+ * of <i>x</i> is <i>c<sub>k-1</sub> xor r<sub>k-1</sub> xor [c' &lt; r']</i>.</p>
+ */
+public class Spdz2kMostSignificantBit<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Computation<SInt, ProtocolBuilderNumeric> {
+
+  private final DRes<SInt> input;
+
+  /**
+   * Creates new {@link Spdz2kMostSignificantBit}.
+   *
+   * @param input the value to extract the most significant bit of
+   */
+  public Spdz2kMostSignificantBit(DRes<SInt> input) {
+    this.input = input;
+  }
+
+  @Override
+  public DRes<SInt> buildComputation(ProtocolBuilderNumeric builder) {
+    int k = builder.getBasicNumericContext().getMaxBitLength();
+    return builder.seq(new Spdz2kMaskAndOpen(input, k))
+        .seq((seq, maskedInput) -> {
+          BigInteger opened = maskedInput.getFirst();
+          List<DRes<SInt>> bits = maskedInput.getSecond().bits;
+          DRes<SInt> topBit = bits.get(k - 1);
+          DRes<SInt> topXor = opened.testBit(k - 1)
+              ? seq.numeric().sub(BigInteger.ONE, topBit)
+              : topBit;
+          DRes<List<DRes<SInt>>> lessThan = seq.seq(
+              new Spdz2kBitwiseLessThan<PlainT>(opened, bits.subList(0, k - 1), false));
+          return () -> new Pair<>(topXor, lessThan.out().get(0));
+        }).seq((seq, bits) -> xor(seq.numeric(), bits.getFirst(), bits.getSecond()));
+  }
+
+  /**
+   * Computes the exclusive or of two shared bits as <i>a + b - 2ab</i>.
+   */
+  static DRes<SInt> xor(Numeric numeric, DRes<SInt> left, DRes<SInt> right) {
+    DRes<SInt> product = numeric.mult(left, right);
+    return numeric.sub(numeric.add(left, right), numeric.mult(BigInteger.valueOf(2), product));
+  }
+
+}
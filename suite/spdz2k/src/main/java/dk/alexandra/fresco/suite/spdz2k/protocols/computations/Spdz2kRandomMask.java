@@ -0,0 +1,58 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.computations;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric.RandomAdditiveMask;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computation for generating a random mask for a value in Z<sub>2<sup>k</sup></sub> along with
+ * secret shares of its {@code numBits} least significant bits. <p>The mask is computed as
+ * <i>r = sum<sub>i</sub> 2<sup>i</sup> b<sub>i</sub> + 2<sup>numBits</sup> R</i> where the
+ * <i>b<sub>i</sub></i> are random bits and <i>R</i> is a random element, i.e., the mask is
+ * uniformly random in the ring while only the bits that are actually needed are generated. This is
+ * the ring analogue of an edaBit.</p>
+ */
+public class Spdz2kRandomMask implements Computation<RandomAdditiveMask, ProtocolBuilderNumeric> {
+
+  private final int numBits;
+
+  /**
+   * Creates new {@link Spdz2kRandomMask}.
+   *
+   * @param numBits number of least significant bits of the mask to share bit-wise
+   */
+  public Spdz2kRandomMask(int numBits) {
+    this.numBits = numBits;
+  }
+
+  @Override
+  public DRes<RandomAdditiveMask> buildComputation(ProtocolBuilderNumeric builder) {
+    int k = builder.getBasicNumericContext().getMaxBitLength();
+    if (numBits < 1 || numBits > k) {
+      throw new IllegalArgumentException(
+          "Number of bits must be between 1 and " + k + " but was " + numBits);
+    }
+    Numeric numeric = builder.numeric();
+    List<DRes<SInt>> bits = new ArrayList<>(numBits);
+    DRes<SInt> mask = null;
+    for (int i = 0; i < numBits; i++) {
+      DRes<SInt> bit = numeric.randomBit();
+      bits.add(bit);
+      DRes<SInt> term = numeric.mult(BigInteger.ONE.shiftLeft(i), bit);
+      mask = mask == null ? term : numeric.add(mask, term);
+    }
+    if (numBits < k) {
+      mask = numeric.add(mask,
+          numeric.mult(BigInteger.ONE.shiftLeft(numBits), numeric.randomElement()));
+    }
+    DRes<SInt> finalMask = mask;
+    return () -> new RandomAdditiveMask(bits, finalMask.out());
+  }
+
+}
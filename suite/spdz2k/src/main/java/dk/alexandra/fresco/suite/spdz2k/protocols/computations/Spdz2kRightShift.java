@@ -0,0 +1,105 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.computations;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric.RightShiftResult;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Computation for exact right shifts in Z<sub>2<sup>k</sup></sub>. <p>Opens <i>c = x + r mod
+ * 2<sup>k</sup></i> for a random mask <i>r</i> with shared bits. Writing <i>c<sub>H</sub>,
+ * r<sub>H</sub></i> for the values shifted by <i>m</i> and <i>c<sub>L</sub>, r<sub>L</sub></i>
+ * for the values reduced modulo <i>2<sup>m</sup></i> we have</p>
+ *
+ * <p><i>x &gt;&gt; m = c<sub>H</sub> - r<sub>H</sub> + 2<sup>k-m</sup>[c &lt; r] -
+ * [c<sub>L</sub> &lt; r<sub>L</sub>]</i></p>
+ *
+ * <p>where the two comparisons are computed in parallel using {@link Spdz2kBitwiseLessThan}. In
+ * contrast to the field based right shift, no inversion of <i>2<sup>m</sup></i> is needed, and the
+ * result is exact. By default the input is interpreted as an unsigned k-bit integer; an arithmetic
+ * shift of a signed input is computed by shifting <i>x + 2<sup>k-1</sup></i> and subtracting
+ * <i>2<sup>k-1-m</sup></i>.</p>
+ */
+public class Spdz2kRightShift<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Computation<RightShiftResult, ProtocolBuilderNumeric> {
+
+  private final DRes<SInt> input;
+  private final int shifts;
+  private final boolean signed;
+  private final boolean calculateRemainder;
+
+  /**
+   * Creates new {@link Spdz2kRightShift}.
+   *
+   * @param input the value to shift
+   * @param shifts number of bits to shift, must be less than k
+   * @param signed whether to interpret the input as a signed integer
+   * @param calculateRemainder true to also calculate remainder, aka input mod 2^shifts. If false
+   *     remainder in result will be null.
+   */
+  public Spdz2kRightShift(DRes<SInt> input, int shifts, boolean signed,
+      boolean calculateRemainder) {
+    if (shifts < 1) {
+      throw new IllegalArgumentException("Number of shifts must be positive but was " + shifts);
+    }
+    this.input = input;
+    this.shifts = shifts;
+    this.signed = signed;
+    this.calculateRemainder = calculateRemainder;
+  }
+
+  @Override
+  public DRes<RightShiftResult> buildComputation(ProtocolBuilderNumeric builder) {
+    int k = builder.getBasicNumericContext().getMaxBitLength();
+    if (shifts >= k) {
+      throw new IllegalArgumentException(
+          "Number of shifts must be less than " + k + " but was " + shifts);
+    }
+    BigInteger offset = BigInteger.ONE.shiftLeft(k - 1);
+    DRes<SInt> unsigned = signed ? builder.numeric().add(offset, input) : input;
+    return builder.seq(new Spdz2kMaskAndOpen(unsigned, k))
+        .pairInPar((seq, maskedInput) -> seq.seq(new Spdz2kBitwiseLessThan<PlainT>(
+            maskedInput.getFirst(), maskedInput.getSecond().bits, false)),
+            (seq, maskedInput) -> {
+              DRes<List<DRes<SInt>>> lowLessThan = seq.seq(new Spdz2kBitwiseLessThan<PlainT>(
+                  maskedInput.getFirst(), maskedInput.getSecond().bits.subList(0, shifts),
+                  false));
+              return () -> new Pair<>(maskedInput, lowLessThan.out());
+            })
+        .seq((seq, comparisons) -> {
+          Numeric numeric = seq.numeric();
+          BigInteger opened = comparisons.getSecond().getFirst().getFirst();
+          List<DRes<SInt>> bits = comparisons.getSecond().getFirst().getSecond().bits;
+          DRes<SInt> wrap = comparisons.getFirst().get(0);
+          DRes<SInt> lowBorrow = comparisons.getSecond().getSecond().get(0);
+          DRes<SInt> maskHigh = null;
+          for (int i = shifts; i < k; i++) {
+            DRes<SInt> term = numeric.mult(BigInteger.ONE.shiftLeft(i - shifts), bits.get(i));
+            maskHigh = maskHigh == null ? term : numeric.add(maskHigh, term);
+          }
+          BigInteger openedHigh = opened.shiftRight(shifts);
+          if (signed) {
+            openedHigh = openedHigh.subtract(BigInteger.ONE.shiftLeft(k - 1 - shifts))
+                .mod(BigInteger.ONE.shiftLeft(k));
+          }
+          DRes<SInt> result = numeric.sub(
+              numeric.add(
+                  numeric.sub(openedHigh, maskHigh),
+                  numeric.mult(BigInteger.ONE.shiftLeft(k - shifts), wrap)),
+              lowBorrow);
+          if (!calculateRemainder) {
+            return () -> new RightShiftResult(result.out(), null);
+          }
+          DRes<SInt> remainder = numeric.sub(input,
+              numeric.mult(BigInteger.ONE.shiftLeft(shifts), result));
+          return () -> new RightShiftResult(result.out(), remainder.out());
+        });
+  }
+
+}
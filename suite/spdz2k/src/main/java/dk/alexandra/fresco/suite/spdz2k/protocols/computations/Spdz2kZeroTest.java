@@ -0,0 +1,76 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.computations;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.protocols.natives.Spdz2kMultiplyVectorProtocol;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computation for testing if a value in Z<sub>2<sup>k</sup></sub> is zero. <p>If <i>|x| &lt;
+ * 2<sup>l</sup></i> then <i>x = 0</i> if and only if the <i>l</i> least significant bits of
+ * <i>x</i> are zero. The input is masked with a {@link Spdz2kRandomMask} which has only its
+ * <i>l</i> least significant bits shared bit-wise, and the opened value is compared to the mask on
+ * those bits by multiplying the <i>l</i> bit-wise equalities in a logarithmic depth tree.</p>
+ */
+public class Spdz2kZeroTest<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Computation<SInt, ProtocolBuilderNumeric> {
+
+  private final DRes<SInt> input;
+  private final int bitLength;
+
+  /**
+   * Creates new {@link Spdz2kZeroTest}.
+   *
+   * @param input the value to test
+   * @param bitLength bit length of the absolute value of the input; values larger than k are
+   *     capped at k
+   */
+  public Spdz2kZeroTest(DRes<SInt> input, int bitLength) {
+    if (bitLength < 1) {
+      throw new IllegalArgumentException("Bit length must be positive but was " + bitLength);
+    }
+    this.input = input;
+    this.bitLength = bitLength;
+  }
+
+  @Override
+  public DRes<SInt> buildComputation(ProtocolBuilderNumeric builder) {
+    int numBits = Math.min(bitLength, builder.getBasicNumericContext().getMaxBitLength());
+    return builder.seq(new Spdz2kMaskAndOpen(input, numBits))
+        .seq((seq, maskedInput) -> {
+          Numeric numeric = seq.numeric();
+          BigInteger opened = maskedInput.getFirst();
+          List<DRes<SInt>> bits = maskedInput.getSecond().bits;
+          List<DRes<SInt>> equal = new ArrayList<>(numBits);
+          for (int i = 0; i < numBits; i++) {
+            equal.add(opened.testBit(i)
+                ? bits.get(i)
+                : numeric.sub(BigInteger.ONE, bits.get(i)));
+          }
+          while (equal.size() > 1) {
+            int pairs = equal.size() / 2;
+            List<DRes<SInt>> left = new ArrayList<>(equal.subList(0, pairs));
+            List<DRes<SInt>> right = new ArrayList<>(equal.subList(pairs, 2 * pairs));
+            DRes<List<DRes<SInt>>> products =
+                seq.append(new Spdz2kMultiplyVectorProtocol<PlainT>(left, right));
+            List<DRes<SInt>> next = new ArrayList<>(pairs + 1);
+            for (int j = 0; j < pairs; j++) {
+              int index = j;
+              next.add(() -> products.out().get(index).out());
+            }
+            if (equal.size() % 2 == 1) {
+              next.add(equal.get(equal.size() - 1));
+            }
+            equal = next;
+          }
+          return equal.get(0);
+        });
+  }
+
+}
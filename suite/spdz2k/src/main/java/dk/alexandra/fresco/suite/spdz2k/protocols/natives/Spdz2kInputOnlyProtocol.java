@@ -1,9 +1,7 @@
 package dk.alexandra.fresco.suite.spdz2k.protocols.natives;
 
-import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
-import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
@@ -15,16 +13,18 @@ import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
 /**
  * Native protocol for inputting data. <p>This is used by native computation {@link
  * dk.alexandra.fresco.suite.spdz2k.protocols.computations.Spdz2kInputComputation}. The result of
- * this protocol is this party's share of the input, as well as the bytes of the masked input which
- * are later used in a broadcast validation.</p>
+ * this protocol is this party's share of the input. If more than two parties are carrying out the
+ * computation, the masked input is recorded in the session's {@link
+ * dk.alexandra.fresco.lib.generic.BroadcastTranscript}, which is validated before the next mac
+ * check or output.</p>
  */
 public class Spdz2kInputOnlyProtocol<PlainT extends CompUInt<?, ?, PlainT>>
-    extends Spdz2kNativeProtocol<Pair<DRes<SInt>, byte[]>, PlainT> {
+    extends Spdz2kNativeProtocol<SInt, PlainT> {
 
   private final PlainT input;
   private final int inputPartyId;
   private Spdz2kInputMask<PlainT> inputMask;
-  private Pair<DRes<SInt>, byte[]> shareAndMaskBytes;
+  private SInt share;
 
   /**
    * Creates new {@link Spdz2kInputOnlyProtocol}.
@@ -52,21 +52,23 @@ public class Spdz2kInputOnlyProtocol<PlainT extends CompUInt<?, ?, PlainT>>
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
       byte[] inputMaskBytes = network.receive(inputPartyId);
+      if (resourcePool.getNoOfParties() > 2) {
+        resourcePool.getBroadcastTranscript().update(inputMaskBytes);
+      }
       PlainT macKeyShare = dataSupplier.getSecretSharedKey();
       Spdz2kSInt<PlainT> maskShare = inputMask.getMaskShare();
-      Spdz2kSInt<PlainT> out = maskShare.addConstant(
+      this.share = maskShare.addConstant(
           factory.deserialize(inputMaskBytes),
           macKeyShare,
           factory.zero(),
           myId == 1);
-      this.shareAndMaskBytes = new Pair<>(out, inputMaskBytes);
       return EvaluationStatus.IS_DONE;
     }
   }
 
   @Override
-  public Pair<DRes<SInt>, byte[]> out() {
-    return shareAndMaskBytes;
+  public SInt out() {
+    return share;
   }
 
 }
@@ -0,0 +1,133 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.natives;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.util.PackedUIntSerializer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Native protocol for computing the element-wise product of two vectors of secret numbers.
+ *
+ * <p>Functionally equivalent to running a {@link Spdz2kMultiplyProtocol} per pair of factors,
+ * but all epsilons and deltas are packed into a single little-endian buffer per party, using
+ * {@link PackedUIntSerializer}, and reconstructed and pushed to the opened value store in
+ * bulk.</p>
+ */
+public class Spdz2kMultiplyVectorProtocol<PlainT extends CompUInt<?, ?, PlainT>> extends
+    Spdz2kNativeProtocol<List<DRes<SInt>>, PlainT> {
+
+  /**
+   * Max size of a single message; the batched evaluators use a single byte to frame messages.
+   */
+  static final int MAX_MESSAGE_LENGTH = Byte.MAX_VALUE;
+
+  private final List<DRes<SInt>> left;
+  private final List<DRes<SInt>> right;
+  private List<Spdz2kTriple<PlainT>> triples;
+  private List<Spdz2kSInt<PlainT>> epsilonsAndDeltas;
+  private List<DRes<SInt>> products;
+
+  /**
+   * Creates new {@link Spdz2kMultiplyVectorProtocol}.
+   *
+   * @param left left factors
+   * @param right right factors
+   */
+  public Spdz2kMultiplyVectorProtocol(List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Number of left and right factors must be equal but was " + left.size() + " and "
+              + right.size());
+    }
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, Spdz2kResourcePool<PlainT> resourcePool,
+      Network network) {
+    int size = left.size();
+    CompUIntFactory<PlainT> factory = resourcePool.getFactory();
+    PackedUIntSerializer<PlainT> serializer = new PackedUIntSerializer<>(factory);
+    if (round == 0) {
+      Spdz2kDataSupplier<PlainT> supplier = resourcePool.getDataSupplier();
+      triples = new ArrayList<>(size);
+      epsilonsAndDeltas = new ArrayList<>(2 * size);
+      for (int i = 0; i < size; i++) {
+        Spdz2kTriple<PlainT> triple = supplier.getNextTripleShares();
+        triples.add(triple);
+        epsilonsAndDeltas.add(toSpdz2kSInt(left.get(i)).subtract(triple.getLeft()));
+      }
+      for (int i = 0; i < size; i++) {
+        epsilonsAndDeltas.add(toSpdz2kSInt(right.get(i)).subtract(triples.get(i).getRight()));
+      }
+      List<PlainT> shares = new ArrayList<>(2 * size);
+      for (Spdz2kSInt<PlainT> element : epsilonsAndDeltas) {
+        shares.add(element.getShare());
+      }
+      sendToAll(network, serializer.serialize(shares));
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      int byteLength = serializer.getByteLength(2 * size);
+      List<byte[]> received = new ArrayList<>(resourcePool.getNoOfParties());
+      for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+        received.add(receive(network, partyId, byteLength));
+      }
+      List<PlainT> opened = serializer.deserializeAndSum(received, 2 * size);
+      PlainT macKeyShare = resourcePool.getDataSupplier().getSecretSharedKey();
+      boolean isPartyOne = resourcePool.getMyId() == 1;
+      products = new ArrayList<>(size);
+      // compute [prod] = [c] + epsilon * [b] + delta * [a] + epsilon * delta
+      for (int i = 0; i < size; i++) {
+        Spdz2kTriple<PlainT> triple = triples.get(i);
+        PlainT e = opened.get(i);
+        PlainT d = opened.get(size + i);
+        products.add(triple.getProduct()
+            .add(triple.getRight().multiply(e))
+            .add(triple.getLeft().multiply(d))
+            .addConstant(e.multiply(d), macKeyShare, factory.zero(), isPartyOne));
+      }
+      resourcePool.getOpenedValueStore().pushOpenedValues(epsilonsAndDeltas, opened);
+      triples = null;
+      epsilonsAndDeltas = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return products;
+  }
+
+  /**
+   * Sends data to all parties, split into frames of at most {@link #MAX_MESSAGE_LENGTH} bytes.
+   */
+  static void sendToAll(Network network, byte[] data) {
+    for (int from = 0; from < data.length; from += MAX_MESSAGE_LENGTH) {
+      network.sendToAll(
+          Arrays.copyOfRange(data, from, Math.min(data.length, from + MAX_MESSAGE_LENGTH)));
+    }
+  }
+
+  /**
+   * Receives {@code byteLength} bytes sent via {@link #sendToAll(Network, byte[])}.
+   */
+  static byte[] receive(Network network, int partyId, int byteLength) {
+    byte[] data = new byte[byteLength];
+    for (int from = 0; from < byteLength; from += MAX_MESSAGE_LENGTH) {
+      byte[] frame = network.receive(partyId);
+      System.arraycopy(frame, 0, data, from, frame.length);
+    }
+    return data;
+  }
+
+}
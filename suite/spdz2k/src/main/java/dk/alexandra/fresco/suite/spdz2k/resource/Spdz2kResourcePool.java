@@ -7,6 +7,7 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.lib.generic.BroadcastTranscript;
 import dk.alexandra.fresco.suite.spdz2k.Spdz2kProtocolSuite;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
@@ -35,6 +36,13 @@ public interface Spdz2kResourcePool<PlainT extends CompUInt<?, ?, PlainT>>
    */
   Spdz2kDataSupplier<PlainT> getDataSupplier();
 
+  /**
+   * Returns the transcript of the broadcasts received in this session. <p>Input protocols record
+   * the masked inputs they receive in it, and the round synchronization validates the transcript
+   * before any mac check or output, rather than once per input.</p>
+   */
+  BroadcastTranscript getBroadcastTranscript();
+
   /**
    * Returns factory for constructing concrete instances of {@link PlainT}, i.e., the class
    * representing the raw element data type.
@@ -19,6 +19,7 @@ import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
+import dk.alexandra.fresco.lib.generic.BroadcastTranscript;
 import dk.alexandra.fresco.suite.spdz2k.Spdz2kBuilder;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
@@ -45,6 +46,7 @@ public class Spdz2kResourcePoolImpl<PlainT extends CompUInt<?, ?, PlainT>>
   private final CompUIntFactory<PlainT> factory;
   private final ByteSerializer<PlainT> rawSerializer;
   private final Drbg localDrbg;
+  private final BroadcastTranscript broadcastTranscript;
   private Drbg drbg;
 
   /**
@@ -64,6 +66,7 @@ public class Spdz2kResourcePoolImpl<PlainT extends CompUInt<?, ?, PlainT>>
     this.rawSerializer = factory.getSerializer();
     this.drbg = drbg;
     this.localDrbg = new AesCtrDrbg();
+    this.broadcastTranscript = new BroadcastTranscript();
   }
 
   @Override
@@ -81,6 +84,11 @@ public class Spdz2kResourcePoolImpl<PlainT extends CompUInt<?, ?, PlainT>>
     return supplier;
   }
 
+  @Override
+  public BroadcastTranscript getBroadcastTranscript() {
+    return broadcastTranscript;
+  }
+
   @Override
   public CompUIntFactory<PlainT> getFactory() {
     return factory;
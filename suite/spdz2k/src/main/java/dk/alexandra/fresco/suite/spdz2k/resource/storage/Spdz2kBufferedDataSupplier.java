@@ -0,0 +1,93 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kPreprocessing;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Implementation of {@link Spdz2kDataSupplier} which generates pre-processing material on demand
+ * using {@link Spdz2kPreprocessing}.
+ *
+ * <p>Material is generated in batches and buffered, separately for each kind of material. Since
+ * generating a batch is an interactive protocol, all parties must request material in the same
+ * order, which is the case when all parties run the same application.</p>
+ */
+public class Spdz2kBufferedDataSupplier<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Spdz2kDataSupplier<PlainT> {
+
+  private static final int DEFAULT_BATCH_SIZE = 1024;
+
+  private final Spdz2kPreprocessing<PlainT> preprocessing;
+  private final int batchSize;
+  private final ArrayDeque<Spdz2kTriple<PlainT>> triples;
+  private final ArrayDeque<Spdz2kSInt<PlainT>> bits;
+  private final ArrayDeque<Spdz2kSInt<PlainT>> randomElements;
+  private final Map<Integer, ArrayDeque<Spdz2kInputMask<PlainT>>> masks;
+
+  /**
+   * Creates new {@link Spdz2kBufferedDataSupplier}.
+   *
+   * @param preprocessing the pre-processing protocol to generate material with
+   * @param batchSize number of elements of each kind to generate at a time
+   */
+  public Spdz2kBufferedDataSupplier(Spdz2kPreprocessing<PlainT> preprocessing, int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive, but was " + batchSize);
+    }
+    this.preprocessing = preprocessing;
+    this.batchSize = batchSize;
+    this.triples = new ArrayDeque<>();
+    this.bits = new ArrayDeque<>();
+    this.randomElements = new ArrayDeque<>();
+    this.masks = new HashMap<>();
+  }
+
+  /**
+   * Creates new {@link Spdz2kBufferedDataSupplier} with default batch size.
+   */
+  public Spdz2kBufferedDataSupplier(Spdz2kPreprocessing<PlainT> preprocessing) {
+    this(preprocessing, DEFAULT_BATCH_SIZE);
+  }
+
+  @Override
+  public Spdz2kTriple<PlainT> getNextTripleShares() {
+    return next(triples, () -> preprocessing.getTriples(batchSize));
+  }
+
+  @Override
+  public Spdz2kInputMask<PlainT> getNextInputMask(int towardPlayerId) {
+    ArrayDeque<Spdz2kInputMask<PlainT>> buffer =
+        masks.computeIfAbsent(towardPlayerId, id -> new ArrayDeque<>());
+    return next(buffer, () -> preprocessing.getInputMasks(towardPlayerId, batchSize));
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextBitShare() {
+    return next(bits, () -> preprocessing.getRandomBits(batchSize));
+  }
+
+  @Override
+  public PlainT getSecretSharedKey() {
+    return preprocessing.getMacKeyShare();
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextRandomElementShare() {
+    return next(randomElements, () -> preprocessing.getRandomElements(batchSize));
+  }
+
+  private <T> T next(ArrayDeque<T> buffer, Supplier<List<T>> generator) {
+    if (buffer.isEmpty()) {
+      buffer.addAll(generator.get());
+    }
+    return buffer.pop();
+  }
+
+}
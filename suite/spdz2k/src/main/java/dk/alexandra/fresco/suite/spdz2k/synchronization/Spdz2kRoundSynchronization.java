@@ -7,6 +7,7 @@ import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.lib.generic.BroadcastTranscript;
 import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
 import dk.alexandra.fresco.suite.spdz2k.Spdz2kBuilder;
 import dk.alexandra.fresco.suite.spdz2k.Spdz2kProtocolSuite;
@@ -21,7 +22,9 @@ import java.util.stream.StreamSupport;
 
 /**
  * Round synchronization for SPDZ2k. <p>Requires a mac check to be performed on an all opened
- * unauthenticated values whenever an output protocol is encountered in a batch.</p>
+ * unauthenticated values whenever an output protocol is encountered in a batch. Before each mac
+ * check, and at the end of the evaluation, the broadcasts recorded in the {@link
+ * BroadcastTranscript} of the resource pool are validated.</p>
  */
 public class Spdz2kRoundSynchronization<
     HighT extends UInt<HighT>,
@@ -68,18 +71,24 @@ public class Spdz2kRoundSynchronization<
     evaluator.eval(sequential.build(), resourcePool, network);
   }
 
+  private void validateAndMacCheck(Spdz2kResourcePool<PlainT> resourcePool, Network network) {
+    resourcePool.getBroadcastTranscript().validate(network);
+    doMacCheck(resourcePool, network);
+  }
+
   @Override
   public void finishedBatch(int gatesEvaluated, Spdz2kResourcePool<PlainT> resourcePool,
       Network network) {
     OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> store = resourcePool.getOpenedValueStore();
     if (isCheckRequired || store.exceedsThreshold(openValueThreshold)) {
-      doMacCheck(resourcePool, network);
+      validateAndMacCheck(resourcePool, network);
       isCheckRequired = false;
     }
   }
 
   @Override
   public void finishedEval(Spdz2kResourcePool<PlainT> resourcePool, Network network) {
+    resourcePool.getBroadcastTranscript().validate(network);
     OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> store = resourcePool.getOpenedValueStore();
     if (store.hasPendingValues()) {
       doMacCheck(resourcePool, network);
@@ -94,7 +103,7 @@ public class Spdz2kRoundSynchronization<
         .anyMatch(p -> p instanceof RequiresMacCheck);
     OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> store = resourcePool.getOpenedValueStore();
     if (store.hasPendingValues() && isCheckRequired) {
-      doMacCheck(resourcePool, network);
+      validateAndMacCheck(resourcePool, network);
     }
   }
 
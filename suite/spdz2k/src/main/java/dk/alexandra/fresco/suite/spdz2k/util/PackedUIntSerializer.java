@@ -0,0 +1,149 @@
+package dk.alexandra.fresco.suite.spdz2k.util;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializer for opening batches of {@link CompUInt} shares. <p>Only the k least significant bits
+ * of each share are serialized, packed back to back as little-endian words. Since an opened value
+ * is the sum of the low bits of all parties' shares, computed in the full ring, deserialization
+ * and recombination are fused: the packed shares of all parties are summed word-wise over primitive
+ * arrays, and only the final sums are turned into {@link PlainT} instances.</p>
+ */
+public class PackedUIntSerializer<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final int lowBitLength;
+  private final int elementByteLength;
+  private final int compositeByteLength;
+  private final int compositeWordLength;
+
+  /**
+   * Creates new {@link PackedUIntSerializer}.
+   *
+   * @param factory factory for creating {@link PlainT} instances.
+   */
+  public PackedUIntSerializer(CompUIntFactory<PlainT> factory) {
+    this.factory = factory;
+    this.lowBitLength = factory.getLowBitLength();
+    if (lowBitLength % Byte.SIZE != 0 || (lowBitLength > Long.SIZE
+        && lowBitLength % Long.SIZE != 0)) {
+      throw new IllegalArgumentException("Unsupported bit length " + lowBitLength);
+    }
+    this.elementByteLength = lowBitLength / Byte.SIZE;
+    this.compositeByteLength = factory.getCompositeBitLength() / Byte.SIZE;
+    this.compositeWordLength = (factory.getCompositeBitLength() + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  /**
+   * Number of bytes needed to serialize {@code numElements} shares.
+   */
+  public int getByteLength(int numElements) {
+    return numElements * elementByteLength;
+  }
+
+  /**
+   * Serializes the k least significant bits of each element.
+   */
+  public byte[] serialize(List<PlainT> elements) {
+    ByteBuffer buffer = ByteBuffer.allocate(getByteLength(elements.size()))
+        .order(ByteOrder.LITTLE_ENDIAN);
+    for (PlainT element : elements) {
+      if (lowBitLength == Long.SIZE) {
+        buffer.putLong(element.toLong());
+      } else if (lowBitLength == Integer.SIZE) {
+        buffer.putInt(element.toInt());
+      } else if (lowBitLength < Long.SIZE) {
+        long value = element.toLong();
+        for (int i = 0; i < elementByteLength; i++) {
+          buffer.put((byte) (value >>> (Byte.SIZE * i)));
+        }
+      } else {
+        byte[] bigEndian = element.getLeastSignificant().toByteArray();
+        for (int i = bigEndian.length - 1; i >= 0; i--) {
+          buffer.put(bigEndian[i]);
+        }
+      }
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Deserializes packed shares from all parties and recombines them, i.e., computes the sum of the
+   * shares of each element in the full ring.
+   *
+   * @param packedShares serialized shares, one per party
+   * @param numElements number of elements in each serialized batch
+   * @return the recombined elements
+   */
+  public List<PlainT> deserializeAndSum(List<byte[]> packedShares, int numElements) {
+    long[] sums = new long[numElements * compositeWordLength];
+    for (byte[] packed : packedShares) {
+      if (packed.length != getByteLength(numElements)) {
+        throw new IllegalArgumentException(
+            "Expected " + getByteLength(numElements) + " bytes but got " + packed.length);
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN);
+      if (lowBitLength <= Long.SIZE) {
+        for (int i = 0; i < numElements; i++) {
+          addWithCarry(sums, i * compositeWordLength, readSmall(buffer));
+        }
+      } else {
+        int lowWordLength = lowBitLength / Long.SIZE;
+        for (int i = 0; i < numElements; i++) {
+          for (int w = 0; w < lowWordLength; w++) {
+            addWithCarry(sums, i * compositeWordLength + w, buffer.getLong());
+          }
+        }
+      }
+    }
+    List<PlainT> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      elements.add(toElement(sums, i * compositeWordLength));
+    }
+    return elements;
+  }
+
+  private long readSmall(ByteBuffer buffer) {
+    if (lowBitLength == Long.SIZE) {
+      return buffer.getLong();
+    } else if (lowBitLength == Integer.SIZE) {
+      return Integer.toUnsignedLong(buffer.getInt());
+    } else {
+      long value = 0L;
+      for (int i = 0; i < elementByteLength; i++) {
+        value |= (buffer.get() & 0xFFL) << (Byte.SIZE * i);
+      }
+      return value;
+    }
+  }
+
+  /**
+   * Adds {@code value} to the word at {@code index}, propagating the carry up to the end of the
+   * element starting at {@code index} rounded down to the element boundary.
+   */
+  private void addWithCarry(long[] sums, int index, long value) {
+    int end = (index / compositeWordLength + 1) * compositeWordLength;
+    long old = sums[index];
+    sums[index] = old + value;
+    boolean carry = Long.compareUnsigned(sums[index], old) < 0;
+    for (int i = index + 1; carry && i < end; i++) {
+      sums[i]++;
+      carry = sums[i] == 0;
+    }
+  }
+
+  private PlainT toElement(long[] sums, int offset) {
+    byte[] bytes = new byte[compositeByteLength];
+    for (int b = 0; b < compositeByteLength; b++) {
+      long word = sums[offset + b / Long.BYTES];
+      bytes[compositeByteLength - 1 - b] = (byte) (word >>> (Byte.SIZE * (b % Long.BYTES)));
+    }
+    return factory.deserialize(bytes);
+  }
+
+}
@@ -0,0 +1,194 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.CompareTests;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.lib.common.math.integer.binary.BinaryOperationsTests;
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOpenedValueStoreImpl;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class TestSpdz2kComparison extends AbstractSpdz2kTest<Spdz2kResourcePool<CompUInt128>> {
+
+  private static final BigInteger MODULUS = BigInteger.ONE.shiftLeft(64);
+
+  @Test
+  public void testCompareLT() {
+    runTest(new CompareTests.TestCompareLT<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
+  @Test
+  public void testCompareEQ() {
+    runTest(new CompareTests.TestCompareEQ<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
+  @Test
+  public void testRightShift() {
+    runTest(new BinaryOperationsTests.TestRightShift<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
+  @Test
+  public void testBits() {
+    runTest(new BinaryOperationsTests.TestBits<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
+  @Test
+  public void testTruncation() {
+    runTest(new BinaryOperationsTests.TestTruncation<>(), EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
+  @Test
+  public void testSignedComparisons() {
+    runTest(new TestSignedComparisons(), EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
+  @Test
+  public void testSignedShifts() {
+    runTest(new TestSignedShifts(), EvaluationStrategy.SEQUENTIAL_BATCHED);
+  }
+
+  @Override
+  protected Spdz2kResourcePool<CompUInt128> createResourcePool(int playerId, int noOfParties,
+      Supplier<Network> networkSupplier) {
+    CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+    Spdz2kResourcePool<CompUInt128> resourcePool =
+        new Spdz2kResourcePoolImpl<>(
+            playerId,
+            noOfParties, null,
+            new Spdz2kOpenedValueStoreImpl<>(),
+            new Spdz2kDummyDataSupplier<>(playerId, noOfParties, factory.createRandom(), factory),
+            factory);
+    resourcePool.initializeJointRandomness(networkSupplier, AesCtrDrbg::new, 32);
+    return resourcePool;
+  }
+
+  @Override
+  protected ProtocolSuiteNumeric<Spdz2kResourcePool<CompUInt128>> createProtocolSuite() {
+    return new Spdz2kProtocolSuiteK64();
+  }
+
+  private static DRes<SInt> known(Numeric numeric, long value) {
+    return numeric.known(BigInteger.valueOf(value).mod(MODULUS));
+  }
+
+  private static BigInteger toSigned(BigInteger value) {
+    return value.testBit(63) ? value.subtract(MODULUS) : value;
+  }
+
+  private static class TestSignedComparisons extends
+      TestThreadFactory<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric> {
+
+    private final List<Long> values = Arrays.asList(0L, 1L, -1L, 42L, -42L, Long.MAX_VALUE / 2,
+        Long.MIN_VALUE / 2);
+
+    @Override
+    public TestThread<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric> next() {
+      return new TestThread<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = builder -> {
+            Numeric numeric = builder.numeric();
+            Comparison comparison = Comparison.using(builder);
+            List<DRes<SInt>> results = new ArrayList<>();
+            for (long x : values) {
+              results.add(comparison.sign(known(numeric, x)));
+              results.add(comparison.compareZero(known(numeric, x), 63));
+              for (long y : values) {
+                results.add(comparison.compareLEQ(known(numeric, x), known(numeric, y)));
+                results.add(comparison.equals(known(numeric, x), known(numeric, y)));
+              }
+            }
+            List<DRes<BigInteger>> opened = results.stream().map(numeric::open)
+                .collect(Collectors.toList());
+            return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+          };
+          List<BigInteger> output = runApplication(app);
+          int index = 0;
+          for (long x : values) {
+            assertEquals(x < 0 ? -1 : 1, toSigned(output.get(index++)).intValue());
+            assertEquals(x == 0 ? 1 : 0, output.get(index++).intValue());
+            for (long y : values) {
+              assertEquals(x <= y ? 1 : 0, output.get(index++).intValue());
+              assertEquals(x == y ? 1 : 0, output.get(index++).intValue());
+            }
+          }
+        }
+      };
+    }
+  }
+
+  private static class TestSignedShifts extends
+      TestThreadFactory<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric> {
+
+    private final List<Long> values = Arrays.asList(0L, 12345L, -12345L, -1L, Long.MIN_VALUE,
+        Long.MAX_VALUE);
+    private final int shifts = 7;
+
+    @Override
+    public TestThread<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric> next() {
+      return new TestThread<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = builder -> {
+            Numeric numeric = builder.numeric();
+            AdvancedNumeric advancedNumeric = AdvancedNumeric.using(builder);
+            List<DRes<SInt>> results = new ArrayList<>();
+            for (long x : values) {
+              results.add(advancedNumeric.truncate(known(numeric, x), shifts));
+              results.add(advancedNumeric.rightShift(known(numeric, x), shifts));
+            }
+            List<DRes<BigInteger>> opened = results.stream().map(numeric::open)
+                .collect(Collectors.toList());
+            List<DRes<BigInteger>> bits = new ArrayList<>();
+            DRes<List<SInt>> decomposed = advancedNumeric.toBits(known(numeric, -12345L), 64);
+            return builder.seq(seq -> {
+              for (SInt bit : decomposed.out()) {
+                bits.add(seq.numeric().open(bit));
+              }
+              return () -> null;
+            }).seq((seq, ignored) -> () -> {
+              List<BigInteger> all = opened.stream().map(DRes::out)
+                  .collect(Collectors.toList());
+              all.addAll(bits.stream().map(DRes::out).collect(Collectors.toList()));
+              return all;
+            });
+          };
+          List<BigInteger> output = runApplication(app);
+          int index = 0;
+          for (long x : values) {
+            assertEquals(BigInteger.valueOf(x >> shifts), toSigned(output.get(index++)));
+            assertEquals(BigInteger.valueOf(x >>> shifts), output.get(index++));
+          }
+          for (int i = 0; i < 64; i++) {
+            assertEquals((-12345L >>> i) & 1L, output.get(index++).longValue());
+          }
+        }
+      };
+    }
+  }
+
+}
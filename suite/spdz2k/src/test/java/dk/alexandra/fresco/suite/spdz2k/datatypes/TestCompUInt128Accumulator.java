@@ -0,0 +1,87 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt128Accumulator {
+
+  private final BigInteger twoTo64 = BigInteger.ONE.shiftLeft(64);
+  private final BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+  private final Random random = new Random(42);
+
+  @Test
+  public void testArithmetic() {
+    CompUInt128Accumulator accumulator = new CompUInt128Accumulator();
+    BigInteger expected = BigInteger.ZERO;
+    for (int i = 0; i < 1000; i++) {
+      BigInteger left = new BigInteger(128, random);
+      BigInteger right = new BigInteger(128, random);
+      switch (i % 4) {
+        case 0:
+          accumulator.add(new CompUInt128(left));
+          expected = expected.add(left);
+          break;
+        case 1:
+          accumulator.subtract(new CompUInt128(left));
+          expected = expected.subtract(left);
+          break;
+        case 2:
+          accumulator.addProduct(new CompUInt128(left), new CompUInt128(right));
+          expected = expected.add(left.multiply(right));
+          break;
+        default:
+          accumulator.multiply(new CompUInt128(left));
+          expected = expected.multiply(left);
+      }
+      assertEquals(expected.mod(twoTo128), accumulator.toCompUInt128().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testNegate() {
+    assertTrue(new CompUInt128Accumulator().negate().isZero());
+    BigInteger value = new BigInteger(128, random);
+    assertEquals(value.negate().mod(twoTo128),
+        new CompUInt128Accumulator(new CompUInt128(value)).negate().toCompUInt128()
+            .toBigInteger());
+    assertEquals(twoTo128.subtract(twoTo64),
+        new CompUInt128Accumulator(new CompUInt128(twoTo64)).negate().toCompUInt128()
+            .toBigInteger());
+  }
+
+  @Test
+  public void testResetAndIsZero() {
+    CompUInt128Accumulator accumulator = new CompUInt128Accumulator(new CompUInt128(42));
+    assertFalse(accumulator.isZero());
+    assertTrue(accumulator.reset().isZero());
+    assertEquals("0", accumulator.toString());
+  }
+
+  @Test
+  public void testFactoryInnerProductAndSum() {
+    CompUInt128Factory factory = new CompUInt128Factory();
+    List<CompUInt128> left = new ArrayList<>();
+    List<CompUInt128> right = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      left.add(factory.createRandom());
+      right.add(factory.createRandom());
+    }
+    assertEquals(UInt.innerProduct(left, right).toBigInteger(),
+        factory.innerProduct(left, right).toBigInteger());
+    assertEquals(UInt.sum(left).toBigInteger(), factory.sum(left).toBigInteger());
+    List<CompUInt128> products = factory.innerProducts(Arrays.asList(left, right), right);
+    assertEquals(UInt.innerProduct(left, right).toBigInteger(),
+        products.get(0).toBigInteger());
+    assertEquals(UInt.innerProduct(right, right).toBigInteger(),
+        products.get(1).toBigInteger());
+  }
+
+}
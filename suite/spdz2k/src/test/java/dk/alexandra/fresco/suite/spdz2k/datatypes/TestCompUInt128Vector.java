@@ -0,0 +1,109 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt128Vector {
+
+  private static final int SIZE = 257;
+  private final BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+  private final Random random = new Random(42);
+
+  @Test
+  public void testAdd() {
+    List<BigInteger> left = randomValues();
+    List<BigInteger> right = randomValues();
+    CompUInt128Vector result = toVector(left).add(toVector(right));
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(left.get(i).add(right.get(i)).mod(twoTo128), result.get(i).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testSubtract() {
+    List<BigInteger> left = randomValues();
+    List<BigInteger> right = randomValues();
+    CompUInt128Vector result = toVector(left).subtract(toVector(right));
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(left.get(i).subtract(right.get(i)).mod(twoTo128),
+          result.get(i).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testMultiply() {
+    List<BigInteger> left = randomValues();
+    List<BigInteger> right = randomValues();
+    CompUInt128Vector result = toVector(left).multiply(toVector(right));
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(left.get(i).multiply(right.get(i)).mod(twoTo128),
+          result.get(i).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testMultiplyScalar() {
+    List<BigInteger> left = randomValues();
+    BigInteger scalar = new BigInteger(128, random);
+    CompUInt128Vector result = toVector(left).multiply(new CompUInt128(scalar));
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(left.get(i).multiply(scalar).mod(twoTo128), result.get(i).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testInnerProductAndSum() {
+    List<BigInteger> left = randomValues();
+    List<BigInteger> right = randomValues();
+    BigInteger expectedInnerProduct = BigInteger.ZERO;
+    BigInteger expectedSum = BigInteger.ZERO;
+    for (int i = 0; i < SIZE; i++) {
+      expectedInnerProduct = expectedInnerProduct.add(left.get(i).multiply(right.get(i)));
+      expectedSum = expectedSum.add(left.get(i));
+    }
+    assertEquals(expectedInnerProduct.mod(twoTo128),
+        toVector(left).innerProduct(toVector(right)).toBigInteger());
+    assertEquals(expectedSum.mod(twoTo128), toVector(left).sum().toBigInteger());
+  }
+
+  @Test
+  public void testToList() {
+    List<BigInteger> values = randomValues();
+    List<CompUInt128> elements = toVector(values).toList();
+    for (int i = 0; i < SIZE; i++) {
+      assertEquals(values.get(i), elements.get(i).toBigInteger());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDifferentSizes() {
+    new CompUInt128Vector(2).add(new CompUInt128Vector(3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDifferentPartSizes() {
+    new CompUInt128Vector(new long[2], new long[3]);
+  }
+
+  private List<BigInteger> randomValues() {
+    List<BigInteger> values = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      values.add(new BigInteger(128, random));
+    }
+    return values;
+  }
+
+  private CompUInt128Vector toVector(List<BigInteger> values) {
+    List<CompUInt128> elements = new ArrayList<>(values.size());
+    for (BigInteger value : values) {
+      elements.add(new CompUInt128(value));
+    }
+    return CompUInt128Vector.fromList(elements);
+  }
+
+}
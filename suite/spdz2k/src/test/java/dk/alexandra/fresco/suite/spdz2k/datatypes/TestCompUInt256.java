@@ -0,0 +1,129 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt256 {
+
+  private final BigInteger modulus = BigInteger.ONE.shiftLeft(256);
+  private final BigInteger lowModulus = BigInteger.ONE.shiftLeft(128);
+  private final Random random = new Random(42);
+
+  @Test
+  public void testConstruct() {
+    assertEquals(BigInteger.ZERO, new CompUInt256(BigInteger.ZERO).toBigInteger());
+    assertEquals(BigInteger.ONE, new CompUInt256(BigInteger.ONE).toBigInteger());
+    assertEquals(lowModulus, new CompUInt256(lowModulus).toBigInteger());
+    assertEquals(modulus.subtract(BigInteger.ONE),
+        new CompUInt256(modulus.subtract(BigInteger.ONE)).toBigInteger());
+  }
+
+  @Test
+  public void testConstructFromLowBytes() {
+    byte[] bytes = new byte[32 / 2];
+    random.nextBytes(bytes);
+    CompUInt256 element = new CompUInt256(bytes);
+    assertEquals(new BigInteger(1, bytes), element.toBigInteger());
+    assertTrue(element.getMostSignificant().isZero());
+  }
+
+  @Test
+  public void testArithmetic() {
+    for (int i = 0; i < 1000; i++) {
+      BigInteger left = new BigInteger(256, random);
+      BigInteger right = new BigInteger(256, random);
+      CompUInt256 leftUInt = new CompUInt256(left);
+      CompUInt256 rightUInt = new CompUInt256(right);
+      assertEquals(left.add(right).mod(modulus), leftUInt.add(rightUInt).toBigInteger());
+      assertEquals(left.subtract(right).mod(modulus),
+          leftUInt.subtract(rightUInt).toBigInteger());
+      assertEquals(left.multiply(right).mod(modulus),
+          leftUInt.multiply(rightUInt).toBigInteger());
+      assertEquals(left.negate().mod(modulus), leftUInt.negateUInt().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testArithmeticEdgeCases() {
+    CompUInt256 max = new CompUInt256(modulus.subtract(BigInteger.ONE));
+    CompUInt256 one = new CompUInt256(BigInteger.ONE);
+    assertTrue(max.add(one).isZero());
+    assertEquals(BigInteger.ONE, max.multiply(max).toBigInteger());
+    assertEquals(modulus.subtract(BigInteger.ONE), new CompUInt256(BigInteger.ZERO).subtract(one)
+        .toBigInteger());
+  }
+
+  @Test
+  public void testSplitAndShift() {
+    BigInteger value = new BigInteger(256, random);
+    CompUInt256 element = new CompUInt256(value);
+    assertEquals(value.mod(lowModulus), element.getLeastSignificant().toBigInteger());
+    assertEquals(value.shiftRight(128), element.getMostSignificant().toBigInteger());
+    assertEquals(value.mod(lowModulus), element.getLeastSignificantAsHigh().toBigInteger());
+    assertEquals(value.shiftLeft(128).mod(modulus), element.shiftLowIntoHigh().toBigInteger());
+  }
+
+  @Test
+  public void testConverter() {
+    BigInteger value = new BigInteger(256, random);
+    CompUInt256 element = new CompUInt256(value);
+    CompUIntConverter256 converter = new CompUIntConverter256();
+    assertEquals(value.mod(lowModulus),
+        converter.createFromLow(element.getLeastSignificant()).toBigInteger());
+    assertEquals(value.shiftRight(128),
+        converter.createFromHigh(element.getMostSignificant()).toBigInteger());
+  }
+
+  @Test
+  public void testToByteArray() {
+    byte[] bytes = new byte[32];
+    random.nextBytes(bytes);
+    assertArrayEquals(bytes, new CompUInt256(bytes).toByteArray());
+  }
+
+  @Test
+  public void testToLongAndInt() {
+    BigInteger value = new BigInteger(256, random);
+    CompUInt256 element = new CompUInt256(value);
+    assertEquals(value.longValue(), element.toLong());
+    assertEquals(value.intValue(), element.toInt());
+  }
+
+  @Test
+  public void testBitLengths() {
+    CompUInt256 element = new CompUInt256(BigInteger.ONE);
+    assertEquals(128, element.getLowBitLength());
+    assertEquals(128, element.getHighBitLength());
+    assertEquals(256, element.getCompositeBitLength());
+  }
+
+  @Test
+  public void testIsZero() {
+    assertTrue(new CompUInt256(BigInteger.ZERO).isZero());
+    assertFalse(new CompUInt256(BigInteger.ONE).isZero());
+    assertFalse(new CompUInt256(modulus.shiftRight(1)).isZero());
+  }
+
+  @Test
+  public void testFactory() {
+    CompUInt256Factory factory = new CompUInt256Factory();
+    assertEquals(128, factory.getLowBitLength());
+    assertEquals(128, factory.getHighBitLength());
+    assertEquals(lowModulus, factory.getModulus());
+    assertTrue(factory.zero().isZero());
+    CompUInt256 element = factory.createRandom();
+    assertEquals(element.toBigInteger(),
+        factory.deserialize(factory.serialize(element)).toBigInteger());
+    assertEquals(BigInteger.valueOf(-1),
+        factory.convertToSigned(factory.convertToUnsigned(factory.createElement(lowModulus
+            .subtract(BigInteger.ONE)))));
+    assertEquals(BigInteger.valueOf(42), factory.createElement(42).toBigInteger());
+  }
+
+}
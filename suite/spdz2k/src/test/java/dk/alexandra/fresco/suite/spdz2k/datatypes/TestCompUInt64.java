@@ -0,0 +1,129 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt64 {
+
+  private final BigInteger modulus = BigInteger.ONE.shiftLeft(64);
+  private final BigInteger lowModulus = BigInteger.ONE.shiftLeft(32);
+  private final Random random = new Random(42);
+
+  @Test
+  public void testConstruct() {
+    assertEquals(BigInteger.ZERO, new CompUInt64(BigInteger.ZERO).toBigInteger());
+    assertEquals(BigInteger.ONE, new CompUInt64(BigInteger.ONE).toBigInteger());
+    assertEquals(lowModulus, new CompUInt64(lowModulus).toBigInteger());
+    assertEquals(modulus.subtract(BigInteger.ONE),
+        new CompUInt64(modulus.subtract(BigInteger.ONE)).toBigInteger());
+  }
+
+  @Test
+  public void testConstructFromLowBytes() {
+    byte[] bytes = new byte[8 / 2];
+    random.nextBytes(bytes);
+    CompUInt64 element = new CompUInt64(bytes);
+    assertEquals(new BigInteger(1, bytes), element.toBigInteger());
+    assertTrue(element.getMostSignificant().isZero());
+  }
+
+  @Test
+  public void testArithmetic() {
+    for (int i = 0; i < 1000; i++) {
+      BigInteger left = new BigInteger(64, random);
+      BigInteger right = new BigInteger(64, random);
+      CompUInt64 leftUInt = new CompUInt64(left);
+      CompUInt64 rightUInt = new CompUInt64(right);
+      assertEquals(left.add(right).mod(modulus), leftUInt.add(rightUInt).toBigInteger());
+      assertEquals(left.subtract(right).mod(modulus),
+          leftUInt.subtract(rightUInt).toBigInteger());
+      assertEquals(left.multiply(right).mod(modulus),
+          leftUInt.multiply(rightUInt).toBigInteger());
+      assertEquals(left.negate().mod(modulus), leftUInt.negateUInt().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testArithmeticEdgeCases() {
+    CompUInt64 max = new CompUInt64(modulus.subtract(BigInteger.ONE));
+    CompUInt64 one = new CompUInt64(BigInteger.ONE);
+    assertTrue(max.add(one).isZero());
+    assertEquals(BigInteger.ONE, max.multiply(max).toBigInteger());
+    assertEquals(modulus.subtract(BigInteger.ONE), new CompUInt64(BigInteger.ZERO).subtract(one)
+        .toBigInteger());
+  }
+
+  @Test
+  public void testSplitAndShift() {
+    BigInteger value = new BigInteger(64, random);
+    CompUInt64 element = new CompUInt64(value);
+    assertEquals(value.mod(lowModulus), element.getLeastSignificant().toBigInteger());
+    assertEquals(value.shiftRight(32), element.getMostSignificant().toBigInteger());
+    assertEquals(value.mod(lowModulus), element.getLeastSignificantAsHigh().toBigInteger());
+    assertEquals(value.shiftLeft(32).mod(modulus), element.shiftLowIntoHigh().toBigInteger());
+  }
+
+  @Test
+  public void testConverter() {
+    BigInteger value = new BigInteger(64, random);
+    CompUInt64 element = new CompUInt64(value);
+    CompUIntConverter64 converter = new CompUIntConverter64();
+    assertEquals(value.mod(lowModulus),
+        converter.createFromLow(element.getLeastSignificant()).toBigInteger());
+    assertEquals(value.shiftRight(32),
+        converter.createFromHigh(element.getMostSignificant()).toBigInteger());
+  }
+
+  @Test
+  public void testToByteArray() {
+    byte[] bytes = new byte[8];
+    random.nextBytes(bytes);
+    assertArrayEquals(bytes, new CompUInt64(bytes).toByteArray());
+  }
+
+  @Test
+  public void testToLongAndInt() {
+    BigInteger value = new BigInteger(64, random);
+    CompUInt64 element = new CompUInt64(value);
+    assertEquals(value.longValue() & 0xFFFFFFFFL, element.toLong());
+    assertEquals(value.intValue(), element.toInt());
+  }
+
+  @Test
+  public void testBitLengths() {
+    CompUInt64 element = new CompUInt64(BigInteger.ONE);
+    assertEquals(32, element.getLowBitLength());
+    assertEquals(32, element.getHighBitLength());
+    assertEquals(64, element.getCompositeBitLength());
+  }
+
+  @Test
+  public void testIsZero() {
+    assertTrue(new CompUInt64(BigInteger.ZERO).isZero());
+    assertFalse(new CompUInt64(BigInteger.ONE).isZero());
+    assertFalse(new CompUInt64(modulus.shiftRight(1)).isZero());
+  }
+
+  @Test
+  public void testFactory() {
+    CompUInt64Factory factory = new CompUInt64Factory();
+    assertEquals(32, factory.getLowBitLength());
+    assertEquals(32, factory.getHighBitLength());
+    assertEquals(lowModulus, factory.getModulus());
+    assertTrue(factory.zero().isZero());
+    CompUInt64 element = factory.createRandom();
+    assertEquals(element.toBigInteger(),
+        factory.deserialize(factory.serialize(element)).toBigInteger());
+    assertEquals(BigInteger.valueOf(-1),
+        factory.convertToSigned(factory.convertToUnsigned(factory.createElement(lowModulus
+            .subtract(BigInteger.ONE)))));
+    assertEquals(BigInteger.valueOf(42), factory.createElement(42).toBigInteger());
+  }
+
+}
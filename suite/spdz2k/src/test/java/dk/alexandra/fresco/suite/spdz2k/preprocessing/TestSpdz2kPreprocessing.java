@@ -0,0 +1,283 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kBufferedDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdz2kPreprocessing {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testTriples() throws Exception {
+    testTriples(2, 8);
+    testTriples(3, 4);
+  }
+
+  @Test
+  public void testInputMasks() throws Exception {
+    for (int maskerId = 1; maskerId <= 3; maskerId++) {
+      testInputMasks(3, maskerId, 4);
+    }
+  }
+
+  @Test
+  public void testRandomElements() throws Exception {
+    testRandomElements(2, 8);
+    testRandomElements(3, 4);
+  }
+
+  @Test
+  public void testRandomBits() throws Exception {
+    testRandomBits(2, 16);
+    testRandomBits(3, 8);
+  }
+
+  @Test
+  public void testBufferedDataSupplier() throws Exception {
+    int noOfParties = 2;
+    List<List<Object>> results = runParties(noOfParties, preprocessing -> {
+      Spdz2kDataSupplier<CompUInt128> supplier = new Spdz2kBufferedDataSupplier<>(
+          preprocessing, 3);
+      List<Object> material = new ArrayList<>();
+      material.add(supplier.getSecretSharedKey());
+      for (int i = 0; i < 4; i++) {
+        material.add(supplier.getNextTripleShares());
+        material.add(supplier.getNextBitShare());
+      }
+      return material;
+    });
+    CompUInt128 macKey = null;
+    for (List<Object> partyResult : results) {
+      CompUInt128 keyShare = (CompUInt128) partyResult.get(0);
+      macKey = macKey == null ? keyShare : macKey.add(keyShare);
+    }
+    for (int i = 0; i < 4; i++) {
+      List<Spdz2kTriple<CompUInt128>> triples = new ArrayList<>();
+      List<Spdz2kSInt<CompUInt128>> bits = new ArrayList<>();
+      for (List<Object> partyResult : results) {
+        triples.add(cast(partyResult.get(1 + 2 * i)));
+        bits.add(cast(partyResult.get(2 + 2 * i)));
+      }
+      assertTripleValid(recombineTriples(triples), macKey);
+      assertBit(recombine(bits), macKey);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBufferedDataSupplierInvalidBatchSize() {
+    new Spdz2kBufferedDataSupplier<CompUInt128>(null, 0);
+  }
+
+  private void testTriples(int noOfParties, int numTriples) throws Exception {
+    List<List<Spdz2kTriple<CompUInt128>>> results =
+        runParties(noOfParties, preprocessing -> preprocessing.getTriples(numTriples));
+    CompUInt128 macKey = recombineKey(noOfParties);
+    for (int i = 0; i < numTriples; i++) {
+      List<Spdz2kTriple<CompUInt128>> shares = new ArrayList<>(noOfParties);
+      for (List<Spdz2kTriple<CompUInt128>> partyResult : results) {
+        shares.add(partyResult.get(i));
+      }
+      assertTripleValid(recombineTriples(shares), macKey);
+    }
+  }
+
+  private void testInputMasks(int noOfParties, int maskerId, int numMasks) throws Exception {
+    List<List<Spdz2kInputMask<CompUInt128>>> results =
+        runParties(noOfParties, preprocessing -> preprocessing.getInputMasks(maskerId, numMasks));
+    CompUInt128 macKey = recombineKey(noOfParties);
+    for (int i = 0; i < numMasks; i++) {
+      List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>(noOfParties);
+      CompUInt128 openValue = null;
+      for (int partyId = 1; partyId <= noOfParties; partyId++) {
+        Spdz2kInputMask<CompUInt128> mask = results.get(partyId - 1).get(i);
+        if (partyId == maskerId) {
+          assertNotNull(mask.getOpenValue());
+          openValue = mask.getOpenValue();
+        } else {
+          assertNull(mask.getOpenValue());
+        }
+        shares.add(mask.getMaskShare());
+      }
+      Spdz2kSInt<CompUInt128> recombined = recombine(shares);
+      assertMacCorrect(recombined, macKey);
+      assertEquals(openValue.toBigInteger(), recombined.getShare().toBigInteger());
+    }
+  }
+
+  private void testRandomElements(int noOfParties, int numElements) throws Exception {
+    List<List<Spdz2kSInt<CompUInt128>>> results =
+        runParties(noOfParties, preprocessing -> preprocessing.getRandomElements(numElements));
+    CompUInt128 macKey = recombineKey(noOfParties);
+    for (int i = 0; i < numElements; i++) {
+      List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>(noOfParties);
+      for (List<Spdz2kSInt<CompUInt128>> partyResult : results) {
+        shares.add(partyResult.get(i));
+      }
+      assertMacCorrect(recombine(shares), macKey);
+    }
+  }
+
+  private void testRandomBits(int noOfParties, int numBits) throws Exception {
+    List<List<Spdz2kSInt<CompUInt128>>> results =
+        runParties(noOfParties, preprocessing -> preprocessing.getRandomBits(numBits));
+    CompUInt128 macKey = recombineKey(noOfParties);
+    for (int i = 0; i < numBits; i++) {
+      List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>(noOfParties);
+      for (List<Spdz2kSInt<CompUInt128>> partyResult : results) {
+        shares.add(partyResult.get(i));
+      }
+      assertBit(recombine(shares), macKey);
+    }
+  }
+
+  private <T> List<T> runParties(int noOfParties,
+      Function<Spdz2kPreprocessing<CompUInt128>, T> task) throws Exception {
+    Map<Integer, NetworkConfiguration> confs = NetworkUtil.getNetworkConfigurations(noOfParties);
+    List<Future<T>> futures = new ArrayList<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      final int myId = partyId;
+      futures.add(executor.submit(() -> {
+        try (CloseableNetwork network = new SocketNetwork(confs.get(myId))) {
+          Spdz2kPreprocessingResourcePool<CompUInt128> resourcePool =
+              createResourcePool(myId, noOfParties, network);
+          Spdz2kPreprocessing<CompUInt128> preprocessing = new Spdz2kPreprocessing<>(
+              resourcePool, network, macKeyShare(myId));
+          return task.apply(preprocessing);
+        }
+      }));
+    }
+    List<T> results = new ArrayList<>(noOfParties);
+    for (Future<T> future : futures) {
+      results.add(future.get());
+    }
+    return results;
+  }
+
+  private Spdz2kPreprocessingResourcePool<CompUInt128> createResourcePool(int myId,
+      int noOfParties, Network network) {
+    byte[] drbgSeed = new byte[PRG_SEED_LENGTH / Byte.SIZE];
+    new Random(myId).nextBytes(drbgSeed);
+    Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed(drbgSeed);
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return new Spdz2kPreprocessingResourcePool<>(myId, noOfParties, 1, drbg, seedOts,
+        new CompUInt128Factory());
+  }
+
+  /**
+   * Deterministic mac key share with only the s least significant bits set.
+   */
+  private CompUInt128 macKeyShare(int myId) {
+    return new CompUInt128Factory().createElement(0x0123456789abcdefL * myId + 42);
+  }
+
+  private CompUInt128 recombineKey(int noOfParties) {
+    CompUInt128 macKey = macKeyShare(1);
+    for (int partyId = 2; partyId <= noOfParties; partyId++) {
+      macKey = macKey.add(macKeyShare(partyId));
+    }
+    return macKey;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> T cast(Object object) {
+    return (T) object;
+  }
+
+  private Spdz2kSInt<CompUInt128> recombine(List<Spdz2kSInt<CompUInt128>> shares) {
+    return shares.stream().reduce(Spdz2kSInt::add).get();
+  }
+
+  private Spdz2kTriple<CompUInt128> recombineTriples(List<Spdz2kTriple<CompUInt128>> triples) {
+    List<Spdz2kSInt<CompUInt128>> left = new ArrayList<>(triples.size());
+    List<Spdz2kSInt<CompUInt128>> right = new ArrayList<>(triples.size());
+    List<Spdz2kSInt<CompUInt128>> product = new ArrayList<>(triples.size());
+    for (Spdz2kTriple<CompUInt128> triple : triples) {
+      left.add(triple.getLeft());
+      right.add(triple.getRight());
+      product.add(triple.getProduct());
+    }
+    return new Spdz2kTriple<>(recombine(left), recombine(right), recombine(product));
+  }
+
+  private void assertMacCorrect(Spdz2kSInt<CompUInt128> recombined, CompUInt128 macKey) {
+    assertArrayEquals(
+        macKey.multiply(recombined.getShare()).toByteArray(),
+        recombined.getMacShare().toByteArray());
+  }
+
+  private void assertBit(Spdz2kSInt<CompUInt128> recombined, CompUInt128 macKey) {
+    BigInteger asBitInt = recombined.getShare().toBigInteger();
+    assertTrue("Not a bit " + asBitInt,
+        asBitInt.equals(BigInteger.ZERO) || asBitInt.equals(BigInteger.ONE));
+    assertMacCorrect(recombined, macKey);
+  }
+
+  private void assertTripleValid(Spdz2kTriple<CompUInt128> recombined, CompUInt128 macKey) {
+    assertMacCorrect(recombined.getLeft(), macKey);
+    assertMacCorrect(recombined.getRight(), macKey);
+    assertMacCorrect(recombined.getProduct(), macKey);
+    assertEquals(recombined.getProduct().getShare().toBigInteger(),
+        recombined.getLeft().getShare().multiply(recombined.getRight().getShare())
+            .toBigInteger());
+  }
+
+}
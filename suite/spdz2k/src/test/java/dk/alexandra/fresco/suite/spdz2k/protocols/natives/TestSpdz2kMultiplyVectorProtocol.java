@@ -0,0 +1,126 @@
+package dk.alexandra.fresco.suite.spdz2k.protocols.natives;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.spdz2k.AbstractSpdz2kTest;
+import dk.alexandra.fresco.suite.spdz2k.Spdz2kProtocolSuiteK64;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOpenedValueStoreImpl;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSpdz2kMultiplyVectorProtocol extends
+    AbstractSpdz2kTest<Spdz2kResourcePool<CompUInt128>> {
+
+  @Test
+  public void testMultiplyVectorTwoParties() {
+    runTest(new TestMultiplyVector<>(100), EvaluationStrategy.SEQUENTIAL_BATCHED, 2);
+  }
+
+  @Test
+  public void testMultiplyVectorThreeParties() {
+    runTest(new TestMultiplyVector<>(100), EvaluationStrategy.SEQUENTIAL_BATCHED, 3);
+  }
+
+  @Test
+  public void testMultiplyVectorEmpty() {
+    runTest(new TestMultiplyVector<>(0), EvaluationStrategy.SEQUENTIAL_BATCHED, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDifferentSizes() {
+    List<DRes<SInt>> left = new ArrayList<>();
+    left.add(null);
+    new Spdz2kMultiplyVectorProtocol<CompUInt128>(left, new ArrayList<>());
+  }
+
+  @Override
+  protected Spdz2kResourcePool<CompUInt128> createResourcePool(int playerId, int noOfParties,
+      Supplier<Network> networkSupplier) {
+    CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+    Spdz2kResourcePool<CompUInt128> resourcePool =
+        new Spdz2kResourcePoolImpl<>(
+            playerId,
+            noOfParties, null,
+            new Spdz2kOpenedValueStoreImpl<>(),
+            new Spdz2kDummyDataSupplier<>(playerId, noOfParties, factory.createRandom(), factory),
+            factory);
+    resourcePool.initializeJointRandomness(networkSupplier, AesCtrDrbg::new, 32);
+    return resourcePool;
+  }
+
+  @Override
+  protected ProtocolSuiteNumeric<Spdz2kResourcePool<CompUInt128>> createProtocolSuite() {
+    return new Spdz2kProtocolSuiteK64();
+  }
+
+  private static class TestMultiplyVector<ResourcePoolT extends Spdz2kResourcePool<CompUInt128>>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private final int size;
+
+    private TestMultiplyVector(int size) {
+      this.size = size;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          BigInteger modulus = BigInteger.ONE.shiftLeft(64);
+          Random random = new Random(42);
+          List<BigInteger> leftValues = new ArrayList<>(size);
+          List<BigInteger> rightValues = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            leftValues.add(new BigInteger(64, random));
+            rightValues.add(new BigInteger(64, random));
+          }
+          Application<List<BigInteger>, ProtocolBuilderNumeric> testApplication = root -> {
+            List<DRes<SInt>> left = leftValues.stream()
+                .map(value -> root.numeric().input(value, 1))
+                .collect(Collectors.toList());
+            List<DRes<SInt>> right = rightValues.stream()
+                .map(value -> root.numeric().input(value, 2))
+                .collect(Collectors.toList());
+            DRes<List<DRes<SInt>>> products =
+                root.append(new Spdz2kMultiplyVectorProtocol<>(left, right));
+            return root.seq(seq -> {
+              List<DRes<BigInteger>> opened = products.out().stream()
+                  .map(product -> seq.numeric().open(product))
+                  .collect(Collectors.toList());
+              return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+            });
+          };
+          List<BigInteger> actual = runApplication(testApplication);
+          Assert.assertEquals(size, actual.size());
+          for (int i = 0; i < size; i++) {
+            Assert.assertEquals(leftValues.get(i).multiply(rightValues.get(i)).mod(modulus),
+                actual.get(i));
+          }
+          Assert.assertFalse(conf.getResourcePool().getOpenedValueStore().hasPendingValues());
+        }
+      };
+    }
+  }
+
+}
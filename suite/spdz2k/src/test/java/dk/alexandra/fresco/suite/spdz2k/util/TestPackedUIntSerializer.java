@@ -0,0 +1,71 @@
+package dk.alexandra.fresco.suite.spdz2k.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt256Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt64Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class TestPackedUIntSerializer {
+
+  @Test
+  public void testDeserializeAndSum() {
+    testDeserializeAndSum(new CompUInt64Factory(), 3, 50);
+    testDeserializeAndSum(new CompUInt128Factory(), 3, 50);
+    testDeserializeAndSum(new CompUInt256Factory(), 3, 50);
+    testDeserializeAndSum(new CompUInt128Factory(), 1, 0);
+  }
+
+  @Test
+  public void testByteLength() {
+    assertEquals(40, new PackedUIntSerializer<>(new CompUInt64Factory()).getByteLength(10));
+    assertEquals(80, new PackedUIntSerializer<>(new CompUInt128Factory()).getByteLength(10));
+    assertEquals(160, new PackedUIntSerializer<>(new CompUInt256Factory()).getByteLength(10));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongLength() {
+    PackedUIntSerializer<?> serializer = new PackedUIntSerializer<>(new CompUInt128Factory());
+    List<byte[]> packed = new ArrayList<>();
+    packed.add(new byte[7]);
+    serializer.deserializeAndSum(packed, 1);
+  }
+
+  /**
+   * Checks that the result matches summing the deserialized low bits of each share in the full
+   * ring, as done when opening values one by one.
+   */
+  private <PlainT extends CompUInt<?, ?, PlainT>> void testDeserializeAndSum(
+      CompUIntFactory<PlainT> factory, int noOfParties, int numElements) {
+    PackedUIntSerializer<PlainT> serializer = new PackedUIntSerializer<>(factory);
+    List<byte[]> packed = new ArrayList<>(noOfParties);
+    List<PlainT> expected = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      expected.add(factory.zero());
+    }
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      List<PlainT> shares = new ArrayList<>(numElements);
+      for (int i = 0; i < numElements; i++) {
+        PlainT share = factory.createRandom();
+        shares.add(share);
+        PlainT low = factory.deserialize(share.getLeastSignificant().toByteArray());
+        expected.set(i, expected.get(i).add(low));
+      }
+      byte[] serialized = serializer.serialize(shares);
+      assertEquals(serializer.getByteLength(numElements), serialized.length);
+      packed.add(serialized);
+    }
+    List<PlainT> actual = serializer.deserializeAndSum(packed, numElements);
+    assertEquals(numElements, actual.size());
+    for (int i = 0; i < numElements; i++) {
+      assertArrayEquals(expected.get(i).toByteArray(), actual.get(i).toByteArray());
+    }
+  }
+
+}
@@ -48,6 +48,18 @@ public class TinyTable implements Serializable {
     return table[asInt(eu.getShare())][asInt(ev.getShare())];
   }
 
+  /**
+   * Return the share of the entry for this TinyTable corresponding to the given masked input
+   * bits.
+   *
+   * @param eu the masked left input
+   * @param ev the masked right input
+   * @return the share stored at entry <i>(eu, ev)</i>
+   */
+  public boolean getShare(boolean eu, boolean ev) {
+    return table[asInt(eu)][asInt(ev)].getShare();
+  }
+
   @Override
   public String toString() {
     return Arrays.deepToString(table);
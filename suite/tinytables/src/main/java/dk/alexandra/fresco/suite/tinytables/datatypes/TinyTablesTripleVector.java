@@ -0,0 +1,115 @@
+package dk.alexandra.fresco.suite.tinytables.datatypes;
+
+/**
+ * A batch of shares of multiplication triples kept as three bit vectors packed into
+ * <code>long</code> words, such that the shares of triple <i>i</i> are bit <i>i mod 64</i> of word
+ * <i>i / 64</i> of each vector.
+ */
+public class TinyTablesTripleVector {
+
+  private final long[] a;
+  private final long[] b;
+  private final long[] c;
+  private final int size;
+
+  /**
+   * Creates a new vector of triples from packed shares. The arrays are used directly, not copied.
+   *
+   * @param a the packed shares of the first factors
+   * @param b the packed shares of the second factors
+   * @param c the packed shares of the products
+   * @param size the number of triples
+   */
+  public TinyTablesTripleVector(long[] a, long[] b, long[] c, int size) {
+    int words = (size + Long.SIZE - 1) / Long.SIZE;
+    if (a.length < words || b.length < words || c.length < words) {
+      throw new IllegalArgumentException("Too few words for " + size + " triples");
+    }
+    this.a = a;
+    this.b = b;
+    this.c = c;
+    this.size = size;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the share of the first factor of the triple at the given index.
+   */
+  public boolean getShareA(int index) {
+    return getBit(a, index);
+  }
+
+  /**
+   * Returns the share of the second factor of the triple at the given index.
+   */
+  public boolean getShareB(int index) {
+    return getBit(b, index);
+  }
+
+  /**
+   * Returns the share of the product of the triple at the given index.
+   */
+  public boolean getShareC(int index) {
+    return getBit(c, index);
+  }
+
+  /**
+   * Copies a range of triples into another vector, a word at a time. The triples of the other
+   * vector in the target range must not have been set, i.e., their bits must be zero.
+   *
+   * @param from the index of the first triple to copy
+   * @param dest the vector to copy to
+   * @param to the index in <code>dest</code> of the first copied triple
+   * @param length the number of triples to copy
+   */
+  public void copyTo(int from, TinyTablesTripleVector dest, int to, int length) {
+    if (from < 0 || to < 0 || length < 0 || from + length > size || to + length > dest.size) {
+      throw new IndexOutOfBoundsException("Cannot copy " + length + " triples from index " + from
+          + " of " + size + " to index " + to + " of " + dest.size);
+    }
+    copyBits(a, from, dest.a, to, length);
+    copyBits(b, from, dest.b, to, length);
+    copyBits(c, from, dest.c, to, length);
+  }
+
+  private boolean getBit(long[] words, int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+    return (words[index >>> 6] >>> index & 1L) == 1L;
+  }
+
+  private static void copyBits(long[] src, int from, long[] dest, int to, int length) {
+    for (int i = 0; i < length; i += Long.SIZE) {
+      long bits = readWord(src, from + i);
+      int remaining = length - i;
+      if (remaining < Long.SIZE) {
+        bits &= (1L << remaining) - 1;
+      }
+      int index = to + i;
+      int word = index >>> 6;
+      int shift = index & (Long.SIZE - 1);
+      dest[word] |= bits << shift;
+      if (shift != 0 && word + 1 < dest.length) {
+        dest[word + 1] |= bits >>> (Long.SIZE - shift);
+      }
+    }
+  }
+
+  /**
+   * Reads the 64 bits starting at the given bit index, padded with zeros past the end.
+   */
+  private static long readWord(long[] words, int index) {
+    int word = index >>> 6;
+    int shift = index & (Long.SIZE - 1);
+    long bits = words[word] >>> shift;
+    if (shift != 0 && word + 1 < words.length) {
+      bits |= words[word + 1] << (Long.SIZE - shift);
+    }
+    return bits;
+  }
+
+}
@@ -1,16 +1,20 @@
 package dk.alexandra.fresco.suite.tinytables.online;
 
 import dk.alexandra.fresco.framework.BuilderFactory;
+import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.suite.ProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDLayer;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesCloseProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesNOTProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesOpenToAllProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesXORProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.storage.MappedTinyTablesStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 import java.io.File;
 import java.io.FileInputStream;
@@ -39,12 +43,19 @@ import org.slf4j.LoggerFactory;
  * {@link TinyTablesOpenToAllProtocol} and {@link TinyTablesXORProtocol}.
  * </p>
  *
+ * <p>
+ * In <i>bit-sliced</i> mode, all AND protocols of a batch are evaluated together as a single
+ * {@link TinyTablesANDLayer} before the batch, so that a layer of AND gates costs one message per
+ * player instead of one message per gate.
+ * </p>
+ *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
 public class TinyTablesProtocolSuite
     implements ProtocolSuite<ResourcePoolImpl, ProtocolBuilderBinary> {
 
   private final File tinyTablesFile;
+  private final boolean bitSliced;
   private TinyTablesStorage storage;
   private static volatile Map<Integer, TinyTablesProtocolSuite> instances = new HashMap<>();
   private static final Logger logger = LoggerFactory.getLogger(TinyTablesProtocolSuite.class);
@@ -54,7 +65,20 @@ public class TinyTablesProtocolSuite
   }
 
   public TinyTablesProtocolSuite(int id, File tinyTablesFile) {
+    this(id, tinyTablesFile, false);
+  }
+
+  /**
+   * Creates a new online protocol suite.
+   *
+   * @param id the id of this player
+   * @param tinyTablesFile the file holding the preprocessed TinyTables
+   * @param bitSliced whether all AND gates of a batch should be opened in a single bit-sliced
+   *     message
+   */
+  public TinyTablesProtocolSuite(int id, File tinyTablesFile, boolean bitSliced) {
     this.tinyTablesFile = tinyTablesFile;
+    this.bitSliced = bitSliced;
     instances.put(id, this);
   }
 
@@ -67,12 +91,14 @@ public class TinyTablesProtocolSuite
   }
 
   private TinyTablesStorage loadTinyTables(File file) throws IOException, ClassNotFoundException {
-    FileInputStream fin = new FileInputStream(file);
-    ObjectInputStream is = new ObjectInputStream(fin);
+    if (MappedTinyTablesStorage.isPacked(file)) {
+      logger.info("Mapping packed TinyTables from " + file);
+      return MappedTinyTablesStorage.open(file);
+    }
     logger.info("Loading TinyTabels from " + file);
-    TinyTablesStorage storage = (TinyTablesStorage) is.readObject();
-    is.close();
-    return storage;
+    try (ObjectInputStream is = new ObjectInputStream(new FileInputStream(file))) {
+      return (TinyTablesStorage) is.readObject();
+    }
   }
 
   public TinyTablesStorage getStorage() {
@@ -81,6 +107,29 @@ public class TinyTablesProtocolSuite
 
   @Override
   public RoundSynchronization<ResourcePoolImpl> createRoundSynchronization() {
+    if (bitSliced) {
+      return new BitSlicedRoundSynchronization();
+    }
     return new DummyRoundSynchronization<>();
   }
+
+  private class BitSlicedRoundSynchronization implements RoundSynchronization<ResourcePoolImpl> {
+
+    @Override
+    public void beforeBatch(ProtocolCollection<ResourcePoolImpl> protocols,
+        ResourcePoolImpl resourcePool, Network network) {
+      TinyTablesANDLayer.evaluate(TinyTablesANDLayer.collect(protocols), storage, network);
+    }
+
+    @Override
+    public void finishedBatch(int gatesEvaluated, ResourcePoolImpl resourcePool,
+        Network network) {
+      // Ignore
+    }
+
+    @Override
+    public void finishedEval(ResourcePoolImpl resourcePool, Network network) {
+      // Ignore
+    }
+  }
 }
@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.suite.tinytables.online.protocols;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bit-sliced evaluation of a layer of independent {@link TinyTablesANDProtocol}s.
+ *
+ * <p>
+ * Instead of sending one byte per gate, each player looks up his share of all gates in the layer,
+ * packs the shares into a bit vector and sends it in a single message. The shares are then opened
+ * by XOR'ing the received vectors word by word. Both players must evaluate the same gates in the
+ * same order.
+ * </p>
+ */
+public class TinyTablesANDLayer {
+
+  private TinyTablesANDLayer() {
+    // Not instantiable
+  }
+
+  /**
+   * Picks out the {@link TinyTablesANDProtocol}s among the given protocols.
+   *
+   * @param protocols the protocols of a batch
+   * @return the AND protocols, in iteration order
+   */
+  public static List<TinyTablesANDProtocol> collect(Iterable<?> protocols) {
+    List<TinyTablesANDProtocol> gates = new ArrayList<>();
+    for (Object protocol : protocols) {
+      if (protocol instanceof TinyTablesANDProtocol) {
+        gates.add((TinyTablesANDProtocol) protocol);
+      }
+    }
+    return gates;
+  }
+
+  /**
+   * Evaluates the given AND gates, after which each gate holds its opened output.
+   *
+   * @param gates the gates to evaluate. The inputs of all gates must be ready.
+   * @param storage the TinyTables of this player
+   * @param network the network used to exchange shares. This must not be a batching network.
+   */
+  public static void evaluate(List<TinyTablesANDProtocol> gates, TinyTablesStorage storage,
+      Network network) {
+    if (gates.isEmpty()) {
+      return;
+    }
+    int size = gates.size();
+    long[] shares = new long[wordLength(size)];
+    for (int i = 0; i < size; i++) {
+      TinyTablesANDProtocol gate = gates.get(i);
+      if (storage.lookupTinyTable(gate.getId(), gate.getMaskedLeft(), gate.getMaskedRight())) {
+        shares[i >>> 6] |= 1L << i;
+      }
+    }
+    network.sendToAll(toBytes(shares, size));
+    long[] opened = new long[shares.length];
+    for (byte[] received : network.receiveFromAll()) {
+      xorInto(opened, received, size);
+    }
+    for (int i = 0; i < size; i++) {
+      gates.get(i).setOpened((opened[i >>> 6] >>> i & 1L) == 1L);
+    }
+  }
+
+  static int wordLength(int bits) {
+    return (bits + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  static int byteLength(int bits) {
+    return (bits + Byte.SIZE - 1) / Byte.SIZE;
+  }
+
+  /**
+   * Serializes the first {@code bits} bits of the given vector in little-endian order.
+   */
+  static byte[] toBytes(long[] words, int bits) {
+    byte[] bytes = new byte[byteLength(bits)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) (words[i >>> 3] >>> (Byte.SIZE * (i & 7)));
+    }
+    return bytes;
+  }
+
+  /**
+   * XOR's the bit vector serialized by {@link #toBytes(long[], int)} into the given words.
+   */
+  static void xorInto(long[] words, byte[] bytes, int bits) {
+    if (bytes.length != byteLength(bits)) {
+      throw new IllegalArgumentException(
+          "Expected " + byteLength(bits) + " bytes but got " + bytes.length);
+    }
+    int fullWords = bytes.length / Long.BYTES;
+    for (int w = 0; w < fullWords; w++) {
+      long word = 0L;
+      int offset = w * Long.BYTES;
+      for (int b = 0; b < Long.BYTES; b++) {
+        word |= (bytes[offset + b] & 0xFFL) << (Byte.SIZE * b);
+      }
+      words[w] ^= word;
+    }
+    for (int i = fullWords * Long.BYTES; i < bytes.length; i++) {
+      words[i >>> 3] ^= (bytes[i] & 0xFFL) << (Byte.SIZE * (i & 7));
+    }
+  }
+
+}
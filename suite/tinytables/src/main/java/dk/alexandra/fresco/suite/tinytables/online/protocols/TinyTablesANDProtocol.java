@@ -5,13 +5,11 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.value.SBool;
-import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * <p>
@@ -29,6 +27,11 @@ import java.util.Objects;
  * Both players now add their share with the other players share to get the masked value of the
  * output wire.
  * </p>
+ * <p>
+ * In bit-sliced mode the AND protocols of a batch are opened together by a
+ * {@link TinyTablesANDLayer} before the batch is evaluated, in which case this protocol is done
+ * without any further communication.
+ * </p>
  *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
@@ -46,15 +49,14 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
 
   @Override
   public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+    if (out != null) {
+      return EvaluationStatus.IS_DONE;
+    }
     TinyTablesProtocolSuite ps = TinyTablesProtocolSuite.getInstance(resourcePool.getMyId());
 
     if (round == 0) {
-      TinyTable tinyTable = Objects.requireNonNull(ps.getStorage().getTinyTable(id),
-          "Unable to find TinyTable for gate with id " + id);
-      TinyTablesElement myShare = tinyTable.getValue(((TinyTablesSBool) inLeft.out()).getValue(),
-          ((TinyTablesSBool) inRight.out()).getValue());
-
-      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare.getShare())});
+      boolean myShare = ps.getStorage().lookupTinyTable(id, getMaskedLeft(), getMaskedRight());
+      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare)});
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
       List<byte[]> buffers = network.receiveFromAll();
@@ -68,6 +70,25 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
     }
   }
 
+  int getId() {
+    return id;
+  }
+
+  boolean getMaskedLeft() {
+    return ((TinyTablesSBool) inLeft.out()).getValue().getShare();
+  }
+
+  boolean getMaskedRight() {
+    return ((TinyTablesSBool) inRight.out()).getValue().getShare();
+  }
+
+  /**
+   * Sets the opened output of this gate, as computed by a {@link TinyTablesANDLayer}.
+   */
+  void setOpened(boolean open) {
+    this.out = TinyTablesSBool.getInstance(TinyTablesElement.getInstance(open));
+  }
+
   @Override
   public SBool out() {
     return out;
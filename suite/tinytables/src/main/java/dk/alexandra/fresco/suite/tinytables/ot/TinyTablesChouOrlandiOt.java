@@ -0,0 +1,53 @@
+package dk.alexandra.fresco.suite.tinytables.ot;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.ot.base.BatchOt;
+import dk.alexandra.fresco.tools.ot.base.ChouOrlandiOt;
+import java.util.List;
+
+public class TinyTablesChouOrlandiOt implements TinyTablesOt, BatchOt {
+
+  private final int otherId;
+  private final Drbg random;
+  private ChouOrlandiOt ot;
+
+  /**
+   * Constructs a Chou-Orlandi OT instance.
+   *
+   * @param otherId The ID of the other party
+   * @param random The calling party's secure randomness generator
+   */
+  public TinyTablesChouOrlandiOt(int otherId, Drbg random) {
+    this.otherId = otherId;
+    this.random = random;
+  }
+
+  @Override
+  public void init(Network network) {
+    ot = new ChouOrlandiOt(otherId, random, network);
+  }
+
+  @Override
+  public void send(StrictBitVector messageZero, StrictBitVector messageOne) {
+    ot.send(messageZero, messageOne);
+  }
+
+  @Override
+  public StrictBitVector receive(boolean choiceBit) {
+    return ot.receive(choiceBit);
+  }
+
+  @Override
+  public void send(List<Pair<StrictBitVector, StrictBitVector>> messages) {
+    ot.send(messages);
+  }
+
+  @Override
+  public List<StrictBitVector> receive(StrictBitVector choiceBits) {
+    return ot.receive(choiceBits);
+  }
+
+}
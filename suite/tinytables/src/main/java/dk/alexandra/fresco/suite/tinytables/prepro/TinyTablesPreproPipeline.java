@@ -0,0 +1,138 @@
+package dk.alexandra.fresco.suite.tinytables.prepro;
+
+import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproANDProtocol;
+import dk.alexandra.fresco.suite.tinytables.storage.PackedTinyTablesTripleProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Computes TinyTables for chunks of AND gates on a background thread, so that the evaluation of
+ * the preprocessing protocols can continue while the tables of earlier gates are computed.
+ *
+ * <p>
+ * The background thread owns a network channel of its own, used for generating triples and for
+ * exchanging the masked values of each chunk. Chunks are processed in the order they are
+ * submitted, and after each chunk (and once before the first) the thread generates triples until
+ * a fixed number is available ahead of time. Since both players submit the same chunks, they run
+ * the same sequence of network operations on the channel.
+ * </p>
+ *
+ * <p>
+ * Memory use is bounded by blocking {@link #submit(List)} while the number of gates waiting to
+ * be processed would exceed a given limit.
+ * </p>
+ */
+class TinyTablesPreproPipeline {
+
+  private final ExecutorService executor;
+  private final Semaphore pendingGates;
+  private final int maxPendingGates;
+  private final List<Future<?>> futures;
+  private final Future<PackedTinyTablesTripleProvider> provider;
+  private final long tripleLookahead;
+  private final BiConsumer<List<TinyTablesPreproANDProtocol>, PackedTinyTablesTripleProvider>
+      worker;
+
+  /**
+   * Creates a new pipeline and starts generating triples.
+   *
+   * @param providerSupplier creates the triple provider. Called on the background thread.
+   * @param worker computes and stores the TinyTables of a chunk using the given provider. Called
+   *     on the background thread.
+   * @param maxPendingGates maximum number of gates submitted but not yet processed
+   * @param tripleLookahead number of triples to have available ahead of time
+   */
+  TinyTablesPreproPipeline(Supplier<PackedTinyTablesTripleProvider> providerSupplier,
+      BiConsumer<List<TinyTablesPreproANDProtocol>, PackedTinyTablesTripleProvider> worker,
+      int maxPendingGates, long tripleLookahead) {
+    if (maxPendingGates < 1) {
+      throw new IllegalArgumentException(
+          "Maximum number of pending gates must be positive, but was " + maxPendingGates);
+    }
+    this.executor = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "TinyTablesPrepro");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.pendingGates = new Semaphore(maxPendingGates);
+    this.maxPendingGates = maxPendingGates;
+    this.futures = new ArrayList<>();
+    this.tripleLookahead = tripleLookahead;
+    this.worker = worker;
+    this.provider = executor.submit(() -> {
+      PackedTinyTablesTripleProvider p = providerSupplier.get();
+      p.fill(tripleLookahead);
+      return p;
+    });
+  }
+
+  /**
+   * Submits a chunk of gates for processing. Blocks while too many gates are pending.
+   *
+   * @param gates the gates, sorted by id. The list is owned by the pipeline from now on.
+   */
+  void submit(List<TinyTablesPreproANDProtocol> gates) {
+    int permits = Math.min(gates.size(), maxPendingGates);
+    try {
+      pendingGates.acquire(permits);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for TinyTables preprocessing", e);
+    }
+    checkFailures();
+    futures.add(executor.submit(() -> {
+      try {
+        PackedTinyTablesTripleProvider p = provider.get();
+        worker.accept(gates, p);
+        p.fill(tripleLookahead);
+      } finally {
+        pendingGates.release(permits);
+      }
+      return null;
+    }));
+  }
+
+  /**
+   * Waits for all submitted gates to be processed and stops the background thread.
+   */
+  void close() {
+    executor.shutdown();
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      provider.get().close();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for TinyTables preprocessing", e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("TinyTables preprocessing failed", e.getCause());
+    }
+  }
+
+  private void checkFailures() {
+    futures.removeIf(future -> {
+      if (!future.isDone()) {
+        return false;
+      }
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while waiting for TinyTables preprocessing", e);
+      } catch (ExecutionException e) {
+        executor.shutdownNow();
+        throw new RuntimeException("TinyTables preprocessing failed", e.getCause());
+      }
+      return true;
+    });
+  }
+
+}
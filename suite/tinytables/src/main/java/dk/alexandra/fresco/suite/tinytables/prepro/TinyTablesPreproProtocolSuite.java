@@ -55,11 +55,6 @@ public class TinyTablesPreproProtocolSuite
   private class PreProRoundSync implements
       RoundSynchronization<TinyTablesPreproResourcePool> {
 
-    /**
-     * The number of unprocessed AND protocols to collect before we compute their TinyTables.
-     */
-    private static final int UNPROCESSED_BUFFER_SIZE = 1000;
-
     @Override
     public void beforeBatch(
         ProtocolCollection<TinyTablesPreproResourcePool> protocols,
@@ -71,7 +66,7 @@ public class TinyTablesPreproProtocolSuite
     @Override
     public void finishedBatch(int gatesEvaluated,
         TinyTablesPreproResourcePool resourcePool, Network network) {
-      if (resourcePool.getUnprocessedAnds().size() > UNPROCESSED_BUFFER_SIZE) {
+      if (resourcePool.getUnprocessedAnds().size() >= resourcePool.getChunkSize()) {
         resourcePool.calculateTinyTables(network);
       }
     }
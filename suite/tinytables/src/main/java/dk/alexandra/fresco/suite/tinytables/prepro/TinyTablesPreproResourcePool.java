@@ -2,40 +2,41 @@ package dk.alexandra.fresco.suite.tinytables.prepro;
 
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.Drng;
 import dk.alexandra.fresco.framework.util.DrngImpl;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
-import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.RegularBitVector;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElementVector;
-import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleVector;
 import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproProtocol;
-import dk.alexandra.fresco.suite.tinytables.storage.BatchTinyTablesTripleProvider;
+import dk.alexandra.fresco.suite.tinytables.storage.MappedTinyTablesStorage;
+import dk.alexandra.fresco.suite.tinytables.storage.PackedTinyTablesTripleProvider;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
-import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesTripleProvider;
-import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
+import dk.alexandra.fresco.suite.tinytables.util.RotTinyTablesTripleGenerator;
 import dk.alexandra.fresco.suite.tinytables.util.Util;
 import dk.alexandra.fresco.tools.cointossing.CoinTossing;
-import dk.alexandra.fresco.tools.ot.otextension.BristolOtFactory;
 import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
 import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
+import dk.alexandra.fresco.tools.ot.otextension.RotExtension;
 import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,14 +44,20 @@ import org.slf4j.LoggerFactory;
 public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(TinyTablesPreproResourcePool.class);
-  private static final int TRIP_BATCH_SIZE = 8192;
+  /**
+   * The default number of unprocessed AND protocols to collect before we compute their
+   * TinyTables.
+   */
+  static final int DEFAULT_CHUNK_SIZE = 1000;
 
   private final Drng drng;
   private final List<TinyTablesPreproANDProtocol> unprocessedAnds;
   private final TinyTablesStorage storage;
   private final File tinyTablesFile;
-  private final Supplier<TinyTablesTripleProvider> supplier;
-  private TinyTablesTripleProvider tinyTablesTripleProvider;
+  private final Supplier<PackedTinyTablesTripleProvider> supplier;
+  private final int chunkSize;
+  private final TinyTablesPreproPipeline pipeline;
+  private PackedTinyTablesTripleProvider tinyTablesTripleProvider;
 
   /**
    * Creates an instance of the default implementation of a resource pool. This contains the basic
@@ -59,42 +66,252 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
    * @param myId The ID of the MPC party.
    * @param baseOt OT functionality for the base OTs
    * @param drbg Secure bit randomness generator
-   * @param otBatchSize The amount of OTs to preprocess in a batch
+   * @param otBatchSize The amount of random OTs to preprocess in a batch. Each triple uses two.
    * @param tinyTablesFile file for data
    */
   public TinyTablesPreproResourcePool(int myId, TinyTablesOt baseOt, Drbg drbg,
       int computationalSecurity, int statisticalSecurity,
       int otBatchSize, File tinyTablesFile, Supplier<Network> network) {
-    super(myId, 2);
+    this(myId, baseOt, drbg, computationalSecurity, statisticalSecurity, otBatchSize,
+        tinyTablesFile, network, false);
+  }
+
+  /**
+   * Creates an instance of the default implementation of a resource pool. This contains the basic
+   * resources needed within FRESCO.
+   *
+   * @param myId The ID of the MPC party.
+   * @param baseOt OT functionality for the base OTs
+   * @param drbg Secure bit randomness generator
+   * @param otBatchSize The amount of random OTs to preprocess in a batch. Each triple uses two.
+   * @param tinyTablesFile file for data
+   * @param packed if true, the TinyTables are written to the file in the packed format of
+   *     {@link MappedTinyTablesStorage} as they are computed, instead of being kept in memory and
+   *     serialized at the end of the evaluation
+   */
+  public TinyTablesPreproResourcePool(int myId, TinyTablesOt baseOt, Drbg drbg,
+      int computationalSecurity, int statisticalSecurity,
+      int otBatchSize, File tinyTablesFile, Supplier<Network> network, boolean packed) {
+    this(myId, 2, Collections.singletonMap(Util.otherPlayerId(myId), baseOt), drbg,
+        computationalSecurity, statisticalSecurity, otBatchSize, tinyTablesFile, network, packed);
+  }
+
+  /**
+   * Creates a resource pool for any number of parties. The multiplication triples are generated
+   * using pairwise OT extensions with each of the other parties.
+   *
+   * @param myId The ID of the MPC party.
+   * @param noOfParties The number of parties.
+   * @param baseOts OT functionality for the base OTs with each of the other parties, indexed by
+   *     their IDs
+   * @param drbg Secure bit randomness generator
+   * @param otBatchSize The amount of random OTs to preprocess in a batch. Each triple uses two
+   *     per other party.
+   * @param tinyTablesFile file for data
+   * @param packed if true, the TinyTables are written to the file in the packed format of
+   *     {@link MappedTinyTablesStorage} as they are computed
+   */
+  public TinyTablesPreproResourcePool(int myId, int noOfParties,
+      Map<Integer, TinyTablesOt> baseOts, Drbg drbg, int computationalSecurity,
+      int statisticalSecurity, int otBatchSize, File tinyTablesFile, Supplier<Network> network,
+      boolean packed) {
+    this(myId, noOfParties, baseOts, drbg, computationalSecurity, statisticalSecurity,
+        otBatchSize, tinyTablesFile, network, packed, RotExtension.BRISTOL);
+  }
+
+  /**
+   * Creates a resource pool for any number of parties, using the given random OT extension to
+   * generate the multiplication triples. Since TinyTables is only secure against semi-honest
+   * adversaries, the semi-honest {@link RotExtension#SILENT} extension may be used here to save
+   * communication.
+   *
+   * @param myId The ID of the MPC party.
+   * @param noOfParties The number of parties.
+   * @param baseOts OT functionality for the base OTs with each of the other parties, indexed by
+   *     their IDs
+   * @param drbg Secure bit randomness generator
+   * @param otBatchSize The amount of random OTs to preprocess in a batch. Each triple uses two
+   *     per other party.
+   * @param tinyTablesFile file for data
+   * @param packed if true, the TinyTables are written to the file in the packed format of
+   *     {@link MappedTinyTablesStorage} as they are computed
+   * @param rotExtension the random OT extension to use. {@link RotExtension#SILENT} requires a
+   *     computational security parameter of 128
+   */
+  public TinyTablesPreproResourcePool(int myId, int noOfParties,
+      Map<Integer, TinyTablesOt> baseOts, Drbg drbg, int computationalSecurity,
+      int statisticalSecurity, int otBatchSize, File tinyTablesFile, Supplier<Network> network,
+      boolean packed, RotExtension rotExtension) {
+    this(myId, noOfParties, baseOts, drbg, computationalSecurity, statisticalSecurity,
+        otBatchSize, tinyTablesFile, network, packed, DEFAULT_CHUNK_SIZE, false, 0, 0,
+        rotExtension);
+  }
+
+  /**
+   * Creates a resource pool which computes TinyTables in a background pipeline.
+   *
+   * <p>
+   * Triples are generated on a background thread while the AND gates are collected, and the
+   * TinyTables of every <code>chunkSize</code> gates are computed and exchanged on the same
+   * thread. All communication of the background thread goes through the network given by
+   * <code>tripleNetwork</code>, which must therefore be a channel separate from the one the
+   * protocols are evaluated on. Likewise, <code>baseOt</code> is used on the background thread
+   * and should not share its source of randomness with <code>drbg</code>.
+   * </p>
+   *
+   * @param myId The ID of the MPC party.
+   * @param baseOt OT functionality for the base OTs
+   * @param drbg Secure bit randomness generator
+   * @param otBatchSize The amount of random OTs to preprocess in a batch. Each triple uses two.
+   * @param tinyTablesFile file for data
+   * @param tripleNetwork the channel used by the background thread
+   * @param packed if true, the TinyTables are written to the file in the packed format of
+   *     {@link MappedTinyTablesStorage} as they are computed
+   * @param chunkSize the number of AND gates to collect before computing their TinyTables
+   * @param maxPendingGates the maximum number of collected AND gates waiting for their
+   *     TinyTables. The evaluation blocks when this is reached.
+   * @param tripleLookahead the number of triples to generate ahead of time
+   */
+  public TinyTablesPreproResourcePool(int myId, TinyTablesOt baseOt, Drbg drbg,
+      int computationalSecurity, int statisticalSecurity,
+      int otBatchSize, File tinyTablesFile, Supplier<Network> tripleNetwork, boolean packed,
+      int chunkSize, int maxPendingGates, long tripleLookahead) {
+    this(myId, 2, Collections.singletonMap(Util.otherPlayerId(myId), baseOt), drbg,
+        computationalSecurity, statisticalSecurity, otBatchSize, tinyTablesFile, tripleNetwork,
+        packed, chunkSize, maxPendingGates, tripleLookahead);
+  }
+
+  /**
+   * Creates a resource pool for any number of parties which computes TinyTables in a background
+   * pipeline. See
+   * {@link #TinyTablesPreproResourcePool(int, TinyTablesOt, Drbg, int, int, int, File, Supplier,
+   * boolean, int, int, long)} for the requirements on the network and base OTs.
+   *
+   * @param myId The ID of the MPC party.
+   * @param noOfParties The number of parties.
+   * @param baseOts OT functionality for the base OTs with each of the other parties, indexed by
+   *     their IDs
+   * @param drbg Secure bit randomness generator
+   * @param otBatchSize The amount of random OTs to preprocess in a batch. Each triple uses two
+   *     per other party.
+   * @param tinyTablesFile file for data
+   * @param tripleNetwork the channel used by the background thread
+   * @param packed if true, the TinyTables are written to the file in the packed format of
+   *     {@link MappedTinyTablesStorage} as they are computed
+   * @param chunkSize the number of AND gates to collect before computing their TinyTables
+   * @param maxPendingGates the maximum number of collected AND gates waiting for their
+   *     TinyTables. The evaluation blocks when this is reached.
+   * @param tripleLookahead the number of triples to generate ahead of time
+   */
+  public TinyTablesPreproResourcePool(int myId, int noOfParties,
+      Map<Integer, TinyTablesOt> baseOts, Drbg drbg, int computationalSecurity,
+      int statisticalSecurity, int otBatchSize, File tinyTablesFile,
+      Supplier<Network> tripleNetwork, boolean packed, int chunkSize, int maxPendingGates,
+      long tripleLookahead) {
+    this(myId, noOfParties, baseOts, drbg, computationalSecurity, statisticalSecurity,
+        otBatchSize, tinyTablesFile, tripleNetwork, packed, chunkSize, maxPendingGates,
+        tripleLookahead, RotExtension.BRISTOL);
+  }
+
+  /**
+   * Creates a resource pool for any number of parties which computes TinyTables in a background
+   * pipeline, using the given random OT extension to generate the multiplication triples. See
+   * {@link #TinyTablesPreproResourcePool(int, int, Map, Drbg, int, int, int, File, Supplier,
+   * boolean, int, int, long)} for the other parameters.
+   *
+   * @param rotExtension the random OT extension to use. {@link RotExtension#SILENT} requires a
+   *     computational security parameter of 128
+   */
+  public TinyTablesPreproResourcePool(int myId, int noOfParties,
+      Map<Integer, TinyTablesOt> baseOts, Drbg drbg, int computationalSecurity,
+      int statisticalSecurity, int otBatchSize, File tinyTablesFile,
+      Supplier<Network> tripleNetwork, boolean packed, int chunkSize, int maxPendingGates,
+      long tripleLookahead, RotExtension rotExtension) {
+    this(myId, noOfParties, baseOts, drbg, computationalSecurity, statisticalSecurity,
+        otBatchSize, tinyTablesFile, tripleNetwork, packed, chunkSize, true, maxPendingGates,
+        tripleLookahead, rotExtension);
+  }
+
+  private TinyTablesPreproResourcePool(int myId, int noOfParties,
+      Map<Integer, TinyTablesOt> baseOts, Drbg drbg, int computationalSecurity,
+      int statisticalSecurity, int otBatchSize, File tinyTablesFile, Supplier<Network> network,
+      boolean packed, int chunkSize, boolean background, int maxPendingGates,
+      long tripleLookahead, RotExtension rotExtension) {
+    super(myId, noOfParties);
+    if (noOfParties < 2) {
+      throw new IllegalArgumentException(
+          "TinyTables requires at least two parties, but was " + noOfParties);
+    }
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive, but was " + chunkSize);
+    }
     this.unprocessedAnds = Collections.synchronizedList(new ArrayList<>());
-    this.storage = new TinyTablesStorageImpl();
+    if (packed) {
+      this.storage = ExceptionConverter.safe(() -> MappedTinyTablesStorage.create(tinyTablesFile),
+          "Unable to create TinyTables file");
+    } else {
+      this.storage = new TinyTablesStorageImpl();
+    }
     this.tinyTablesFile = tinyTablesFile;
     this.drng = new DrngImpl(drbg);
+    this.chunkSize = chunkSize;
+    // The triples are generated on the background thread, which needs randomness of its own
+    Drbg otDrbg;
+    if (background) {
+      byte[] seed = new byte[32];
+      drbg.nextBytes(seed);
+      otDrbg = new AesCtrDrbg(seed);
+    } else {
+      otDrbg = drbg;
+    }
     this.supplier = () -> {
-      RotList rotList = new RotList(drbg, computationalSecurity);
-      CoinTossing ct = new CoinTossing(myId, Util.otherPlayerId(myId), drbg);
-      OtExtensionResourcePool otExtRes = new OtExtensionResourcePoolImpl(myId,
-          Util.otherPlayerId(myId),
-          computationalSecurity, statisticalSecurity, 1, drbg, ct, rotList);
-      baseOt.init(network.get());
-      int otherId = Util.otherPlayerId(getMyId());
-      // Execute random seed OTs
-      if (getMyId() < otherId) {
-        rotList.send(baseOt);
-        rotList.receive(baseOt);
+      // Setup an OT extension with each of the other parties. Iterating the other ids in
+      // increasing order runs through the pairs in the same order at all parties.
+      Map<Integer, RotFactory> rotFactories = new HashMap<>();
+      for (int otherId = 1; otherId <= noOfParties; otherId++) {
+        if (otherId != myId) {
+          rotFactories.put(otherId, setupRotFactory(myId, otherId, baseOts.get(otherId), otDrbg,
+              computationalSecurity, statisticalSecurity, network.get(), rotExtension));
+        }
+      }
+      RotTinyTablesTripleGenerator generator;
+      if (noOfParties == 2) {
+        // Each triple consumes two random OTs
+        generator = new RotTinyTablesTripleGenerator(myId, otDrbg,
+            rotFactories.get(Util.otherPlayerId(myId)));
       } else {
-        rotList.receive(baseOt);
-        rotList.send(baseOt);
+        generator = new RotTinyTablesTripleGenerator(myId, noOfParties, otDrbg, rotFactories,
+            network.get());
       }
-      ct.initialize(network.get());
-      // Setup the OT extension
-      RotFactory rotFactory = new RotFactory(otExtRes, network.get());
-      BristolOtFactory otFactory = new BristolOtFactory(rotFactory, otExtRes, network.get(),
-          otBatchSize);
-      TinyTablesTripleGenerator generator =
-          new TinyTablesTripleGenerator(getMyId(), getDrng(), otFactory);
-      return new BatchTinyTablesTripleProvider(generator, TRIP_BATCH_SIZE);
+      return new PackedTinyTablesTripleProvider(generator, Math.max(otBatchSize / 2, 1));
     };
+    if (background) {
+      this.pipeline = new TinyTablesPreproPipeline(supplier,
+          (gates, provider) -> computeTinyTables(gates, provider, network.get()), maxPendingGates,
+          tripleLookahead);
+    } else {
+      this.pipeline = null;
+    }
+  }
+
+  private static RotFactory setupRotFactory(int myId, int otherId, TinyTablesOt baseOt,
+      Drbg drbg, int computationalSecurity, int statisticalSecurity, Network network,
+      RotExtension rotExtension) {
+    RotList rotList = new RotList(drbg, computationalSecurity);
+    CoinTossing ct = new CoinTossing(myId, otherId, drbg);
+    OtExtensionResourcePool otExtRes = new OtExtensionResourcePoolImpl(myId, otherId,
+        computationalSecurity, statisticalSecurity, 1, drbg, ct, rotList);
+    baseOt.init(network);
+    // Execute random seed OTs
+    if (myId < otherId) {
+      rotList.send(baseOt);
+      rotList.receive(baseOt);
+    } else {
+      rotList.receive(baseOt);
+      rotList.send(baseOt);
+    }
+    ct.initialize(network);
+    return rotExtension.createFactory(otExtRes, network);
   }
 
   public Drng getDrng() {
@@ -109,65 +326,91 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
     return unprocessedAnds;
   }
 
+  /**
+   * Returns the number of AND gates to collect before computing their TinyTables.
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Computes the TinyTables of the AND gates collected so far. If a background pipeline is used,
+   * this only hands the gates over to the pipeline.
+   *
+   * @param network the network the protocols are evaluated on
+   */
   void calculateTinyTables(Network network) {
-    int unprocessedGates = this.unprocessedAnds.size();
+    List<TinyTablesPreproANDProtocol> gates;
+    synchronized (unprocessedAnds) {
+      gates = new ArrayList<>(unprocessedAnds);
+      unprocessedAnds.clear();
+    }
     /*
      * Sort the unprocessed gates to make sure that the players process them in the same order.
      */
-    this.unprocessedAnds.sort(Comparator.comparingInt(TinyTablesPreproProtocol::getId));
+    gates.sort(Comparator.comparingInt(TinyTablesPreproProtocol::getId));
+    if (pipeline != null) {
+      pipeline.submit(gates);
+    } else {
+      if (tinyTablesTripleProvider == null) {
+        tinyTablesTripleProvider = supplier.get();
+      }
+      computeTinyTables(gates, tinyTablesTripleProvider, network);
+    }
+  }
 
+  private void computeTinyTables(List<TinyTablesPreproANDProtocol> gates,
+      PackedTinyTablesTripleProvider tripleProvider, Network network) {
+    int unprocessedGates = gates.size();
+    // The triples stay packed, triple i is used for gate i
+    TinyTablesTripleVector triples = tripleProvider.getNextTriples(unprocessedGates);
     // Two bits per gate
     TinyTablesElementVector shares = new TinyTablesElementVector(unprocessedGates * 2);
-    List<TinyTablesTriple> usedTriples = new ArrayList<>();
     for (int i = 0; i < unprocessedGates; i++) {
-      TinyTablesPreproANDProtocol gate = this.unprocessedAnds.get(i);
-      if (tinyTablesTripleProvider == null) {
-        tinyTablesTripleProvider = supplier.get();
-      }
-      TinyTablesTriple triple = this.tinyTablesTripleProvider.getNextTriple();
-      usedTriples.add(triple);
+      TinyTablesPreproANDProtocol gate = gates.get(i);
 
       /*
-       * Calculate temp values e, d for multiplication. These should be opened before calling
-       * finalize.
+       * Calculate temp values e, d for multiplication, as in TinyTablesElement.multiply. These
+       * should be opened before finalizing.
        */
-      Pair<TinyTablesElement, TinyTablesElement> msg =
-          gate.getInRight().getValue().multiply(gate.getInLeft().getValue(), triple);
-
-      shares.setShare(2 * i, msg.getFirst().getShare());
-      shares.setShare(2 * i + 1, msg.getSecond().getShare());
+      shares.setShare(2 * i, gate.getInRight().getValue().getShare() ^ triples.getShareA(i));
+      shares.setShare(2 * i + 1, gate.getInLeft().getValue().getShare() ^ triples.getShareB(i));
     }
 
-    byte[] size = ByteBuffer.allocate(Integer.BYTES).putInt(shares.getSize()).array();
-    // send
-    network.send(Util.otherPlayerId(getMyId()), size);
-    network.send(Util.otherPlayerId(this.getMyId()), shares.payload());
-
-    // receive
-    size = network.receive(Util.otherPlayerId(this.getMyId()));
-    int length = ByteBuffer.wrap(size).getInt();
-    byte[] data = network.receive(Util.otherPlayerId(this.getMyId()));
-    TinyTablesElementVector otherShares = new TinyTablesElementVector(data, length);
+    // The number of shares is known by all players, so only the payload is exchanged
+    network.sendToAll(shares.payload());
+    List<byte[]> received = network.receiveFromAll();
+    TinyTablesElementVector[] allShares = new TinyTablesElementVector[received.size()];
+    for (int i = 0; i < allShares.length; i++) {
+      allShares[i] = new TinyTablesElementVector(received.get(i), shares.getSize());
+    }
 
-    RegularBitVector open = TinyTablesElementVector.open(shares, otherShares);
+    RegularBitVector open = TinyTablesElementVector.open(allShares);
 
     for (int i = 0; i < unprocessedGates; i++) {
-      TinyTablesPreproANDProtocol gate = this.unprocessedAnds.get(i);
+      TinyTablesPreproANDProtocol gate = gates.get(i);
       boolean e = open.getBit(2 * i);
       boolean d = open.getBit(2 * i + 1);
 
-      TinyTablesElement product = TinyTablesElement.finalizeMultiplication(e, d, usedTriples.get(i),
-          this.getMyId());
+      // As in TinyTablesElement.finalizeMultiplication
+      boolean product = triples.getShareC(i) ^ (triples.getShareB(i) & e)
+          ^ (triples.getShareA(i) & d);
+      if (getMyId() == 1) {
+        product ^= e & d;
+      }
+
+      TinyTable tinyTable =
+          gate.calculateTinyTable(getMyId(), TinyTablesElement.getInstance(product));
 
-      TinyTable tinyTable = gate.calculateTinyTable(getMyId(), product);
 
       this.storage.storeTinyTable(gate.getId(), tinyTable);
     }
-
-    this.unprocessedAnds.clear();
   }
 
   public void closeEvaluation() {
+    if (pipeline != null) {
+      pipeline.close();
+    }
     if (tinyTablesTripleProvider != null) {
       tinyTablesTripleProvider.close();
     }
@@ -175,7 +418,11 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
      * Store the TinyTables to a file.
      */
     ExceptionConverter.safe(() -> {
-      storeTinyTables(storage, tinyTablesFile);
+      if (storage instanceof MappedTinyTablesStorage) {
+        ((MappedTinyTablesStorage) storage).close();
+      } else {
+        storeTinyTables(storage, tinyTablesFile);
+      }
       LOGGER.info("TinyTables stored to " + tinyTablesFile);
       return null;
     }, "Failed to store TinyTables");
@@ -0,0 +1,257 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * {@link TinyTablesStorage} backed by a memory mapped file in a packed format, so the TinyTables
+ * of a circuit do not have to fit in the heap.
+ *
+ * <p>
+ * The file starts with a header holding a magic number, a format version and the number of gate
+ * ids covered. The header is followed by one block of five bytes per eight consecutive gate ids:
+ * the first four bytes hold the TinyTables of the eight gates, four bits each with entry
+ * <i>(c,d)</i> at bit <i>2c + d</i> of the gate's nibble, and the last byte holds their mask
+ * shares, one bit each. Entries which were never stored read as zero.
+ * </p>
+ *
+ * <p>
+ * A storage created with {@link #create(File)} writes directly to the mapped file while the
+ * preprocessing runs and must be closed to complete the file. A storage opened with
+ * {@link #open(File)} is read-only and closes the file as soon as it is mapped; the mapping stays
+ * valid until the storage is garbage collected. Instances cannot be serialized.
+ * </p>
+ */
+public class MappedTinyTablesStorage implements TinyTablesStorage, Closeable {
+
+	private static final long serialVersionUID = -2883567219451574335L;
+	/**
+	 * Magic number identifying the packed format. Differs from the magic number of Java
+	 * serialization streams.
+	 */
+	static final int MAGIC = 0x54547362;
+	static final int VERSION = 1;
+	static final int HEADER_LENGTH = 2 * Integer.BYTES + Long.BYTES;
+	private static final int GATES_PER_BLOCK = 8;
+	private static final int BLOCK_LENGTH = 5;
+	private static final int MASK_OFFSET = 4;
+	private static final int INITIAL_CAPACITY = 1 << 16;
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final boolean writable;
+	private MappedByteBuffer buffer;
+	private long numberOfGates;
+
+	private MappedTinyTablesStorage(RandomAccessFile file) throws IOException {
+		this.file = file;
+		this.channel = file.getChannel();
+		this.writable = true;
+		this.numberOfGates = 0;
+		this.buffer = channel.map(MapMode.READ_WRITE, HEADER_LENGTH, INITIAL_CAPACITY);
+	}
+
+	private MappedTinyTablesStorage(MappedByteBuffer buffer, long numberOfGates) {
+		this.file = null;
+		this.channel = null;
+		this.writable = false;
+		this.numberOfGates = numberOfGates;
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Creates a new, empty storage writing to the given file. An existing file is overwritten.
+	 *
+	 * @param file
+	 *            the file to write to
+	 * @return the new storage
+	 * @throws IOException
+	 *             if the file could not be created or mapped
+	 */
+	public static MappedTinyTablesStorage create(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.setLength(0);
+		return new MappedTinyTablesStorage(raf);
+	}
+
+	/**
+	 * Opens a file written by a storage created with {@link #create(File)} for reading.
+	 *
+	 * @param file
+	 *            the file to read from
+	 * @return the storage
+	 * @throws IOException
+	 *             if the file could not be read or is not in the packed format
+	 */
+	public static MappedTinyTablesStorage open(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+				FileChannel channel = raf.getChannel()) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			channel.read(header, 0);
+			header.flip();
+			if (header.remaining() < HEADER_LENGTH || header.getInt() != MAGIC) {
+				throw new IOException("File " + file + " is not a packed TinyTables file");
+			}
+			int version = header.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version + " of packed TinyTables file");
+			}
+			long numberOfGates = header.getLong();
+			MappedByteBuffer buffer =
+					channel.map(MapMode.READ_ONLY, HEADER_LENGTH, byteLength(numberOfGates));
+			return new MappedTinyTablesStorage(buffer, numberOfGates);
+		}
+	}
+
+	/**
+	 * Checks whether the given file is in the packed format, i.e. whether it can be opened with
+	 * {@link #open(File)}.
+	 *
+	 * @param file
+	 *            the file to check
+	 * @return true if the file starts with the magic number of the packed format
+	 * @throws IOException
+	 *             if the file could not be read
+	 */
+	public static boolean isPacked(File file) throws IOException {
+		if (file.length() < HEADER_LENGTH) {
+			return false;
+		}
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			return in.readInt() == MAGIC;
+		}
+	}
+
+	/**
+	 * The number of gate ids covered by this storage, i.e. one more than the largest id stored.
+	 *
+	 * @return the number of gate ids
+	 */
+	public synchronized long getNumberOfGates() {
+		return numberOfGates;
+	}
+
+	@Override
+	public synchronized void storeTinyTable(int id, TinyTable table) {
+		int packed = 0;
+		for (int i = 0; i < 4; i++) {
+			if (table.getShare(i >>> 1 == 1, (i & 1) == 1)) {
+				packed |= 1 << i;
+			}
+		}
+		int index = tableIndex(id);
+		int shift = 4 * (id & 1);
+		ensureWritable(id);
+		byte old = buffer.get(index);
+		buffer.put(index, (byte) ((old & ~(0xF << shift)) | (packed << shift)));
+	}
+
+	@Override
+	public synchronized TinyTable getTinyTable(int id) {
+		if (id < 0 || id >= numberOfGates) {
+			return null;
+		}
+		int packed = buffer.get(tableIndex(id)) >>> (4 * (id & 1));
+		TinyTablesElement[] values = new TinyTablesElement[4];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = TinyTablesElement.getInstance((packed >>> i & 1) == 1);
+		}
+		return new TinyTable(values);
+	}
+
+	@Override
+	public synchronized boolean lookupTinyTable(int id, boolean eu, boolean ev) {
+		if (id < 0 || id >= numberOfGates) {
+			throw new IllegalArgumentException("Unable to find TinyTable for gate with id " + id);
+		}
+		int shift = 4 * (id & 1) + (eu ? 2 : 0) + (ev ? 1 : 0);
+		return (buffer.get(tableIndex(id)) >>> shift & 1) == 1;
+	}
+
+	@Override
+	public synchronized void storeMaskShare(int id, TinyTablesElement r) {
+		int index = maskIndex(id);
+		int bit = 1 << (id % GATES_PER_BLOCK);
+		ensureWritable(id);
+		byte old = buffer.get(index);
+		buffer.put(index, (byte) (r.getShare() ? old | bit : old & ~bit));
+	}
+
+	@Override
+	public synchronized TinyTablesElement getMaskShare(int id) {
+		if (id < 0 || id >= numberOfGates) {
+			return null;
+		}
+		int bit = 1 << (id % GATES_PER_BLOCK);
+		return TinyTablesElement.getInstance((buffer.get(maskIndex(id)) & bit) != 0);
+	}
+
+	/**
+	 * Closes this storage. For a writable storage, this writes the header, truncates the file to
+	 * the data actually stored and closes it. For a read-only storage, whose file is already
+	 * closed, this does nothing.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!writable) {
+			return;
+		}
+		if (channel.isOpen()) {
+			buffer.force();
+			ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			header.putInt(MAGIC).putInt(VERSION).putLong(numberOfGates).flip();
+			channel.write(header, 0);
+			channel.truncate(HEADER_LENGTH + byteLength(numberOfGates));
+			channel.force(true);
+		}
+		file.close();
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		throw new NotSerializableException(getClass().getName());
+	}
+
+	private void ensureWritable(int id) {
+		if (!writable) {
+			throw new IllegalStateException("Storage is read-only");
+		}
+		if (id < 0) {
+			throw new IllegalArgumentException("Negative gate id " + id);
+		}
+		numberOfGates = Math.max(numberOfGates, id + 1L);
+		long required = byteLength(id + 1L);
+		if (required > buffer.capacity()) {
+			long capacity = Math.min(Math.max(2L * buffer.capacity(), required), Integer.MAX_VALUE);
+			try {
+				buffer = channel.map(MapMode.READ_WRITE, HEADER_LENGTH, capacity);
+			} catch (IOException e) {
+				throw new RuntimeException("Unable to grow TinyTables file", e);
+			}
+		}
+	}
+
+	private static long byteLength(long numberOfGates) {
+		return (numberOfGates + GATES_PER_BLOCK - 1) / GATES_PER_BLOCK * BLOCK_LENGTH;
+	}
+
+	private static int tableIndex(int id) {
+		return id / GATES_PER_BLOCK * BLOCK_LENGTH + (id % GATES_PER_BLOCK) / 2;
+	}
+
+	private static int maskIndex(int id) {
+		return id / GATES_PER_BLOCK * BLOCK_LENGTH + MASK_OFFSET;
+	}
+
+}
@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleVector;
+import dk.alexandra.fresco.suite.tinytables.util.RotTinyTablesTripleGenerator;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A TinyTablesTripleProvider which generates triples in batches using a
+ * {@link RotTinyTablesTripleGenerator}. Each batch is kept packed in a
+ * {@link TinyTablesTripleVector} until it is used up, and triples can be taken out in packed form
+ * using {@link #getNextTriples(int)}.
+ */
+public class PackedTinyTablesTripleProvider implements TinyTablesTripleProvider {
+
+  private final int batchSize;
+  private final Deque<TinyTablesTripleVector> batches = new ArrayDeque<>();
+  private RotTinyTablesTripleGenerator generator;
+  private int next;
+  private long available;
+
+  /**
+   * Creates a new provider. The first batch is generated on the first request for a triple.
+   *
+   * @param generator the generator used to generate triples
+   * @param batchSize the number of triples to generate at a time
+   */
+  public PackedTinyTablesTripleProvider(RotTinyTablesTripleGenerator generator, int batchSize) {
+    this.generator = generator;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public synchronized TinyTablesTriple getNextTriple() {
+    fill(1);
+    TinyTablesTripleVector current = batches.peekFirst();
+    TinyTablesTriple triple = TinyTablesTriple.fromShares(current.getShareA(next),
+        current.getShareB(next), current.getShareC(next));
+    advance(1);
+    return triple;
+  }
+
+  /**
+   * Returns the next <code>amount</code> triples, packed into a single vector. Like
+   * {@link #getNextTriple()}, this must be called by the two players at the same point.
+   *
+   * @param amount the number of triples
+   * @return the triples
+   */
+  public synchronized TinyTablesTripleVector getNextTriples(int amount) {
+    fill(amount);
+    int words = (amount + Long.SIZE - 1) / Long.SIZE;
+    TinyTablesTripleVector triples =
+        new TinyTablesTripleVector(new long[words], new long[words], new long[words], amount);
+    int copied = 0;
+    while (copied < amount) {
+      TinyTablesTripleVector current = batches.peekFirst();
+      int length = Math.min(amount - copied, current.getSize() - next);
+      current.copyTo(next, triples, copied, length);
+      copied += length;
+      advance(length);
+    }
+    return triples;
+  }
+
+  /**
+   * Generates new batches of triples until at least <code>amount</code> triples are available.
+   * Like {@link #getNextTriple()}, this must be called by the two players at the same point.
+   *
+   * @param amount the number of triples that should be available
+   */
+  public synchronized void fill(long amount) {
+    if (generator == null) {
+      throw new IllegalStateException("Triple provider is closed");
+    }
+    while (available < amount) {
+      batches.addLast(generator.generate(batchSize));
+      available += batchSize;
+    }
+  }
+
+  /**
+   * Returns the number of triples which are generated but not yet used.
+   */
+  public synchronized long getAvailable() {
+    return available;
+  }
+
+  /**
+   * Discards the triples which are not yet used and releases the generator along with the OT
+   * extensions it holds. No triples can be taken from the provider afterwards.
+   */
+  @Override
+  public synchronized void close() {
+    batches.clear();
+    available = 0;
+    next = 0;
+    generator = null;
+  }
+
+  private void advance(int amount) {
+    next += amount;
+    available -= amount;
+    if (next == batches.peekFirst().getSize()) {
+      batches.pollFirst();
+      next = 0;
+    }
+  }
+
+}
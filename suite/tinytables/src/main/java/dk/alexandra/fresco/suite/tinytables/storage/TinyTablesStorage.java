@@ -24,6 +24,25 @@ public interface TinyTablesStorage extends Serializable {
 
 	public TinyTable getTinyTable(int id);
 
+	/**
+	 * Look up the share stored at entry <i>(eu, ev)</i> of the {@link TinyTable}
+	 * for the protocol with the given <code>id</code>.
+	 * 
+	 * @param id
+	 * @param eu
+	 * @param ev
+	 * @return the share stored in the table
+	 * @throws IllegalArgumentException
+	 *             if no table is stored for <code>id</code>
+	 */
+	public default boolean lookupTinyTable(int id, boolean eu, boolean ev) {
+		TinyTable table = getTinyTable(id);
+		if (table == null) {
+			throw new IllegalArgumentException("Unable to find TinyTable for gate with id " + id);
+		}
+		return table.getShare(eu, ev);
+	}
+
 	/**
 	 * Store a boolean for the protocol with the given ID. Can be used by a
 	 * player to store a mask that he has picked during preprocessing.
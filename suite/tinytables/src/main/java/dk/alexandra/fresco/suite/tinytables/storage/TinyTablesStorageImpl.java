@@ -2,36 +2,151 @@ package dk.alexandra.fresco.suite.tinytables.storage;
 
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Dense implementation of {@link TinyTablesStorage}. Gate ids are handed out by a counter, so
+ * TinyTables and mask shares are kept in flat arrays indexed by id rather than in maps: each
+ * TinyTable is packed into the low four bits of a byte, and mask shares are kept as bit vectors.
+ *
+ * <p>
+ * The serialized form is the one of earlier versions of this class, which kept TinyTables and mask
+ * shares in maps from ids, so stored preprocessing data remains readable. Lookups during the online
+ * phase are not synchronized, since the storage is no longer modified once evaluation starts.
+ * </p>
+ */
 public class TinyTablesStorageImpl implements TinyTablesStorage {
 
+	private static final long serialVersionUID = -1135044173153933992L;
 	/**
-	 * 
+	 * @serialField tinyTables Map&lt;Integer, TinyTable&gt; the TinyTables by id
+	 * @serialField maskShares Map&lt;Integer, TinyTablesElement&gt; the mask shares by id
 	 */
-	private static final long serialVersionUID = -1135044173153933992L;
-	private Map<Integer, TinyTable> tinyTables = new ConcurrentHashMap<>();
-	private Map<Integer, TinyTablesElement> maskShares = new ConcurrentHashMap<>();
-		
+	private static final ObjectStreamField[] serialPersistentFields = {
+			new ObjectStreamField("tinyTables", Map.class),
+			new ObjectStreamField("maskShares", Map.class) };
+	private static final int INITIAL_CAPACITY = 1024;
+	/**
+	 * Flag marking that a TinyTable has been stored for a given id. The four lower bits hold the
+	 * entries of the table, with entry <i>(c,d)</i> at bit <i>2c + d</i>.
+	 */
+	private static final byte TABLE_PRESENT = 1 << 4;
+
+	private transient byte[] tinyTables = new byte[INITIAL_CAPACITY];
+	private transient long[] maskShares = new long[INITIAL_CAPACITY / Long.SIZE];
+	private transient long[] maskSharesPresent = new long[INITIAL_CAPACITY / Long.SIZE];
+
+	@Override
+	public synchronized TinyTable getTinyTable(int id) {
+		if (!hasTinyTable(id)) {
+			return null;
+		}
+		TinyTablesElement[] values = new TinyTablesElement[4];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = TinyTablesElement.getInstance((tinyTables[id] >>> i & 1) == 1);
+		}
+		return new TinyTable(values);
+	}
+
 	@Override
-	public TinyTable getTinyTable(int id) {
-		return tinyTables.get(id);
+	public synchronized void storeTinyTable(int id, TinyTable table) {
+		if (id >= tinyTables.length) {
+			tinyTables = Arrays.copyOf(tinyTables, newCapacity(tinyTables.length, id));
+		}
+		int packed = TABLE_PRESENT;
+		for (int i = 0; i < 4; i++) {
+			if (table.getShare(i >>> 1 == 1, (i & 1) == 1)) {
+				packed |= 1 << i;
+			}
+		}
+		tinyTables[id] = (byte) packed;
 	}
 
 	@Override
-	public void storeTinyTable(int id, TinyTable table) {
-		tinyTables.put(id, table);
+	public boolean lookupTinyTable(int id, boolean eu, boolean ev) {
+		if (!hasTinyTable(id)) {
+			throw new IllegalArgumentException("Unable to find TinyTable for gate with id " + id);
+		}
+		int index = (eu ? 2 : 0) + (ev ? 1 : 0);
+		return (tinyTables[id] >>> index & 1) == 1;
 	}
 
 	@Override
-	public void storeMaskShare(int id, TinyTablesElement r) {
-		maskShares.put(id, r);
+	public synchronized void storeMaskShare(int id, TinyTablesElement r) {
+		int word = id >>> 6;
+		if (word >= maskShares.length) {
+			int capacity = newCapacity(maskShares.length, word);
+			maskShares = Arrays.copyOf(maskShares, capacity);
+			maskSharesPresent = Arrays.copyOf(maskSharesPresent, capacity);
+		}
+		long bit = 1L << id;
+		maskSharesPresent[word] |= bit;
+		if (r.getShare()) {
+			maskShares[word] |= bit;
+		} else {
+			maskShares[word] &= ~bit;
+		}
 	}
 
 	@Override
-	public TinyTablesElement getMaskShare(int id) {
-		return maskShares.get(id);
+	public synchronized TinyTablesElement getMaskShare(int id) {
+		int word = id >>> 6;
+		long bit = 1L << id;
+		if (word >= maskShares.length || (maskSharesPresent[word] & bit) == 0) {
+			return null;
+		}
+		return TinyTablesElement.getInstance((maskShares[word] & bit) != 0);
+	}
+
+	private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+		Map<Integer, TinyTable> tables = new ConcurrentHashMap<>();
+		for (int id = 0; id < tinyTables.length; id++) {
+			if (hasTinyTable(id)) {
+				tables.put(id, getTinyTable(id));
+			}
+		}
+		Map<Integer, TinyTablesElement> masks = new ConcurrentHashMap<>();
+		for (int id = 0; id < maskShares.length * Long.SIZE; id++) {
+			TinyTablesElement maskShare = getMaskShare(id);
+			if (maskShare != null) {
+				masks.put(id, maskShare);
+			}
+		}
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("tinyTables", tables);
+		fields.put("maskShares", masks);
+		out.writeFields();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		Map<Integer, TinyTable> tables = (Map<Integer, TinyTable>) fields.get("tinyTables", null);
+		Map<Integer, TinyTablesElement> masks =
+				(Map<Integer, TinyTablesElement>) fields.get("maskShares", null);
+		tinyTables = new byte[INITIAL_CAPACITY];
+		maskShares = new long[INITIAL_CAPACITY / Long.SIZE];
+		maskSharesPresent = new long[INITIAL_CAPACITY / Long.SIZE];
+		if (tables != null) {
+			tables.forEach(this::storeTinyTable);
+		}
+		if (masks != null) {
+			masks.forEach(this::storeMaskShare);
+		}
+	}
+
+	private boolean hasTinyTable(int id) {
+		return id < tinyTables.length && (tinyTables[id] & TABLE_PRESENT) != 0;
+	}
+
+	private static int newCapacity(int capacity, int index) {
+		return Math.max(2 * capacity, index + 1);
 	}
 
 }
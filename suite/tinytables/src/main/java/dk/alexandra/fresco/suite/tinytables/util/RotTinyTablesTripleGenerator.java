@@ -0,0 +1,251 @@
+package dk.alexandra.fresco.suite.tinytables.util;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTripleVector;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotReceiver;
+import dk.alexandra.fresco.tools.ot.otextension.RotSender;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates multiplication triples from random OTs in bulk.
+ *
+ * <p>
+ * Player 1 acts as sender and player 2 as receiver in <i>2n</i> random OTs. In the first <i>n</i>
+ * OTs, player 1 gets random messages <i>(x<sub>0</sub>, x<sub>1</sub>)</i> and player 2 gets the
+ * random choice <i>b<sub>2</sub></i> and <i>x<sub>b<sub>2</sub></sub></i>. Letting player 1 use
+ * <i>a<sub>1</sub> = x<sub>0</sub> + x<sub>1</sub></i> as his share of <i>a</i> makes
+ * <i>x<sub>b<sub>2</sub></sub> = x<sub>0</sub> + a<sub>1</sub>b<sub>2</sub></i>, i.e.
+ * <i>x<sub>0</sub></i> and <i>x<sub>b<sub>2</sub></sub></i> is a sharing of
+ * <i>a<sub>1</sub>b<sub>2</sub></i>. The last <i>n</i> OTs are used in the same way to share
+ * <i>a<sub>2</sub>b<sub>1</sub></i>, after which each player can compute his share of <i>c =
+ * ab</i> locally. Only the first bit of each random message is used, and the bits of a batch are
+ * combined a word at a time.
+ * </p>
+ *
+ * <p>
+ * Compared to {@link TinyTablesTripleGenerator}, no messages besides those of the OT extension
+ * itself are exchanged.
+ * </p>
+ *
+ * <p>
+ * With more than two players, the shares <i>a<sub>i</sub></i> and <i>b<sub>i</sub></i> of each
+ * player are sampled locally, since they are used in the products with all other players. Each
+ * pair of players <i>i &lt; j</i> shares <i>a<sub>i</sub>b<sub>j</sub></i> and
+ * <i>b<sub>i</sub>a<sub>j</sub></i> using <i>2n</i> random OTs with player <i>i</i> as sender,
+ * derandomized in one round: player <i>j</i> sends the difference between its factors and the
+ * random choices, and player <i>i</i> sends the difference between the random messages and its
+ * factors. The pairs are handled in lexicographic order, so all players can run through them
+ * sequentially on the same network.
+ * </p>
+ */
+public class RotTinyTablesTripleGenerator {
+
+  private final int playerId;
+  private final int noOfParties;
+  private final Drbg random;
+  private final Map<Integer, RotFactory> rotFactories;
+  private final Network network;
+  private final Map<Integer, RotSender> senders = new HashMap<>();
+  private final Map<Integer, RotReceiver> receivers = new HashMap<>();
+
+  /**
+   * Creates a new triple generator.
+   *
+   * @param playerId the id of the player to generate triples for
+   * @param random a source of randomness
+   * @param rotFactory the random OT extension shared with the other player
+   */
+  public RotTinyTablesTripleGenerator(int playerId, Drbg random, RotFactory rotFactory) {
+    this.playerId = playerId;
+    this.noOfParties = 2;
+    this.random = random;
+    this.rotFactories = new HashMap<>();
+    this.rotFactories.put(playerId == 1 ? 2 : 1, rotFactory);
+    this.network = null;
+  }
+
+  /**
+   * Creates a new triple generator for any number of players.
+   *
+   * @param playerId the id of the player to generate triples for
+   * @param noOfParties the number of players
+   * @param random a source of randomness
+   * @param rotFactories the random OT extensions shared with each of the other players, indexed
+   *     by their ids
+   * @param network the network used to derandomize the random OTs
+   */
+  public RotTinyTablesTripleGenerator(int playerId, int noOfParties, Drbg random,
+      Map<Integer, RotFactory> rotFactories, Network network) {
+    if (rotFactories.size() != noOfParties - 1) {
+      throw new IllegalArgumentException(
+          "Expected OT extensions for " + (noOfParties - 1) + " players but got "
+              + rotFactories.size());
+    }
+    this.playerId = playerId;
+    this.noOfParties = noOfParties;
+    this.random = random;
+    this.rotFactories = rotFactories;
+    this.network = network;
+  }
+
+  /**
+   * Generate new multiplication triples (a,b,c). All players need to call this method at the same
+   * time and with the same amount parameter.
+   */
+  public TinyTablesTripleVector generate(int amount) {
+    int words = (amount + Long.SIZE - 1) / Long.SIZE;
+    // The OT extension needs a multiple of 8 OTs
+    int rots = (2 * amount + Byte.SIZE - 1) / Byte.SIZE * Byte.SIZE;
+    if (noOfParties > 2) {
+      return generateMultiParty(amount, words, rots);
+    }
+    long[] a = new long[words];
+    long[] b = new long[words];
+    long[] c = new long[words];
+    if (playerId == 1) {
+      RotSender sender = getSender(2);
+      Pair<List<StrictBitVector>, List<StrictBitVector>> messages = sender.extend(rots);
+      long[] x = firstBits(messages.getFirst(), 0, amount);
+      long[] y = firstBits(messages.getFirst(), amount, amount);
+      long[] xOne = firstBits(messages.getSecond(), 0, amount);
+      long[] yOne = firstBits(messages.getSecond(), amount, amount);
+      for (int i = 0; i < words; i++) {
+        a[i] = x[i] ^ xOne[i];
+        b[i] = y[i] ^ yOne[i];
+        c[i] = a[i] & b[i] ^ x[i] ^ y[i];
+      }
+    } else {
+      RotReceiver receiver = getReceiver(1);
+      StrictBitVector choices = new StrictBitVector(rots, random);
+      List<StrictBitVector> messages = receiver.extend(choices);
+      long[] x = firstBits(messages, 0, amount);
+      long[] y = firstBits(messages, amount, amount);
+      for (int i = 0; i < amount; i++) {
+        if (choices.getBit(i, false)) {
+          b[i >>> 6] |= 1L << i;
+        }
+        if (choices.getBit(amount + i, false)) {
+          a[i >>> 6] |= 1L << i;
+        }
+      }
+      for (int i = 0; i < words; i++) {
+        c[i] = a[i] & b[i] ^ x[i] ^ y[i];
+      }
+    }
+    return new TinyTablesTripleVector(a, b, c, amount);
+  }
+
+  private TinyTablesTripleVector generateMultiParty(int amount, int words, int rots) {
+    long[] a = randomWords(words);
+    long[] b = randomWords(words);
+    long[] c = new long[words];
+    for (int i = 0; i < words; i++) {
+      c[i] = a[i] & b[i];
+    }
+    // Iterating the other ids in increasing order runs through the pairs in lexicographic order
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (otherId == playerId) {
+        continue;
+      }
+      if (playerId < otherId) {
+        Pair<List<StrictBitVector>, List<StrictBitVector>> messages =
+            getSender(otherId).extend(rots);
+        long[] x = firstBits(messages.getFirst(), 0, amount);
+        long[] y = firstBits(messages.getFirst(), amount, amount);
+        long[] xDiff = firstBits(messages.getSecond(), 0, amount);
+        long[] yDiff = firstBits(messages.getSecond(), amount, amount);
+        long[] corrections = new long[2 * words];
+        for (int i = 0; i < words; i++) {
+          xDiff[i] ^= x[i];
+          yDiff[i] ^= y[i];
+          corrections[i] = xDiff[i] ^ a[i];
+          corrections[words + i] = yDiff[i] ^ b[i];
+        }
+        network.send(otherId, toBytes(corrections));
+        long[] flips = fromBytes(network.receive(otherId), 2 * words);
+        for (int i = 0; i < words; i++) {
+          c[i] ^= x[i] ^ flips[i] & xDiff[i] ^ y[i] ^ flips[words + i] & yDiff[i];
+        }
+      } else {
+        StrictBitVector choices = new StrictBitVector(rots, random);
+        List<StrictBitVector> messages = getReceiver(otherId).extend(choices);
+        long[] x = firstBits(messages, 0, amount);
+        long[] y = firstBits(messages, amount, amount);
+        long[] flips = new long[2 * words];
+        for (int i = 0; i < amount; i++) {
+          if (choices.getBit(i, false)) {
+            flips[i >>> 6] |= 1L << i;
+          }
+          if (choices.getBit(amount + i, false)) {
+            flips[words + (i >>> 6)] |= 1L << i;
+          }
+        }
+        for (int i = 0; i < words; i++) {
+          flips[i] ^= b[i];
+          flips[words + i] ^= a[i];
+        }
+        network.send(otherId, toBytes(flips));
+        long[] corrections = fromBytes(network.receive(otherId), 2 * words);
+        for (int i = 0; i < words; i++) {
+          c[i] ^= x[i] ^ b[i] & corrections[i] ^ y[i] ^ a[i] & corrections[words + i];
+        }
+      }
+    }
+    return new TinyTablesTripleVector(a, b, c, amount);
+  }
+
+  private RotSender getSender(int otherId) {
+    return senders.computeIfAbsent(otherId, id -> rotFactories.get(id).createSender());
+  }
+
+  private RotReceiver getReceiver(int otherId) {
+    return receivers.computeIfAbsent(otherId, id -> rotFactories.get(id).createReceiver());
+  }
+
+  private long[] randomWords(int words) {
+    byte[] bytes = new byte[words * Long.BYTES];
+    random.nextBytes(bytes);
+    return fromBytes(bytes, words);
+  }
+
+  private static byte[] toBytes(long[] words) {
+    ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    for (long word : words) {
+      buffer.putLong(word);
+    }
+    return buffer.array();
+  }
+
+  private static long[] fromBytes(byte[] bytes, int words) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    long[] result = new long[words];
+    for (int i = 0; i < words; i++) {
+      result[i] = buffer.getLong();
+    }
+    return result;
+  }
+
+  /**
+   * Packs the first bit of each of <code>amount</code> messages, starting from
+   * <code>offset</code>.
+   */
+  private static long[] firstBits(List<StrictBitVector> messages, int offset, int amount) {
+    long[] bits = new long[(amount + Long.SIZE - 1) / Long.SIZE];
+    for (int i = 0; i < amount; i++) {
+      if (messages.get(offset + i).getBit(0, false)) {
+        bits[i >>> 6] |= 1L << i;
+      }
+    }
+    return bits;
+  }
+
+}
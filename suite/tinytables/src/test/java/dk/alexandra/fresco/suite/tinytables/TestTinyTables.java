@@ -32,6 +32,7 @@ import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproResourcePool;
 import dk.alexandra.fresco.suite.tinytables.util.Util;
 import dk.alexandra.fresco.tools.ot.base.DhParameters;
+import dk.alexandra.fresco.tools.ot.otextension.RotExtension;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
@@ -39,6 +40,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -58,7 +60,30 @@ public class TestTinyTables {
 
   private void runTest(TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
       EvaluationStrategy evalStrategy, boolean preprocessing, String name) {
-    int noPlayers = 2;
+    runTest(f, evalStrategy, preprocessing, name, false);
+  }
+
+  private void runTest(TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
+      EvaluationStrategy evalStrategy, boolean preprocessing, String name, boolean bitSliced) {
+    runTest(f, evalStrategy, preprocessing, name, bitSliced, false);
+  }
+
+  private void runTest(TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
+      EvaluationStrategy evalStrategy, boolean preprocessing, String name, boolean bitSliced,
+      boolean packed) {
+    runTest(f, evalStrategy, preprocessing, name, bitSliced, packed, 2);
+  }
+
+  private void runTest(TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
+      EvaluationStrategy evalStrategy, boolean preprocessing, String name, boolean bitSliced,
+      boolean packed, int noPlayers) {
+    runTest(f, evalStrategy, preprocessing, name, bitSliced, packed, noPlayers,
+        RotExtension.BRISTOL);
+  }
+
+  private void runTest(TestThreadFactory<ResourcePoolImpl, ProtocolBuilderBinary> f,
+      EvaluationStrategy evalStrategy, boolean preprocessing, String name, boolean bitSliced,
+      boolean packed, int noPlayers, RotExtension rotExtension) {
     List<Integer> ports = NetworkUtil.getFreePorts(noPlayers);
     Map<Integer, NetworkConfiguration> netConf = NetworkUtil
         .getNetworkConfigurations(ports);
@@ -74,20 +99,26 @@ public class TestTinyTables {
         BatchEvaluationStrategy<TinyTablesPreproResourcePool> batchStrategy =
             evalStrategy.getStrategy();
         TinyTablesPreproProtocolSuite suite = new TinyTablesPreproProtocolSuite();
-        TinyTablesOt baseOt = new TinyTablesDummyOt(Util.otherPlayerId(playerId));
+        Map<Integer, TinyTablesOt> baseOts = new HashMap<>();
+        for (int otherId : netConf.keySet()) {
+          if (otherId != playerId) {
+            baseOts.put(otherId, new TinyTablesDummyOt(otherId));
+          }
+        }
         Drbg random = new AesCtrDrbg(new byte[32]);
         resourcePoolSupplier =
             () -> new TinyTablesPreproResourcePool(
-                playerId, baseOt, random,
+                playerId, noPlayers, baseOts, random,
                 COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, OT_BATCH_SIZE, tinyTablesFile,
-                networkSupplier);
+                networkSupplier, packed, rotExtension);
         ProtocolEvaluator<TinyTablesPreproResourcePool> evaluator =
             new BatchedProtocolEvaluator<>(batchStrategy, suite);
         computationEngine =
             (SecureComputationEngine) new SecureComputationEngineImpl<>(suite, evaluator);
       } else {
         BatchEvaluationStrategy<ResourcePoolImpl> batchStrategy = evalStrategy.getStrategy();
-        TinyTablesProtocolSuite suite = new TinyTablesProtocolSuite(playerId, tinyTablesFile);
+        TinyTablesProtocolSuite suite = new TinyTablesProtocolSuite(playerId, tinyTablesFile,
+            bitSliced);
         resourcePoolSupplier = () -> new ResourcePoolImpl(playerId, noPlayers);
         ProtocolEvaluator<ResourcePoolImpl> evaluator =
             new BatchedProtocolEvaluator<>(batchStrategy, suite);
@@ -207,6 +238,43 @@ public class TestTinyTables {
         EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testAND");
   }
 
+  @Test
+  public void testManyAndBitSliced() {
+    final int numAnds = 2000;
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(false, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testAND");
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(true, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testAND", true);
+  }
+
+  @Test
+  public void testManyAndPacked() {
+    final int numAnds = 2000;
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(false, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testAND", false, true);
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(true, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testAND", true);
+  }
+
+  @Test
+  public void testManyAndThreeParties() {
+    final int numAnds = 2000;
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(false, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testAND", false, false, 3);
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(true, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testAND", true, false, 3);
+  }
+
+  @Test
+  public void testManyAndSilentOt() {
+    final int numAnds = 2000;
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(false, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testAND", false, false, 3,
+        RotExtension.SILENT);
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(true, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testAND", true, false, 3);
+  }
+
   @Test
   public void testNot() {
     runTest(new BasicBooleanTests.TestNOT<>(false), EvaluationStrategy.SEQUENTIAL_BATCHED, true,
@@ -286,6 +354,38 @@ public class TestTinyTables {
         false, "testBasicProtocols");
   }
 
+  @Test
+  public void testBasicProtocolsBitSliced() {
+    runTest(new BasicBooleanTests.TestBasicProtocols<>(false),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testBasicProtocols");
+    runTest(new BasicBooleanTests.TestBasicProtocols<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        false, "testBasicProtocols", true);
+  }
+
+  @Test
+  public void testBasicProtocolsPacked() {
+    runTest(new BasicBooleanTests.TestBasicProtocols<>(false),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testBasicProtocols", false, true);
+    runTest(new BasicBooleanTests.TestBasicProtocols<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        false, "testBasicProtocols");
+  }
+
+  @Test
+  public void testBasicProtocolsThreeParties() {
+    runTest(new BasicBooleanTests.TestBasicProtocols<>(false),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testBasicProtocols", false, false, 3);
+    runTest(new BasicBooleanTests.TestBasicProtocols<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        false, "testBasicProtocols", false, false, 3);
+  }
+
+  @Test
+  public void test_comparisonThreeParties() {
+    runTest(new ComparisonBooleanTests.TestGreaterThan<>(false),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testGT", false, false, 3);
+    runTest(new ComparisonBooleanTests.TestGreaterThan<>(true),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testGT", false, false, 3);
+  }
+
   /* Bristol tests */
 
   @Category(IntegrationTest.class)
@@ -306,6 +406,15 @@ public class TestTinyTables {
         "testAES");
   }
 
+  @Category(IntegrationTest.class)
+  @Test
+  public void testAesBitSliced() {
+    runTest(new BristolCryptoTests.AesTest<>(false), EvaluationStrategy.SEQUENTIAL_BATCHED, true,
+        "testAES");
+    runTest(new BristolCryptoTests.AesTest<>(true), EvaluationStrategy.SEQUENTIAL_BATCHED, false,
+        "testAES", true);
+  }
+
   @Category(IntegrationTest.class)
   @Test
   public void test_Des() {
@@ -351,6 +460,14 @@ public class TestTinyTables {
         EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testGT");
   }
 
+  @Test
+  public void test_comparisonBitSliced() {
+    runTest(new ComparisonBooleanTests.TestGreaterThan<>(false),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, true, "testGT");
+    runTest(new ComparisonBooleanTests.TestGreaterThan<>(true),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, "testGT", true);
+  }
+
   @Test
   public void test_equality() {
     runTest(new ComparisonBooleanTests.TestEquality<>(false), EvaluationStrategy.SEQUENTIAL_BATCHED,
@@ -392,6 +509,47 @@ public class TestTinyTables {
     TestThreadRunner.run(new BristolCryptoTests.DesTest<>(false), conf);
   }
 
+  @Test
+  public void testPipelinedPreprocessing() throws IOException {
+    final String name = "testPipelined";
+    int noPlayers = 2;
+    Map<Integer, NetworkConfiguration> netConf = NetworkUtil
+        .getNetworkConfigurations(NetworkUtil.getFreePorts(noPlayers));
+    Map<Integer, NetworkConfiguration> tripleNetConf = NetworkUtil
+        .getNetworkConfigurations(NetworkUtil.getFreePorts(noPlayers));
+    Map<Integer, TestThreadConfiguration<ResourcePoolImpl, ProtocolBuilderBinary>> conf =
+        new HashMap<>();
+    List<NetworkSupplier> tripleNetworks = new ArrayList<>();
+    for (int playerId : netConf.keySet()) {
+      File tinyTablesFile = new File(getFilenameForTest(playerId, name));
+      TinyTablesPreproProtocolSuite suite = new TinyTablesPreproProtocolSuite();
+      TinyTablesOt baseOt = new TinyTablesDummyOt(Util.otherPlayerId(playerId));
+      Drbg random = new AesCtrDrbg(new byte[32]);
+      NetworkSupplier tripleNetwork = new NetworkSupplier(playerId, tripleNetConf);
+      tripleNetworks.add(tripleNetwork);
+      // Small chunks and bounds to exercise the back pressure
+      Supplier<ResourcePoolImpl> resourcePoolSupplier =
+          () -> new TinyTablesPreproResourcePool(playerId, baseOt, random,
+              COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, OT_BATCH_SIZE, tinyTablesFile,
+              tripleNetwork, true, 100, 150, 300);
+      ProtocolEvaluator<TinyTablesPreproResourcePool> evaluator = new BatchedProtocolEvaluator<>(
+          EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy(), suite);
+      SecureComputationEngine<ResourcePoolImpl, ProtocolBuilderBinary> computationEngine =
+          (SecureComputationEngine) new SecureComputationEngineImpl<>(suite, evaluator);
+      conf.put(playerId, new TestThreadConfiguration<>(computationEngine, resourcePoolSupplier,
+          new NetworkSupplier(playerId, netConf)));
+    }
+    try {
+      TestThreadRunner.run(new BasicBooleanTests.TestMultipleAnds<>(false, 2000), conf);
+    } finally {
+      for (NetworkSupplier tripleNetwork : tripleNetworks) {
+        ((SocketNetwork) tripleNetwork.get()).close();
+      }
+    }
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(true, 2000),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, name, true);
+  }
+
   private static class NetworkSupplier implements Supplier<Network> {
 
     private final int playerId;
@@ -0,0 +1,91 @@
+package dk.alexandra.fresco.suite.tinytables.datatypes;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TestTinyTablesTripleVector {
+
+  @Test
+  public void testGetShares() {
+    long[] a = new long[]{0x5L, 0x1L};
+    long[] b = new long[]{0x6L, 0x0L};
+    long[] c = new long[]{0x4L, 0x1L};
+    TinyTablesTripleVector vector = new TinyTablesTripleVector(a, b, c, 65);
+    assertThat(vector.getSize(), is(65));
+    assertShares(vector, 0, true, false, false);
+    assertShares(vector, 1, false, true, false);
+    assertShares(vector, 2, true, true, true);
+    assertShares(vector, 3, false, false, false);
+    assertShares(vector, 64, true, false, true);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testGetOutOfBounds() {
+    new TinyTablesTripleVector(new long[1], new long[1], new long[1], 10).getShareA(10);
+  }
+
+  @Test
+  public void testCopyTo() {
+    Random random = new Random(42);
+    int size = 300;
+    long[] a = randomWords(random, size);
+    long[] b = randomWords(random, size);
+    long[] c = randomWords(random, size);
+    TinyTablesTripleVector source = new TinyTablesTripleVector(a, b, c, size);
+    TinyTablesTripleVector dest =
+        new TinyTablesTripleVector(new long[5], new long[5], new long[5], size);
+    // unaligned ranges on both sides, spanning several words
+    source.copyTo(0, dest, 0, 3);
+    source.copyTo(70, dest, 3, 130);
+    source.copyTo(5, dest, 133, 64);
+    for (int i = 0; i < 3; i++) {
+      assertSameTriple(source, i, dest, i);
+    }
+    for (int i = 0; i < 130; i++) {
+      assertSameTriple(source, 70 + i, dest, 3 + i);
+    }
+    for (int i = 0; i < 64; i++) {
+      assertSameTriple(source, 5 + i, dest, 133 + i);
+    }
+    for (int i = 197; i < size; i++) {
+      assertShares(dest, i, false, false, false);
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testCopyToOutOfBounds() {
+    TinyTablesTripleVector vector =
+        new TinyTablesTripleVector(new long[1], new long[1], new long[1], 10);
+    vector.copyTo(5, vector, 0, 6);
+  }
+
+  private static long[] randomWords(Random random, int size) {
+    long[] words = new long[(size + Long.SIZE - 1) / Long.SIZE];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = random.nextLong();
+    }
+    return words;
+  }
+
+  private static void assertShares(TinyTablesTripleVector vector, int index, boolean a, boolean b,
+      boolean c) {
+    assertThat(vector.getShareA(index), is(a));
+    assertThat(vector.getShareB(index), is(b));
+    assertThat(vector.getShareC(index), is(c));
+  }
+
+  private static void assertSameTriple(TinyTablesTripleVector expected, int expectedIndex,
+      TinyTablesTripleVector actual, int actualIndex) {
+    assertShares(actual, actualIndex, expected.getShareA(expectedIndex),
+        expected.getShareB(expectedIndex), expected.getShareC(expectedIndex));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooFewWords() {
+    new TinyTablesTripleVector(new long[1], new long[1], new long[1], 65);
+  }
+
+}
@@ -0,0 +1,122 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestMappedTinyTablesStorage {
+
+  private File file;
+
+  @Before
+  public void setup() throws IOException {
+    file = File.createTempFile("tinytables", ".packed");
+  }
+
+  @After
+  public void tearDown() {
+    file.delete();
+  }
+
+  private static TinyTable table(int bits) {
+    TinyTablesElement[] values = new TinyTablesElement[4];
+    for (int i = 0; i < 4; i++) {
+      values[i] = TinyTablesElement.getInstance((bits >>> i & 1) == 1);
+    }
+    return new TinyTable(values);
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    final int gates = 1 << 18;
+    try (MappedTinyTablesStorage storage = MappedTinyTablesStorage.create(file)) {
+      // Store in reverse order to check that writes do not have to be sequential
+      for (int id = gates - 1; id >= 0; id--) {
+        storage.storeTinyTable(id, table(id % 16));
+        storage.storeMaskShare(id, TinyTablesElement.getInstance(id % 3 == 0));
+      }
+    }
+    // 5 bits per gate plus the header
+    assertThat(file.length(), is((long) MappedTinyTablesStorage.HEADER_LENGTH + gates / 8 * 5));
+    assertTrue(MappedTinyTablesStorage.isPacked(file));
+    try (MappedTinyTablesStorage storage = MappedTinyTablesStorage.open(file)) {
+      assertThat(storage.getNumberOfGates(), is((long) gates));
+      for (int id = 0; id < gates; id++) {
+        int bits = id % 16;
+        assertThat(storage.lookupTinyTable(id, false, false), is((bits & 1) == 1));
+        assertThat(storage.lookupTinyTable(id, false, true), is((bits & 2) == 2));
+        assertThat(storage.lookupTinyTable(id, true, false), is((bits & 4) == 4));
+        assertThat(storage.lookupTinyTable(id, true, true), is((bits & 8) == 8));
+        assertThat(storage.getMaskShare(id).getShare(), is(id % 3 == 0));
+      }
+      assertThat(storage.getTinyTable(5).toString(), is(table(5).toString()));
+      assertNull(storage.getTinyTable(gates));
+      assertNull(storage.getMaskShare(gates));
+    }
+  }
+
+  @Test
+  public void testOverwrite() throws IOException {
+    try (MappedTinyTablesStorage storage = MappedTinyTablesStorage.create(file)) {
+      storage.storeTinyTable(3, table(15));
+      storage.storeTinyTable(2, table(15));
+      storage.storeTinyTable(3, table(6));
+      storage.storeMaskShare(4, TinyTablesElement.getInstance(true));
+      storage.storeMaskShare(4, TinyTablesElement.getInstance(false));
+    }
+    try (MappedTinyTablesStorage storage = MappedTinyTablesStorage.open(file)) {
+      assertThat(storage.getTinyTable(3).toString(), is(table(6).toString()));
+      assertThat(storage.getTinyTable(2).toString(), is(table(15).toString()));
+      assertFalse(storage.getMaskShare(4).getShare());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReadOnly() throws IOException {
+    try (MappedTinyTablesStorage storage = MappedTinyTablesStorage.create(file)) {
+      storage.storeTinyTable(0, table(1));
+    }
+    try (MappedTinyTablesStorage storage = MappedTinyTablesStorage.open(file)) {
+      storage.storeTinyTable(0, table(2));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLookupOutOfRange() throws IOException {
+    try (MappedTinyTablesStorage storage = MappedTinyTablesStorage.create(file)) {
+      storage.storeTinyTable(9, table(1));
+    }
+    try (MappedTinyTablesStorage storage = MappedTinyTablesStorage.open(file)) {
+      storage.lookupTinyTable(16, false, false);
+    }
+  }
+
+  @Test
+  public void testNotPacked() throws IOException {
+    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+      out.writeObject(new TinyTablesStorageImpl());
+    }
+    assertFalse(MappedTinyTablesStorage.isPacked(file));
+  }
+
+  @Test(expected = IOException.class)
+  public void testOpenNotPacked() throws IOException {
+    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+      out.writeObject(new TinyTablesStorageImpl());
+    }
+    MappedTinyTablesStorage.open(file);
+  }
+
+}
@@ -0,0 +1,108 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.Test;
+
+public class TestTinyTablesStorageImpl {
+
+  private static TinyTable table(int bits) {
+    TinyTablesElement[] values = new TinyTablesElement[4];
+    for (int i = 0; i < 4; i++) {
+      values[i] = TinyTablesElement.getInstance((bits >>> i & 1) == 1);
+    }
+    return new TinyTable(values);
+  }
+
+  @Test
+  public void testStoreAndLookupTinyTables() {
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    for (int id = 0; id < 5000; id++) {
+      storage.storeTinyTable(id, table(id % 16));
+    }
+    for (int id = 0; id < 5000; id++) {
+      int bits = id % 16;
+      assertThat(storage.lookupTinyTable(id, false, false), is((bits & 1) == 1));
+      assertThat(storage.lookupTinyTable(id, false, true), is((bits & 2) == 2));
+      assertThat(storage.lookupTinyTable(id, true, false), is((bits & 4) == 4));
+      assertThat(storage.lookupTinyTable(id, true, true), is((bits & 8) == 8));
+      assertThat(storage.getTinyTable(id).toString(), is(table(bits).toString()));
+    }
+  }
+
+  @Test
+  public void testStoreAndGetMaskShares() {
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    for (int id = 0; id < 5000; id += 3) {
+      storage.storeMaskShare(id, TinyTablesElement.getInstance(id % 2 == 0));
+    }
+    storage.storeMaskShare(3, TinyTablesElement.getInstance(false));
+    for (int id = 0; id < 5000; id++) {
+      if (id % 3 == 0) {
+        assertThat(storage.getMaskShare(id).getShare(), is(id % 2 == 0 && id != 3));
+      } else {
+        assertNull(storage.getMaskShare(id));
+      }
+    }
+    assertNull(storage.getMaskShare(100000));
+  }
+
+  @Test
+  public void testMissingTinyTable() {
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    storage.storeTinyTable(2, table(3));
+    assertNull(storage.getTinyTable(1));
+    assertNull(storage.getTinyTable(100000));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLookupMissingTinyTable() {
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    storage.storeTinyTable(2, table(3));
+    storage.lookupTinyTable(1, true, false);
+  }
+
+  @Test
+  public void testSerialization() throws IOException, ClassNotFoundException {
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    storage.storeTinyTable(7, table(9));
+    storage.storeMaskShare(7, TinyTablesElement.getInstance(true));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(storage);
+    }
+    TinyTablesStorage copy;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      copy = (TinyTablesStorage) in.readObject();
+    }
+    assertThat(copy.lookupTinyTable(7, true, true), is(true));
+    assertThat(copy.lookupTinyTable(7, false, true), is(false));
+    assertThat(copy.getMaskShare(7).getShare(), is(true));
+  }
+
+  @Test
+  public void testDeserializeMapFormat() throws IOException, ClassNotFoundException {
+    // written by the earlier, map based version of TinyTablesStorageImpl, holding the TinyTable
+    // with entries 9 and the mask share true for id 7
+    TinyTablesStorage storage;
+    try (ObjectInputStream in = new ObjectInputStream(getClass()
+        .getResourceAsStream("/tinytables/TinyTablesStorageImpl_map_format.ser"))) {
+      storage = (TinyTablesStorage) in.readObject();
+    }
+    assertThat(storage.getTinyTable(7).toString(), is(table(9).toString()));
+    assertThat(storage.getMaskShare(7).getShare(), is(true));
+    assertNull(storage.getTinyTable(6));
+    assertNull(storage.getMaskShare(6));
+  }
+
+}
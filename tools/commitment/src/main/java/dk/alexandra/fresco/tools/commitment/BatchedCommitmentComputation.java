@@ -0,0 +1,94 @@
+package dk.alexandra.fresco.tools.commitment;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.Drbg;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Protocol for all parties to commit to a batch of values each and open them to the other parties.
+ *
+ * <p>The values of a party are concatenated, each prefixed by its length, and committed to with
+ * a single {@link HashBasedCommitment}. Hence the protocol uses a single hash computation per
+ * party and the same rounds as {@link CommitmentComputation} regardless of the number of values,
+ * rather than a commitment and an opening round per value. The parties may commit to different
+ * numbers of values.</p>
+ */
+public class BatchedCommitmentComputation implements
+    Computation<List<List<byte[]>>, ProtocolBuilderNumeric> {
+
+  private final ByteSerializer<HashBasedCommitment> commitmentSerializer;
+  private final List<byte[]> values;
+  private final Drbg localDrbg;
+
+  /**
+   * Creates a new batched commitment protocol.
+   *
+   * @param commitmentSerializer serializer for the commitments
+   * @param values the values to commit to
+   * @param localDrbg source of randomness for the commitment
+   */
+  public BatchedCommitmentComputation(ByteSerializer<HashBasedCommitment> commitmentSerializer,
+      List<byte[]> values, Drbg localDrbg) {
+    this.commitmentSerializer = commitmentSerializer;
+    this.values = values;
+    this.localDrbg = localDrbg;
+  }
+
+  @Override
+  public DRes<List<List<byte[]>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder
+        .seq(new CommitmentComputation(commitmentSerializer, encode(values), localDrbg))
+        .seq((seq, opened) -> {
+          List<List<byte[]>> decoded = opened.stream()
+              .map(BatchedCommitmentComputation::decode)
+              .collect(Collectors.toList());
+          return () -> decoded;
+        });
+  }
+
+  /**
+   * Concatenates values, each prefixed by its length.
+   */
+  static byte[] encode(List<byte[]> values) {
+    int length = 0;
+    for (byte[] value : values) {
+      length += Integer.BYTES + value.length;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    for (byte[] value : values) {
+      buffer.putInt(value.length);
+      buffer.put(value);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Splits values concatenated by {@link #encode(List)}.
+   *
+   * @throws MaliciousException if the bytes are not a valid encoding
+   */
+  static List<byte[]> decode(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    List<byte[]> values = new ArrayList<>();
+    while (buffer.hasRemaining()) {
+      if (buffer.remaining() < Integer.BYTES) {
+        throw new MaliciousException("Truncated length in batched commitment");
+      }
+      int length = buffer.getInt();
+      if (length < 0 || length > buffer.remaining()) {
+        throw new MaliciousException("Invalid length " + length + " in batched commitment");
+      }
+      byte[] value = new byte[length];
+      buffer.get(value);
+      values.add(value);
+    }
+    return values;
+  }
+}
@@ -0,0 +1,105 @@
+package dk.alexandra.fresco.tools.commitment;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestBatchedCommitmentComputation extends AbstractDummyArithmeticTest {
+
+  @Test
+  public void testBatchedCommitmentTwo() {
+    runTest(new TestBatchedCommitment<>(), EvaluationStrategy.SEQUENTIAL_BATCHED, 2);
+  }
+
+  @Test
+  public void testBatchedCommitmentThree() {
+    runTest(new TestBatchedCommitment<>(), EvaluationStrategy.SEQUENTIAL_BATCHED, 3);
+  }
+
+  @Test
+  public void testEncodeDecode() {
+    List<byte[]> values = Arrays.asList(new byte[]{1, 2, 3}, new byte[0], new byte[]{4});
+    List<byte[]> decoded = BatchedCommitmentComputation.decode(
+        BatchedCommitmentComputation.encode(values));
+    assertEquals(values.size(), decoded.size());
+    for (int i = 0; i < values.size(); i++) {
+      assertArrayEquals(values.get(i), decoded.get(i));
+    }
+    assertEquals(Collections.emptyList(),
+        BatchedCommitmentComputation.decode(BatchedCommitmentComputation.encode(
+            Collections.emptyList())));
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testDecodeTruncatedValue() {
+    BatchedCommitmentComputation.decode(new byte[]{0, 0, 0, 2, 1});
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testDecodeTruncatedLength() {
+    BatchedCommitmentComputation.decode(new byte[]{0, 0, 0, 1, 1, 0});
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testDecodeNegativeLength() {
+    BatchedCommitmentComputation.decode(new byte[]{-1, -1, -1, -1});
+  }
+
+  private static class TestBatchedCommitment<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          int noParties = conf.getResourcePool().getNoOfParties();
+          List<List<byte[]>> inputs = new ArrayList<>();
+          Random random = new Random(42);
+          for (int i = 1; i <= noParties; i++) {
+            // parties commit to different numbers of values of different lengths
+            List<byte[]> values = new ArrayList<>();
+            for (int j = 0; j < i + 2; j++) {
+              byte[] bytes = new byte[j * 7];
+              random.nextBytes(bytes);
+              values.add(bytes);
+            }
+            inputs.add(values);
+          }
+          final AesCtrDrbg localDrbg = new AesCtrDrbg();
+          final HashBasedCommitmentSerializer commitmentSerializer =
+              new HashBasedCommitmentSerializer();
+          Application<List<List<byte[]>>, ProtocolBuilderNumeric> testApplication =
+              root -> new BatchedCommitmentComputation(
+                  commitmentSerializer,
+                  inputs.get(root.getBasicNumericContext().getMyId() - 1),
+                  localDrbg)
+                  .buildComputation(root);
+          List<List<byte[]>> actual = runApplication(testApplication);
+          assertEquals(inputs.size(), actual.size());
+          for (int i = 0; i < actual.size(); i++) {
+            assertEquals(inputs.get(i).size(), actual.get(i).size());
+            for (int j = 0; j < actual.get(i).size(); j++) {
+              assertArrayEquals(inputs.get(i).get(j), actual.get(i).get(j));
+            }
+          }
+        }
+      };
+    }
+  }
+}
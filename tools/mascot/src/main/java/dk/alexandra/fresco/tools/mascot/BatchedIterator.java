@@ -0,0 +1,85 @@
+package dk.alexandra.fresco.tools.mascot;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Iterator over preprocessed material which is generated in batches as it is consumed.
+ *
+ * <p>A new batch is only generated once the previous batch has been consumed, so at most a single
+ * batch is held in memory and generation is paced by the consumer. By default the first batch is
+ * small to keep the latency of the first element low, and the batch size is doubled for each batch
+ * up to a maximum, to amortize the rounds of the underlying protocols. Since the MASCOT protocols
+ * are interactive, all parties must consume the same number of elements from iterators created
+ * with the same arguments, which ensures the batches are generated in lockstep.</p>
+ */
+final class BatchedIterator<T> implements Iterator<T> {
+
+  static final int INITIAL_BATCH_SIZE = 16;
+  private final IntFunction<List<T>> generator;
+  private final int maxBatchSize;
+  private final ArrayDeque<T> buffer;
+  private long remaining;
+  private int nextBatchSize;
+
+  /**
+   * Creates a new iterator.
+   *
+   * @param generator generates a batch of a given size
+   * @param numElements total number of elements to generate
+   * @param maxBatchSize maximum number of elements generated at a time
+   */
+  BatchedIterator(IntFunction<List<T>> generator, long numElements, int maxBatchSize) {
+    this(generator, numElements, Math.min(INITIAL_BATCH_SIZE, maxBatchSize), maxBatchSize);
+  }
+
+  /**
+   * Creates a new iterator with the given size of the first batch.
+   *
+   * @param generator generates a batch of a given size
+   * @param numElements total number of elements to generate
+   * @param initialBatchSize number of elements in the first batch
+   * @param maxBatchSize maximum number of elements generated at a time
+   */
+  BatchedIterator(IntFunction<List<T>> generator, long numElements, int initialBatchSize,
+      int maxBatchSize) {
+    if (numElements < 0) {
+      throw new IllegalArgumentException(
+          "Number of elements must be non-negative, but was " + numElements);
+    }
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive, but was " + maxBatchSize);
+    }
+    if (initialBatchSize < 1 || initialBatchSize > maxBatchSize) {
+      throw new IllegalArgumentException("Initial batch size must be between 1 and "
+          + maxBatchSize + ", but was " + initialBatchSize);
+    }
+    this.generator = generator;
+    this.maxBatchSize = maxBatchSize;
+    this.buffer = new ArrayDeque<>();
+    this.remaining = numElements;
+    this.nextBatchSize = initialBatchSize;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !buffer.isEmpty() || remaining > 0;
+  }
+
+  @Override
+  public T next() {
+    if (buffer.isEmpty()) {
+      if (remaining == 0) {
+        throw new NoSuchElementException();
+      }
+      int batchSize = (int) Math.min(nextBatchSize, remaining);
+      buffer.addAll(generator.apply(batchSize));
+      remaining -= batchSize;
+      nextBatchSize = (int) Math.min(2L * nextBatchSize, maxBatchSize);
+    }
+    return buffer.pop();
+  }
+}
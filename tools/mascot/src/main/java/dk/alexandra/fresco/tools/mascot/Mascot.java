@@ -14,10 +14,14 @@ import dk.alexandra.fresco.tools.mascot.online.OnlinePhase;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
 import dk.alexandra.fresco.tools.mascot.triple.TripleGeneration;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementation of the main MASCOT protocol (<a href="https://eprint.iacr.org/2016/505.pdf">https://eprint.iacr.org/2016/505.pdf</a>)
@@ -26,6 +30,10 @@ import java.util.stream.IntStream;
  */
 public class Mascot {
 
+  /**
+   * Default maximum number of triples generated at a time by {@link #tripleStream(long)}.
+   */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 4096;
   private final TripleGeneration tripleGeneration;
   private final ElementGeneration elementGeneration;
   private final BitConverter bitConverter;
@@ -60,6 +68,52 @@ public class Mascot {
     return tripleGeneration.triple(numTriples);
   }
 
+  /**
+   * Creates an iterator over multiplication triples which are generated in batches as they are
+   * consumed. <p>A batch is only generated once the previous one has been consumed, so at most
+   * maxBatchSize triples are held in memory at a time. The batch size starts small and grows up to
+   * maxBatchSize. Since triple generation is interactive, all parties must consume the same number
+   * of triples from iterators created with the same arguments, and the iterator must not be used
+   * concurrently with other calls to this instance.</p>
+   *
+   * @param numTriples total number of triples, or {@link Long#MAX_VALUE} for an unbounded supply
+   * @param maxBatchSize maximum number of triples generated at a time
+   * @return iterator over the triples
+   */
+  public Iterator<MultiplicationTriple> tripleIterator(long numTriples, int maxBatchSize) {
+    return new BatchedIterator<>(this::getTriples, numTriples, maxBatchSize);
+  }
+
+  /**
+   * Same as {@link #tripleIterator(long, int)}, but with the size of the first batch given. A
+   * consumer which knows it needs many triples can start at maxBatchSize to avoid the extra rounds
+   * of the small initial batches.
+   *
+   * @param numTriples total number of triples, or {@link Long#MAX_VALUE} for an unbounded supply
+   * @param initialBatchSize number of triples in the first batch
+   * @param maxBatchSize maximum number of triples generated at a time
+   * @return iterator over the triples
+   */
+  public Iterator<MultiplicationTriple> tripleIterator(long numTriples, int initialBatchSize,
+      int maxBatchSize) {
+    return new BatchedIterator<>(this::getTriples, numTriples, initialBatchSize, maxBatchSize);
+  }
+
+  /**
+   * Creates a sequential stream of multiplication triples, generated in batches of at most
+   * {@link #DEFAULT_MAX_BATCH_SIZE} triples as the stream is consumed. See {@link
+   * #tripleIterator(long, int)}.
+   *
+   * @param numTriples total number of triples
+   * @return stream of the triples
+   */
+  public Stream<MultiplicationTriple> tripleStream(long numTriples) {
+    Spliterator<MultiplicationTriple> spliterator = Spliterators.spliterator(
+        tripleIterator(numTriples, DEFAULT_MAX_BATCH_SIZE), numTriples,
+        Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false);
+  }
+
   /**
    * Runs the input functionality on a batch of field elements. <br> Allows a party to turn
    * unauthenticated, private field elements into a secret-shared authenticated elements. <br> The
@@ -90,17 +144,8 @@ public class Mascot {
    * @return random authenticated elements
    */
   public List<AuthenticatedElement> getRandomElements(int numElements) {
-    List<List<AuthenticatedElement>> perPartyElements = new ArrayList<>(
-        resourcePool.getNoOfParties());
-    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
-      if (partyId == resourcePool.getMyId()) {
-        List<FieldElement> randomElements = resourcePool.getLocalSampler().getNext(numElements);
-        perPartyElements.add(elementGeneration.input(randomElements));
-      } else {
-        perPartyElements.add(elementGeneration.input(partyId, numElements));
-      }
-    }
-    return Addable.sumRows(perPartyElements);
+    List<FieldElement> randomElements = resourcePool.getLocalSampler().getNext(numElements);
+    return Addable.sumRows(elementGeneration.inputFromAll(randomElements));
   }
 
   /**
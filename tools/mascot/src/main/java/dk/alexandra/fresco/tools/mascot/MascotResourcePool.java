@@ -12,6 +12,7 @@ import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
 import dk.alexandra.fresco.tools.ot.base.RotBatch;
 import java.security.MessageDigest;
+import java.util.concurrent.ExecutorService;
 
 public interface MascotResourcePool extends NumericResourcePool {
 
@@ -50,6 +51,38 @@ public interface MascotResourcePool extends NumericResourcePool {
    */
   int getPrgSeedLength();
 
+  /**
+   * Whether the two-party sub-protocols run with each other party, i.e. the pairwise
+   * multiplications and COPE instances, are run concurrently rather than one party at a time. See
+   * {@link PairwiseRunner}.
+   *
+   * @return true if the sub-protocols are run concurrently
+   */
+  default boolean isPairwiseConcurrent() {
+    return false;
+  }
+
+  /**
+   * Gets the executor on which the two-party sub-protocols are run if {@link
+   * #isPairwiseConcurrent()} is set. The executor is owned by the resource pool, and is shut down
+   * when the resource pool is closed.
+   *
+   * @return the executor
+   * @throws IllegalStateException if the sub-protocols are not run concurrently
+   */
+  ExecutorService getPairwiseExecutor();
+
+  /**
+   * Maximum number of threads used for the local computations on independent elements, such as
+   * the combine, authenticate and sacrifice steps of triple generation. See {@link
+   * ParallelRunner}.
+   *
+   * @return the parallelism, at least one
+   */
+  default int getParallelism() {
+    return 1;
+  }
+
   /**
    * Gets PRG for generating random field elements locally (for this party only).
    *
@@ -83,7 +116,10 @@ public interface MascotResourcePool extends NumericResourcePool {
   MessageDigest getMessageDigest();
 
   /**
-   * Creates random oblivious transfer protocol to be used.
+   * Creates random oblivious transfer protocol to be used. <p>Since MASCOT is actively secure, this
+   * must use an actively secure OT extension, i.e. {@link
+   * dk.alexandra.fresco.tools.ot.otextension.RotExtension#BRISTOL}, and never the semi-honest
+   * {@link dk.alexandra.fresco.tools.ot.otextension.SilentRotFactory}.</p>
    *
    * @param otherId other party that participates in protocol
    * @param network network
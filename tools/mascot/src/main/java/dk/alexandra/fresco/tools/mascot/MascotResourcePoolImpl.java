@@ -3,6 +3,8 @@ package dk.alexandra.fresco.tools.mascot;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
@@ -15,10 +17,19 @@ import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
 import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
 import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
 import java.security.MessageDigest;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-public class MascotResourcePoolImpl extends ResourcePoolImpl implements MascotResourcePool {
+/**
+ * Default implementation of {@link MascotResourcePool}. If the two-party sub-protocols are run
+ * concurrently the resource pool owns the threads running them, so it should be closed when no
+ * longer used.
+ */
+public class MascotResourcePoolImpl extends ResourcePoolImpl implements MascotResourcePool,
+    Closeable {
 
   private final Map<Integer, RotList> seedOts;
   private final int instanceId;
@@ -27,6 +38,9 @@ public class MascotResourcePoolImpl extends ResourcePoolImpl implements MascotRe
   private final MessageDigest messageDigest;
   private final MascotSecurityParameters mascotSecurityParameters;
   private final Drbg drbg;
+  private final boolean pairwiseConcurrent;
+  private final int parallelism;
+  private final ExecutorService pairwiseExecutor;
 
   /**
    * Creates new {@link MascotResourcePoolImpl}.
@@ -45,7 +59,71 @@ public class MascotResourcePoolImpl extends ResourcePoolImpl implements MascotRe
   public MascotResourcePoolImpl(int myId, int noOfParties, int instanceId, Drbg drbg,
       Map<Integer, RotList> seedOts, MascotSecurityParameters mascotSecurityParameters,
       FieldDefinition fieldDefinition) {
+    this(myId, noOfParties, instanceId, drbg, seedOts, mascotSecurityParameters, fieldDefinition,
+        false);
+  }
+
+  /**
+   * Creates new {@link MascotResourcePoolImpl}.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param instanceId the instance ID which is unique for this particular resource pool object,
+   *     but
+   *     only in the given execution.
+   * @param drbg source of randomness
+   * @param seedOts pre-computed base OTs
+   * @param mascotSecurityParameters mascot security parameters ({@link
+   *     MascotSecurityParameters})
+   * @param fieldDefinition field used for calculations
+   * @param pairwiseConcurrent whether to run the two-party sub-protocols with all other parties
+   *     concurrently (see {@link PairwiseRunner})
+   */
+  public MascotResourcePoolImpl(int myId, int noOfParties, int instanceId, Drbg drbg,
+      Map<Integer, RotList> seedOts, MascotSecurityParameters mascotSecurityParameters,
+      FieldDefinition fieldDefinition, boolean pairwiseConcurrent) {
+    this(myId, noOfParties, instanceId, drbg, seedOts, mascotSecurityParameters, fieldDefinition,
+        pairwiseConcurrent, 1);
+  }
+
+  /**
+   * Creates new {@link MascotResourcePoolImpl}.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param instanceId the instance ID which is unique for this particular resource pool object,
+   *     but
+   *     only in the given execution.
+   * @param drbg source of randomness
+   * @param seedOts pre-computed base OTs
+   * @param mascotSecurityParameters mascot security parameters ({@link
+   *     MascotSecurityParameters})
+   * @param fieldDefinition field used for calculations
+   * @param pairwiseConcurrent whether to run the two-party sub-protocols with all other parties
+   *     concurrently (see {@link PairwiseRunner})
+   * @param parallelism maximum number of threads used for local computations (see {@link
+   *     ParallelRunner})
+   */
+  public MascotResourcePoolImpl(int myId, int noOfParties, int instanceId, Drbg drbg,
+      Map<Integer, RotList> seedOts, MascotSecurityParameters mascotSecurityParameters,
+      FieldDefinition fieldDefinition, boolean pairwiseConcurrent, int parallelism) {
     super(myId, noOfParties);
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive, but was " + parallelism);
+    }
+    this.pairwiseConcurrent = pairwiseConcurrent;
+    if (pairwiseConcurrent) {
+      // one thread per other party, as each runs a sub-protocol which may block on receive
+      this.pairwiseExecutor = Executors.newFixedThreadPool(Math.max(1, noOfParties - 1),
+          runnable -> {
+            Thread thread = new Thread(runnable, "MascotPairwise-" + myId);
+            thread.setDaemon(true);
+            return thread;
+          });
+    } else {
+      this.pairwiseExecutor = null;
+    }
+    this.parallelism = parallelism;
     this.drbg = drbg;
     this.instanceId = instanceId;
     this.seedOts = seedOts;
@@ -83,6 +161,24 @@ public class MascotResourcePoolImpl extends ResourcePoolImpl implements MascotRe
     return mascotSecurityParameters.getNumCandidatesPerTriple();
   }
 
+  @Override
+  public boolean isPairwiseConcurrent() {
+    return pairwiseConcurrent;
+  }
+
+  @Override
+  public ExecutorService getPairwiseExecutor() {
+    if (pairwiseExecutor == null) {
+      throw new IllegalStateException("The two-party sub-protocols are not run concurrently");
+    }
+    return pairwiseExecutor;
+  }
+
+  @Override
+  public int getParallelism() {
+    return parallelism;
+  }
+
   @Override
   public FieldElementPrg getLocalSampler() {
     return localSampler;
@@ -93,11 +189,17 @@ public class MascotResourcePoolImpl extends ResourcePoolImpl implements MascotRe
     if (getMyId() == otherId) {
       throw new IllegalArgumentException("Cannot initialize with self");
     }
-    CoinTossing ct = new CoinTossing(getMyId(), otherId, getRandomGenerator());
+    // each pair gets its own generator, as the pairs may run concurrently
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    synchronized (drbg) {
+      drbg.nextBytes(seed);
+    }
+    Drbg pairDrbg = AesCtrDrbgFactory.fromRandomSeed(seed);
+    CoinTossing ct = new CoinTossing(getMyId(), otherId, pairDrbg);
     ct.initialize(network);
     OtExtensionResourcePool otResources = new OtExtensionResourcePoolImpl(getMyId(), otherId,
         getPrgSeedLength(), getLambdaSecurityParam(), getInstanceId(),
-        getRandomGenerator(), ct, seedOts.get(otherId));
+        pairDrbg, ct, seedOts.get(otherId));
     return new BristolRotBatch(new RotFactory(otResources, network),
         getPrgSeedLength(), getLambdaSecurityParam());
   }
@@ -116,4 +218,14 @@ public class MascotResourcePoolImpl extends ResourcePoolImpl implements MascotRe
   public int getPrgSeedLength() {
     return mascotSecurityParameters.getPrgSeedLength();
   }
+
+  /**
+   * Shuts down the threads running the two-party sub-protocols, if any.
+   */
+  @Override
+  public void close() {
+    if (pairwiseExecutor != null) {
+      pairwiseExecutor.shutdownNow();
+    }
+  }
 }
@@ -0,0 +1,124 @@
+package dk.alexandra.fresco.tools.mascot;
+
+import dk.alexandra.fresco.framework.network.Network;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Runs a two-party sub-protocol with each of the other parties, such as the pairwise
+ * multiplications of {@link dk.alexandra.fresco.tools.mascot.triple.TripleGeneration} and the COPE
+ * instances of {@link dk.alexandra.fresco.tools.mascot.elgen.ElementGeneration}.
+ *
+ * <p>By default the sub-protocols are run one party at a time in ascending order of party ids,
+ * which avoids deadlocks since receive blocks. If {@link MascotResourcePool#isPairwiseConcurrent()}
+ * is set, the sub-protocol is instead run concurrently with all other parties, with a task per
+ * party, so the latency is that of the slowest pair rather than the sum over all pairs. This
+ * requires that the sub-protocols only communicate with their own party, and that the network
+ * supports concurrent communication with different parties, as
+ * {@link dk.alexandra.fresco.framework.network.socket.SocketNetwork} does. The tasks are run on
+ * {@link MascotResourcePool#getPairwiseExecutor()}.</p>
+ *
+ * <p>If a concurrent sub-protocol fails, the network is closed, if it can be, before the failure
+ * is rethrown. The sub-protocols with the other parties cannot be interrupted while they block on
+ * receive, so this is what stops them, and it lets the other parties fail rather than wait forever
+ * for messages which will never be sent.</p>
+ */
+public class PairwiseRunner {
+
+  private final MascotResourcePool resourcePool;
+  private final Network network;
+
+  /**
+   * Creates a new runner for the parties of a resource pool.
+   *
+   * @param resourcePool the resource pool
+   * @param network the network used by the sub-protocols
+   */
+  public PairwiseRunner(MascotResourcePool resourcePool, Network network) {
+    this.resourcePool = resourcePool;
+    this.network = network;
+  }
+
+  /**
+   * Runs a sub-protocol with each other party.
+   *
+   * @param task the sub-protocol, given the id of the other party
+   * @return the results of the sub-protocol indexed by the ids of the other parties, in ascending
+   *     order
+   */
+  public <T> Map<Integer, T> run(IntFunction<T> task) {
+    Map<Integer, T> results = new TreeMap<>();
+    if (!resourcePool.isPairwiseConcurrent()) {
+      for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+        if (partyId != resourcePool.getMyId()) {
+          results.put(partyId, task.apply(partyId));
+        }
+      }
+      return results;
+    }
+    // the results are taken as they complete, so a failure is noticed even while the
+    // sub-protocols with parties of lower ids are still blocked
+    CompletionService<T> completionService =
+        new ExecutorCompletionService<>(resourcePool.getPairwiseExecutor());
+    Map<Future<T>, Integer> futures = new HashMap<>();
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        int otherId = partyId;
+        futures.put(completionService.submit(() -> task.apply(otherId)), partyId);
+      }
+    }
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        Future<T> future = completionService.take();
+        results.put(futures.get(future), future.get());
+      }
+    } catch (InterruptedException e) {
+      abort(futures, e);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for pairwise sub-protocols", e);
+    } catch (ExecutionException e) {
+      abort(futures, e.getCause());
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Pairwise sub-protocol failed", e.getCause());
+    }
+    return results;
+  }
+
+  /**
+   * Stops the sub-protocols still running after one has failed, by closing the network they block
+   * on. A failure to close the network is added to the original failure as suppressed.
+   */
+  private <T> void abort(Map<Future<T>, Integer> futures, Throwable failure) {
+    if (network instanceof Closeable) {
+      try {
+        ((Closeable) network).close();
+      } catch (IOException e) {
+        failure.addSuppressed(e);
+      }
+    }
+    futures.keySet().forEach(future -> future.cancel(true));
+  }
+
+  /**
+   * Runs a sub-protocol with each other party, returning the results as a list ordered by the ids
+   * of the other parties.
+   *
+   * @param task the sub-protocol, given the id of the other party
+   * @return the results of the sub-protocol
+   */
+  public <T> List<T> runToList(IntFunction<T> task) {
+    return new ArrayList<>(run(task).values());
+  }
+}
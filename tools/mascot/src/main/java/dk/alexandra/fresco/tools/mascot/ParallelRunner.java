@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.tools.mascot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Runs local computations over independent items, such as the triple candidates of
+ * {@link dk.alexandra.fresco.tools.mascot.triple.TripleGeneration}, on the common fork/join pool.
+ *
+ * <p>The items are split into at most {@link MascotResourcePool#getParallelism()} contiguous
+ * chunks, and the results are returned in the order of the items, so the output does not depend
+ * on the parallelism. The calling thread computes one of the chunks itself, so the number of
+ * threads used is also bounded by the parallelism of the common pool plus one. With a
+ * parallelism of one, or a single item, everything is run on the calling thread. Since the common
+ * pool is owned by the JVM, no threads are left behind when the runner is discarded.</p>
+ */
+public class ParallelRunner {
+
+  private final int parallelism;
+
+  /**
+   * Creates a new runner for the parallelism of a resource pool.
+   *
+   * @param resourcePool the resource pool
+   */
+  public ParallelRunner(MascotResourcePool resourcePool) {
+    this(resourcePool.getParallelism());
+  }
+
+  /**
+   * Creates a new runner with a given parallelism.
+   *
+   * @param parallelism maximum number of threads to use
+   */
+  public ParallelRunner(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive, but was " + parallelism);
+    }
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Computes a chunk of results for each contiguous range of items and concatenates the chunks.
+   *
+   * @param size number of items
+   * @param chunk computes the results for the items from (inclusive) and to (exclusive)
+   * @return the concatenated results of the chunks, in the order of the items
+   */
+  public <T> List<T> mapChunks(int size, ChunkFunction<T> chunk) {
+    int chunks = Math.min(parallelism, size);
+    if (chunks <= 1) {
+      return chunk.apply(0, size);
+    }
+    int chunkSize = (size + chunks - 1) / chunks;
+    List<ForkJoinTask<List<T>>> tasks = new ArrayList<>(chunks);
+    for (int from = 0; from < size; from += chunkSize) {
+      int start = from;
+      int end = Math.min(from + chunkSize, size);
+      tasks.add(ForkJoinTask.adapt(() -> chunk.apply(start, end)));
+    }
+    // forks all but the first chunk to the common pool and runs the first on this thread
+    ForkJoinTask.invokeAll(tasks);
+    List<T> results = new ArrayList<>(size);
+    for (ForkJoinTask<List<T>> task : tasks) {
+      results.addAll(task.join());
+    }
+    return results;
+  }
+
+  /**
+   * Computes a result for each item.
+   *
+   * @param size number of items
+   * @param function computes the result for the item at an index
+   * @return the results, in the order of the items
+   */
+  public <T> List<T> map(int size, IntFunction<T> function) {
+    return mapChunks(size, (from, to) -> IntStream.range(from, to)
+        .mapToObj(function)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Gets the maximum number of threads used.
+   *
+   * @return the parallelism
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Computes the results for a contiguous range of items.
+   */
+  @FunctionalInterface
+  public interface ChunkFunction<T> {
+
+    /**
+     * Computes the results for the items from (inclusive) and to (exclusive).
+     *
+     * @param from index of the first item
+     * @param to index after the last item
+     * @return the results for the items, in order
+     */
+    List<T> apply(int from, int to);
+  }
+}
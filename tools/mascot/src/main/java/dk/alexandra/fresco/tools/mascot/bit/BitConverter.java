@@ -4,7 +4,9 @@ import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
 import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
 import dk.alexandra.fresco.tools.mascot.online.OnlinePhase;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -41,21 +43,52 @@ public class BitConverter {
     List<AuthenticatedElement> squares = onlinePhase.multiply(randomElements, randomElements);
     List<FieldElement> openSquares = onlinePhase.open(squares);
     onlinePhase.triggerMacCheck();
+    List<FieldElement> inverseRoots = computeInverseRoots(openSquares);
+    FieldDefinition definition = resourcePool.getFieldDefinition();
+    FieldElement one = definition.createElement(1);
+    FieldElement inverseOfTwo = definition.createElement(2).modInverse();
     List<AuthenticatedElement> bits = new ArrayList<>(randomElements.size());
     for (int b = 0; b < randomElements.size(); b++) {
-      FieldElement square = openSquares.get(b);
-      FieldElement root = square.sqrt();
-      AuthenticatedElement randomElement = randomElements.get(b);
       AuthenticatedElement oneOrNegativeOne =
-          randomElement.multiply(root.modInverse()); // division
-      FieldDefinition definition = resourcePool.getFieldDefinition();
-      FieldElement two = definition.createElement(2);
-      FieldElement one = definition.createElement(1);
+          randomElements.get(b).multiply(inverseRoots.get(b)); // division
       AuthenticatedElement bit = oneOrNegativeOne.add(
           definition, one, resourcePool.getMyId(), macKeyShare
-      ).multiply(two.modInverse());
+      ).multiply(inverseOfTwo);
       bits.add(bit);
     }
     return bits;
   }
+
+  /**
+   * Computes the inverses of square roots of the opened squares. <p> If the modulus <i>p</i> is 3
+   * modulo 4, <i>n<sup>(p + 1) / 4</sup></i> is a square root of a square <i>n</i>, so since
+   * <i>n<sup>p - 1</sup> = 1</i> its inverse is <i>n<sup>(3p - 5) / 4</sup></i>, which takes a
+   * single exponentiation per element. Otherwise the roots are found with {@link
+   * FieldElement#sqrt()} and inverted in a single batch. The squares are known to have roots, since
+   * their macs have been checked. </p>
+   */
+  private List<FieldElement> computeInverseRoots(List<FieldElement> squares) {
+    FieldDefinition definition = resourcePool.getFieldDefinition();
+    BigInteger modulus = definition.getModulus();
+    for (FieldElement square : squares) {
+      if (definition.convertToUnsigned(square).signum() == 0) {
+        throw new ArithmeticException("Cannot convert zero element to bit");
+      }
+    }
+    if (modulus.testBit(1)) {
+      BigInteger exponent = modulus.multiply(BigInteger.valueOf(3))
+          .subtract(BigInteger.valueOf(5)).shiftRight(2);
+      List<FieldElement> inverseRoots = new ArrayList<>(squares.size());
+      for (FieldElement square : squares) {
+        inverseRoots.add(definition.createElement(
+            definition.convertToUnsigned(square).modPow(exponent, modulus)));
+      }
+      return inverseRoots;
+    }
+    List<FieldElement> roots = new ArrayList<>(squares.size());
+    for (FieldElement square : squares) {
+      roots.add(square.sqrt());
+    }
+    return new FieldElementUtils(definition).batchInvert(roots);
+  }
 }
@@ -80,15 +80,20 @@ public abstract class CommitmentBasedInput<T> {
    * @throws dk.alexandra.fresco.framework.MaliciousException if opening fails
    */
   protected List<T> open(List<HashBasedCommitment> commitments, List<byte[]> openings) {
+    return openBytes(commitments, openings).stream()
+        .map(serializer::deserialize)
+        .collect(Collectors.toList());
+  }
+
+  private List<byte[]> openBytes(List<HashBasedCommitment> commitments, List<byte[]> openings) {
     if (commitments.size() != openings.size()) {
       throw new IllegalArgumentException("Lists must be same size");
     }
-    List<T> result = new ArrayList<>(commitments.size());
+    List<byte[]> result = new ArrayList<>(commitments.size());
     for (int i = 0; i < commitments.size(); i++) {
       HashBasedCommitment comm = commitments.get(i);
       byte[] opening = openings.get(i);
-      T el = serializer.deserialize(comm.open(opening));
-      result.add(el);
+      result.add(comm.open(opening));
     }
     return result;
   }
@@ -101,12 +106,30 @@ public abstract class CommitmentBasedInput<T> {
    * @return the other parties' values
    */
   protected List<T> allCommit(T value) {
+    return allCommitBytes(serializer.serialize(value)).stream()
+        .map(serializer::deserialize)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Same as {@link #allCommit(Object)} but for a batch of values, which are committed to with a
+   * single commitment and opened in a single round.
+   *
+   * @param values values to commit to
+   * @return the values of each party, ordered by party
+   */
+  protected List<List<T>> allCommit(List<T> values) {
+    return allCommitBytes(serializer.serialize(values)).stream()
+        .map(serializer::deserializeList)
+        .collect(Collectors.toList());
+  }
+
+  private List<byte[]> allCommitBytes(byte[] value) {
     // commit to sigma
     HashBasedCommitment ownComm = new HashBasedCommitment();
 
     // commit to value locally
-    byte[] ownOpening = ownComm
-        .commit(getResourcePool().getRandomGenerator(), serializer.serialize(value));
+    byte[] ownOpening = ownComm.commit(getResourcePool().getRandomGenerator(), value);
 
     // all parties commit
     List<HashBasedCommitment> comms = distributeCommitments(ownComm);
@@ -115,7 +138,7 @@ public abstract class CommitmentBasedInput<T> {
     List<byte[]> openings = distributeOpenings(ownOpening);
 
     // open commitments using received opening info
-    return open(comms, openings);
+    return openBytes(comms, openings);
   }
 
   protected MascotResourcePool getResourcePool() {
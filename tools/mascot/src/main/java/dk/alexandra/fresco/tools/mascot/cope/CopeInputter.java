@@ -13,7 +13,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * Actively-secure implementation of the inputter party's side of the Correlated Oblivious Product
@@ -72,25 +71,22 @@ public class CopeInputter {
   }
 
   private List<Pair<FieldElement, FieldElement>> generateMaskPairs(int numInputs) {
-    // for each input pair, we use our prf to get the next set of masks
-    List<Pair<FieldElement, FieldElement>> maskPairs = new ArrayList<>();
+    // each prg generates the masks of its bit for all inputs in one batch
+    List<Pair<List<FieldElement>, List<FieldElement>>> masksPerPrg =
+        IntStream.range(0, leftPrgs.size()).parallel().mapToObj(idx -> new Pair<>(
+            leftPrgs.get(idx).getNext(numInputs), rightPrgs.get(idx).getNext(numInputs)))
+            .collect(Collectors.toList());
+    // order the mask pairs by input
+    List<Pair<FieldElement, FieldElement>> maskPairs =
+        new ArrayList<>(numInputs * leftPrgs.size());
     for (int i = 0; i < numInputs; i++) {
-      // generate masks for single input
-      maskPairs.addAll(generateMaskPairs());
+      for (Pair<List<FieldElement>, List<FieldElement>> prgMasks : masksPerPrg) {
+        maskPairs.add(new Pair<>(prgMasks.getFirst().get(i), prgMasks.getSecond().get(i)));
+      }
     }
     return maskPairs;
   }
 
-  private List<Pair<FieldElement, FieldElement>> generateMaskPairs() {
-    Stream<Pair<FieldElement, FieldElement>> maskStream =
-        IntStream.range(0, leftPrgs.size()).parallel().mapToObj(idx -> {
-          FieldElement t0 = this.leftPrgs.get(idx).getNext();
-          FieldElement t1 = this.rightPrgs.get(idx).getNext();
-          return new Pair<>(t0, t1);
-        });
-    return maskStream.collect(Collectors.toList());
-  }
-
   private void seedPrgs(List<Pair<StrictBitVector, StrictBitVector>> seeds) {
     for (Pair<StrictBitVector, StrictBitVector> seedPair : seeds) {
       FieldDefinition definition = resourcePool.getFieldDefinition();
@@ -73,15 +73,16 @@ public class CopeSigner {
   }
 
   private List<FieldElement> generateMasks(int numInputs) {
-    // for each input pair, we use our prgs to get the next set of masks
-    List<FieldElement> masks = new ArrayList<>();
-    // generate mask for each input
+    // each prg generates the masks of its bit for all inputs in one batch
+    List<List<FieldElement>> masksPerPrg = prgs.parallelStream()
+        .map(prg -> prg.getNext(numInputs))
+        .collect(Collectors.toList());
+    // order the masks by input
+    List<FieldElement> masks = new ArrayList<>(numInputs * prgs.size());
     for (int i = 0; i < numInputs; i++) {
-      // generate masks for single input
-      List<FieldElement> singleInputMasks = prgs.parallelStream()
-          .map(FieldElementPrg::getNext)
-          .collect(Collectors.toList());
-      masks.addAll(singleInputMasks);
+      for (List<FieldElement> prgMasks : masksPerPrg) {
+        masks.add(prgMasks.get(i));
+      }
     }
     return masks;
   }
@@ -3,9 +3,11 @@ package dk.alexandra.fresco.tools.mascot.elgen;
 import dk.alexandra.fresco.framework.builder.numeric.Addable;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.SecretSharer;
 import dk.alexandra.fresco.framework.util.TransposeUtils;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.PairwiseRunner;
 import dk.alexandra.fresco.tools.mascot.cope.CopeInputter;
 import dk.alexandra.fresco.tools.mascot.cope.CopeSigner;
 import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
@@ -38,6 +40,7 @@ public class ElementGeneration {
   private final MascotResourcePool resourcePool;
   private final Network network;
   private final FieldElementUtils fieldElementUtils;
+  private final PairwiseRunner pairwiseRunner;
 
   /**
    * Creates new {@link ElementGeneration}.
@@ -54,6 +57,7 @@ public class ElementGeneration {
     this.sharer = new AdditiveSecretSharer(localSampler);
     this.copeSigners = new HashMap<>();
     this.copeInputters = new HashMap<>();
+    this.pairwiseRunner = new PairwiseRunner(resourcePool, network);
     initializeCope(resourcePool, network);
   }
 
@@ -65,6 +69,56 @@ public class ElementGeneration {
    * @return authenticated shares of inputs
    */
   public List<AuthenticatedElement> input(List<FieldElement> values) {
+    return checked(inputUnchecked(values));
+  }
+
+  /**
+   * Computes this party's authenticated shares of inputter party's inputs. Implements a non-input
+   * party's side of the Input sub-protocol of Protocol 3.
+   *
+   * @param inputterId id of inputter
+   * @param numInputs number of inputs
+   * @return authenticated shares of inputs
+   */
+  public List<AuthenticatedElement> input(Integer inputterId, int numInputs) {
+    return checked(inputUnchecked(inputterId, numInputs));
+  }
+
+  /**
+   * Computes this party's authenticated shares of the inputs of all parties, where each party
+   * inputs the same number of values. <br> Runs the Input sub-protocol of Protocol 3 with each
+   * party as inputter in turn, but performs the mac-checks of steps 8 and 9 for all inputters at
+   * once, so that they share a single commitment and opening round.
+   *
+   * @param values this party's values to input
+   * @return authenticated shares of the inputs of each party, ordered by party id
+   */
+  public List<List<AuthenticatedElement>> inputFromAll(List<FieldElement> values) {
+    List<UncheckedInput> inputs = new ArrayList<>(resourcePool.getNoOfParties());
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId == resourcePool.getMyId()) {
+        inputs.add(inputUnchecked(values));
+      } else {
+        inputs.add(inputUnchecked(partyId, values.size()));
+      }
+    }
+    List<FieldElement> maskedValues = new ArrayList<>(inputs.size());
+    List<FieldElement> maskedMacs = new ArrayList<>(inputs.size());
+    List<List<AuthenticatedElement>> elements = new ArrayList<>(inputs.size());
+    for (UncheckedInput input : inputs) {
+      maskedValues.add(input.maskedValue);
+      maskedMacs.add(input.maskedMac);
+      elements.add(input.elements);
+    }
+    // perform mac-checks on all opened values (will throw if any mac check fails)
+    macChecker.check(maskedValues, macKeyShare, maskedMacs);
+    return elements;
+  }
+
+  /**
+   * Runs the input party's side of the Input sub-protocol of Protocol 3, except for the mac-check.
+   */
+  private UncheckedInput inputUnchecked(List<FieldElement> values) {
     // make sure we are working with an array list
     values = new ArrayList<>(values);
 
@@ -88,24 +142,19 @@ public class ElementGeneration {
     // so that we can use receiveFromAll correctly later
     network.receive(resourcePool.getMyId());
 
-    // perform mac-check on opened value (will throw if mac check fails) (steps 8 and 9)
-    runMacCheck(maskedValue, coefficients, macs);
-
     // combine shares and mac shares to authenticated elements
     // (exclude mac and share of extra element) (step 10)
     List<FieldElement> inputElementMacs = macs.subList(0, shares.size() - 1);
-    return toAuthenticatedElements(shares.subList(0, shares.size() - 1), inputElementMacs);
+    return new UncheckedInput(
+        toAuthenticatedElements(shares.subList(0, shares.size() - 1), inputElementMacs),
+        maskedValue, fieldElementUtils.innerProduct(macs, coefficients));
   }
 
   /**
-   * Computes this party's authenticated shares of inputter party's inputs. Implements a non-input
-   * party's side of the Input sub-protocol of Protocol 3.
-   *
-   * @param inputterId id of inputter
-   * @param numInputs number of inputs
-   * @return authenticated shares of inputs
+   * Runs a non-input party's side of the Input sub-protocol of Protocol 3, except for the
+   * mac-check.
    */
-  public List<AuthenticatedElement> input(Integer inputterId, int numInputs) {
+  private UncheckedInput inputUnchecked(Integer inputterId, int numInputs) {
     // receive shares from inputter (step 2)
     List<FieldElement> shares =
         resourcePool.getFieldDefinition().deserializeList(network.receive(inputterId));
@@ -121,13 +170,20 @@ public class ElementGeneration {
     FieldElement maskedValue =
         resourcePool.getFieldDefinition().deserialize(network.receive(inputterId));
 
-    // perform mac-check on opened value (steps 8 through 9)
-    runMacCheck(maskedValue, coefficients, macs);
-
     // combine shares and mac shares to authenticated  elements
     // (exclude mac and share of extra element) (step 10)
     List<FieldElement> inputElementMacs = macs.subList(0, numInputs);
-    return toAuthenticatedElements(shares.subList(0, numInputs), inputElementMacs);
+    return new UncheckedInput(
+        toAuthenticatedElements(shares.subList(0, numInputs), inputElementMacs),
+        maskedValue, fieldElementUtils.innerProduct(macs, coefficients));
+  }
+
+  /**
+   * Performs the mac-check of an input (steps 8 and 9) and returns the authenticated elements.
+   */
+  private List<AuthenticatedElement> checked(UncheckedInput input) {
+    macChecker.check(input.maskedValue, macKeyShare, input.maskedMac);
+    return input.elements;
   }
 
   /**
@@ -145,7 +201,8 @@ public class ElementGeneration {
         sharesWithMacs.stream().map(AuthenticatedElement::getMac).collect(Collectors.toList());
     // apply masks to open element so that it matches the macs when we mask them
     FieldElement open = fieldElementUtils.innerProduct(openValues, masks);
-    runMacCheck(open, masks, macs);
+    // mask and combine macs, and perform mac-check on open masked value
+    macChecker.check(open, macKeyShare, fieldElementUtils.innerProduct(macs, masks));
   }
 
   /**
@@ -188,12 +245,7 @@ public class ElementGeneration {
    * party's) mac key share and get a share of the result.
    */
   private List<List<FieldElement>> otherPartiesMac(List<FieldElement> values) {
-    List<List<FieldElement>> perPartySignatures = new ArrayList<>();
-    // note that the order in which this is run does not matter so it's fine to use values().
-    for (CopeInputter copeInputter : copeInputters.values()) {
-      perPartySignatures.add(copeInputter.extend(values));
-    }
-    return perPartySignatures;
+    return pairwiseRunner.runToList(partyId -> copeInputters.get(partyId).extend(values));
   }
 
   /**
@@ -236,42 +288,45 @@ public class ElementGeneration {
         .collect(Collectors.toList());
   }
 
-  /**
-   * Performs mac check on opened value. The opened value is a linear combination of a batch of
-   * opened values and random coefficients {@code randomCoefficients}.
-   *
-   * @param value a linear combination of a batch of opened values and random coefficients
-   * @param randomCoefficients random coefficients
-   * @param macs mac shares
-   */
-  private void runMacCheck(FieldElement value, List<FieldElement> randomCoefficients,
-      List<FieldElement> macs) {
-    // mask and combine macs
-    FieldElement maskedMac = fieldElementUtils.innerProduct(macs, randomCoefficients);
-    // perform mac-check on open masked value
-    macChecker.check(value, macKeyShare, maskedMac);
-  }
-
   /**
    * Initializes COPE protocols. Implements Initialize sub-protocol of Protocol 3 (with the only
    * difference that the mac key share has already been sampled before this protocol runs).
    */
   private void initializeCope(MascotResourcePool resourcePool, Network network) {
-    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
-      if (resourcePool.getMyId() != partyId) {
-        CopeSigner signer;
-        CopeInputter inputter;
-        // construction order matters since receive blocks and this is not parallelized
-        if (resourcePool.getMyId() < partyId) {
-          signer = new CopeSigner(resourcePool, network, partyId, this.macKeyShare);
-          inputter = new CopeInputter(resourcePool, network, partyId);
-        } else {
-          inputter = new CopeInputter(resourcePool, network, partyId);
-          signer = new CopeSigner(resourcePool, network, partyId, this.macKeyShare);
-        }
-        copeInputters.put(partyId, inputter);
-        copeSigners.put(partyId, signer);
+    Map<Integer, Pair<CopeSigner, CopeInputter>> copes = pairwiseRunner.run(partyId -> {
+      CopeSigner signer;
+      CopeInputter inputter;
+      // construction order matters since receive blocks
+      if (resourcePool.getMyId() < partyId) {
+        signer = new CopeSigner(resourcePool, network, partyId, this.macKeyShare);
+        inputter = new CopeInputter(resourcePool, network, partyId);
+      } else {
+        inputter = new CopeInputter(resourcePool, network, partyId);
+        signer = new CopeSigner(resourcePool, network, partyId, this.macKeyShare);
       }
+      return new Pair<>(signer, inputter);
+    });
+    for (Map.Entry<Integer, Pair<CopeSigner, CopeInputter>> entry : copes.entrySet()) {
+      copeSigners.put(entry.getKey(), entry.getValue().getFirst());
+      copeInputters.put(entry.getKey(), entry.getValue().getSecond());
+    }
+  }
+
+  /**
+   * Authenticated shares of an input whose mac-check has not been performed yet, along with the
+   * opened masked value and this party's share of its mac.
+   */
+  private static class UncheckedInput {
+
+    private final List<AuthenticatedElement> elements;
+    private final FieldElement maskedValue;
+    private final FieldElement maskedMac;
+
+    UncheckedInput(List<AuthenticatedElement> elements, FieldElement maskedValue,
+        FieldElement maskedMac) {
+      this.elements = elements;
+      this.maskedValue = maskedValue;
+      this.maskedMac = maskedMac;
     }
   }
 }
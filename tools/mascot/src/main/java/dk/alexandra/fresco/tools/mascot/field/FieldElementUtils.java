@@ -5,6 +5,7 @@ import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -92,6 +93,36 @@ public final class FieldElementUtils {
     return values.stream().map(scalar::multiply).collect(Collectors.toList());
   }
 
+  /**
+   * Inverts each element in a list, using a single inversion for the whole list (Montgomery's
+   * trick). This replaces an inversion per element with three multiplications per element.
+   *
+   * @param elements non-zero elements to invert
+   * @return list of inverses
+   */
+  public List<FieldElement> batchInvert(List<FieldElement> elements) {
+    if (elements.isEmpty()) {
+      return new ArrayList<>();
+    }
+    // prefix products e0, e0 * e1, ..., e0 * ... * e(n - 1)
+    List<FieldElement> prefixes = new ArrayList<>(elements.size());
+    FieldElement product = elements.get(0);
+    prefixes.add(product);
+    for (int i = 1; i < elements.size(); i++) {
+      product = product.multiply(elements.get(i));
+      prefixes.add(product);
+    }
+    FieldElement inverse = product.modInverse();
+    FieldElement[] inverses = new FieldElement[elements.size()];
+    for (int i = elements.size() - 1; i > 0; i--) {
+      // inverse is (e0 * ... * ei)^-1 here
+      inverses[i] = inverse.multiply(prefixes.get(i - 1));
+      inverse = inverse.multiply(elements.get(i));
+    }
+    inverses[0] = inverse;
+    return Arrays.asList(inverses);
+  }
+
   /**
    * Computes inner product of elements and powers of twos.<br> e0 * 2**0 + e1 * 2**1 + ... + e(n -
    * 1) * 2**(n - 1) Elements must have same modulus, otherwise we get undefined behaviour.
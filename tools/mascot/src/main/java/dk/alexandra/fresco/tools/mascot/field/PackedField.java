@@ -0,0 +1,507 @@
+package dk.alexandra.fresco.tools.mascot.field;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.MathUtils;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Arithmetic on field elements packed into flat arrays of 64 bit limbs, used by
+ * {@link PackedFieldVector}.
+ *
+ * <p>Each element takes up {@link #getWidth()} limbs, stored least significant limb first, and is
+ * always reduced modulo the modulus of the field. Multiplication uses Montgomery multiplication if
+ * the modulus is odd, which it is for all prime fields, and falls back to {@link BigInteger}
+ * otherwise. None of the kernels allocate per element.</p>
+ */
+public final class PackedField {
+
+  private final FieldDefinition definition;
+  private final BigInteger bigModulus;
+  private final int bitLength;
+  private final int byteLength;
+  private final int width;
+  private final long[] modulus;
+  private final boolean montgomery;
+  private final long montgomeryFactor;
+  private final long[] rSquared;
+  private final long[] rModulus;
+
+  /**
+   * Creates packed arithmetic for a field.
+   *
+   * @param definition the field definition
+   */
+  public PackedField(FieldDefinition definition) {
+    this.definition = definition;
+    this.bigModulus = definition.getModulus();
+    this.bitLength = bigModulus.bitLength();
+    this.byteLength = 1 + (definition.getBitLength() - 1) / Byte.SIZE;
+    this.width = (bitLength + Long.SIZE - 1) / Long.SIZE;
+    this.modulus = new long[width];
+    fromBigInteger(bigModulus, modulus, 0);
+    this.montgomery = bigModulus.testBit(0);
+    if (montgomery) {
+      BigInteger wordModulus = BigInteger.ONE.shiftLeft(Long.SIZE);
+      this.montgomeryFactor = bigModulus.modInverse(wordModulus).negate().mod(wordModulus)
+          .longValue();
+      this.rSquared = new long[width];
+      fromBigInteger(BigInteger.ONE.shiftLeft(2 * Long.SIZE * width).mod(bigModulus), rSquared,
+          0);
+      this.rModulus = new long[width];
+      fromBigInteger(BigInteger.ONE.shiftLeft(Long.SIZE * width).mod(bigModulus), rModulus, 0);
+    } else {
+      this.montgomeryFactor = 0;
+      this.rSquared = null;
+      this.rModulus = null;
+    }
+  }
+
+  /**
+   * Gets the field definition.
+   *
+   * @return the field definition
+   */
+  public FieldDefinition getDefinition() {
+    return definition;
+  }
+
+  /**
+   * Gets the number of limbs used for each element.
+   *
+   * @return number of limbs per element
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Gets the number of bytes of a serialized element, as given by the field definition.
+   *
+   * @return number of bytes per serialized element
+   */
+  public int getByteLength() {
+    return byteLength;
+  }
+
+  /**
+   * Creates a vector of zeroes.
+   *
+   * @param size number of elements
+   * @return the vector
+   */
+  public PackedFieldVector zeros(int size) {
+    return new PackedFieldVector(this, new long[size * width], size);
+  }
+
+  /**
+   * Packs a list of field elements.
+   *
+   * @param elements the elements
+   * @return the packed elements
+   */
+  public PackedFieldVector fromElements(List<FieldElement> elements) {
+    return fromElements(elements, Function.identity());
+  }
+
+  /**
+   * Packs a field element taken from each of a list of objects, e.g., the shares of a list of
+   * authenticated elements, directly into the limbs of a new vector.
+   *
+   * @param items the objects
+   * @param component gets the field element to pack from an object
+   * @return the packed elements
+   */
+  public <T> PackedFieldVector fromElements(List<T> items, Function<T, FieldElement> component) {
+    long[] limbs = new long[items.size() * width];
+    for (int i = 0; i < items.size(); i++) {
+      fromBigInteger(definition.convertToUnsigned(component.apply(items.get(i))), limbs,
+          i * width);
+    }
+    return new PackedFieldVector(this, limbs, items.size());
+  }
+
+  /**
+   * Packs field elements serialized as by {@link FieldDefinition#serialize(List)}, i.e. as
+   * concatenated, fixed length, big-endian encodings.
+   *
+   * @param bytes the serialized elements
+   * @return the packed elements
+   */
+  public PackedFieldVector fromBytes(byte[] bytes) {
+    int size = bytes.length / byteLength;
+    long[] limbs = new long[size * width];
+    for (int i = 0; i < size; i++) {
+      readElement(bytes, i * byteLength, byteLength, limbs, i * width);
+    }
+    return new PackedFieldVector(this, limbs, size);
+  }
+
+  /**
+   * Packs bit vectors interpreted as big-endian integers reduced modulo the modulus, as done when
+   * converting OT seeds to field elements.
+   *
+   * @param vectors the bit vectors
+   * @return the packed elements
+   */
+  public PackedFieldVector fromBits(List<StrictBitVector> vectors) {
+    long[] limbs = new long[vectors.size() * width];
+    for (int i = 0; i < vectors.size(); i++) {
+      byte[] bytes = vectors.get(i).toByteArray();
+      readElement(bytes, 0, bytes.length, limbs, i * width);
+    }
+    return new PackedFieldVector(this, limbs, vectors.size());
+  }
+
+  /**
+   * Gets the number of random bytes used for each element by {@link #fromUniformBytes(byte[])}.
+   *
+   * @return number of random bytes per element
+   */
+  public int getUniformByteLength() {
+    return 2 * width * Long.BYTES;
+  }
+
+  /**
+   * Reduces uniformly random bytes to field elements, using {@link #getUniformByteLength()} bytes
+   * for each element. Each element is reduced from an integer of twice the width of the modulus,
+   * i.e. at least 64 bits more than the modulus, so the elements are within statistical distance
+   * <i>2<sup>-64</sup></i> of uniform. Unlike rejection sampling this consumes a fixed amount of
+   * randomness per element.
+   *
+   * @param bytes the random bytes
+   * @return the sampled elements
+   */
+  public PackedFieldVector fromUniformBytes(byte[] bytes) {
+    int uniformByteLength = getUniformByteLength();
+    if (bytes.length % uniformByteLength != 0) {
+      throw new IllegalArgumentException(
+          "Number of bytes must be a multiple of " + uniformByteLength);
+    }
+    int size = bytes.length / uniformByteLength;
+    long[] wide = new long[bytes.length / Long.BYTES];
+    ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(wide);
+    long[] limbs = new long[size * width];
+    if (!montgomery) {
+      for (int i = 0; i < size; i++) {
+        BigInteger value = BigInteger.ZERO;
+        for (int l = 2 * width - 1; l >= 0; l--) {
+          value = value.shiftLeft(Long.SIZE).add(toUnsigned(wide[i * 2 * width + l]));
+        }
+        fromBigInteger(value.mod(bigModulus), limbs, i * width);
+      }
+      return new PackedFieldVector(this, limbs, size);
+    }
+    // with low and high halves l and h we compute l R R^-1 + h R^2 R^-1 = h R + l, where a
+    // Montgomery multiplication of an unreduced half by a reduced constant is less than twice
+    // the modulus, so a single subtraction suffices
+    long[] high = new long[width];
+    long[] scratch = new long[width + 2];
+    for (int i = 0; i < size; i++) {
+      int offset = i * 2 * width;
+      montgomeryMultiply(wide, offset, rModulus, 0, limbs, i * width, scratch);
+      montgomeryMultiply(wide, offset + width, rSquared, 0, high, 0, scratch);
+      add(limbs, i * width, high, 0, limbs, i * width);
+    }
+    return new PackedFieldVector(this, limbs, size);
+  }
+
+  /**
+   * Reads a big-endian integer into an element, reducing it modulo the modulus.
+   */
+  private void readElement(byte[] bytes, int offset, int length, long[] limbs, int limbOffset) {
+    if (length > width * Long.BYTES) {
+      fromBigInteger(new BigInteger(1, Arrays.copyOfRange(bytes, offset,
+          offset + length)).mod(bigModulus), limbs, limbOffset);
+      return;
+    }
+    for (int b = 0; b < length; b++) {
+      int bit = (length - 1 - b) * Byte.SIZE;
+      limbs[limbOffset + bit / Long.SIZE] |= (bytes[offset + b] & 0xFFL) << (bit % Long.SIZE);
+    }
+    int top = limbOffset + width - 1;
+    int topBits = bitLength - (width - 1) * Long.SIZE;
+    if (topBits < Long.SIZE && (limbs[top] >>> topBits) != 0) {
+      // more bits than the modulus, which is rare enough to reduce the slow way
+      BigInteger value = toBigInteger(limbs, limbOffset).mod(bigModulus);
+      Arrays.fill(limbs, limbOffset, limbOffset + width, 0L);
+      fromBigInteger(value, limbs, limbOffset);
+    } else {
+      // less than twice the modulus, since the modulus has bitLength bits
+      reduceOnce(limbs, limbOffset);
+    }
+  }
+
+  /**
+   * Writes elements as concatenated, fixed length, big-endian encodings.
+   */
+  byte[] toBytes(long[] limbs, int size) {
+    byte[] bytes = new byte[size * byteLength];
+    for (int i = 0; i < size; i++) {
+      int limbOffset = i * width;
+      int offset = i * byteLength;
+      for (int b = 0; b < byteLength; b++) {
+        int bit = (byteLength - 1 - b) * Byte.SIZE;
+        if (bit / Long.SIZE < width) {
+          bytes[offset + b] = (byte) (limbs[limbOffset + bit / Long.SIZE] >>> (bit % Long.SIZE));
+        }
+      }
+    }
+    return bytes;
+  }
+
+  BigInteger toBigInteger(long[] limbs, int offset) {
+    byte[] bytes = new byte[width * Long.BYTES];
+    for (int l = 0; l < width; l++) {
+      long limb = limbs[offset + l];
+      for (int b = 0; b < Long.BYTES; b++) {
+        bytes[bytes.length - 1 - l * Long.BYTES - b] = (byte) (limb >>> (b * Byte.SIZE));
+      }
+    }
+    return new BigInteger(1, bytes);
+  }
+
+  private void fromBigInteger(BigInteger value, long[] limbs, int offset) {
+    Arrays.fill(limbs, offset, offset + width, 0L);
+    byte[] bytes = value.toByteArray();
+    // skips the sign byte, which is zero, if the value takes up all limbs
+    int length = Math.min(bytes.length, width * Long.BYTES);
+    for (int b = 0; b < length; b++) {
+      int bit = b * Byte.SIZE;
+      limbs[offset + bit / Long.SIZE] |= (bytes[bytes.length - 1 - b] & 0xFFL) << (bit % Long.SIZE);
+    }
+  }
+
+  /**
+   * Computes <i>a + b</i> modulo the modulus.
+   */
+  void add(long[] a, int aOffset, long[] b, int bOffset, long[] out, int outOffset) {
+    long carry = 0;
+    for (int l = 0; l < width; l++) {
+      long x = a[aOffset + l];
+      long sum = x + b[bOffset + l];
+      long carryOut = Long.compareUnsigned(sum, x) < 0 ? 1 : 0;
+      long withCarry = sum + carry;
+      carryOut += Long.compareUnsigned(withCarry, sum) < 0 ? 1 : 0;
+      out[outOffset + l] = withCarry;
+      carry = carryOut;
+    }
+    if (carry != 0 || compareToModulus(out, outOffset) >= 0) {
+      subtractModulus(out, outOffset);
+    }
+  }
+
+  /**
+   * Computes <i>a - b</i> modulo the modulus.
+   */
+  void subtract(long[] a, int aOffset, long[] b, int bOffset, long[] out, int outOffset) {
+    long borrow = 0;
+    for (int l = 0; l < width; l++) {
+      long x = a[aOffset + l];
+      long y = b[bOffset + l];
+      long diff = x - y;
+      long borrowOut = Long.compareUnsigned(x, y) < 0 ? 1 : 0;
+      long withBorrow = diff - borrow;
+      borrowOut += Long.compareUnsigned(diff, borrow) < 0 ? 1 : 0;
+      out[outOffset + l] = withBorrow;
+      borrow = borrowOut;
+    }
+    if (borrow != 0) {
+      addModulus(out, outOffset);
+    }
+  }
+
+  /**
+   * Computes <i>-a</i> modulo the modulus.
+   */
+  void negate(long[] a, int aOffset, long[] out, int outOffset) {
+    boolean zero = true;
+    for (int l = 0; l < width; l++) {
+      zero &= a[aOffset + l] == 0;
+    }
+    if (zero) {
+      Arrays.fill(out, outOffset, outOffset + width, 0L);
+      return;
+    }
+    long borrow = 0;
+    for (int l = 0; l < width; l++) {
+      long x = modulus[l];
+      long y = a[aOffset + l];
+      long diff = x - y;
+      long borrowOut = Long.compareUnsigned(x, y) < 0 ? 1 : 0;
+      long withBorrow = diff - borrow;
+      borrowOut += Long.compareUnsigned(diff, borrow) < 0 ? 1 : 0;
+      out[outOffset + l] = withBorrow;
+      borrow = borrowOut;
+    }
+  }
+
+  /**
+   * Computes <i>a b</i> modulo the modulus.
+   *
+   * @param scratch scratch space of at least {@link #getWidth()} + 2 limbs
+   */
+  void multiply(long[] a, int aOffset, long[] b, int bOffset, long[] out, int outOffset,
+      long[] scratch) {
+    if (!montgomery) {
+      BigInteger product = toBigInteger(a, aOffset).multiply(toBigInteger(b, bOffset))
+          .mod(bigModulus);
+      Arrays.fill(out, outOffset, outOffset + width, 0L);
+      fromBigInteger(product, out, outOffset);
+      return;
+    }
+    // a b R^-1 R^2 R^-1 = a b
+    montgomeryMultiply(a, aOffset, b, bOffset, out, outOffset, scratch);
+    montgomeryMultiply(out, outOffset, rSquared, 0, out, outOffset, scratch);
+  }
+
+  /**
+   * Reduces a value of <code>2 width</code> limbs which is less than the modulus times
+   * <i>2<sup>64 width</sup></i>.
+   *
+   * @param wide the value, which is overwritten
+   * @param out array to write the reduced element to
+   * @param outOffset offset of the element in the array
+   * @param scratch scratch space of at least {@link #getWidth()} + 2 limbs
+   */
+  void reduceWide(long[] wide, long[] out, int outOffset, long[] scratch) {
+    if (!montgomery) {
+      BigInteger value = BigInteger.ZERO;
+      for (int l = 2 * width - 1; l >= 0; l--) {
+        value = value.shiftLeft(Long.SIZE).add(toUnsigned(wide[l]));
+      }
+      Arrays.fill(out, outOffset, outOffset + width, 0L);
+      fromBigInteger(value.mod(bigModulus), out, outOffset);
+      return;
+    }
+    // Montgomery reduction gives wide R^-1, which is then multiplied by R^2 R^-1
+    long overflow = 0;
+    for (int i = 0; i < width; i++) {
+      long m = wide[i] * montgomeryFactor;
+      long carry = 0;
+      for (int j = 0; j < width; j++) {
+        long lo = m * modulus[j];
+        long hi = MathUtils.multiplyHighUnsigned(m, modulus[j]);
+        long sum = wide[i + j] + lo;
+        hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+        long withCarry = sum + carry;
+        hi += Long.compareUnsigned(withCarry, sum) < 0 ? 1 : 0;
+        wide[i + j] = withCarry;
+        carry = hi;
+      }
+      for (int k = i + width; k < 2 * width && carry != 0; k++) {
+        long sum = wide[k] + carry;
+        carry = Long.compareUnsigned(sum, carry) < 0 ? 1 : 0;
+        wide[k] = sum;
+      }
+      overflow += carry;
+    }
+    System.arraycopy(wide, width, out, outOffset, width);
+    if (overflow != 0 || compareToModulus(out, outOffset) >= 0) {
+      subtractModulus(out, outOffset);
+    }
+    montgomeryMultiply(out, outOffset, rSquared, 0, out, outOffset, scratch);
+  }
+
+  /**
+   * Computes <i>a b R<sup>-1</sup></i> modulo the modulus, where <i>R = 2<sup>64 width</sup></i>,
+   * using coarsely integrated operand scanning.
+   */
+  private void montgomeryMultiply(long[] a, int aOffset, long[] b, int bOffset, long[] out,
+      int outOffset, long[] t) {
+    Arrays.fill(t, 0, width + 2, 0L);
+    for (int i = 0; i < width; i++) {
+      long bi = b[bOffset + i];
+      long carry = 0;
+      for (int j = 0; j < width; j++) {
+        long x = a[aOffset + j];
+        long lo = x * bi;
+        long hi = MathUtils.multiplyHighUnsigned(x, bi);
+        long sum = t[j] + lo;
+        hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+        long withCarry = sum + carry;
+        hi += Long.compareUnsigned(withCarry, sum) < 0 ? 1 : 0;
+        t[j] = withCarry;
+        carry = hi;
+      }
+      long top = t[width] + carry;
+      t[width + 1] = Long.compareUnsigned(top, carry) < 0 ? 1 : 0;
+      t[width] = top;
+      long m = t[0] * montgomeryFactor;
+      long lo = m * modulus[0];
+      carry = MathUtils.multiplyHighUnsigned(m, modulus[0]);
+      carry += Long.compareUnsigned(t[0] + lo, lo) < 0 ? 1 : 0;
+      for (int j = 1; j < width; j++) {
+        lo = m * modulus[j];
+        long hi = MathUtils.multiplyHighUnsigned(m, modulus[j]);
+        long sum = t[j] + lo;
+        hi += Long.compareUnsigned(sum, lo) < 0 ? 1 : 0;
+        long withCarry = sum + carry;
+        hi += Long.compareUnsigned(withCarry, sum) < 0 ? 1 : 0;
+        t[j - 1] = withCarry;
+        carry = hi;
+      }
+      long sum = t[width] + carry;
+      t[width - 1] = sum;
+      t[width] = t[width + 1] + (Long.compareUnsigned(sum, carry) < 0 ? 1 : 0);
+    }
+    System.arraycopy(t, 0, out, outOffset, width);
+    if (t[width] != 0 || compareToModulus(out, outOffset) >= 0) {
+      subtractModulus(out, outOffset);
+    }
+  }
+
+  private void reduceOnce(long[] limbs, int offset) {
+    if (compareToModulus(limbs, offset) >= 0) {
+      subtractModulus(limbs, offset);
+    }
+  }
+
+  private int compareToModulus(long[] limbs, int offset) {
+    for (int l = width - 1; l >= 0; l--) {
+      int cmp = Long.compareUnsigned(limbs[offset + l], modulus[l]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  private void subtractModulus(long[] limbs, int offset) {
+    long borrow = 0;
+    for (int l = 0; l < width; l++) {
+      long x = limbs[offset + l];
+      long diff = x - modulus[l];
+      long borrowOut = Long.compareUnsigned(x, modulus[l]) < 0 ? 1 : 0;
+      long withBorrow = diff - borrow;
+      borrowOut += Long.compareUnsigned(diff, borrow) < 0 ? 1 : 0;
+      limbs[offset + l] = withBorrow;
+      borrow = borrowOut;
+    }
+  }
+
+  private void addModulus(long[] limbs, int offset) {
+    long carry = 0;
+    for (int l = 0; l < width; l++) {
+      long x = limbs[offset + l];
+      long sum = x + modulus[l];
+      long carryOut = Long.compareUnsigned(sum, x) < 0 ? 1 : 0;
+      long withCarry = sum + carry;
+      carryOut += Long.compareUnsigned(withCarry, sum) < 0 ? 1 : 0;
+      limbs[offset + l] = withCarry;
+      carry = carryOut;
+    }
+  }
+
+  private static BigInteger toUnsigned(long limb) {
+    BigInteger value = BigInteger.valueOf(limb & Long.MAX_VALUE);
+    return limb < 0 ? value.setBit(Long.SIZE - 1) : value;
+  }
+
+}
@@ -0,0 +1,260 @@
+package dk.alexandra.fresco.tools.mascot.field;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A vector of field elements packed into a flat array of limbs (see {@link PackedField}).
+ *
+ * <p>This is the packed counterpart of the lists of {@link FieldElement}s used throughout MASCOT,
+ * with bulk kernels for the operations of the multiplication and sacrifice sub-protocols, which
+ * avoids boxing each element and building intermediate lists. Arithmetic operations update the
+ * vector in place and return it, to allow chaining.</p>
+ */
+public final class PackedFieldVector {
+
+  private final PackedField field;
+  private final long[] limbs;
+  private final int size;
+
+  PackedFieldVector(PackedField field, long[] limbs, int size) {
+    this.field = field;
+    this.limbs = limbs;
+    this.size = size;
+  }
+
+  /**
+   * Gets the number of elements.
+   *
+   * @return number of elements
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Gets the element at an index.
+   *
+   * @param index the index
+   * @return the element
+   */
+  public FieldElement get(int index) {
+    return field.getDefinition()
+        .createElement(field.toBigInteger(limbs, index * field.getWidth()));
+  }
+
+  /**
+   * Serializes the elements in the format of
+   * {@link dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition#serialize(List)}.
+   *
+   * @return the serialized elements
+   */
+  public byte[] toBytes() {
+    return field.toBytes(limbs, size);
+  }
+
+  /**
+   * Unpacks the elements.
+   *
+   * @return the elements
+   */
+  public List<FieldElement> toElements() {
+    return field.getDefinition().deserializeList(toBytes());
+  }
+
+  /**
+   * Copies this vector.
+   *
+   * @return the copy
+   */
+  public PackedFieldVector copy() {
+    return new PackedFieldVector(field, limbs.clone(), size);
+  }
+
+  /**
+   * Copies a range of this vector.
+   *
+   * @param from index of the first element (inclusive)
+   * @param to index after the last element (exclusive)
+   * @return the copied range
+   */
+  public PackedFieldVector slice(int from, int to) {
+    if (from < 0 || to > size || from > to) {
+      throw new IndexOutOfBoundsException("Cannot slice [" + from + ", " + to + ") of " + size
+          + " elements");
+    }
+    int width = field.getWidth();
+    return new PackedFieldVector(field, Arrays.copyOfRange(limbs, from * width, to * width),
+        to - from);
+  }
+
+  /**
+   * Adds other vector to this entry wise.
+   *
+   * @param other the vector to add
+   * @return this vector
+   */
+  public PackedFieldVector add(PackedFieldVector other) {
+    checkSize(other);
+    int width = field.getWidth();
+    for (int i = 0; i < size; i++) {
+      field.add(limbs, i * width, other.limbs, i * width, limbs, i * width);
+    }
+    return this;
+  }
+
+  /**
+   * Subtracts other vector from this entry wise.
+   *
+   * @param other the vector to subtract
+   * @return this vector
+   */
+  public PackedFieldVector subtract(PackedFieldVector other) {
+    checkSize(other);
+    int width = field.getWidth();
+    for (int i = 0; i < size; i++) {
+      field.subtract(limbs, i * width, other.limbs, i * width, limbs, i * width);
+    }
+    return this;
+  }
+
+  /**
+   * Negates this vector.
+   *
+   * @return this vector
+   */
+  public PackedFieldVector negate() {
+    int width = field.getWidth();
+    for (int i = 0; i < size; i++) {
+      field.negate(limbs, i * width, limbs, i * width);
+    }
+    return this;
+  }
+
+  /**
+   * Multiplies this vector by other vector entry wise.
+   *
+   * @param other the factors
+   * @return this vector
+   */
+  public PackedFieldVector multiply(PackedFieldVector other) {
+    checkSize(other);
+    int width = field.getWidth();
+    long[] scratch = new long[width + 2];
+    for (int i = 0; i < size; i++) {
+      field.multiply(limbs, i * width, other.limbs, i * width, limbs, i * width, scratch);
+    }
+    return this;
+  }
+
+  /**
+   * Adds entries of other vector to the entries of this for which a bit of a selector is set. The
+   * entry at index <i>k</i> is selected by bit <i>k mod bitsPerSelector</i> of selector <i>k /
+   * bitsPerSelector</i>, counting from the least significant bit. This computes the sums of the
+   * seeds and the chosen diffs of the multiplication sub-protocol.
+   *
+   * @param other the vector to add entries of
+   * @param selectors the selectors
+   * @param bitsPerSelector number of bits used of each selector
+   * @return this vector
+   */
+  public PackedFieldVector addSelected(PackedFieldVector other, PackedFieldVector selectors,
+      int bitsPerSelector) {
+    checkSize(other);
+    if (selectors.size * bitsPerSelector != size) {
+      throw new IllegalArgumentException("Expected " + size / bitsPerSelector + " selectors");
+    }
+    int width = field.getWidth();
+    for (int i = 0; i < size; i++) {
+      int selector = i / bitsPerSelector;
+      int bit = i % bitsPerSelector;
+      long limb = selectors.limbs[selector * width + bit / Long.SIZE];
+      if ((limb >>> (bit % Long.SIZE) & 1L) != 0) {
+        field.add(limbs, i * width, other.limbs, i * width, limbs, i * width);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Repeats each entry stretchBy times. For instance, stretching [e0, e1, e2] by 2 results in
+   * [e0, e0, e1, e1, e2, e2].
+   *
+   * @param stretchBy number of repetitions of each entry
+   * @return the stretched vector
+   */
+  public PackedFieldVector stretch(int stretchBy) {
+    int width = field.getWidth();
+    long[] stretched = new long[limbs.length * stretchBy];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < stretchBy; j++) {
+        System.arraycopy(limbs, i * width, stretched, (i * stretchBy + j) * width, width);
+      }
+    }
+    return new PackedFieldVector(field, stretched, size * stretchBy);
+  }
+
+  /**
+   * Recombines groups of entries by powers of two, i.e. computes <i>e<sub>0</sub> 2<sup>0</sup> +
+   * ... + e<sub>n - 1</sub> 2<sup>n - 1</sup></i> for each group of <i>n</i> consecutive entries.
+   * The sums are accumulated without reduction and reduced once per group.
+   *
+   * @param groupSize number of entries in each group, at most the bit length of the modulus
+   * @return the recombined groups
+   */
+  public PackedFieldVector recombine(int groupSize) {
+    int width = field.getWidth();
+    if (groupSize > width * Long.SIZE || size % groupSize != 0) {
+      throw new IllegalArgumentException("Cannot recombine " + size + " elements in groups of "
+          + groupSize);
+    }
+    int groups = size / groupSize;
+    long[] result = new long[groups * width];
+    long[] wide = new long[2 * width];
+    long[] scratch = new long[width + 2];
+    for (int g = 0; g < groups; g++) {
+      Arrays.fill(wide, 0L);
+      for (int j = 0; j < groupSize; j++) {
+        addShifted(wide, limbs, (g * groupSize + j) * width, width, j);
+      }
+      field.reduceWide(wide, result, g * width, scratch);
+    }
+    return new PackedFieldVector(field, result, groups);
+  }
+
+  /**
+   * Adds an element shifted left by a number of bits to an accumulator.
+   */
+  private static void addShifted(long[] accumulator, long[] source, int offset, int width,
+      int shift) {
+    int limbShift = shift / Long.SIZE;
+    int bitShift = shift % Long.SIZE;
+    long carry = 0;
+    long previous = 0;
+    for (int l = 0; l <= width && l + limbShift < accumulator.length; l++) {
+      long current = l < width ? source[offset + l] : 0L;
+      long shifted = bitShift == 0 ? current
+          : current << bitShift | previous >>> (Long.SIZE - bitShift);
+      previous = current;
+      int index = l + limbShift;
+      long sum = accumulator[index] + shifted;
+      long carryOut = Long.compareUnsigned(sum, shifted) < 0 ? 1 : 0;
+      long withCarry = sum + carry;
+      carryOut += Long.compareUnsigned(withCarry, sum) < 0 ? 1 : 0;
+      accumulator[index] = withCarry;
+      carry = carryOut;
+    }
+    for (int index = width + 1 + limbShift; carry != 0 && index < accumulator.length; index++) {
+      long sum = accumulator[index] + carry;
+      carry = Long.compareUnsigned(sum, carry) < 0 ? 1 : 0;
+      accumulator[index] = sum;
+    }
+  }
+
+  private void checkSize(PackedFieldVector other) {
+    if (other.size != size) {
+      throw new IllegalArgumentException("Vectors must be same size");
+    }
+  }
+}
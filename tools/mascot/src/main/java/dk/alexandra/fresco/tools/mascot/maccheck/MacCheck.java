@@ -7,6 +7,7 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
 import dk.alexandra.fresco.tools.mascot.commit.CommitmentBasedInput;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -42,6 +43,39 @@ public class MacCheck extends CommitmentBasedInput<FieldElement> {
     // add up all sigmas
     FieldElement sigmaSum = Addable.sum(sigmas);
 
+    checkZero(sigmaSum);
+  }
+
+  /**
+   * Runs mac-check on a batch of open values, using a single commitment and opening round for
+   * the whole batch rather than one per value.
+   *
+   * @param opened the opened elements to validate
+   * @param macKeyShare this party's share of the mac key
+   * @param macShares this party's shares of the macs
+   * @throws MaliciousException if mac-check fails for any of the values
+   */
+  public void check(List<FieldElement> opened, FieldElement macKeyShare,
+      List<FieldElement> macShares) {
+    if (opened.size() != macShares.size()) {
+      throw new IllegalArgumentException("Lists must be same size");
+    }
+    List<FieldElement> sigmas = new ArrayList<>(opened.size());
+    for (int i = 0; i < opened.size(); i++) {
+      sigmas.add(macShares.get(i).subtract(opened.get(i).multiply(macKeyShare)));
+    }
+    List<List<FieldElement>> allSigmas = allCommit(sigmas);
+    for (List<FieldElement> partySigmas : allSigmas) {
+      if (partySigmas.size() != sigmas.size()) {
+        throw new MaliciousException("Wrong number of sigmas in mac-check");
+      }
+    }
+    for (FieldElement sigmaSum : Addable.sumRows(allSigmas)) {
+      checkZero(sigmaSum);
+    }
+  }
+
+  private void checkZero(FieldElement sigmaSum) {
     BigInteger outputSum = getResourcePool().getFieldDefinition().convertToUnsigned(sigmaSum);
     // sum of sigmas must be 0
     if (outputSum.signum() != 0) {
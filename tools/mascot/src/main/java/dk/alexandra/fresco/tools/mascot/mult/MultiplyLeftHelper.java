@@ -6,6 +6,7 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
 import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
+import dk.alexandra.fresco.tools.mascot.field.PackedFieldVector;
 import dk.alexandra.fresco.tools.ot.base.RotBatch;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -46,6 +47,26 @@ public class MultiplyLeftHelper {
     return seeds;
   }
 
+  /**
+   * Packed variant of {@link #generateSeeds(List, int)}.
+   *
+   * @param leftFactors the left side of the multiplication
+   * @param seedLength the length of the seeds that the ROT produces
+   * @return list of seeds to prgs
+   */
+  public List<StrictBitVector> generateSeeds(PackedFieldVector leftFactors, int seedLength) {
+    byte[] serialized = leftFactors.toBytes();
+    int byteLength = serialized.length / leftFactors.getSize();
+    byte[] reversed = new byte[serialized.length];
+    for (int i = 0; i < leftFactors.getSize(); i++) {
+      System.arraycopy(serialized, i * byteLength, reversed,
+          (leftFactors.getSize() - 1 - i) * byteLength, byteLength);
+    }
+    List<StrictBitVector> seeds = rot.receive(new StrictBitVector(reversed), seedLength);
+    Collections.reverse(seeds);
+    return seeds;
+  }
+
   private List<FieldElement> reversed(List<FieldElement> leftFactors) {
     List<FieldElement> elements = leftFactors;
     elements = new ArrayList<>(elements);
@@ -89,4 +110,18 @@ public class MultiplyLeftHelper {
     }
     return result;
   }
+
+  /**
+   * Packed variant of {@link #computeProductShares(List, List, List)}.
+   *
+   * @param leftFactors this party's multiplication factors
+   * @param feSeeds seeds as field elements
+   * @param diffs the diffs received from other party
+   * @return product shares
+   */
+  public PackedFieldVector computeProductShares(PackedFieldVector leftFactors,
+      PackedFieldVector feSeeds, PackedFieldVector diffs) {
+    int modBitLength = resourcePool.getModBitLength();
+    return feSeeds.copy().addSelected(diffs, leftFactors, modBitLength).recombine(modBitLength);
+  }
 }
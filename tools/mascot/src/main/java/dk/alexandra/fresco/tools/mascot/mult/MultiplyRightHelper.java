@@ -6,6 +6,7 @@ import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
 import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
+import dk.alexandra.fresco.tools.mascot.field.PackedFieldVector;
 import dk.alexandra.fresco.tools.ot.base.RotBatch;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -97,6 +98,30 @@ public class MultiplyRightHelper {
     return productShares;
   }
 
+  /**
+   * Packed variant of {@link #computeDiffs(List, List)}.
+   *
+   * @param zeroSeeds the zero choice seeds as field elements
+   * @param oneSeeds the one choice seeds as field elements
+   * @param rightFactors this party's factors
+   * @return masked shares of this party's factor's bits.
+   */
+  public PackedFieldVector computeDiffs(PackedFieldVector zeroSeeds, PackedFieldVector oneSeeds,
+      PackedFieldVector rightFactors) {
+    return zeroSeeds.copy().subtract(oneSeeds)
+        .add(rightFactors.stretch(resourcePool.getModBitLength()));
+  }
+
+  /**
+   * Packed variant of {@link #computeProductShares(List, int)}.
+   *
+   * @param zeroSeeds the zero choice seeds as field elements
+   * @return shares of products
+   */
+  public PackedFieldVector computeProductShares(PackedFieldVector zeroSeeds) {
+    return zeroSeeds.recombine(resourcePool.getModBitLength()).negate();
+  }
+
   private FieldElement computeDiff(Pair<FieldElement, FieldElement> feSeedPair,
       FieldElement factor) {
     FieldElement left = feSeedPair.getFirst();
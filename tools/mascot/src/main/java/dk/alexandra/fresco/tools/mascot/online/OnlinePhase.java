@@ -56,8 +56,13 @@ public class OnlinePhase {
       epsilons.add(left.subtract(triple.getLeft()));
       deltas.add(right.subtract(triple.getRight()));
     }
-    List<FieldElement> openEpsilons = open(epsilons);
-    List<FieldElement> openDeltas = open(deltas);
+    // open epsilons and deltas together, in a single round
+    List<AuthenticatedElement> toOpen = new ArrayList<>(2 * leftFactors.size());
+    toOpen.addAll(epsilons);
+    toOpen.addAll(deltas);
+    List<FieldElement> opened = open(toOpen);
+    List<FieldElement> openEpsilons = opened.subList(0, leftFactors.size());
+    List<FieldElement> openDeltas = opened.subList(leftFactors.size(), opened.size());
     List<AuthenticatedElement> products = new ArrayList<>(leftFactors.size());
     for (int i = 0; i < leftFactors.size(); i++) {
       MultiplicationTriple triple = triples.get(i);
@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.tools.mascot.prg;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.mascot.field.PackedFieldVector;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,6 +28,14 @@ public interface FieldElementPrg {
     return samples;
   }
 
+  /**
+   * Generates multiple random field elements packed into a vector.
+   *
+   * @param numSamples number of random elements to generate
+   * @return random field elements
+   */
+  PackedFieldVector getNextVector(int numSamples);
+
   /**
    * Generates a matrix of random field elements.
    *
@@ -4,14 +4,27 @@ import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.Drng;
 import dk.alexandra.fresco.framework.util.DrngImpl;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.field.PackedField;
+import dk.alexandra.fresco.tools.mascot.field.PackedFieldVector;
+import java.util.List;
 
+/**
+ * Field element PRG based on AES in counter mode.
+ *
+ * <p>Single elements are sampled by rejection sampling. Multiple elements are sampled in bulk
+ * from a single block of the AES stream, with a fixed number of bytes reduced to each element
+ * (see {@link PackedField#fromUniformBytes(byte[])}).</p>
+ */
 public class FieldElementPrgImpl implements FieldElementPrg {
 
+  private final Drbg drbg;
   private final Drng drng;
-  private FieldDefinition definition;
+  private final FieldDefinition definition;
+  private final PackedField packedField;
 
   /**
    * Creates new FieldElement prg.
@@ -20,16 +33,30 @@ public class FieldElementPrgImpl implements FieldElementPrg {
    */
   public FieldElementPrgImpl(StrictBitVector seed, FieldDefinition definition) {
     this.definition = definition;
+    this.packedField = new PackedField(definition);
     byte[] bytes = seed.toByteArray();
     if (bytes.length != AesCtrDrbg.SEED_LENGTH) {
-      this.drng = new DrngImpl(AesCtrDrbgFactory.fromDerivedSeed(bytes));
+      this.drbg = AesCtrDrbgFactory.fromDerivedSeed(bytes);
     } else {
-      this.drng = new DrngImpl(AesCtrDrbgFactory.fromRandomSeed(bytes));
+      this.drbg = AesCtrDrbgFactory.fromRandomSeed(bytes);
     }
+    this.drng = new DrngImpl(drbg);
   }
 
   @Override
   public FieldElement getNext() {
     return definition.createElement(drng.nextBigInteger(definition.getModulus()));
   }
+
+  @Override
+  public List<FieldElement> getNext(int numSamples) {
+    return getNextVector(numSamples).toElements();
+  }
+
+  @Override
+  public PackedFieldVector getNextVector(int numSamples) {
+    byte[] bytes = new byte[numSamples * packedField.getUniformByteLength()];
+    drbg.nextBytes(bytes);
+    return packedField.fromUniformBytes(bytes);
+  }
 }
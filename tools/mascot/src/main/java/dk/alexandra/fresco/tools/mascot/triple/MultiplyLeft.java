@@ -1,12 +1,12 @@
 package dk.alexandra.fresco.tools.mascot.triple;
 
-import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.field.PackedField;
+import dk.alexandra.fresco.tools.mascot.field.PackedFieldVector;
 import dk.alexandra.fresco.tools.mascot.mult.MultiplyLeftHelper;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Left hand side of a two-party protocol for computing a secret sharing of a the entry wise product
@@ -31,6 +31,7 @@ class MultiplyLeft {
   private final int otherId;
   private final MascotResourcePool resourcePool;
   private final Network network;
+  private final PackedField packedField;
 
   /**
    * Constructs one side of the two-party multiplication protocol.
@@ -44,6 +45,7 @@ class MultiplyLeft {
     this.resourcePool = resourcePool;
     this.network = network;
     multiplyLeftHelper = new MultiplyLeftHelper(resourcePool, network, otherId);
+    packedField = new PackedField(resourcePool.getFieldDefinition());
   }
 
   /**
@@ -57,28 +59,12 @@ class MultiplyLeft {
    * @return shares of the products <i>a<sub>0</sub>b<sub>0</sub>, a<sub>1</sub>b<sub>1</sub>
    *     ...</i>
    */
-  public List<FieldElement> multiply(List<FieldElement> leftFactors) {
+  public PackedFieldVector multiply(PackedFieldVector leftFactors) {
     List<StrictBitVector> seeds = multiplyLeftHelper.generateSeeds(leftFactors,
         resourcePool.getModBitLength());
-    List<FieldElement> feSeeds = seedsToFieldElements(seeds);
+    PackedFieldVector feSeeds = packedField.fromBits(seeds);
     // receive diffs from other party
-    List<FieldElement> diffs =
-        resourcePool.getFieldDefinition().deserializeList(network.receive(otherId));
+    PackedFieldVector diffs = packedField.fromBytes(network.receive(otherId));
     return multiplyLeftHelper.computeProductShares(leftFactors, feSeeds, diffs);
   }
-
-  /**
-   * Converts each seed to field element.
-   *
-   * @param seeds the seeds represented as bit vectors
-   * @return seeds converted to field elements
-   */
-  private List<FieldElement> seedsToFieldElements(List<StrictBitVector> seeds) {
-    return seeds.parallelStream().map(this::fromBits).collect(Collectors.toList());
-  }
-
-  private FieldElement fromBits(StrictBitVector vector) {
-    // safe since the modulus is guaranteed to be close enough to 2^modBitLength
-    return resourcePool.getFieldDefinition().deserialize(vector.toByteArray());
-  }
 }
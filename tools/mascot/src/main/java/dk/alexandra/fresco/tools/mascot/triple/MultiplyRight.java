@@ -1,13 +1,14 @@
 package dk.alexandra.fresco.tools.mascot.triple;
 
-import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.field.PackedField;
+import dk.alexandra.fresco.tools.mascot.field.PackedFieldVector;
 import dk.alexandra.fresco.tools.mascot.mult.MultiplyRightHelper;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Right hand side of a two-party protocol for computing a secret sharing of a the entry wise
@@ -38,12 +39,14 @@ class MultiplyRight {
   private final int otherId;
   private final MascotResourcePool resourcePool;
   private final Network network;
+  private final PackedField packedField;
 
   MultiplyRight(MascotResourcePool resourcePool, Network network, int otherId) {
     this.otherId = otherId;
     this.resourcePool = resourcePool;
     this.network = network;
     multiplyRightHelper = new MultiplyRightHelper(resourcePool, network, otherId);
+    packedField = new PackedField(resourcePool.getFieldDefinition());
   }
 
   /**
@@ -60,35 +63,22 @@ class MultiplyRight {
    * @return shares of the products <i>a<sub>0</sub>b<sub>0</sub>, a<sub>1</sub>b<sub>1</sub> ...
    *         </i>
    */
-  public List<FieldElement> multiply(List<FieldElement> rightFactors) {
+  public PackedFieldVector multiply(PackedFieldVector rightFactors) {
     List<Pair<StrictBitVector, StrictBitVector>> seedPairs =
-        multiplyRightHelper.generateSeeds(rightFactors.size(), resourcePool.getModBitLength());
-    // convert seeds pairs to field elements so we can compute on them
-    List<Pair<FieldElement, FieldElement>> feSeedPairs =
-        seedsToFieldElements(seedPairs);
+        multiplyRightHelper.generateSeeds(rightFactors.getSize(), resourcePool.getModBitLength());
+    List<StrictBitVector> zeroSeeds = new ArrayList<>(seedPairs.size());
+    List<StrictBitVector> oneSeeds = new ArrayList<>(seedPairs.size());
+    for (Pair<StrictBitVector, StrictBitVector> seedPair : seedPairs) {
+      zeroSeeds.add(seedPair.getFirst());
+      oneSeeds.add(seedPair.getSecond());
+    }
+    PackedFieldVector feZeroSeeds = packedField.fromBits(zeroSeeds);
     // compute q0 - q1 + b for each seed pair
-    List<FieldElement> diffs = multiplyRightHelper.computeDiffs(feSeedPairs, rightFactors);
+    PackedFieldVector diffs = multiplyRightHelper.computeDiffs(feZeroSeeds,
+        packedField.fromBits(oneSeeds), rightFactors);
     // send diffs over to other party
-    network.send(otherId, resourcePool.getFieldDefinition().serialize(diffs));
-    // get zero index seeds
-    List<FieldElement> feZeroSeeds =
-        feSeedPairs.parallelStream().map(Pair::getFirst).collect(Collectors.toList());
+    network.send(otherId, diffs.toBytes());
     // compute product shares
-    return multiplyRightHelper.computeProductShares(feZeroSeeds, rightFactors.size());
+    return multiplyRightHelper.computeProductShares(feZeroSeeds);
   }
-
-  private List<Pair<FieldElement, FieldElement>> seedsToFieldElements(
-      List<Pair<StrictBitVector, StrictBitVector>> seedPairs) {
-    return seedPairs.parallelStream().map(pair -> {
-      FieldElement t0 = fromBits(pair.getFirst());
-      FieldElement t1 = fromBits(pair.getSecond());
-      return new Pair<>(t0, t1);
-    }).collect(Collectors.toList());
-  }
-
-  private FieldElement fromBits(StrictBitVector vector) {
-    // safe since the modulus is guaranteed to be close enough to 2^modBitLength
-    return resourcePool.getFieldDefinition().deserialize(vector.toByteArray());
-  }
-
 }
@@ -3,16 +3,22 @@ package dk.alexandra.fresco.tools.mascot.triple;
 import dk.alexandra.fresco.framework.builder.numeric.Addable;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.PairwiseRunner;
+import dk.alexandra.fresco.tools.mascot.ParallelRunner;
 import dk.alexandra.fresco.tools.mascot.elgen.ElementGeneration;
 import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
 import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
 import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.mascot.field.PackedField;
+import dk.alexandra.fresco.tools.mascot.field.PackedFieldVector;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -33,6 +39,9 @@ public class TripleGeneration {
   private final FieldElementPrg jointSampler;
   private final MascotResourcePool resourcePool;
   private final FieldElementUtils fieldElementUtils;
+  private final PairwiseRunner pairwiseRunner;
+  private final ParallelRunner parallelRunner;
+  private final PackedField packedField;
 
   /**
    * Creates new triple generation protocol.
@@ -43,26 +52,30 @@ public class TripleGeneration {
     this.fieldElementUtils = new FieldElementUtils(resourcePool.getFieldDefinition());
     this.leftMultipliers = new HashMap<>();
     this.rightMultipliers = new HashMap<>();
+    this.pairwiseRunner = new PairwiseRunner(resourcePool, network);
+    this.parallelRunner = new ParallelRunner(resourcePool);
+    this.packedField = new PackedField(resourcePool.getFieldDefinition());
     initializeMultipliers(resourcePool, network);
     this.elementGeneration = elementGeneration;
     this.jointSampler = jointSampler;
   }
 
   private void initializeMultipliers(MascotResourcePool resourcePool, Network network) {
-    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
-      if (partyId != resourcePool.getMyId()) {
-        if (resourcePool.getMyId() < partyId) {
-          rightMultipliers.put(partyId, new MultiplyRight(resourcePool, network,
-              partyId));
-          leftMultipliers.put(partyId, new MultiplyLeft(resourcePool, network,
-              partyId));
-        } else {
-          leftMultipliers.put(partyId, new MultiplyLeft(resourcePool, network,
-              partyId));
-          rightMultipliers.put(partyId, new MultiplyRight(resourcePool, network,
-              partyId));
-        }
+    Map<Integer, Pair<MultiplyLeft, MultiplyRight>> multipliers = pairwiseRunner.run(partyId -> {
+      MultiplyLeft left;
+      MultiplyRight right;
+      if (resourcePool.getMyId() < partyId) {
+        right = new MultiplyRight(resourcePool, network, partyId);
+        left = new MultiplyLeft(resourcePool, network, partyId);
+      } else {
+        left = new MultiplyLeft(resourcePool, network, partyId);
+        right = new MultiplyRight(resourcePool, network, partyId);
       }
+      return new Pair<>(left, right);
+    });
+    for (Map.Entry<Integer, Pair<MultiplyLeft, MultiplyRight>> entry : multipliers.entrySet()) {
+      leftMultipliers.put(entry.getKey(), entry.getValue().getFirst());
+      rightMultipliers.put(entry.getKey(), entry.getValue().getSecond());
     }
   }
 
@@ -119,40 +132,44 @@ public class TripleGeneration {
   List<FieldElement> multiply(List<FieldElement> leftFactorGroups,
       List<FieldElement> rightFactors) {
     // step 1 of protocol occurred before this method
+    // the sub-protocols run on packed vectors to avoid boxing each element
+    PackedFieldVector packedLeft = packedField.fromElements(leftFactorGroups);
     // "stretch" right factors, so we have one right factor for each left factor
-    List<FieldElement> stretched =
-        fieldElementUtils
-            .stretch(rightFactors, resourcePool.getNumCandidatesPerTriple());
+    PackedFieldVector stretched = packedField.fromElements(rightFactors)
+        .stretch(resourcePool.getNumCandidatesPerTriple());
 
     // step 2 of protocol
     // for each value we will have two sub-factors for each other party
-    List<List<FieldElement>> subFactors = new ArrayList<>();
-    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
-      if (partyId != resourcePool.getMyId()) {
-        MultiplyLeft leftMult = leftMultipliers.get(partyId);
-        MultiplyRight rightMult = rightMultipliers.get(partyId);
-        if (resourcePool.getMyId() < partyId) {
-          subFactors.add(rightMult.multiply(stretched));
-          subFactors.add(leftMult.multiply(leftFactorGroups));
-        } else {
-          subFactors.add(leftMult.multiply(leftFactorGroups));
-          subFactors.add(rightMult.multiply(stretched));
-        }
+    List<PackedFieldVector> perParty = pairwiseRunner.runToList(partyId -> {
+      MultiplyLeft leftMult = leftMultipliers.get(partyId);
+      MultiplyRight rightMult = rightMultipliers.get(partyId);
+      PackedFieldVector right;
+      PackedFieldVector left;
+      if (resourcePool.getMyId() < partyId) {
+        right = rightMult.multiply(stretched);
+        left = leftMult.multiply(packedLeft);
+      } else {
+        left = leftMult.multiply(packedLeft);
+        right = rightMult.multiply(stretched);
       }
-    }
+      return right.add(left);
+    });
 
     // step 3 or protocol
     // own part of the product
-    List<FieldElement> localSubFactors =
-        fieldElementUtils.pairWiseMultiply(leftFactorGroups, stretched);
-    subFactors.add(localSubFactors);
+    PackedFieldVector products = packedLeft.copy().multiply(stretched);
 
     // combine all sub-factors into product shares
-    return Addable.sumRows(subFactors);
+    for (PackedFieldVector subFactors : perParty) {
+      products.add(subFactors);
+    }
+    return products.toElements();
   }
 
   /**
-   * Implements batched version of Combine sub-protocol of Protocol 4.
+   * Implements batched version of Combine sub-protocol of Protocol 4. <p>The local computations of
+   * this and the Authenticate and Sacrifice sub-protocols are independent for each candidate, and
+   * are split between the threads of a {@link ParallelRunner}.</p>
    */
   private List<UnauthenticatedCandidate> combine(List<UnauthenticatedTriple> triples) {
     // step 1 of protocol
@@ -165,35 +182,25 @@ public class TripleGeneration {
         .getNext(numTriples, resourcePool.getNumCandidatesPerTriple());
 
     // step 2 of protocol
-    return IntStream.range(0, numTriples)
-        .mapToObj(idx -> {
-          UnauthenticatedTriple triple = triples.get(idx);
-          List<FieldElement> m = masks.get(idx);
-          List<FieldElement> ms = sacrificeMasks.get(idx);
-          return triple.toCandidate(m, ms);
-        })
-        .collect(Collectors.toList());
+    return parallelRunner.map(numTriples, idx -> {
+      UnauthenticatedTriple triple = triples.get(idx);
+      List<FieldElement> m = masks.get(idx);
+      List<FieldElement> ms = sacrificeMasks.get(idx);
+      return triple.toCandidate(m, ms);
+    });
   }
 
   /**
    * Implements batched version of Authenticate sub-protocol of Protocol 4.
    */
   private List<AuthenticatedCandidate> authenticate(List<UnauthenticatedCandidate> candidates) {
-    List<FieldElement> flatInputs = candidates.parallelStream()
-        .flatMap(TripleCandidate::stream)
-        .collect(Collectors.toList());
+    List<FieldElement> flatInputs = parallelRunner.mapChunks(candidates.size(),
+        (from, to) -> candidates.subList(from, to).stream()
+            .flatMap(TripleCandidate::stream)
+            .collect(Collectors.toList()));
 
-    List<List<AuthenticatedElement>> shares = new ArrayList<>();
-    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
-      if (partyId == resourcePool.getMyId()) {
-        shares.add(elementGeneration.input(flatInputs));
-      } else {
-        shares.add(elementGeneration.input(partyId, flatInputs.size()));
-      }
-    }
-
-    List<AuthenticatedElement> combined = Addable.sumRows(shares);
-    return toAuthenticatedCandidate(combined, 5);
+    List<List<AuthenticatedElement>> shares = elementGeneration.inputFromAll(flatInputs);
+    return toAuthenticatedCandidates(shares, 5);
   }
 
   /**
@@ -201,11 +208,13 @@ public class TripleGeneration {
    */
   private List<MultiplicationTriple> sacrifice(List<AuthenticatedCandidate> candidates) {
     // step 1 or protocol
-    List<FieldElement> randomCoefficients = jointSampler.getNext(candidates.size());
+    PackedFieldVector randomCoefficients = jointSampler.getNextVector(candidates.size());
 
     // step 2
     // compute masked values we will open and use in mac-check
-    List<AuthenticatedElement> rhos = computeRhos(candidates, randomCoefficients);
+    List<AuthenticatedElement> rhos = parallelRunner.mapChunks(candidates.size(),
+        (from, to) -> computeRhos(candidates.subList(from, to),
+            randomCoefficients.slice(from, to)));
 
     // step 3
     // open masked values
@@ -213,16 +222,20 @@ public class TripleGeneration {
 
     // step 4
     // compute macs
-    List<AuthenticatedElement> sigmas = computeSigmas(candidates, randomCoefficients, openRhos);
+    List<AuthenticatedElement> sigmas = parallelRunner.mapChunks(candidates.size(),
+        (from, to) -> computeSigmas(candidates.subList(from, to),
+            randomCoefficients.slice(from, to),
+            packedField.fromElements(openRhos.subList(from, to))));
 
     // step 5
     // put rhos and sigmas together
-    rhos.addAll(sigmas);
+    List<AuthenticatedElement> toCheck = new ArrayList<>(rhos);
+    toCheck.addAll(sigmas);
     // pad open rhos with zeroes, one for each sigma
     List<FieldElement> paddedRhos = fieldElementUtils
         .padWith(openRhos, resourcePool.getFieldDefinition().createElement(0), sigmas.size());
     // run mac-check
-    elementGeneration.check(rhos, paddedRhos);
+    elementGeneration.check(toCheck, paddedRhos);
 
     // convert candidates to valid triples and return
     return toMultTriples(candidates);
@@ -240,37 +253,63 @@ public class TripleGeneration {
     return stream.collect(Collectors.toList());
   }
 
-  private List<AuthenticatedCandidate> toAuthenticatedCandidate(List<AuthenticatedElement> list,
-      int partSize) {
-    int numParts = list.size() / partSize;
-    return IntStream.range(0, numParts).mapToObj(idx -> {
-      List<AuthenticatedElement> batch = list.subList(idx * partSize, (idx + 1) * partSize);
+  /**
+   * Sums the shares input by each party and groups the sums into candidates of partSize elements.
+   */
+  private List<AuthenticatedCandidate> toAuthenticatedCandidates(
+      List<List<AuthenticatedElement>> shares, int partSize) {
+    int numParts = shares.get(0).size() / partSize;
+    return parallelRunner.map(numParts, idx -> {
+      List<AuthenticatedElement> batch = Addable.sumRows(shares.stream()
+          .map(row -> row.subList(idx * partSize, (idx + 1) * partSize))
+          .collect(Collectors.toList()));
       return new AuthenticatedCandidate(batch);
-    }).collect(Collectors.toList());
+    });
   }
 
+  /**
+   * Computes <i>[[a]] r - [[a']]</i> for each candidate and random coefficient <i>r</i>.
+   */
   private List<AuthenticatedElement> computeRhos(List<AuthenticatedCandidate> candidates,
-      List<FieldElement> masks) {
-    return IntStream.range(0, candidates.size()).mapToObj(idx -> {
-      AuthenticatedCandidate cand = candidates.get(idx);
-      FieldElement mask = masks.get(idx);
-      return cand.computeRho(mask);
-    }).collect(Collectors.toList());
+      PackedFieldVector masks) {
+    PackedFieldVector shares = pack(candidates, c -> c.leftFactor.getShare()).multiply(masks)
+        .subtract(pack(candidates, c -> c.leftFactorHat.getShare()));
+    PackedFieldVector macs = pack(candidates, c -> c.leftFactor.getMac()).multiply(masks)
+        .subtract(pack(candidates, c -> c.leftFactorHat.getMac()));
+    return toAuthenticatedElements(shares, macs);
   }
 
+  /**
+   * Computes <i>[[c]] r - [[c']] - [[b]] &rho;</i> for each candidate, random coefficient <i>r</i>
+   * and opened <i>&rho;</i>.
+   */
   private List<AuthenticatedElement> computeSigmas(List<AuthenticatedCandidate> candidates,
-      List<FieldElement> masks,
-      List<FieldElement> openRhos) {
-    return IntStream.range(0, candidates.size()).mapToObj(idx -> {
-      AuthenticatedCandidate cand = candidates.get(idx);
-      FieldElement mask = masks.get(idx);
-      FieldElement openRho = openRhos.get(idx);
-      return cand.computeSigma(openRho, mask);
-    }).collect(Collectors.toList());
+      PackedFieldVector masks, PackedFieldVector openRhos) {
+    PackedFieldVector shares = pack(candidates, c -> c.product.getShare()).multiply(masks)
+        .subtract(pack(candidates, c -> c.productHat.getShare()))
+        .subtract(pack(candidates, c -> c.rightFactor.getShare()).multiply(openRhos));
+    PackedFieldVector macs = pack(candidates, c -> c.product.getMac()).multiply(masks)
+        .subtract(pack(candidates, c -> c.productHat.getMac()))
+        .subtract(pack(candidates, c -> c.rightFactor.getMac()).multiply(openRhos));
+    return toAuthenticatedElements(shares, macs);
+  }
+
+  private PackedFieldVector pack(List<AuthenticatedCandidate> candidates,
+      Function<AuthenticatedCandidate, FieldElement> component) {
+    return packedField.fromElements(candidates, component);
+  }
+
+  private List<AuthenticatedElement> toAuthenticatedElements(PackedFieldVector shares,
+      PackedFieldVector macs) {
+    List<FieldElement> shareList = shares.toElements();
+    List<FieldElement> macList = macs.toElements();
+    return IntStream.range(0, shareList.size())
+        .mapToObj(idx -> new AuthenticatedElement(shareList.get(idx), macList.get(idx)))
+        .collect(Collectors.toList());
   }
 
   private List<MultiplicationTriple> toMultTriples(List<AuthenticatedCandidate> candidates) {
-    return candidates.stream().map(AuthenticatedCandidate::toTriple).collect(Collectors.toList());
+    return parallelRunner.map(candidates.size(), idx -> candidates.get(idx).toTriple());
   }
 
   /**
@@ -326,14 +365,6 @@ public class TripleGeneration {
       super(ordered);
     }
 
-    AuthenticatedElement computeRho(FieldElement mask) {
-      return leftFactor.multiply(mask).subtract(leftFactorHat);
-    }
-
-    AuthenticatedElement computeSigma(FieldElement openRho, FieldElement mask) {
-      return product.multiply(mask).subtract(productHat).subtract(rightFactor.multiply(openRho));
-    }
-
     MultiplicationTriple toTriple() {
       return new MultiplicationTriple(leftFactor, rightFactor, product);
     }
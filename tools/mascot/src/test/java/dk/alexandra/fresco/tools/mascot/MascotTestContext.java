@@ -29,6 +29,26 @@ public class MascotTestContext {
    */
   public MascotTestContext(int myId, int noOfParties, int instanceId,
       MascotSecurityParameters securityParameters, FieldDefinition fieldDefinition) {
+    this(myId, noOfParties, instanceId, securityParameters, fieldDefinition, false);
+  }
+
+  /**
+   * Creates new test context, optionally running the pairwise sub-protocols concurrently.
+   */
+  public MascotTestContext(int myId, int noOfParties, int instanceId,
+      MascotSecurityParameters securityParameters, FieldDefinition fieldDefinition,
+      boolean pairwiseConcurrent) {
+    this(myId, noOfParties, instanceId, securityParameters, fieldDefinition, pairwiseConcurrent,
+        1);
+  }
+
+  /**
+   * Creates new test context, optionally running the pairwise sub-protocols concurrently and the
+   * local computations on multiple threads.
+   */
+  public MascotTestContext(int myId, int noOfParties, int instanceId,
+      MascotSecurityParameters securityParameters, FieldDefinition fieldDefinition,
+      boolean pairwiseConcurrent, int parallelism) {
     this.network = new SocketNetwork(defaultNetworkConfiguration(myId, noOfParties));
     byte[] drbgSeed = new byte[securityParameters.getPrgSeedLength() / 8];
     new Random(myId).nextBytes(drbgSeed);
@@ -49,7 +69,7 @@ public class MascotTestContext {
       }
     }
     this.resourcePool = new MascotResourcePoolImpl(myId, noOfParties, instanceId, drbg, seedOts,
-        securityParameters, fieldDefinition);
+        securityParameters, fieldDefinition, pairwiseConcurrent, parallelism);
   }
 
   public MascotResourcePool getResourcePool() {
@@ -28,9 +28,25 @@ public abstract class NetworkedTest {
 
   public void initContexts(int noOfParties, int bitLength,
       MascotSecurityParameters securityParameters) {
-    contexts = testRuntime.initializeContexts(
-        noOfParties, 1, securityParameters,
-        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(bitLength)));
+    initContexts(noOfParties,
+        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(bitLength)),
+        securityParameters);
+  }
+
+  /**
+   * Initializes contexts which run the pairwise sub-protocols concurrently.
+   */
+  public void initConcurrentContexts(int noOfParties) {
+    contexts = testRuntime.initializeContexts(noOfParties, 1, defaultParameters, fieldDefinition,
+        true);
+  }
+
+  /**
+   * Initializes contexts which run the local computations on multiple threads.
+   */
+  public void initParallelContexts(int noOfParties, int parallelism) {
+    contexts = testRuntime.initializeContexts(noOfParties, 1, defaultParameters, fieldDefinition,
+        false, parallelism);
   }
 
   public void initContexts(int noOfParties, FieldDefinition fieldDefinition,
@@ -0,0 +1,75 @@
+package dk.alexandra.fresco.tools.mascot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class TestBatchedIterator {
+
+  private final List<Integer> batchSizes = new ArrayList<>();
+  private int generated;
+
+  private List<Integer> generate(int batchSize) {
+    batchSizes.add(batchSize);
+    List<Integer> batch = IntStream.range(generated, generated + batchSize).boxed()
+        .collect(Collectors.toList());
+    generated += batchSize;
+    return batch;
+  }
+
+  @Test
+  public void testBatchesGrowUpToMaximum() {
+    Iterator<Integer> iterator = new BatchedIterator<>(this::generate, 200, 40);
+    for (int i = 0; i < 200; i++) {
+      assertEquals(i, (int) iterator.next());
+    }
+    assertFalse(iterator.hasNext());
+    assertEquals(Arrays.asList(16, 32, 40, 40, 40, 32), batchSizes);
+  }
+
+  @Test
+  public void testInitialBatchSize() {
+    Iterator<Integer> iterator = new BatchedIterator<>(this::generate, 100, 40, 40);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, (int) iterator.next());
+    }
+    assertEquals(Arrays.asList(40, 40, 20), batchSizes);
+  }
+
+  @Test
+  public void testGeneratesOnlyWhenConsumed() {
+    Iterator<Integer> iterator = new BatchedIterator<>(this::generate, Long.MAX_VALUE, 1000);
+    assertEquals(0, generated);
+    iterator.next();
+    assertEquals(BatchedIterator.INITIAL_BATCH_SIZE, generated);
+    for (int i = 1; i < BatchedIterator.INITIAL_BATCH_SIZE; i++) {
+      iterator.next();
+    }
+    assertEquals(BatchedIterator.INITIAL_BATCH_SIZE, generated);
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testExhausted() {
+    Iterator<Integer> iterator = new BatchedIterator<>(this::generate, 1, 10);
+    iterator.next();
+    iterator.next();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonPositiveBatchSize() {
+    new BatchedIterator<>(this::generate, 1, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInitialBatchSizeAboveMaximum() {
+    new BatchedIterator<>(this::generate, 1, 11, 10);
+  }
+}
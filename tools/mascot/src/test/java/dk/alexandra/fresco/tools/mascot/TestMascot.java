@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 import org.junit.Test;
 
 public class TestMascot extends NetworkedTest {
@@ -77,6 +78,25 @@ public class TestMascot extends NetworkedTest {
     }
   }
 
+  @Test
+  public void testTripleStream() {
+    initContexts(2);
+    int numTriples = BatchedIterator.INITIAL_BATCH_SIZE * 3 + 1;
+    List<Callable<List<MultiplicationTriple>>> tasks = new ArrayList<>();
+    tasks.add(() -> new Mascot(contexts.get(1).getResourcePool(), contexts.get(1).getNetwork(),
+        macKeyShareOne).tripleStream(numTriples).collect(Collectors.toList()));
+    tasks.add(() -> new Mascot(contexts.get(2).getResourcePool(), contexts.get(2).getNetwork(),
+        macKeyShareTwo).tripleStream(numTriples).collect(Collectors.toList()));
+
+    List<List<MultiplicationTriple>> results = testRuntime.runPerPartyTasks(tasks);
+    assertEquals(numTriples, results.get(0).size());
+    assertEquals(numTriples, results.get(1).size());
+    for (MultiplicationTriple triple : Addable.sumRows(results)) {
+      CustomAsserts
+          .assertTripleIsValid(getFieldDefinition(), triple, macKeyShareOne.add(macKeyShareTwo));
+    }
+  }
+
   @Test
   public void testRandomGen() {
     // set up runtime environment and get contexts
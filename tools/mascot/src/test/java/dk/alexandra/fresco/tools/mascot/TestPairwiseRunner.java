@@ -0,0 +1,93 @@
+package dk.alexandra.fresco.tools.mascot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class TestPairwiseRunner {
+
+  private static MascotResourcePoolImpl createResourcePool(boolean pairwiseConcurrent) {
+    return new MascotResourcePoolImpl(1, 3, 1, new AesCtrDrbg(new byte[32]), null,
+        new MascotSecurityParameters(),
+        new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128)), pairwiseConcurrent);
+  }
+
+  /**
+   * Fake network whose receive blocks until the network is closed.
+   */
+  private static class BlockingNetwork implements CloseableNetwork {
+
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    @Override
+    public void send(int partyId, byte[] data) {
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      try {
+        closed.await();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      throw new IllegalStateException("Network closed");
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 3;
+    }
+
+    @Override
+    public void close() {
+      closed.countDown();
+    }
+  }
+
+  @Test
+  public void testRunConcurrent() {
+    try (MascotResourcePoolImpl resourcePool = createResourcePool(true)) {
+      PairwiseRunner runner = new PairwiseRunner(resourcePool, new BlockingNetwork());
+      assertEquals(Arrays.asList(20, 30), runner.runToList(partyId -> partyId * 10));
+    }
+  }
+
+  @Test
+  public void testFailureClosesNetwork() throws InterruptedException {
+    BlockingNetwork network = new BlockingNetwork();
+    CountDownLatch otherFailed = new CountDownLatch(1);
+    try (MascotResourcePoolImpl resourcePool = createResourcePool(true)) {
+      PairwiseRunner runner = new PairwiseRunner(resourcePool, network);
+      runner.run(partyId -> {
+        if (partyId == 3) {
+          throw new IllegalArgumentException("Sub-protocol failed");
+        }
+        try {
+          return network.receive(partyId);
+        } catch (IllegalStateException e) {
+          otherFailed.countDown();
+          throw e;
+        }
+      });
+      fail("Should have rethrown the failure");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Sub-protocol failed", e.getMessage());
+    }
+    // the sub-protocol blocked on receive is stopped by closing the network
+    assertTrue(otherFailed.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNoExecutorIfSequential() {
+    createResourcePool(false).getPairwiseExecutor();
+  }
+}
@@ -0,0 +1,49 @@
+package dk.alexandra.fresco.tools.mascot;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class TestParallelRunner {
+
+  @Test
+  public void testMapPreservesOrder() {
+    List<Integer> expected = IntStream.range(0, 101).map(i -> i * i).boxed()
+        .collect(Collectors.toList());
+    for (int parallelism : new int[]{1, 2, 3, 8, 200}) {
+      assertEquals(expected, new ParallelRunner(parallelism).map(101, i -> i * i));
+    }
+  }
+
+  @Test
+  public void testMapChunksConcatenates() {
+    List<Integer> expected = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+    List<Integer> actual = new ParallelRunner(3).mapChunks(20,
+        (from, to) -> IntStream.range(from, to).boxed().collect(Collectors.toList()));
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void testMapEmpty() {
+    assertEquals(Collections.emptyList(), new ParallelRunner(4).map(0, i -> i));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testExceptionIsRethrown() {
+    new ParallelRunner(4).map(10, i -> {
+      if (i == 7) {
+        throw new IllegalStateException();
+      }
+      return i;
+    });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonPositiveParallelism() {
+    new ParallelRunner(0);
+  }
+}
@@ -34,7 +34,8 @@ public class TestRuntime {
   }
 
   /**
-   * Closes the networks on the contexts and shuts down the executor. <br> Call this after test.
+   * Closes the networks and resource pools on the contexts and shuts down the executor. <br> Call
+   * this after test.
    */
   public void shutdown() {
     if (!executorInitialized) {
@@ -46,6 +47,10 @@ public class TestRuntime {
         ((Closeable) context.getNetwork()).close();
         return null;
       }, "Closing network failed");
+      ExceptionConverter.safe(() -> {
+        ((Closeable) context.getResourcePool()).close();
+        return null;
+      }, "Closing resource pool failed");
     }
     executor.shutdown();
     ExceptionConverter.safe(() -> {
@@ -87,12 +92,34 @@ public class TestRuntime {
   public Map<Integer, MascotTestContext> initializeContexts(
       int noOfParties, int instanceId,
       MascotSecurityParameters securityParameters, FieldDefinition fieldDefinition) {
+    return initializeContexts(noOfParties, instanceId, securityParameters, fieldDefinition,
+        false);
+  }
+
+  /**
+   * Given a ready executor, creates as Mascot test context for each party, optionally running the
+   * pairwise sub-protocols concurrently.
+   */
+  public Map<Integer, MascotTestContext> initializeContexts(
+      int noOfParties, int instanceId, MascotSecurityParameters securityParameters,
+      FieldDefinition fieldDefinition, boolean pairwiseConcurrent) {
+    return initializeContexts(noOfParties, instanceId, securityParameters, fieldDefinition,
+        pairwiseConcurrent, 1);
+  }
+
+  /**
+   * Given a ready executor, creates as Mascot test context for each party, optionally running the
+   * pairwise sub-protocols concurrently and the local computations on multiple threads.
+   */
+  public Map<Integer, MascotTestContext> initializeContexts(
+      int noOfParties, int instanceId, MascotSecurityParameters securityParameters,
+      FieldDefinition fieldDefinition, boolean pairwiseConcurrent, int parallelism) {
     initializeExecutor(noOfParties);
     List<Callable<Pair<Integer, MascotTestContext>>> initializationTasks = new LinkedList<>();
     for (int partyId = 1; partyId <= noOfParties; partyId++) {
       int finalPartyId = partyId;
       initializationTasks.add(() -> initializeContext(finalPartyId, noOfParties,
-          instanceId, securityParameters, fieldDefinition));
+          instanceId, securityParameters, fieldDefinition, pairwiseConcurrent, parallelism));
     }
     for (Pair<Integer, MascotTestContext> pair : safeInvokeAll(initializationTasks)) {
       contexts.put(pair.getFirst(), pair.getSecond());
@@ -119,9 +146,9 @@ public class TestRuntime {
    */
   private Pair<Integer, MascotTestContext> initializeContext(int myId, int noOfParties,
       int instanceId, MascotSecurityParameters securityParameters,
-      FieldDefinition fieldDefinition) {
+      FieldDefinition fieldDefinition, boolean pairwiseConcurrent, int parallelism) {
     MascotTestContext ctx = new MascotTestContext(myId, noOfParties, instanceId,
-        securityParameters, fieldDefinition);
+        securityParameters, fieldDefinition, pairwiseConcurrent, parallelism);
     return new Pair<>(myId, ctx);
   }
 
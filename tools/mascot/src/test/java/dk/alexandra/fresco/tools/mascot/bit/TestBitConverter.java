@@ -44,6 +44,17 @@ public class TestBitConverter extends NetworkedTest {
   @Test
   public void testTwoPartiesBatchedConvertToBits() {
     initContexts(2);
+    runTwoPartiesConvertToBits();
+  }
+
+  @Test
+  public void testTwoPartiesBatchedConvertToBitsOneModFour() {
+    // the modulus of 64 bits is 1 modulo 4, so square roots are found with Tonelli-Shanks
+    initContexts(2, 64, getDefaultParameters());
+    runTwoPartiesConvertToBits();
+  }
+
+  private void runTwoPartiesConvertToBits() {
 
     // left party mac key share
     FieldElement macKeyShareOne = getFieldDefinition().createElement("11231");
@@ -1,8 +1,12 @@
 package dk.alexandra.fresco.tools.mascot.elgen;
 
+import static org.junit.Assert.assertEquals;
+
 import dk.alexandra.fresco.framework.builder.numeric.Addable;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.logging.NetworkLoggingDecorator;
 import dk.alexandra.fresco.tools.mascot.CustomAsserts;
 import dk.alexandra.fresco.tools.mascot.MascotTestContext;
 import dk.alexandra.fresco.tools.mascot.MascotTestUtils;
@@ -254,6 +258,63 @@ public class TestElementGeneration extends NetworkedTest {
     CustomAsserts.assertEqualsAuth(getFieldDefinition(), expected, actual);
   }
 
+  @Test
+  public void testThreePartiesInputFromAll() {
+    initContexts(3);
+    List<FieldElement> macKeyShares = Arrays.asList(getFieldDefinition().createElement("11231"),
+        getFieldDefinition().createElement("7719"), getFieldDefinition().createElement("40401"));
+    int[][] inputArr = {{7, 444}, {112, 11}, {3, 5}};
+    List<List<FieldElement>> inputs =
+        MascotTestUtils.generateMatrix(inputArr, getFieldDefinition());
+    List<Long> receivedMessages = new ArrayList<>(2);
+    for (boolean batched : new boolean[]{false, true}) {
+      List<Callable<Pair<List<List<AuthenticatedElement>>, Long>>> tasks = new ArrayList<>();
+      for (int partyId = 1; partyId <= 3; partyId++) {
+        MascotTestContext ctx = contexts.get(partyId);
+        FieldElement macKeyShare = macKeyShares.get(partyId - 1);
+        List<FieldElement> ownInputs = inputs.get(partyId - 1);
+        tasks.add(() -> runInputFromAll(ctx, macKeyShare, ownInputs, batched));
+      }
+      List<Pair<List<List<AuthenticatedElement>>, Long>> results =
+          testRuntime.runPerPartyTasks(tasks);
+      for (int inputterId = 1; inputterId <= 3; inputterId++) {
+        List<List<AuthenticatedElement>> shares = new ArrayList<>(3);
+        for (Pair<List<List<AuthenticatedElement>>, Long> result : results) {
+          shares.add(result.getFirst().get(inputterId - 1));
+        }
+        CustomAsserts.assertEqualsAuth(getFieldDefinition(),
+            computeExpected(inputs.get(inputterId - 1), macKeyShares), Addable.sumRows(shares));
+      }
+      receivedMessages.add(results.get(0).getSecond());
+    }
+    // two fewer mac-checks, each of which receives a commitment, a broadcast validation digest
+    // and an opening from each party
+    assertEquals(2 * 3 * 3, receivedMessages.get(0) - receivedMessages.get(1));
+  }
+
+  private Pair<List<List<AuthenticatedElement>>, Long> runInputFromAll(MascotTestContext ctx,
+      FieldElement macKeyShare, List<FieldElement> inputs, boolean batched) {
+    FieldElementPrg jointSampler =
+        new FieldElementPrgImpl(new StrictBitVector(new byte[]{1, 2, 3}), getFieldDefinition());
+    NetworkLoggingDecorator network = new NetworkLoggingDecorator(ctx.getNetwork());
+    ElementGeneration elGen =
+        new ElementGeneration(ctx.getResourcePool(), network, macKeyShare, jointSampler);
+    network.reset();
+    List<List<AuthenticatedElement>> elements;
+    if (batched) {
+      elements = elGen.inputFromAll(inputs);
+    } else {
+      elements = new ArrayList<>(ctx.getNoOfParties());
+      for (int partyId = 1; partyId <= ctx.getNoOfParties(); partyId++) {
+        elements.add(partyId == ctx.getMyId()
+            ? elGen.input(inputs)
+            : elGen.input(partyId, inputs.size()));
+      }
+    }
+    return new Pair<>(elements,
+        network.getLoggedValues().get(NetworkLoggingDecorator.NETWORK_TOTAL_BATCHES));
+  }
+
   // util methods
 
   private List<AuthenticatedElement> computeExpected(List<FieldElement> inputs,
@@ -46,6 +46,16 @@ public class TestMascotFieldElementUtils {
     fieldElementUtils.pairWiseMultiply(left, right.subList(0, 2));
   }
 
+  @Test
+  public void testBatchInvert() {
+    List<FieldElement> inverses = fieldElementUtils.batchInvert(right);
+    for (int i = 0; i < right.size(); i++) {
+      CustomAsserts.assertEquals(definition, right.get(i).modInverse(), inverses.get(i));
+    }
+    CustomAsserts.assertEquals(definition, Collections.emptyList(),
+        fieldElementUtils.batchInvert(Collections.emptyList()));
+  }
+
   @Test
   public void testInnerProduct() {
     FieldElement expected = definition.createElement(70);
@@ -0,0 +1,196 @@
+package dk.alexandra.fresco.tools.mascot.field;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.CustomAsserts;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestPackedFieldVector {
+
+  private static final int SIZE = 64;
+
+  private final List<FieldDefinition> definitions = Arrays.asList(
+      new BigIntegerFieldDefinition(new BigInteger("65521")),
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(104)),
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128)),
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(256)),
+      new MersennePrimeFieldDefinition(127, 1),
+      // even modulus, which uses the fallback arithmetic
+      new BigIntegerFieldDefinition(BigInteger.ONE.shiftLeft(64).add(BigInteger.valueOf(10))));
+
+  private List<FieldElement> randomElements(FieldDefinition definition, Random random) {
+    List<FieldElement> elements = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      BigInteger value = new BigInteger(definition.getBitLength() + 8, random);
+      if (i == 0) {
+        value = BigInteger.ZERO;
+      } else if (i == 1) {
+        value = definition.getModulus().subtract(BigInteger.ONE);
+      }
+      elements.add(definition.createElement(value));
+    }
+    return elements;
+  }
+
+  @Test
+  public void testArithmetic() {
+    Random random = new Random(42);
+    for (FieldDefinition definition : definitions) {
+      PackedField field = new PackedField(definition);
+      List<FieldElement> left = randomElements(definition, random);
+      List<FieldElement> right = randomElements(definition, random);
+      PackedFieldVector packedLeft = field.fromElements(left);
+      PackedFieldVector packedRight = field.fromElements(right);
+      List<FieldElement> sums = new ArrayList<>();
+      List<FieldElement> differences = new ArrayList<>();
+      List<FieldElement> products = new ArrayList<>();
+      List<FieldElement> negations = new ArrayList<>();
+      for (int i = 0; i < SIZE; i++) {
+        sums.add(left.get(i).add(right.get(i)));
+        differences.add(left.get(i).subtract(right.get(i)));
+        products.add(left.get(i).multiply(right.get(i)));
+        negations.add(left.get(i).negate());
+      }
+      CustomAsserts.assertEquals(definition, left, packedLeft.toElements());
+      CustomAsserts.assertEquals(definition, sums,
+          packedLeft.copy().add(packedRight).toElements());
+      CustomAsserts.assertEquals(definition, differences,
+          packedLeft.copy().subtract(packedRight).toElements());
+      CustomAsserts.assertEquals(definition, products,
+          packedLeft.copy().multiply(packedRight).toElements());
+      CustomAsserts.assertEquals(definition, negations,
+          packedLeft.copy().negate().toElements());
+      CustomAsserts.assertEquals(definition, left.get(5), packedLeft.get(5));
+    }
+  }
+
+  @Test
+  public void testSlice() {
+    Random random = new Random(5);
+    for (FieldDefinition definition : definitions) {
+      List<FieldElement> elements = randomElements(definition, random);
+      PackedFieldVector packed = new PackedField(definition).fromElements(elements);
+      CustomAsserts.assertEquals(definition, elements.subList(3, 9),
+          packed.slice(3, 9).toElements());
+      assertEquals(0, packed.slice(4, 4).getSize());
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testSliceOutOfBounds() {
+    FieldDefinition definition = definitions.get(0);
+    new PackedField(definition).fromElements(randomElements(definition, new Random(1)))
+        .slice(1, SIZE + 1);
+  }
+
+  @Test
+  public void testRecombine() {
+    Random random = new Random(7);
+    for (FieldDefinition definition : definitions) {
+      FieldElementUtils utils = new FieldElementUtils(definition);
+      PackedField field = new PackedField(definition);
+      int groupSize = Math.min(definition.getBitLength(), 16);
+      List<FieldElement> elements = randomElements(definition, random).subList(0,
+          SIZE / groupSize * groupSize);
+      List<FieldElement> expected = new ArrayList<>();
+      for (int g = 0; g < elements.size() / groupSize; g++) {
+        expected.add(utils.recombine(elements.subList(g * groupSize, (g + 1) * groupSize)));
+      }
+      CustomAsserts.assertEquals(definition, expected,
+          field.fromElements(elements).recombine(groupSize).toElements());
+      // full groups of the bit length of the modulus
+      List<FieldElement> full = new ArrayList<>();
+      for (int i = 0; i < definition.getBitLength(); i++) {
+        full.add(definition.getModulus().testBit(0) ? elements.get(1) : elements.get(i % 8));
+      }
+      CustomAsserts.assertEquals(definition, utils.recombine(full),
+          field.fromElements(full).recombine(full.size()).get(0));
+    }
+  }
+
+  @Test
+  public void testStretchAndSelect() {
+    FieldDefinition definition = definitions.get(2);
+    PackedField field = new PackedField(definition);
+    Random random = new Random(3);
+    List<FieldElement> elements = randomElements(definition, random);
+    FieldElementUtils utils = new FieldElementUtils(definition);
+    CustomAsserts.assertEquals(definition, utils.stretch(elements, 3),
+        field.fromElements(elements).stretch(3).toElements());
+    // select by the bits of two selectors
+    int bits = definition.getBitLength();
+    List<FieldElement> selectors = elements.subList(2, 4);
+    List<FieldElement> summands = new ArrayList<>();
+    for (int i = 0; i < 2 * bits; i += SIZE) {
+      summands.addAll(randomElements(definition, random));
+    }
+    summands = summands.subList(0, 2 * bits);
+    List<FieldElement> base = new ArrayList<>(utils.stretch(elements.subList(4, 6), bits));
+    List<FieldElement> expected = new ArrayList<>();
+    for (int i = 0; i < 2 * bits; i++) {
+      StrictBitVector selector = definition.convertToBitVector(selectors.get(i / bits));
+      boolean bit = selector.getBit(i % bits, true);
+      expected.add(bit ? base.get(i).add(summands.get(i)) : base.get(i));
+    }
+    CustomAsserts.assertEquals(definition, expected, field.fromElements(base)
+        .addSelected(field.fromElements(summands), field.fromElements(selectors), bits)
+        .toElements());
+  }
+
+  @Test
+  public void testFromBits() {
+    FieldDefinition definition = definitions.get(2);
+    PackedField field = new PackedField(definition);
+    Random random = new Random(5);
+    List<StrictBitVector> vectors = new ArrayList<>();
+    List<FieldElement> expected = new ArrayList<>();
+    for (int i = 0; i < SIZE; i++) {
+      byte[] bytes = new byte[definition.getBitLength() / 8];
+      random.nextBytes(bytes);
+      vectors.add(new StrictBitVector(bytes));
+      expected.add(definition.deserialize(bytes));
+    }
+    CustomAsserts.assertEquals(definition, expected, field.fromBits(vectors).toElements());
+  }
+
+  @Test
+  public void testFromUniformBytes() {
+    Random random = new Random(11);
+    for (FieldDefinition definition : definitions) {
+      PackedField field = new PackedField(definition);
+      int length = field.getUniformByteLength();
+      byte[] bytes = new byte[SIZE * length];
+      random.nextBytes(bytes);
+      // include the largest possible value
+      Arrays.fill(bytes, 0, length, (byte) 0xFF);
+      List<FieldElement> expected = new ArrayList<>();
+      for (int i = 0; i < SIZE; i++) {
+        byte[] bigEndian = new byte[length];
+        for (int b = 0; b < length; b++) {
+          bigEndian[b] = bytes[(i + 1) * length - 1 - b];
+        }
+        expected.add(definition.createElement(
+            new BigInteger(1, bigEndian).mod(definition.getModulus())));
+      }
+      CustomAsserts.assertEquals(definition, expected,
+          field.fromUniformBytes(bytes).toElements());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSizeMismatch() {
+    PackedField field = new PackedField(definitions.get(0));
+    field.zeros(2).add(field.zeros(3));
+  }
+}
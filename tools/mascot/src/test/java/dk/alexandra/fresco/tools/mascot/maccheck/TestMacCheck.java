@@ -1,12 +1,14 @@
 package dk.alexandra.fresco.tools.mascot.maccheck;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import dk.alexandra.fresco.framework.MaliciousException;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.tools.mascot.MascotTestContext;
 import dk.alexandra.fresco.tools.mascot.NetworkedTest;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -249,4 +251,47 @@ public class TestMacCheck extends NetworkedTest {
     maliciousPartyThree(opened, macKeyShare, macShare);
   }
 
+  private List<Exception> runBatchedMacCheck(FieldElement tamper) {
+    initContexts(2);
+    FieldElement keyOne = getFieldDefinition().createElement(11231);
+    FieldElement keyTwo = getFieldDefinition().createElement(7719);
+    List<FieldElement> opened = Arrays.asList(getFieldDefinition().createElement(42),
+        getFieldDefinition().createElement(7), getFieldDefinition().createElement(0));
+    List<FieldElement> macsOne = Arrays.asList(getFieldDefinition().createElement(5204),
+        getFieldDefinition().createElement(1), getFieldDefinition().createElement(99));
+    List<FieldElement> macsTwo = new ArrayList<>();
+    for (int i = 0; i < opened.size(); i++) {
+      macsTwo.add(opened.get(i).multiply(keyOne.add(keyTwo)).subtract(macsOne.get(i)));
+    }
+    macsTwo.set(1, macsTwo.get(1).add(tamper));
+    List<Callable<Exception>> tasks = Arrays.asList(
+        () -> runBatchedMacCheck(contexts.get(1), opened, keyOne, macsOne),
+        () -> runBatchedMacCheck(contexts.get(2), opened, keyTwo, macsTwo));
+    return testRuntime.runPerPartyTasks(tasks);
+  }
+
+  private Exception runBatchedMacCheck(MascotTestContext ctx, List<FieldElement> opened,
+      FieldElement macKeyShare, List<FieldElement> macShares) {
+    try {
+      new MacCheck(ctx.getResourcePool(), ctx.getNetwork()).check(opened, macKeyShare, macShares);
+      return null;
+    } catch (MaliciousException e) {
+      return e;
+    }
+  }
+
+  @Test
+  public void testBatchedHonest() {
+    for (Exception exception : runBatchedMacCheck(getFieldDefinition().createElement(0))) {
+      assertNull(exception);
+    }
+  }
+
+  @Test
+  public void testBatchedPartyTwoTampersWithMacShare() {
+    for (Exception exception : runBatchedMacCheck(getFieldDefinition().createElement(1))) {
+      assertEquals(MaliciousException.class, exception.getClass());
+      assertEquals("Malicious mac forging detected", exception.getMessage());
+    }
+  }
 }
@@ -10,6 +10,7 @@ import dk.alexandra.fresco.tools.mascot.MascotTestContext;
 import dk.alexandra.fresco.tools.mascot.MascotTestUtils;
 import dk.alexandra.fresco.tools.mascot.NetworkedTest;
 import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
+import dk.alexandra.fresco.tools.mascot.field.PackedField;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -25,14 +26,14 @@ public class TestMultiply extends NetworkedTest {
       List<FieldElement> inputs) {
     MultiplyLeft mult =
         new MultiplyLeft(ctx.getResourcePool(), ctx.getNetwork(), otherId);
-    return mult.multiply(inputs);
+    return mult.multiply(new PackedField(getFieldDefinition()).fromElements(inputs)).toElements();
   }
 
   private List<FieldElement> runRightMult(MascotTestContext ctx, Integer otherId,
       List<FieldElement> inputs) {
     MultiplyRight mult =
         new MultiplyRight(ctx.getResourcePool(), ctx.getNetwork(), otherId);
-    return mult.multiply(inputs);
+    return mult.multiply(new PackedField(getFieldDefinition()).fromElements(inputs)).toElements();
   }
 
   @Test
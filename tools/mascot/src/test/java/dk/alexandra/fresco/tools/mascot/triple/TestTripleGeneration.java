@@ -155,6 +155,10 @@ public class TestTripleGeneration extends NetworkedTest {
   private void testMultiplePartiesTriple(List<FieldElement> macKeyShares, int numTriples) {
     // set up runtime environment and get contexts
     initContexts(macKeyShares.size());
+    runMultiplePartiesTriple(macKeyShares, numTriples);
+  }
+
+  private void runMultiplePartiesTriple(List<FieldElement> macKeyShares, int numTriples) {
 
     // define per party task with params
     List<Callable<List<MultiplicationTriple>>> tasks = new ArrayList<>();
@@ -240,4 +244,21 @@ public class TestTripleGeneration extends NetworkedTest {
     testMultiplePartiesTriple(Arrays.asList(macKeyShareOne, macKeyShareTwo, macKeyShareThree), 3
     );
   }
+
+  @Test
+  public void testFourPartiesConcurrentTriple() {
+    List<FieldElement> macKeyShares = Arrays.asList(getFieldDefinition().createElement(11231),
+        getFieldDefinition().createElement(7719), getFieldDefinition().createElement(4444),
+        getFieldDefinition().createElement(987));
+    initConcurrentContexts(macKeyShares.size());
+    runMultiplePartiesTriple(macKeyShares, 5);
+  }
+
+  @Test
+  public void testThreePartiesParallelTriple() {
+    List<FieldElement> macKeyShares = Arrays.asList(getFieldDefinition().createElement(11231),
+        getFieldDefinition().createElement(7719), getFieldDefinition().createElement(4444));
+    initParallelContexts(macKeyShares.size(), 4);
+    runMultiplePartiesTriple(macKeyShares, 11);
+  }
 }
@@ -1,7 +1,9 @@
 package dk.alexandra.fresco.tools.mascot.utils;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
@@ -11,6 +13,8 @@ import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import org.junit.Test;
 
@@ -83,4 +87,32 @@ public class TestPaddingPrg {
     FieldElement elTwo = prgTwo.getNext();
     assertNotEquals(elOne, elTwo);
   }
+
+  @Test
+  public void testGetNextBulkSameSeedsProduceSameFieldElements() {
+    byte[] seedBytes = new byte[32];
+    new Random().nextBytes(seedBytes);
+    FieldElementPrg prgOne = new FieldElementPrgImpl(new StrictBitVector(seedBytes), definition);
+    FieldElementPrg prgTwo = new FieldElementPrgImpl(new StrictBitVector(seedBytes), definition);
+    List<FieldElement> elsOne = prgOne.getNext(100);
+    CustomAsserts.assertEquals(definition, elsOne, prgTwo.getNextVector(100).toElements());
+    assertEquals(100, new HashSet<>(elsOne).size());
+  }
+
+  @Test
+  public void testGetNextBulkIsUniform() {
+    BigIntegerFieldDefinition small = new BigIntegerFieldDefinition(BigInteger.valueOf(11));
+    byte[] seedBytes = new byte[32];
+    new Random().nextBytes(seedBytes);
+    FieldElementPrg prg = new FieldElementPrgImpl(new StrictBitVector(seedBytes), small);
+    int samples = 11000;
+    int[] counts = new int[11];
+    for (FieldElement element : prg.getNext(samples)) {
+      counts[small.convertToUnsigned(element).intValue()]++;
+    }
+    for (int count : counts) {
+      // expected count is 1000 with standard deviation about 30
+      assertTrue(Math.abs(count - 1000) < 200);
+    }
+  }
 }
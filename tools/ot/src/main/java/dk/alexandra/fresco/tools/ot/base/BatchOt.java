@@ -0,0 +1,31 @@
+package dk.alexandra.fresco.tools.ot.base;
+
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.List;
+
+/**
+ * Oblivious Transfer which can carry out a list of 1-out-of-2 oblivious transfers at once, in a
+ * number of rounds independent of the length of the list.
+ */
+public interface BatchOt extends Ot {
+
+  /**
+   * Send a list of pairs of messages for the recipient to choose from.
+   *
+   * @param messages
+   *          The pairs of messages to send. The first message of each pair is message zero and
+   *          the second is message one.
+   */
+  void send(List<Pair<StrictBitVector, StrictBitVector>> messages);
+
+  /**
+   * Receive one message of each pair in a list of pairs.
+   *
+   * @param choiceBits
+   *          Bits indicating which message to receive in each transfer. A bit which is not set
+   *          means message zero and a set bit means message one.
+   * @return The messages indicated by the choice bits
+   */
+  List<StrictBitVector> receive(StrictBitVector choiceBits);
+}
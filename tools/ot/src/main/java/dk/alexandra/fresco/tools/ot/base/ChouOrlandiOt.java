@@ -0,0 +1,171 @@
+package dk.alexandra.fresco.tools.ot.base;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Drng;
+import dk.alexandra.fresco.framework.util.DrngImpl;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.ot.otextension.PseudoOtp;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of the "simplest OT" of Chou and Orlandi over Curve25519.
+ *
+ * <p>
+ * The sender picks a secret <i>a</i> and sends <i>A = aG</i>. For each transfer the receiver
+ * picks a secret <i>b</i> and sends <i>B = bG</i> if its choice is zero and <i>B = A + bG</i>
+ * otherwise. The sender derives its keys from <i>aB</i> and <i>a(B - A)</i> and the receiver
+ * derives the key of its choice from <i>bA</i>. Both parties reject any received point that is
+ * the identity or lies outside the prime order subgroup, since a point with a component of small
+ * order would let a malicious party learn the secret scalar of the other modulo the cofactor, or
+ * force the keys into a small set. Compared
+ * to {@link NaorPinkasOt} this replaces exponentiations modulo a 2048 bit prime with scalar
+ * multiplications on a 255 bit curve, and a batch of transfers shares the point <i>A</i> and
+ * completes in a constant number of rounds.
+ * </p>
+ */
+public class ChouOrlandiOt implements BatchOt {
+  private static final String HASH_ALGORITHM = "SHA-256";
+  private final int otherId;
+  private final Network network;
+  private final Drng randNum;
+  private final MessageDigest hashDigest;
+
+  /**
+   * Constructs a Chou-Orlandi OT instance.
+   *
+   * @param otherId The ID of the other party
+   * @param randBit The calling party's secure randomness generator
+   * @param network The underlying network to use
+   */
+  public ChouOrlandiOt(int otherId, Drbg randBit, Network network) {
+    this.otherId = otherId;
+    this.network = network;
+    this.hashDigest = ExceptionConverter.safe(() -> MessageDigest.getInstance(HASH_ALGORITHM),
+        "Missing secure, hash function which is dependent in this library");
+    this.randNum = new DrngImpl(randBit);
+  }
+
+  @Override
+  public void send(StrictBitVector messageZero, StrictBitVector messageOne) {
+    send(Collections.singletonList(new Pair<>(messageZero, messageOne)));
+  }
+
+  @Override
+  public StrictBitVector receive(boolean choiceBit) {
+    StrictBitVector choice = new StrictBitVector(Byte.SIZE);
+    choice.setBit(0, choiceBit, false);
+    return receive(choice, 1).get(0);
+  }
+
+  @Override
+  public void send(List<Pair<StrictBitVector, StrictBitVector>> messages) {
+    int amount = messages.size();
+    BigInteger a = randNum.nextBigInteger(Ed25519Point.ORDER);
+    Ed25519Point publicKey = Ed25519Point.multiplyBase(a);
+    byte[] encodedPublicKey = publicKey.encode();
+    network.send(otherId, encodedPublicKey);
+    byte[] received = network.receive(otherId);
+    if (received.length != amount * Ed25519Point.ENCODED_LENGTH) {
+      throw new MaliciousException("Unexpected number of points received");
+    }
+    Ed25519Point shift = publicKey.multiply(a).clearCofactor();
+    for (int i = 0; i < amount; i++) {
+      byte[] encodedChoice = Arrays.copyOfRange(received, i * Ed25519Point.ENCODED_LENGTH,
+          (i + 1) * Ed25519Point.ENCODED_LENGTH);
+      Ed25519Point choicePoint = decodePoint(encodedChoice);
+      Ed25519Point keyZero = choicePoint.multiply(a).clearCofactor();
+      Ed25519Point keyOne = keyZero.subtract(shift);
+      StrictBitVector messageZero = messages.get(i).getFirst();
+      StrictBitVector messageOne = messages.get(i).getSecond();
+      int maxBitLength = Math.max(messageZero.getSize(), messageOne.getSize());
+      byte[] encryptedZeroMessage = PseudoOtp.encrypt(messageZero.toByteArray(),
+          hash(i, encodedPublicKey, encodedChoice, keyZero), maxBitLength / Byte.SIZE);
+      byte[] encryptedOneMessage = PseudoOtp.encrypt(messageOne.toByteArray(),
+          hash(i, encodedPublicKey, encodedChoice, keyOne), maxBitLength / Byte.SIZE);
+      network.send(otherId, encryptedZeroMessage);
+      network.send(otherId, encryptedOneMessage);
+    }
+  }
+
+  @Override
+  public List<StrictBitVector> receive(StrictBitVector choiceBits) {
+    return receive(choiceBits, choiceBits.getSize());
+  }
+
+  private List<StrictBitVector> receive(StrictBitVector choiceBits, int amount) {
+    byte[] encodedPublicKey = network.receive(otherId);
+    Ed25519Point publicKey = decodePoint(encodedPublicKey);
+    Ed25519Point[] publicKeyTable = publicKey.powersOfTwo();
+    byte[] toSend = new byte[amount * Ed25519Point.ENCODED_LENGTH];
+    List<byte[]> encodedChoices = new ArrayList<>(amount);
+    List<Ed25519Point> keys = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      BigInteger b = randNum.nextBigInteger(Ed25519Point.ORDER);
+      Ed25519Point choicePoint = Ed25519Point.multiplyBase(b);
+      if (choiceBits.getBit(i, false)) {
+        choicePoint = choicePoint.add(publicKey);
+      }
+      byte[] encodedChoice = choicePoint.encode();
+      System.arraycopy(encodedChoice, 0, toSend, i * Ed25519Point.ENCODED_LENGTH,
+          Ed25519Point.ENCODED_LENGTH);
+      encodedChoices.add(encodedChoice);
+      keys.add(Ed25519Point.multiply(publicKeyTable, b).clearCofactor());
+    }
+    network.send(otherId, toSend);
+    List<StrictBitVector> result = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      byte[] encryptedZeroMessage = network.receive(otherId);
+      byte[] encryptedOneMessage = network.receive(otherId);
+      if (encryptedZeroMessage.length != encryptedOneMessage.length) {
+        throw new MaliciousException("The length of the two choice messages is not equal");
+      }
+      byte[] seed = hash(i, encodedPublicKey, encodedChoices.get(i), keys.get(i));
+      byte[] encrypted = choiceBits.getBit(i, false) ? encryptedOneMessage : encryptedZeroMessage;
+      result.add(new StrictBitVector(PseudoOtp.decrypt(encrypted, seed)));
+    }
+    return result;
+  }
+
+  /**
+   * Decodes a point received from the other party and checks that it is a non-identity element of
+   * the prime order subgroup.
+   *
+   * @param encoding the received encoding
+   * @return the decoded point
+   * @throws MaliciousException if the encoding is not a point, or the point is the identity or has
+   *         a component of small order
+   */
+  private Ed25519Point decodePoint(byte[] encoding) {
+    Ed25519Point point;
+    try {
+      point = Ed25519Point.decode(encoding);
+    } catch (IllegalArgumentException e) {
+      throw new MaliciousException("Received an invalid curve point");
+    }
+    if (!point.isInPrimeOrderSubgroup()) {
+      throw new MaliciousException("Received a curve point outside the prime order subgroup");
+    }
+    return point;
+  }
+
+  /**
+   * Derives the key of a transfer from the shared point, bound to the index of the transfer and
+   * the points sent.
+   */
+  private byte[] hash(int index, byte[] publicKey, byte[] choicePoint, Ed25519Point key) {
+    hashDigest.update(ByteBuffer.allocate(Integer.BYTES).putInt(index).array());
+    hashDigest.update(publicKey);
+    hashDigest.update(choicePoint);
+    return hashDigest.digest(key.encode());
+  }
+}
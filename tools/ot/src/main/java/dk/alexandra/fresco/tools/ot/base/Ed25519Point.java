@@ -0,0 +1,259 @@
+package dk.alexandra.fresco.tools.ot.base;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Point on the twisted Edwards curve birationally equivalent to Curve25519, i.e. the curve used
+ * by Ed25519 (RFC 8032).
+ *
+ * <p>
+ * Points are kept in extended coordinates <i>(X : Y : Z : T)</i> with <i>x = X/Z</i>, <i>y =
+ * Y/Z</i> and <i>xy = T/Z</i>, and are encoded in the 32 byte format of RFC 8032. The arithmetic
+ * is done on {@link BigInteger}s and is not constant time.
+ * </p>
+ */
+final class Ed25519Point {
+
+  static final int ENCODED_LENGTH = 32;
+  /**
+   * The prime <i>2<sup>255</sup> - 19</i> of the underlying field.
+   */
+  static final BigInteger P = BigInteger.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19));
+  /**
+   * The order of the prime order subgroup generated by {@link #BASE}.
+   */
+  static final BigInteger ORDER = BigInteger.ONE.shiftLeft(252)
+      .add(new BigInteger("27742317777372353535851937790883648493"));
+  private static final BigInteger MASK = BigInteger.ONE.shiftLeft(255).subtract(BigInteger.ONE);
+  private static final BigInteger NINETEEN = BigInteger.valueOf(19);
+  private static final BigInteger TWO = BigInteger.valueOf(2);
+  private static final BigInteger D = BigInteger.valueOf(-121665)
+      .multiply(BigInteger.valueOf(121666).modInverse(P)).mod(P);
+  private static final BigInteger D2 = D.multiply(TWO).mod(P);
+  private static final BigInteger SQRT_M1 =
+      TWO.modPow(P.subtract(BigInteger.ONE).shiftRight(2), P);
+  static final Ed25519Point IDENTITY =
+      new Ed25519Point(BigInteger.ZERO, BigInteger.ONE, BigInteger.ONE, BigInteger.ZERO);
+  static final Ed25519Point BASE = fromY(
+      BigInteger.valueOf(4).multiply(BigInteger.valueOf(5).modInverse(P)).mod(P), false);
+  private static final Ed25519Point[] BASE_TABLE = BASE.powersOfTwo();
+
+  private final BigInteger x;
+  private final BigInteger y;
+  private final BigInteger z;
+  private final BigInteger t;
+
+  private Ed25519Point(BigInteger x, BigInteger y, BigInteger z, BigInteger t) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+    this.t = t;
+  }
+
+  /**
+   * Decodes a point from its 32 byte encoding.
+   *
+   * @param encoding the encoding
+   * @return the point
+   * @throws IllegalArgumentException if the encoding is not the encoding of a point on the curve
+   */
+  static Ed25519Point decode(byte[] encoding) {
+    if (encoding.length != ENCODED_LENGTH) {
+      throw new IllegalArgumentException("Encoding must be " + ENCODED_LENGTH + " bytes");
+    }
+    byte[] bigEndian = new byte[ENCODED_LENGTH];
+    for (int i = 0; i < ENCODED_LENGTH; i++) {
+      bigEndian[i] = encoding[ENCODED_LENGTH - 1 - i];
+    }
+    boolean sign = (bigEndian[0] & 0x80) != 0;
+    bigEndian[0] &= 0x7F;
+    BigInteger y = new BigInteger(1, bigEndian);
+    if (y.compareTo(P) >= 0) {
+      throw new IllegalArgumentException("Encoding is not canonical");
+    }
+    return fromY(y, sign);
+  }
+
+  /**
+   * Recovers a point from its y-coordinate and the parity of its x-coordinate.
+   */
+  private static Ed25519Point fromY(BigInteger y, boolean sign) {
+    BigInteger yy = mul(y, y);
+    BigInteger u = sub(yy, BigInteger.ONE);
+    BigInteger v = add(mul(D, yy), BigInteger.ONE);
+    // x = u v^3 (u v^7)^((p - 5) / 8) is a square root of u / v, up to a factor sqrt(-1)
+    BigInteger v3 = mul(mul(v, v), v);
+    BigInteger x = mul(mul(u, v3),
+        mul(u, mul(v3, mul(v3, v))).modPow(P.subtract(BigInteger.valueOf(5)).shiftRight(3), P));
+    BigInteger vxx = mul(v, mul(x, x));
+    if (!vxx.equals(u)) {
+      if (vxx.equals(sub(BigInteger.ZERO, u))) {
+        x = mul(x, SQRT_M1);
+      } else {
+        throw new IllegalArgumentException("Encoding is not a point on the curve");
+      }
+    }
+    if (x.signum() == 0 && sign) {
+      throw new IllegalArgumentException("Encoding is not canonical");
+    }
+    if (x.testBit(0) != sign) {
+      x = P.subtract(x);
+    }
+    return new Ed25519Point(x, y, BigInteger.ONE, mul(x, y));
+  }
+
+  /**
+   * Encodes this point in 32 bytes.
+   */
+  byte[] encode() {
+    BigInteger zInv = z.modInverse(P);
+    BigInteger affineX = mul(x, zInv);
+    BigInteger affineY = mul(y, zInv);
+    byte[] bigEndian = affineY.toByteArray();
+    byte[] encoding = new byte[ENCODED_LENGTH];
+    for (int i = 0; i < Math.min(bigEndian.length, ENCODED_LENGTH); i++) {
+      encoding[i] = bigEndian[bigEndian.length - 1 - i];
+    }
+    if (affineX.testBit(0)) {
+      encoding[ENCODED_LENGTH - 1] |= (byte) 0x80;
+    }
+    return encoding;
+  }
+
+  Ed25519Point add(Ed25519Point other) {
+    BigInteger a = mul(sub(y, x), sub(other.y, other.x));
+    BigInteger b = mul(add(y, x), add(other.y, other.x));
+    BigInteger c = mul(mul(t, D2), other.t);
+    BigInteger d = mul(mul(z, TWO), other.z);
+    BigInteger e = sub(b, a);
+    BigInteger f = sub(d, c);
+    BigInteger g = add(d, c);
+    BigInteger h = add(b, a);
+    return new Ed25519Point(mul(e, f), mul(g, h), mul(f, g), mul(e, h));
+  }
+
+  Ed25519Point negate() {
+    return new Ed25519Point(sub(BigInteger.ZERO, x), y, z, sub(BigInteger.ZERO, t));
+  }
+
+  Ed25519Point subtract(Ed25519Point other) {
+    return add(other.negate());
+  }
+
+  Ed25519Point dbl() {
+    BigInteger a = mul(x, x);
+    BigInteger b = mul(y, y);
+    BigInteger c = mul(TWO, mul(z, z));
+    BigInteger h = add(a, b);
+    BigInteger xy = add(x, y);
+    BigInteger e = sub(h, mul(xy, xy));
+    BigInteger g = sub(a, b);
+    BigInteger f = add(c, g);
+    return new Ed25519Point(mul(e, f), mul(g, h), mul(f, g), mul(e, h));
+  }
+
+  /**
+   * Multiplies this point by the cofactor 8, mapping it into the prime order subgroup.
+   */
+  Ed25519Point clearCofactor() {
+    return dbl().dbl().dbl();
+  }
+
+  /**
+   * Tests if this point is a non-identity element of the prime order subgroup generated by
+   * {@link #BASE}, i.e. that <i>ORDER &middot; P</i> is the identity while <i>P</i> is not. Such a
+   * point has no component of small order, so in particular <i>8P</i> is not the identity either.
+   */
+  boolean isInPrimeOrderSubgroup() {
+    return !equals(IDENTITY) && multiply(ORDER).equals(IDENTITY);
+  }
+
+  /**
+   * Multiplies this point by a non-negative scalar.
+   */
+  Ed25519Point multiply(BigInteger scalar) {
+    Ed25519Point result = IDENTITY;
+    for (int i = scalar.bitLength() - 1; i >= 0; i--) {
+      result = result.dbl();
+      if (scalar.testBit(i)) {
+        result = result.add(this);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Multiplies the base point by a non-negative scalar less than <i>2<sup>256</sup></i>, using
+   * a precomputed table.
+   */
+  static Ed25519Point multiplyBase(BigInteger scalar) {
+    return multiply(BASE_TABLE, scalar);
+  }
+
+  /**
+   * Multiplies a point by a non-negative scalar less than <i>2<sup>256</sup></i>, given the
+   * table of the point computed by {@link #powersOfTwo()}. This saves the doublings of
+   * {@link #multiply(BigInteger)} when the same point is multiplied by many scalars.
+   */
+  static Ed25519Point multiply(Ed25519Point[] table, BigInteger scalar) {
+    Ed25519Point result = IDENTITY;
+    for (int i = 0; i < scalar.bitLength(); i++) {
+      if (scalar.testBit(i)) {
+        result = result.add(table[i]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Computes the table of <i>2<sup>i</sup></i> times this point for <i>0 &le; i &lt; 256</i>.
+   */
+  Ed25519Point[] powersOfTwo() {
+    Ed25519Point[] table = new Ed25519Point[256];
+    table[0] = this;
+    for (int i = 1; i < table.length; i++) {
+      table[i] = table[i - 1].dbl();
+    }
+    return table;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Ed25519Point)) {
+      return false;
+    }
+    Ed25519Point other = (Ed25519Point) obj;
+    return mul(x, other.z).equals(mul(other.x, z)) && mul(y, other.z).equals(mul(other.y, z));
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(encode());
+  }
+
+  private static BigInteger add(BigInteger a, BigInteger b) {
+    BigInteger sum = a.add(b);
+    return sum.compareTo(P) >= 0 ? sum.subtract(P) : sum;
+  }
+
+  private static BigInteger sub(BigInteger a, BigInteger b) {
+    BigInteger difference = a.subtract(b);
+    return difference.signum() < 0 ? difference.add(P) : difference;
+  }
+
+  /**
+   * Multiplies two reduced field elements, using that <i>2<sup>255</sup> = 19</i> modulo
+   * <i>p</i> for the reduction.
+   */
+  private static BigInteger mul(BigInteger a, BigInteger b) {
+    BigInteger product = a.multiply(b);
+    while (product.bitLength() > 255) {
+      product = product.shiftRight(255).multiply(NINETEEN).add(product.and(MASK));
+    }
+    return product.compareTo(P) >= 0 ? product.subtract(P) : product;
+  }
+}
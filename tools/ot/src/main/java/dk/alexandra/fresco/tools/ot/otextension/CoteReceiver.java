@@ -2,12 +2,12 @@ package dk.alexandra.fresco.tools.ot.otextension;
 
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.DrbgBatch;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -17,7 +17,8 @@ import java.util.stream.IntStream;
 public class CoteReceiver extends CoteShared {
   private final OtExtensionResourcePool resources;
   private final Network network;
-  private final List<Pair<Drbg, Drbg>> prgs;
+  private final DrbgBatch prgsZero;
+  private final DrbgBatch prgsOne;
 
   /**
    * Constructs a correlated OT extension with errors receiver instance.
@@ -29,13 +30,15 @@ public class CoteReceiver extends CoteShared {
    */
   public CoteReceiver(OtExtensionResourcePool resources, Network network) {
     super(resources.getInstanceId());
-    this.prgs = new ArrayList<>(resources.getComputationalSecurityParameter());
+    List<Drbg> prgsZero = new ArrayList<>(resources.getComputationalSecurityParameter());
+    List<Drbg> prgsOne = new ArrayList<>(resources.getComputationalSecurityParameter());
     for (Pair<StrictBitVector, StrictBitVector> pair : resources.getSeedOts()
         .getSentMessages()) {
-      Drbg prgZero = initPrg(pair.getFirst());
-      Drbg prgOne = initPrg(pair.getSecond());
-      prgs.add(new Pair<>(prgZero, prgOne));
+      prgsZero.add(initPrg(pair.getFirst()));
+      prgsOne.add(initPrg(pair.getSecond()));
     }
+    this.prgsZero = new DrbgBatch(prgsZero);
+    this.prgsOne = new DrbgBatch(prgsOne);
     this.resources = resources;
     this.network = network;
   }
@@ -55,50 +58,24 @@ public class CoteReceiver extends CoteShared {
           "The amount of OTs must be a positive integer");
     }
     int bytesNeeded = choices.getSize() / Byte.SIZE;
-    final List<StrictBitVector>  tlistZero = prgs.parallelStream()
-        .limit(resources.getComputationalSecurityParameter())
-        .map(p -> p.getFirst())
-        .map(drbg -> {
-          byte[] byteBuffer = new byte[bytesNeeded];
-          drbg.nextBytes(byteBuffer);
-          return byteBuffer;
-        })
-        .map(StrictBitVector::new)
-        .collect(Collectors.toList());
-    final List<StrictBitVector> ulist = prgs.parallelStream()
-        .limit(resources.getComputationalSecurityParameter())
-        .map(p -> p.getSecond())
-        .map(drbg -> {
-          byte[] byteBuffer = new byte[bytesNeeded];
-          drbg.nextBytes(byteBuffer);
-          return byteBuffer;
-        })
-        .map(StrictBitVector::new)
-        .collect(Collectors.toList());
-    ulist.parallelStream().forEach(u -> u.xor(choices));
-    IntStream.range(0, resources.getComputationalSecurityParameter()).parallel()
-      .forEach(i -> ulist.get(i).xor(tlistZero.get(i)));
-    sendList(ulist);
-    return Transpose.transpose(tlistZero);
-  }
-
-
-  /**
-   * Sends a list of StrictBitVectors to the default (0) channel.
-   *
-   * @param list
-   *          List to send, where all elements are required to have the same
-   *          length.
-   */
-  private void sendList(List<StrictBitVector> list) {
-    // Find the amount of bytes needed for each bitvector in the list
-    int elementLength = list.get(0).getSize() / 8;
-    // Allocate space for all elements in the list.
-    byte[] toSend = new byte[(list.get(0).getSize() / 8) * list.size()];
-    for (int i = 0; i < list.size(); i++) {
-      System.arraycopy(list.get(i).toByteArray(), 0, toSend, i * elementLength,
-          elementLength);
-    }
-    network.send(resources.getOtherId(), toSend);
+    int kappa = resources.getComputationalSecurityParameter();
+    int words = Transpose.wordsPerRow(choices.getSize());
+    final byte[] choiceBytes = choices.toByteArray();
+    // The t rows are generated in one flat buffer, and the u rows directly in the buffer to send
+    final byte[] trows = new byte[kappa * bytesNeeded];
+    prgsZero.nextBytes(trows, bytesNeeded);
+    final byte[] ulist = new byte[kappa * bytesNeeded];
+    prgsOne.nextBytes(ulist, bytesNeeded);
+    final long[] tlistZero = new long[kappa * words];
+    IntStream.range(0, kappa).parallel().forEach(i -> {
+      int offset = i * bytesNeeded;
+      for (int j = 0; j < bytesNeeded; j++) {
+        ulist[offset + j] ^= choiceBytes[j] ^ trows[offset + j];
+      }
+      Transpose.packRow(trows, offset, bytesNeeded, tlistZero, i * words);
+    });
+    network.send(resources.getOtherId(), ulist);
+    return Transpose.unpackRows(Transpose.transpose(tlistZero, kappa, choices.getSize()),
+        choices.getSize(), kappa);
   }
 }
@@ -2,11 +2,11 @@ package dk.alexandra.fresco.tools.ot.otextension;
 
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.DrbgBatch;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -16,7 +16,7 @@ public class CoteSender extends CoteShared {
   private final OtExtensionResourcePool resources;
   private final Network network;
   // The prgs based on the seeds learned from OT
-  private final List<Drbg> prgs;
+  private final DrbgBatch prgs;
   // The random messages choices for the random seed OTs
   private StrictBitVector otChoices;
 
@@ -28,11 +28,12 @@ public class CoteSender extends CoteShared {
    */
   public CoteSender(OtExtensionResourcePool resources, Network network) {
     super(resources.getInstanceId());
-    this.prgs = new ArrayList<>(resources.getComputationalSecurityParameter());
+    List<Drbg> prgs = new ArrayList<>(resources.getComputationalSecurityParameter());
     for (StrictBitVector message : resources.getSeedOts().getLearnedMessages()) {
       // Initialize the PRGs with the random messages
       prgs.add(initPrg(message));
     }
+    this.prgs = new DrbgBatch(prgs);
     otChoices = resources.getSeedOts().getChoices();
     this.resources = resources;
     this.network = network;
@@ -63,38 +64,22 @@ public class CoteSender extends CoteShared {
           "The amount of OTs must be a positive integer divisible by 8");
     }
     int bytesNeeded = size / Byte.SIZE;
-    final List<StrictBitVector> tlist = prgs.parallelStream()
-        .limit(resources.getComputationalSecurityParameter())
-        .map(drbg -> {
-          byte[] bytes = new byte[bytesNeeded];
-          drbg.nextBytes(bytes);
-          return bytes;
-        })
-        .map(StrictBitVector::new)
-        .collect(Collectors.toList());
-    final List<StrictBitVector> ulist = receiveList(resources.getComputationalSecurityParameter());
-    IntStream.range(0, resources.getComputationalSecurityParameter()).parallel()
-        .filter(i -> otChoices.getBit(i, false))
-        .forEach(i -> tlist.get(i).xor(ulist.get(i)));
-    return Transpose.transpose(tlist);
-  }
-
-  /**
-   * Receives a list of StrictBitVectors from the default (0) channel.
-   *
-   * @param size Amount of elements in vector to receive. All of which must be of equal size.
-   * @return The list of received elements, or null in case an error occurred.
-   */
-  private List<StrictBitVector> receiveList(int size) {
-    List<StrictBitVector> list = new ArrayList<>(size);
-    byte[] byteBuffer = network.receive(resources.getOtherId());
-    int elementLength = byteBuffer.length / size;
-    for (int i = 0; i < size; i++) {
-      byte[] currentVector = new byte[elementLength];
-      System.arraycopy(byteBuffer, i * elementLength, currentVector, 0, elementLength);
-      StrictBitVector currentArr = new StrictBitVector(currentVector);
-      list.add(currentArr);
-    }
-    return list;
+    int kappa = resources.getComputationalSecurityParameter();
+    int words = Transpose.wordsPerRow(size);
+    final byte[] ulist = network.receive(resources.getOtherId());
+    // Generate all t rows in one flat buffer, then adjust by u where the choice bit is set and
+    // pack them into the flat matrix
+    final byte[] rows = new byte[kappa * bytesNeeded];
+    prgs.nextBytes(rows, bytesNeeded);
+    final long[] tlist = new long[kappa * words];
+    IntStream.range(0, kappa).parallel().forEach(i -> {
+      if (otChoices.getBit(i, false)) {
+        for (int j = i * bytesNeeded; j < (i + 1) * bytesNeeded; j++) {
+          rows[j] ^= ulist[j];
+        }
+      }
+      Transpose.packRow(rows, i * bytesNeeded, bytesNeeded, tlist, i * words);
+    });
+    return Transpose.unpackRows(Transpose.transpose(tlist, kappa, size), size, kappa);
   }
 }
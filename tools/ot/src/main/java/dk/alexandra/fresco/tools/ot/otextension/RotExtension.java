@@ -0,0 +1,45 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.network.Network;
+
+/**
+ * Selects the random OT extension used by a consumer of {@link RotFactory}.
+ *
+ * <p>
+ * Only consumers which are themselves secure against semi-honest adversaries only, such as the
+ * TinyTables preprocessing, may let the extension be selected. The actively secure protocols, i.e.
+ * the MASCOT and SPDZ2k preprocessing, always use the {@link #BRISTOL} extension and must not be
+ * given a {@link SilentRotFactory}, since it would void their security against malicious parties.
+ * </p>
+ */
+public enum RotExtension {
+  /**
+   * The default extension of {@link RotFactory}, an IKNP-style extension with a consistency check,
+   * secure against malicious adversaries.
+   */
+  BRISTOL {
+    @Override
+    public RotFactory createFactory(OtExtensionResourcePool resources, Network network) {
+      return new RotFactory(resources, network);
+    }
+  },
+  /**
+   * The silent extension of {@link SilentRotFactory}, which communicates much less but is only
+   * secure against semi-honest adversaries.
+   */
+  SILENT {
+    @Override
+    public RotFactory createFactory(OtExtensionResourcePool resources, Network network) {
+      return new SilentRotFactory(resources, network);
+    }
+  };
+
+  /**
+   * Creates a factory for random OTs using this extension.
+   *
+   * @param resources The common resource pool for OT extension
+   * @param network The network instance
+   * @return the factory
+   */
+  public abstract RotFactory createFactory(OtExtensionResourcePool resources, Network network);
+}
@@ -3,6 +3,7 @@ package dk.alexandra.fresco.tools.ot.otextension;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.ot.base.BatchOt;
 import dk.alexandra.fresco.tools.ot.base.Ot;
 
 import java.util.ArrayList;
@@ -17,6 +18,10 @@ import java.util.List;
  * static list of OTs. Thus a new instance must be made if one wishes to
  * construct a list of new and random OTs.
  * </p>
+ * <p>
+ * If the underlying OT is a {@link BatchOt} all OTs of the list are carried
+ * out as a single batch.
+ * </p>
  */
 public class RotList {
   private final int amount;
@@ -62,8 +67,12 @@ public class RotList {
     if (sent == true) {
       throw new IllegalStateException("Seed OTs have already been sent.");
     }
-    for (Pair<StrictBitVector, StrictBitVector> pair : sendMessages) {
-      ot.send(pair.getFirst(), pair.getSecond());
+    if (ot instanceof BatchOt) {
+      ((BatchOt) ot).send(sendMessages);
+    } else {
+      for (Pair<StrictBitVector, StrictBitVector> pair : sendMessages) {
+        ot.send(pair.getFirst(), pair.getSecond());
+      }
     }
     sent = true;
   }
@@ -82,9 +91,13 @@ public class RotList {
     if (received == true) {
       throw new IllegalStateException("Seed OTs have already been received.");
     }
-    for (int i = 0; i < amount; i++) {
-      StrictBitVector message = ot.receive(choices.getBit(i, false));
-      learnedMessages.add(message);
+    if (ot instanceof BatchOt) {
+      learnedMessages.addAll(((BatchOt) ot).receive(choices));
+    } else {
+      for (int i = 0; i < amount; i++) {
+        StrictBitVector message = ot.receive(choices.getBit(i, false));
+        learnedMessages.add(message);
+      }
     }
     received = true;
   }
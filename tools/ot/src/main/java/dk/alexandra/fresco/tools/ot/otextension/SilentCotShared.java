@@ -0,0 +1,216 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.FixedKeyAes;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Shared functionality of the sender and receiver in the silent random OT extension.
+ *
+ * <p>
+ * Correlated OTs are kept as 128 bit blocks in flat <code>long[]</code> arrays, two words per
+ * block with the most significant word first, matching the byte order of a
+ * {@link StrictBitVector}.
+ * </p>
+ */
+abstract class SilentCotShared {
+
+  static final int BLOCK_BITS = 128;
+  static final int BLOCK_BYTES = BLOCK_BITS / Byte.SIZE;
+  // Public keys of the fixed-key AES used to expand the GGM trees
+  private static final byte[] LEFT_KEY = new byte[BLOCK_BYTES];
+  private static final byte[] RIGHT_KEY = {
+      1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+  // Public key of the fixed-key AES used to hash blocks
+  private static final byte[] HASH_KEY = {
+      2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2};
+
+  protected final SilentOtParameters parameters;
+  protected final OtExtensionResourcePool resources;
+  private final CoinTossing ct;
+  private final MessageDigest digest;
+  private final FixedKeyAes left;
+  private final FixedKeyAes right;
+  private final FixedKeyAes hasher;
+  private byte[] codeSeed;
+  private long tweak;
+
+  SilentCotShared(SilentOtParameters parameters, OtExtensionResourcePool resources) {
+    if (resources.getComputationalSecurityParameter() != BLOCK_BITS) {
+      throw new IllegalArgumentException("Silent OT requires a computational security parameter"
+          + " of " + BLOCK_BITS + " but was " + resources.getComputationalSecurityParameter());
+    }
+    this.parameters = parameters;
+    this.resources = resources;
+    this.ct = resources.getCoinTossing();
+    this.digest = resources.getDigest();
+    this.left = new FixedKeyAes(LEFT_KEY);
+    this.right = new FixedKeyAes(RIGHT_KEY);
+    this.hasher = new FixedKeyAes(HASH_KEY);
+  }
+
+  /**
+   * Expands all nodes of a level of GGM trees into the next level. Node <i>i</i> is expanded into
+   * nodes <i>2i</i> and <i>2i + 1</i> using fixed-key AES in Davies-Meyer mode.
+   *
+   * @param level the nodes of the current level
+   * @return the nodes of the next level
+   */
+  long[] expand(long[] level) {
+    byte[] parents = toBytes(level);
+    byte[] leftChildren = new byte[parents.length];
+    left.permute(parents, 0, leftChildren, 0, parents.length);
+    byte[] rightChildren = new byte[parents.length];
+    right.permute(parents, 0, rightChildren, 0, parents.length);
+    ByteBuffer leftBuffer = ByteBuffer.wrap(leftChildren);
+    ByteBuffer rightBuffer = ByteBuffer.wrap(rightChildren);
+    long[] next = new long[2 * level.length];
+    for (int i = 0; i < level.length; i += 2) {
+      next[2 * i] = leftBuffer.getLong() ^ level[i];
+      next[2 * i + 1] = leftBuffer.getLong() ^ level[i + 1];
+      next[2 * i + 2] = rightBuffer.getLong() ^ level[i];
+      next[2 * i + 3] = rightBuffer.getLong() ^ level[i + 1];
+    }
+    return next;
+  }
+
+  /**
+   * Encodes a vector of <i>k</i> blocks with the public local linear code and XORs the result
+   * into <code>output</code>, which holds <i>n</i> blocks.
+   */
+  void encode(long[] secret, long[] output) {
+    Drbg code = new AesCtrDrbg(getCodeSeed());
+    int n = parameters.getIterationSize();
+    int[] rows = new int[parameters.getD()];
+    byte[] randomness = new byte[Integer.BYTES * rows.length];
+    for (int i = 0; i < n; i++) {
+      nextColumn(code, randomness, rows);
+      long high = 0L;
+      long low = 0L;
+      for (int row : rows) {
+        high ^= secret[2 * row];
+        low ^= secret[2 * row + 1];
+      }
+      output[2 * i] ^= high;
+      output[2 * i + 1] ^= low;
+    }
+  }
+
+  /**
+   * Encodes a bit vector of length <i>k</i> with the public local linear code and XORs the result
+   * into <code>output</code>, which holds <i>n</i> bits, one per byte.
+   */
+  void encode(byte[] secret, byte[] output) {
+    Drbg code = new AesCtrDrbg(getCodeSeed());
+    int n = parameters.getIterationSize();
+    int[] rows = new int[parameters.getD()];
+    byte[] randomness = new byte[Integer.BYTES * rows.length];
+    for (int i = 0; i < n; i++) {
+      nextColumn(code, randomness, rows);
+      byte bit = 0;
+      for (int row : rows) {
+        bit ^= secret[row];
+      }
+      output[i] ^= bit;
+    }
+  }
+
+  private void nextColumn(Drbg code, byte[] randomness, int[] rows) {
+    code.nextBytes(randomness);
+    ByteBuffer buffer = ByteBuffer.wrap(randomness);
+    for (int j = 0; j < rows.length; j++) {
+      rows[j] = Integer.remainderUnsigned(buffer.getInt(), parameters.getK());
+    }
+  }
+
+  /**
+   * The seed of the public code is agreed on using coin tossing the first time it is needed.
+   */
+  private byte[] getCodeSeed() {
+    if (codeSeed == null) {
+      codeSeed = ct.toss(2 * BLOCK_BITS).toByteArray();
+    }
+    return codeSeed;
+  }
+
+  /**
+   * Returns a fresh tweak for hashing. Both parties must call this in the same order, and the
+   * sender hashes both blocks of a correlated OT under the same tweak.
+   */
+  long nextTweak() {
+    return tweak++;
+  }
+
+  /**
+   * Hashes a block to a block, used to mask the sums of the GGM trees. This uses the tweakable
+   * correlation robust hash of {@link FixedKeyAes}, since it is only ever applied to blocks.
+   *
+   * @param tweak the tweak
+   * @param high the most significant word of the block
+   * @param low the least significant word of the block
+   * @param result the array to write the hash to, at <code>offset</code> and
+   *     <code>offset + 1</code>
+   */
+  void hashBlock(long tweak, long high, long low, long[] result, int offset) {
+    hasher.hash(tweak, high, low, result, offset);
+  }
+
+  /**
+   * Hashes a block to a message of the random OT.
+   */
+  StrictBitVector hashMessage(long tweak, long high, long low) {
+    return new StrictBitVector(hash(tweak, high, low));
+  }
+
+  private byte[] hash(long tweak, long high, long low) {
+    ByteBuffer input = ByteBuffer.allocate(Long.BYTES + BLOCK_BYTES);
+    input.putLong(tweak).putLong(high).putLong(low);
+    return digest.digest(input.array());
+  }
+
+  static byte[] toBytes(long[] blocks) {
+    ByteBuffer buffer = ByteBuffer.allocate(blocks.length * Long.BYTES);
+    for (long word : blocks) {
+      buffer.putLong(word);
+    }
+    return buffer.array();
+  }
+
+  static long[] toBlocks(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    long[] blocks = new long[bytes.length / Long.BYTES];
+    for (int i = 0; i < blocks.length; i++) {
+      blocks[i] = buffer.getLong();
+    }
+    return blocks;
+  }
+
+  /**
+   * Returns <code>size</code> random blocks.
+   */
+  static long[] randomBlocks(Drbg drbg, int size) {
+    byte[] bytes = new byte[size * BLOCK_BYTES];
+    drbg.nextBytes(bytes);
+    return toBlocks(bytes);
+  }
+
+  /**
+   * Rounds up to the nearest multiple of 8, since correlated OTs are computed in whole bytes.
+   */
+  static int roundUpToBytes(int size) {
+    return (size + Byte.SIZE - 1) / Byte.SIZE * Byte.SIZE;
+  }
+
+  /**
+   * Copies <code>size</code> blocks of <code>source</code>, starting from block
+   * <code>from</code>.
+   */
+  static long[] copyBlocks(long[] source, int from, int size) {
+    return Arrays.copyOfRange(source, 2 * from, 2 * (from + size));
+  }
+}
@@ -0,0 +1,89 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+/**
+ * Parameters of the silent random OT extension of {@link SilentRotFactory}.
+ *
+ * <p>
+ * Each iteration of the extension produces <i>n = t * 2<sup>h</sup></i> correlated OTs from
+ * <i>k + t * h</i> correlated OTs of the previous iteration, using a noise vector with exactly one
+ * error in each of <i>t</i> blocks of size <i>2<sup>h</sup></i> and a local linear code mapping
+ * <i>k</i> bits to <i>n</i> bits, where each output bit depends on <i>d</i> input bits. The
+ * remaining <i>n - k - t * h</i> OTs of an iteration are output.
+ * </p>
+ */
+public class SilentOtParameters {
+
+  /**
+   * Parameters with <i>n = 2<sup>20</sup></i>, <i>k = 2<sup>16</sup></i>, <i>t = 2048</i> and
+   * <i>d = 10</i>, in the range considered for the regular noise LPN assumption with a local
+   * linear code by Yang et al. (Ferret, CCS 2020).
+   */
+  public static final SilentOtParameters DEFAULT = new SilentOtParameters(1 << 16, 2048, 9, 10);
+
+  private final int k;
+  private final int t;
+  private final int logBlockSize;
+  private final int d;
+
+  /**
+   * Creates new parameters.
+   *
+   * @param k the length of the LPN secret, i.e. the number of base OTs used for the encoding
+   * @param t the number of noise blocks, i.e. the weight of the noise
+   * @param logBlockSize the logarithm of the size of each noise block
+   * @param d the number of secret bits each output bit depends on
+   */
+  public SilentOtParameters(int k, int t, int logBlockSize, int d) {
+    if (k < 1 || t < 1 || logBlockSize < 1 || d < 1) {
+      throw new IllegalArgumentException("All parameters must be positive");
+    }
+    if ((long) t << logBlockSize > Integer.MAX_VALUE / 2) {
+      throw new IllegalArgumentException("The number of OTs per iteration is too large");
+    }
+    if (k + t * logBlockSize >= t << logBlockSize) {
+      throw new IllegalArgumentException(
+          "An iteration must produce more OTs than the " + (k + t * logBlockSize) + " it uses");
+    }
+    this.k = k;
+    this.t = t;
+    this.logBlockSize = logBlockSize;
+    this.d = d;
+  }
+
+  public int getK() {
+    return k;
+  }
+
+  public int getT() {
+    return t;
+  }
+
+  public int getLogBlockSize() {
+    return logBlockSize;
+  }
+
+  public int getD() {
+    return d;
+  }
+
+  /**
+   * Returns the number of correlated OTs computed in each iteration.
+   */
+  public int getIterationSize() {
+    return t << logBlockSize;
+  }
+
+  /**
+   * Returns the number of correlated OTs of each iteration kept for the next iteration.
+   */
+  public int getReserved() {
+    return k + t * logBlockSize;
+  }
+
+  /**
+   * Returns the number of correlated OTs output by each iteration.
+   */
+  public int getUsable() {
+    return getIterationSize() - getReserved();
+  }
+}
@@ -0,0 +1,66 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.network.Network;
+
+/**
+ * Factory for random OTs based on a pseudorandom correlation generator, i.e. a silent OT
+ * extension in the style of Ferret, built from GGM tree based single point correlated OTs and the
+ * regular noise LPN assumption over a local linear code.
+ *
+ * <p>
+ * This can be used wherever a {@link RotFactory} is expected. The communication of each iteration
+ * is proportional to the number of noise blocks, plus a single bit per random OT to adjust the
+ * random choice bits to the receiver's choices, instead of the computational security parameter
+ * per OT of the IKNP-style extension. The extension is only secure against semi-honest
+ * adversaries, as neither the correlated OTs seeding it nor the GGM trees are checked for
+ * consistency. It requires a computational security parameter of 128.
+ * </p>
+ *
+ * <p>
+ * Consumers select it through {@link RotExtension#SILENT}. It must not be used by the actively
+ * secure protocols, i.e. the MASCOT and SPDZ2k preprocessing.
+ * </p>
+ */
+public class SilentRotFactory extends RotFactory {
+
+  private final OtExtensionResourcePool resources;
+  private final Network network;
+  private final SilentOtParameters parameters;
+
+  /**
+   * Constructs a new factory for silent random OT using the default parameters.
+   *
+   * @param resources The common resource pool for OT extension
+   * @param network The network instance
+   */
+  public SilentRotFactory(OtExtensionResourcePool resources, Network network) {
+    this(resources, network, SilentOtParameters.DEFAULT);
+  }
+
+  /**
+   * Constructs a new factory for silent random OT.
+   *
+   * @param resources The common resource pool for OT extension
+   * @param network The network instance
+   * @param parameters The parameters of the extension
+   */
+  public SilentRotFactory(OtExtensionResourcePool resources, Network network,
+      SilentOtParameters parameters) {
+    super(resources, network);
+    this.resources = resources;
+    this.network = network;
+    this.parameters = parameters;
+  }
+
+  @Override
+  public RotSender createSender() {
+    CoteSender sender = new CoteSender(resources, network);
+    return new SilentRotSender(sender, resources, network, parameters);
+  }
+
+  @Override
+  public RotReceiver createReceiver() {
+    CoteReceiver receiver = new CoteReceiver(resources, network);
+    return new SilentRotReceiver(receiver, resources, network, parameters);
+  }
+}
@@ -0,0 +1,210 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Protocol class for the party acting as the receiver in the silent random OT extension. See
+ * {@link SilentRotSender} for an outline of the protocol.
+ *
+ * <p>
+ * The receiver picks one noise position per block, learns all leaves of the sender's GGM tree for
+ * the block except the one at the noise position, and recovers that leaf shifted by
+ * <i>&Delta;</i> from the sum of the leaves sent by the sender.
+ * </p>
+ */
+public class SilentRotReceiver extends SilentCotShared implements RotReceiver {
+
+  private final CoteReceiver receiver;
+  private final Network network;
+  private long[] base;
+  private byte[] baseChoices;
+  private long[] stock = new long[0];
+  private byte[] stockChoices = new byte[0];
+  // Index of the first unused OT of the stock
+  private int offset;
+  private int available;
+
+  /**
+   * Constructs a receiving party for an instance of the silent random OT extension.
+   *
+   * @param receiver the correlated OT with errors receiver used to seed the first iteration
+   * @param resources the common OT extension resources
+   * @param network the network to use
+   * @param parameters the parameters of the extension
+   */
+  public SilentRotReceiver(CoteReceiver receiver, OtExtensionResourcePool resources,
+      Network network, SilentOtParameters parameters) {
+    super(parameters, resources);
+    this.receiver = receiver;
+    this.network = network;
+  }
+
+  @Override
+  public List<StrictBitVector> extend(StrictBitVector choices) {
+    int size = choices.getSize();
+    if (size < 1) {
+      throw new IllegalArgumentException("The amount of OTs must be a positive integer");
+    }
+    while (available < size) {
+      addToStock(iterate());
+    }
+    // Tell the sender where the random bits differ from the choices
+    StrictBitVector flips = new StrictBitVector(size);
+    for (int i = 0; i < size; i++) {
+      flips.setBit(i, choices.getBit(i, false) ^ stockChoices[offset + i] == 1, false);
+    }
+    network.send(resources.getOtherId(), flips.toByteArray());
+    List<StrictBitVector> messages = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      messages.add(
+          hashMessage(nextTweak(), stock[2 * (offset + i)], stock[2 * (offset + i) + 1]));
+    }
+    offset += size;
+    available -= size;
+    return messages;
+  }
+
+  private void addToStock(CorrelatedOts cots) {
+    int reserved = parameters.getReserved();
+    base = copyBlocks(cots.blocks, 0, reserved);
+    baseChoices = Arrays.copyOf(cots.choices, reserved);
+    // Only the unused OTs are kept, so each OT is moved at most once per iteration
+    long[] newStock = new long[2 * (available + parameters.getUsable())];
+    System.arraycopy(stock, 2 * offset, newStock, 0, 2 * available);
+    System.arraycopy(cots.blocks, 2 * reserved, newStock, 2 * available,
+        2 * parameters.getUsable());
+    byte[] newChoices = new byte[available + parameters.getUsable()];
+    System.arraycopy(stockChoices, offset, newChoices, 0, available);
+    System.arraycopy(cots.choices, reserved, newChoices, available, parameters.getUsable());
+    stock = newStock;
+    stockChoices = newChoices;
+    offset = 0;
+    available += parameters.getUsable();
+  }
+
+  /**
+   * Runs an iteration of the extension.
+   *
+   * @return the correlated OTs of the iteration
+   */
+  private CorrelatedOts iterate() {
+    if (base == null) {
+      seed();
+    }
+    int k = parameters.getK();
+    int t = parameters.getT();
+    int h = parameters.getLogBlockSize();
+    int blockSize = 1 << h;
+    Drbg drbg = resources.getRandomGenerator();
+    // Pick the noise positions, and ask for the sums of the levels off the path to them
+    int[] positions = new int[t];
+    byte[] randomness = new byte[Integer.BYTES];
+    StrictBitVector flips = new StrictBitVector(roundUpToBytes(t * h));
+    for (int j = 0; j < t; j++) {
+      drbg.nextBytes(randomness);
+      positions[j] = (randomness[0] << 24 | (randomness[1] & 0xFF) << 16
+          | (randomness[2] & 0xFF) << 8 | randomness[3] & 0xFF) & (blockSize - 1);
+      for (int l = 0; l < h; l++) {
+        int ot = j * h + l;
+        boolean wanted = !pathBit(positions[j], l, h);
+        flips.setBit(ot, baseChoices[k + ot] == 1 ^ wanted, false);
+      }
+    }
+    network.send(resources.getOtherId(), flips.toByteArray());
+    long[] message = toBlocks(network.receive(resources.getOtherId()));
+    // Unmask the sums off the path
+    long[] sums = new long[2 * t * h];
+    for (int ot = 0; ot < t * h; ot++) {
+      int offset = 4 * ot + (pathBit(positions[ot / h], ot % h, h) ? 0 : 2);
+      hashBlock(nextTweak(), base[2 * (k + ot)], base[2 * (k + ot) + 1], sums, 2 * ot);
+      sums[2 * ot] ^= message[offset];
+      sums[2 * ot + 1] ^= message[offset + 1];
+    }
+    // Expand the trees, fixing the two children of the node on the path in each level
+    long[] level = new long[2 * t];
+    for (int l = 0; l < h; l++) {
+      level = expand(level);
+      int treeSize = 2 << l;
+      for (int j = 0; j < t; j++) {
+        int onPath = positions[j] >>> (h - 1 - l);
+        int offPath = onPath ^ 1;
+        long high = sums[2 * (j * h + l)];
+        long low = sums[2 * (j * h + l) + 1];
+        for (int i = offPath & 1; i < treeSize; i += 2) {
+          if (i != offPath) {
+            high ^= level[2 * (j * treeSize + i)];
+            low ^= level[2 * (j * treeSize + i) + 1];
+          }
+        }
+        level[2 * (j * treeSize + offPath)] = high;
+        level[2 * (j * treeSize + offPath) + 1] = low;
+        level[2 * (j * treeSize + onPath)] = 0L;
+        level[2 * (j * treeSize + onPath) + 1] = 0L;
+      }
+    }
+    // Recover the leaves at the noise positions, shifted by delta
+    byte[] choices = new byte[parameters.getIterationSize()];
+    int sumsOffset = 2 * 2 * t * h;
+    for (int j = 0; j < t; j++) {
+      long high = message[sumsOffset + 2 * j];
+      long low = message[sumsOffset + 2 * j + 1];
+      for (int i = j * blockSize; i < (j + 1) * blockSize; i++) {
+        high ^= level[2 * i];
+        low ^= level[2 * i + 1];
+      }
+      int noise = j * blockSize + positions[j];
+      level[2 * noise] = high;
+      level[2 * noise + 1] = low;
+      choices[noise] = 1;
+    }
+    encode(copyBlocks(base, 0, k), level);
+    encode(Arrays.copyOf(baseChoices, k), choices);
+    return new CorrelatedOts(level, choices);
+  }
+
+  /**
+   * Returns the bit of a noise position which selects the child in level <code>l</code> of the
+   * tree, starting with the most significant bit.
+   */
+  private static boolean pathBit(int position, int l, int h) {
+    return (position >>> (h - 1 - l) & 1) == 1;
+  }
+
+  /**
+   * Computes the correlated OTs used by the first iteration.
+   */
+  private void seed() {
+    int reserved = parameters.getReserved();
+    StrictBitVector choices = new StrictBitVector(roundUpToBytes(reserved),
+        resources.getRandomGenerator());
+    List<StrictBitVector> cotes = receiver.extend(choices);
+    base = new long[2 * reserved];
+    baseChoices = new byte[reserved];
+    for (int i = 0; i < reserved; i++) {
+      long[] block = toBlocks(cotes.get(i).toByteArray());
+      base[2 * i] = block[0];
+      base[2 * i + 1] = block[1];
+      baseChoices[i] = (byte) (choices.getBit(i, false) ? 1 : 0);
+    }
+  }
+
+  /**
+   * Correlated OTs as seen by the receiver, i.e. blocks along with the bits they are correlated
+   * on.
+   */
+  private static class CorrelatedOts {
+
+    private final long[] blocks;
+    private final byte[] choices;
+
+    private CorrelatedOts(long[] blocks, byte[] choices) {
+      this.blocks = blocks;
+      this.choices = choices;
+    }
+  }
+}
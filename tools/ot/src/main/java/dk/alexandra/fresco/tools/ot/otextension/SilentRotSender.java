@@ -0,0 +1,178 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protocol class for the party acting as the sender in the silent random OT extension.
+ *
+ * <p>
+ * The sender holds a global correlation <i>&Delta;</i>. Correlated OTs <i>q</i>, where the
+ * receiver learns <i>q + x&Delta;</i> for a random bit <i>x</i>, are produced in iterations
+ * of {@link SilentOtParameters#getIterationSize()}. In each iteration the sender expands a GGM
+ * tree per noise block and sends the XOR of the left and right nodes of each level, masked under
+ * correlated OTs of the previous iteration, which lets the receiver learn all leaves except the
+ * one at its noise position. The leaves are then added to an encoding of <i>k</i> correlated OTs
+ * of the previous iteration under a public local linear code. Communication is thus
+ * proportional to the number of noise blocks rather than the number of OTs.
+ * </p>
+ *
+ * <p>
+ * The first iteration is seeded by correlated OTs from {@link CoteSender}. Random OTs are derived
+ * from the correlated ones by hashing, after the receiver has sent a bit per OT to adjust the
+ * random bits to its choices.
+ * </p>
+ */
+public class SilentRotSender extends SilentCotShared implements RotSender {
+
+  private final CoteSender sender;
+  private final Network network;
+  private long deltaHigh;
+  private long deltaLow;
+  private long[] base;
+  private long[] stock = new long[0];
+  // Index of the first unused block of the stock
+  private int offset;
+  private int available;
+
+  /**
+   * Constructs a sending party for an instance of the silent random OT extension.
+   *
+   * @param sender the correlated OT with errors sender used to seed the first iteration
+   * @param resources the common OT extension resources
+   * @param network the network to use
+   * @param parameters the parameters of the extension
+   */
+  public SilentRotSender(CoteSender sender, OtExtensionResourcePool resources, Network network,
+      SilentOtParameters parameters) {
+    super(parameters, resources);
+    this.sender = sender;
+    this.network = network;
+  }
+
+  @Override
+  public Pair<List<StrictBitVector>, List<StrictBitVector>> extend(int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("The amount of OTs must be a positive integer");
+    }
+    while (available < size) {
+      addToStock(iterate());
+    }
+    byte[] flips = network.receive(resources.getOtherId());
+    StrictBitVector flipBits = new StrictBitVector(flips);
+    List<StrictBitVector> zeroMessages = new ArrayList<>(size);
+    List<StrictBitVector> oneMessages = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      long high = stock[2 * (offset + i)];
+      long low = stock[2 * (offset + i) + 1];
+      long tweak = nextTweak();
+      StrictBitVector plain = hashMessage(tweak, high, low);
+      StrictBitVector shifted = hashMessage(tweak, high ^ deltaHigh, low ^ deltaLow);
+      if (flipBits.getBit(i, false)) {
+        zeroMessages.add(shifted);
+        oneMessages.add(plain);
+      } else {
+        zeroMessages.add(plain);
+        oneMessages.add(shifted);
+      }
+    }
+    offset += size;
+    available -= size;
+    return new Pair<>(zeroMessages, oneMessages);
+  }
+
+  private void addToStock(long[] cots) {
+    int reserved = parameters.getReserved();
+    base = copyBlocks(cots, 0, reserved);
+    // Only the unused blocks are kept, so each block is moved at most once per iteration
+    long[] newStock = new long[2 * (available + parameters.getUsable())];
+    System.arraycopy(stock, 2 * offset, newStock, 0, 2 * available);
+    System.arraycopy(cots, 2 * reserved, newStock, 2 * available, 2 * parameters.getUsable());
+    stock = newStock;
+    offset = 0;
+    available += parameters.getUsable();
+  }
+
+  /**
+   * Runs an iteration of the extension.
+   *
+   * @return the correlated OTs of the iteration
+   */
+  private long[] iterate() {
+    if (base == null) {
+      seed();
+    }
+    int k = parameters.getK();
+    int t = parameters.getT();
+    int h = parameters.getLogBlockSize();
+    byte[] flips = network.receive(resources.getOtherId());
+    StrictBitVector flipBits = new StrictBitVector(flips);
+    // Expand all trees level by level, summing the left and right nodes of each level
+    long[] level = randomBlocks(resources.getRandomGenerator(), t);
+    long[] sums = new long[2 * 2 * t * h];
+    for (int l = 0; l < h; l++) {
+      level = expand(level);
+      int treeSize = 2 << l;
+      for (int j = 0; j < t; j++) {
+        int sum = 2 * 2 * (j * h + l);
+        for (int i = 0; i < treeSize; i++) {
+          int node = 2 * (j * treeSize + i);
+          int side = 2 * (i & 1);
+          sums[sum + side] ^= level[node];
+          sums[sum + side + 1] ^= level[node + 1];
+        }
+      }
+    }
+    // Mask the sums under the correlated OTs of the previous iteration, adjusted by the flips
+    long[] message = new long[sums.length + 2 * t];
+    long[] mask = new long[2];
+    for (int ot = 0; ot < t * h; ot++) {
+      long high = base[2 * (k + ot)];
+      long low = base[2 * (k + ot) + 1];
+      boolean flip = flipBits.getBit(ot, false);
+      long tweak = nextTweak();
+      hashBlock(tweak, flip ? high ^ deltaHigh : high, flip ? low ^ deltaLow : low, mask, 0);
+      message[4 * ot] = sums[4 * ot] ^ mask[0];
+      message[4 * ot + 1] = sums[4 * ot + 1] ^ mask[1];
+      hashBlock(tweak, flip ? high : high ^ deltaHigh, flip ? low : low ^ deltaLow, mask, 0);
+      message[4 * ot + 2] = sums[4 * ot + 2] ^ mask[0];
+      message[4 * ot + 3] = sums[4 * ot + 3] ^ mask[1];
+    }
+    // Send the sum of the leaves of each tree plus delta
+    int blockSize = 1 << h;
+    for (int j = 0; j < t; j++) {
+      long high = deltaHigh;
+      long low = deltaLow;
+      for (int i = j * blockSize; i < (j + 1) * blockSize; i++) {
+        high ^= level[2 * i];
+        low ^= level[2 * i + 1];
+      }
+      message[sums.length + 2 * j] = high;
+      message[sums.length + 2 * j + 1] = low;
+    }
+    network.send(resources.getOtherId(), toBytes(message));
+    encode(copyBlocks(base, 0, k), level);
+    return level;
+  }
+
+  /**
+   * Computes the correlated OTs used by the first iteration.
+   */
+  private void seed() {
+    StrictBitVector delta = sender.getDelta();
+    long[] deltaBlock = toBlocks(delta.toByteArray());
+    deltaHigh = deltaBlock[0];
+    deltaLow = deltaBlock[1];
+    int reserved = parameters.getReserved();
+    List<StrictBitVector> cotes = sender.extend(roundUpToBytes(reserved));
+    base = new long[2 * reserved];
+    for (int i = 0; i < reserved; i++) {
+      long[] block = toBlocks(cotes.get(i).toByteArray());
+      base[2 * i] = block[0];
+      base[2 * i + 1] = block[1];
+    }
+  }
+}
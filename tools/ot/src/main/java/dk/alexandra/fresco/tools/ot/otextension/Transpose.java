@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.tools.ot.otextension;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -9,13 +10,157 @@ import java.util.stream.IntStream;
 /**
  * Class used to do bit transposition using Eklundhs method. Transposition is carried out in on a
  * row-major matrix represented as a list (rows) of bit vectors.
+ *
+ * <p>
+ * Besides the list based methods, this class can transpose a <i>flat</i> bit matrix, stored in
+ * row-major order in a single <code>long[]</code>. Each row takes up
+ * {@link #wordsPerRow(int)} words, and bit <i>j</i> of a row is at position <i>63 - (j mod
+ * 64)</i> of word <i>j / 64</i>, i.e. in the same big-endian order as in a
+ * {@link StrictBitVector}. Unused bits at the end of a row must be zero. Flat matrices are
+ * transposed in blocks of 64 x 64 bits, entirely on words.
+ * </p>
  */
 public class Transpose {
 
+  private static final int BLOCK_SIZE = Long.SIZE;
+
   private Transpose() {
     // This class is meant to only contain static helper methods.
   }
 
+  /**
+   * Returns the number of words used for each row of a flat matrix with the given number of
+   * columns.
+   *
+   * @param columns the number of columns
+   * @return the number of words per row
+   */
+  public static int wordsPerRow(int columns) {
+    return (columns + BLOCK_SIZE - 1) / BLOCK_SIZE;
+  }
+
+  /**
+   * Transposes a flat matrix.
+   *
+   * @param matrix the matrix to transpose, in the flat format described above
+   * @param rows the number of rows of <code>matrix</code>
+   * @param columns the number of columns of <code>matrix</code>
+   * @return the transposed matrix, with <code>columns</code> rows of <code>rows</code> bits
+   */
+  public static long[] transpose(long[] matrix, int rows, int columns) {
+    long[] result = new long[columns * wordsPerRow(rows)];
+    transpose(matrix, rows, columns, result);
+    return result;
+  }
+
+  /**
+   * Transposes a flat matrix into a given buffer.
+   *
+   * @param matrix the matrix to transpose, in the flat format described above
+   * @param rows the number of rows of <code>matrix</code>
+   * @param columns the number of columns of <code>matrix</code>
+   * @param result the buffer to write the transposed matrix to. Must hold at least
+   *     <code>columns * wordsPerRow(rows)</code> words and must not be <code>matrix</code>.
+   */
+  public static void transpose(long[] matrix, int rows, int columns, long[] result) {
+    int inWords = wordsPerRow(columns);
+    int outWords = wordsPerRow(rows);
+    if (matrix.length < rows * inWords) {
+      throw new IllegalArgumentException("The matrix must hold at least " + rows * inWords
+          + " words but holds " + matrix.length);
+    }
+    if (result.length < columns * outWords) {
+      throw new IllegalArgumentException("The result must hold at least " + columns * outWords
+          + " words but holds " + result.length);
+    }
+    long[] block = new long[BLOCK_SIZE];
+    for (int blockRow = 0; blockRow < outWords; blockRow++) {
+      int rowOffset = blockRow * BLOCK_SIZE;
+      int blockRows = Math.min(BLOCK_SIZE, rows - rowOffset);
+      for (int blockColumn = 0; blockColumn < inWords; blockColumn++) {
+        for (int i = 0; i < blockRows; i++) {
+          block[i] = matrix[(rowOffset + i) * inWords + blockColumn];
+        }
+        Arrays.fill(block, blockRows, BLOCK_SIZE, 0L);
+        transposeBlock(block);
+        int columnOffset = blockColumn * BLOCK_SIZE;
+        int blockColumns = Math.min(BLOCK_SIZE, columns - columnOffset);
+        for (int i = 0; i < blockColumns; i++) {
+          result[(columnOffset + i) * outWords + blockRow] = block[i];
+        }
+      }
+    }
+  }
+
+  /**
+   * Transposes a 64 x 64 bit matrix, in-place, by recursively swapping the off-diagonal halves of
+   * ever smaller blocks. Row <i>i</i> is <code>block[i]</code> with column 0 in the most
+   * significant bit.
+   *
+   * @param block the matrix to transpose
+   */
+  static void transposeBlock(long[] block) {
+    long mask = 0x00000000FFFFFFFFL;
+    for (int width = BLOCK_SIZE / 2; width != 0; width >>>= 1, mask ^= mask << width) {
+      for (int k = 0; k < BLOCK_SIZE; k = ((k | width) + 1) & ~width) {
+        long swap = (block[k] ^ (block[k | width] >>> width)) & mask;
+        block[k] ^= swap;
+        block[k | width] ^= swap << width;
+      }
+    }
+  }
+
+  /**
+   * Packs a row given as bytes, in the order of a {@link StrictBitVector}, into a flat matrix.
+   *
+   * @param row the bytes of the row
+   * @param matrix the flat matrix
+   * @param offset the index of the first word of the row in <code>matrix</code>
+   */
+  static void packRow(byte[] row, long[] matrix, int offset) {
+    packRow(row, 0, row.length, matrix, offset);
+  }
+
+  /**
+   * Packs a row given as a range of bytes, in the order of a {@link StrictBitVector}, into a flat
+   * matrix.
+   *
+   * @param rows the array holding the bytes of the row
+   * @param rowOffset the index of the first byte of the row in <code>rows</code>
+   * @param rowLength the number of bytes of the row
+   * @param matrix the flat matrix
+   * @param offset the index of the first word of the row in <code>matrix</code>
+   */
+  static void packRow(byte[] rows, int rowOffset, int rowLength, long[] matrix, int offset) {
+    for (int i = 0; i < rowLength; i++) {
+      matrix[offset + i / Long.BYTES] |=
+          (rows[rowOffset + i] & 0xFFL) << (Byte.SIZE * (Long.BYTES - 1 - i % Long.BYTES));
+    }
+  }
+
+  /**
+   * Unpacks the rows of a flat matrix to bit vectors.
+   *
+   * @param matrix the flat matrix
+   * @param rows the number of rows
+   * @param columns the number of columns. Must be divisible by 8.
+   * @return the rows of the matrix
+   */
+  static List<StrictBitVector> unpackRows(long[] matrix, int rows, int columns) {
+    int words = wordsPerRow(columns);
+    int bytes = columns / Byte.SIZE;
+    List<StrictBitVector> result = new ArrayList<>(rows);
+    for (int row = 0; row < rows; row++) {
+      byte[] bits = new byte[bytes];
+      for (int i = 0; i < bytes; i++) {
+        bits[i] = (byte) (matrix[row * words + i / Long.BYTES]
+            >>> (Byte.SIZE * (Long.BYTES - 1 - i % Long.BYTES)));
+      }
+      result.add(new StrictBitVector(bits));
+    }
+    return result;
+  }
+
   /**
    * Transposes, in-place, a matrix represent in row-major as a list of byte arrays.
    *
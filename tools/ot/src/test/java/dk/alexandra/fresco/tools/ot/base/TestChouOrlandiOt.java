@@ -0,0 +1,92 @@
+package dk.alexandra.fresco.tools.ot.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.helper.HelperForTests;
+import java.math.BigInteger;
+import org.junit.Test;
+
+public class TestChouOrlandiOt {
+
+  /**
+   * The point <i>(0, -1)</i> of order two.
+   */
+  private static Ed25519Point orderTwoPoint() {
+    byte[] bigEndian = Ed25519Point.P.subtract(BigInteger.ONE).toByteArray();
+    byte[] encoding = new byte[Ed25519Point.ENCODED_LENGTH];
+    for (int i = 0; i < encoding.length; i++) {
+      encoding[i] = bigEndian[bigEndian.length - 1 - i];
+    }
+    return Ed25519Point.decode(encoding);
+  }
+
+  /**
+   * Fake network which answers every receive with the same point.
+   */
+  private static Network networkSending(Ed25519Point point) {
+    return new Network() {
+      @Override
+      public void send(int partyId, byte[] data) {}
+
+      @Override
+      public byte[] receive(int partyId) {
+        return point.encode();
+      }
+
+      @Override
+      public int getNoOfParties() {
+        return 2;
+      }
+    };
+  }
+
+  private static ChouOrlandiOt otWith(Ed25519Point received) {
+    return new ChouOrlandiOt(2, new AesCtrDrbg(HelperForTests.seedOne), networkSending(received));
+  }
+
+  @Test
+  public void testSmallOrderPoint() {
+    Ed25519Point point = orderTwoPoint();
+    assertNotEquals(Ed25519Point.IDENTITY, point);
+    assertEquals(Ed25519Point.IDENTITY, point.dbl());
+    assertFalse(point.isInPrimeOrderSubgroup());
+    assertFalse(Ed25519Point.IDENTITY.isInPrimeOrderSubgroup());
+    assertFalse(Ed25519Point.BASE.add(point).isInPrimeOrderSubgroup());
+    assertTrue(Ed25519Point.BASE.isInPrimeOrderSubgroup());
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testReceiverRejectsSmallOrderPoint() {
+    otWith(orderTwoPoint()).receive(true);
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testReceiverRejectsIdentity() {
+    otWith(Ed25519Point.IDENTITY).receive(true);
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testSenderRejectsSmallOrderPoint() {
+    otWith(orderTwoPoint()).send(new StrictBitVector(8), new StrictBitVector(8));
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testSenderRejectsPointWithSmallOrderComponent() {
+    // 8P is not the identity, but P is outside the prime order subgroup
+    Ed25519Point point = Ed25519Point.BASE.add(orderTwoPoint());
+    assertNotEquals(Ed25519Point.IDENTITY, point.clearCofactor());
+    otWith(point).send(new StrictBitVector(8), new StrictBitVector(8));
+  }
+
+  @Test(expected = MaliciousException.class)
+  public void testSenderRejectsIdentity() {
+    otWith(Ed25519Point.IDENTITY).send(new StrictBitVector(8), new StrictBitVector(8));
+  }
+}
@@ -0,0 +1,66 @@
+package dk.alexandra.fresco.tools.ot.base;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class TestEd25519Point {
+
+  @Test
+  public void testEncodeBase() {
+    // The encoding of the base point given in RFC 8032
+    byte[] expected = new byte[Ed25519Point.ENCODED_LENGTH];
+    Arrays.fill(expected, (byte) 0x66);
+    expected[0] = 0x58;
+    assertArrayEquals(expected, Ed25519Point.BASE.encode());
+    assertEquals(Ed25519Point.BASE, Ed25519Point.decode(expected));
+  }
+
+  @Test
+  public void testOrderOfBase() {
+    assertEquals(Ed25519Point.IDENTITY, Ed25519Point.BASE.multiply(Ed25519Point.ORDER));
+    assertEquals(Ed25519Point.IDENTITY, Ed25519Point.multiplyBase(Ed25519Point.ORDER));
+    assertNotEquals(Ed25519Point.IDENTITY, Ed25519Point.BASE.clearCofactor());
+  }
+
+  @Test
+  public void testArithmetic() {
+    BigInteger a = new BigInteger("1234567890123456789012345678901234567890");
+    BigInteger b = new BigInteger("9876543210987654321098765432109876543210");
+    Ed25519Point pointA = Ed25519Point.multiplyBase(a);
+    Ed25519Point pointB = Ed25519Point.BASE.multiply(b);
+    assertEquals(Ed25519Point.multiplyBase(a.add(b)), pointA.add(pointB));
+    assertEquals(Ed25519Point.multiplyBase(a.subtract(b).mod(Ed25519Point.ORDER)),
+        pointA.subtract(pointB));
+    assertEquals(pointA.add(pointA), pointA.dbl());
+    assertEquals(pointA.multiply(b), pointB.multiply(a));
+    assertEquals(pointA.multiply(b), Ed25519Point.multiply(pointA.powersOfTwo(), b));
+    assertEquals(pointA.multiply(BigInteger.valueOf(8)), pointA.clearCofactor());
+  }
+
+  @Test
+  public void testEncodeDecode() {
+    Ed25519Point point = Ed25519Point.multiplyBase(BigInteger.valueOf(123456789));
+    assertEquals(point, Ed25519Point.decode(point.encode()));
+    assertEquals(point.negate(), Ed25519Point.decode(point.negate().encode()));
+    assertEquals(Ed25519Point.IDENTITY,
+        Ed25519Point.decode(Ed25519Point.IDENTITY.encode()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeNonCanonical() {
+    byte[] encoding = new byte[Ed25519Point.ENCODED_LENGTH];
+    Arrays.fill(encoding, (byte) 0xFF);
+    encoding[Ed25519Point.ENCODED_LENGTH - 1] = 0x7F;
+    Ed25519Point.decode(encoding);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeWrongLength() {
+    Ed25519Point.decode(new byte[Ed25519Point.ENCODED_LENGTH - 1]);
+  }
+}
@@ -0,0 +1,113 @@
+package dk.alexandra.fresco.tools.ot.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.helper.HelperForTests;
+import dk.alexandra.fresco.tools.helper.RuntimeForTests;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestFunctionalChouOrlandi {
+
+  private RuntimeForTests testRuntime;
+  private int messageLength = 1024;
+
+  @Before
+  public void initializeRuntime() {
+    this.testRuntime = new RuntimeForTests();
+  }
+
+  @After
+  public void shutdown() {
+    testRuntime.shutdown();
+  }
+
+  private List<Pair<StrictBitVector, StrictBitVector>> otSend(int iterations, boolean batched)
+      throws Exception {
+    Network network =
+        new SocketNetwork(RuntimeForTests.defaultNetworkConfiguration(1, Arrays.asList(1, 2)));
+    try {
+      Drbg rand = new AesCtrDrbg(HelperForTests.seedOne);
+      BatchOt otSender = new ChouOrlandiOt(2, rand, network);
+      List<Pair<StrictBitVector, StrictBitVector>> messages = new ArrayList<>(iterations);
+      for (int i = 0; i < iterations; i++) {
+        StrictBitVector msgZero = new StrictBitVector(messageLength, rand);
+        StrictBitVector msgOne = new StrictBitVector(messageLength, rand);
+        messages.add(new Pair<>(msgZero, msgOne));
+        if (!batched) {
+          otSender.send(msgZero, msgOne);
+        }
+      }
+      if (batched) {
+        otSender.send(messages);
+      }
+      return messages;
+    } finally {
+      ((Closeable) network).close();
+    }
+  }
+
+  private List<StrictBitVector> otReceive(StrictBitVector choices, boolean batched)
+      throws Exception {
+    Network network =
+        new SocketNetwork(RuntimeForTests.defaultNetworkConfiguration(2, Arrays.asList(1, 2)));
+    try {
+      Drbg rand = new AesCtrDrbg(HelperForTests.seedTwo);
+      BatchOt otReceiver = new ChouOrlandiOt(1, rand, network);
+      if (batched) {
+        return otReceiver.receive(choices);
+      }
+      List<StrictBitVector> messages = new ArrayList<>(choices.getSize());
+      for (int i = 0; i < choices.getSize(); i++) {
+        messages.add(otReceiver.receive(choices.getBit(i, false)));
+      }
+      return messages;
+    } finally {
+      ((Closeable) network).close();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void runOts(int iterations, boolean batched) {
+    Drbg rand = new AesCtrDrbg(HelperForTests.seedThree);
+    StrictBitVector choices = new StrictBitVector(iterations, rand);
+    Callable<List<?>> partyOneOt = () -> otSend(iterations, batched);
+    Callable<List<?>> partyTwoOt = () -> otReceive(choices, batched);
+    List<List<?>> results = testRuntime.runPerPartyTasks(Arrays.asList(partyOneOt, partyTwoOt));
+    List<Pair<StrictBitVector, StrictBitVector>> senderResults =
+        (List<Pair<StrictBitVector, StrictBitVector>>) results.get(0);
+    List<StrictBitVector> receiverResults = (List<StrictBitVector>) results.get(1);
+    assertEquals(iterations, receiverResults.size());
+    assertNotEquals(new StrictBitVector(iterations), choices);
+    for (int i = 0; i < iterations; i++) {
+      Pair<StrictBitVector, StrictBitVector> sent = senderResults.get(i);
+      StrictBitVector chosen = choices.getBit(i, false) ? sent.getSecond() : sent.getFirst();
+      StrictBitVector other = choices.getBit(i, false) ? sent.getFirst() : sent.getSecond();
+      assertEquals(chosen, receiverResults.get(i));
+      assertNotEquals(other, receiverResults.get(i));
+    }
+  }
+
+  @Test
+  public void testChouOrlandiOt() {
+    runOts(8, false);
+  }
+
+  @Test
+  public void testBatchedChouOrlandiOt() {
+    runOts(128, true);
+  }
+}
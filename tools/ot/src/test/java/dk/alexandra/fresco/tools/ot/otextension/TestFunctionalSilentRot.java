@@ -0,0 +1,113 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.helper.HelperForTests;
+import dk.alexandra.fresco.tools.helper.RuntimeForTests;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestFunctionalSilentRot {
+  // Small parameters, giving 3456 OTs per iteration
+  private static final SilentOtParameters PARAMETERS = new SilentOtParameters(512, 16, 8, 10);
+  private RuntimeForTests testRuntime;
+  private RotSender rotSender;
+  private Network senderNetwork;
+  private RotReceiver rotReceiver;
+  private Network receiverNetwork;
+  private int kbitLength = 128;
+  private int lambdaSecurityParam = 64;
+
+  /**
+   * Initializes the test runtime and constructs a silent ROT sender and receiver.
+   */
+  @Before
+  public void initializeRuntime() {
+    this.testRuntime = new RuntimeForTests();
+    Callable<List<?>> partyOneTask = () -> setup(1, 2);
+    Callable<List<?>> partyTwoTask = () -> setup(2, 1);
+    List<List<?>> results = testRuntime
+        .runPerPartyTasks(Arrays.asList(partyOneTask, partyTwoTask));
+    rotSender = ((RotFactory) results.get(0).get(0)).createSender();
+    senderNetwork = (Network) results.get(0).get(1);
+    rotReceiver = ((RotFactory) results.get(1).get(0)).createReceiver();
+    receiverNetwork = (Network) results.get(1).get(1);
+  }
+
+  /**
+   * Shuts down the network and test runtime.
+   *
+   * @throws IOException Thrown if the network fails to shut down
+   */
+  @After
+  public void shutdown() throws IOException {
+    ((Closeable) senderNetwork).close();
+    ((Closeable) receiverNetwork).close();
+    testRuntime.shutdown();
+  }
+
+  private List<?> setup(int myId, int otherId) {
+    OtExtensionTestContext ctx = new OtExtensionTestContext(myId, otherId, kbitLength,
+        lambdaSecurityParam);
+    OtExtensionResourcePool resources = ctx.createResources(1);
+    Network network = ctx.getNetwork();
+    return Arrays.asList(new SilentRotFactory(resources, network, PARAMETERS), network);
+  }
+
+  private List<Pair<StrictBitVector, StrictBitVector>> extendSender(int size) {
+    Pair<List<StrictBitVector>, List<StrictBitVector>> messages = rotSender.extend(size);
+    List<Pair<StrictBitVector, StrictBitVector>> res = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      res.add(new Pair<>(messages.getFirst().get(i), messages.getSecond().get(i)));
+    }
+    return res;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void runExtension(int extendSize, byte[] seed) {
+    StrictBitVector choices = new StrictBitVector(extendSize, new AesCtrDrbg(seed));
+    Callable<List<?>> partyOneExtend = () -> extendSender(extendSize);
+    Callable<List<?>> partyTwoExtend = () -> rotReceiver.extend(choices);
+    List<List<?>> extendResults = testRuntime.runPerPartyTasks(Arrays.asList(
+        partyOneExtend, partyTwoExtend));
+    List<Pair<StrictBitVector, StrictBitVector>> senderResults =
+        (List<Pair<StrictBitVector, StrictBitVector>>) extendResults.get(0);
+    List<StrictBitVector> receiverResults = (List<StrictBitVector>) extendResults.get(1);
+    assertEquals(extendSize, receiverResults.size());
+    HelperForTests.verifyOts(senderResults, receiverResults, choices);
+  }
+
+  @Test
+  public void testRot() {
+    runExtension(1800, HelperForTests.seedThree);
+  }
+
+  @Test
+  public void testRotSeveralIterations() {
+    runExtension(3 * PARAMETERS.getUsable() + 8, HelperForTests.seedThree);
+  }
+
+  @Test
+  public void testRotRepeatedExtensions() {
+    // The second extension uses the rest of the first iteration and part of the second
+    runExtension(2400, HelperForTests.seedThree);
+    runExtension(2400, HelperForTests.seedTwo);
+    runExtension(16, HelperForTests.seedOne);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParametersWithoutOutput() {
+    new SilentOtParameters(4096, 16, 8, 10);
+  }
+}
@@ -1,7 +1,10 @@
 package dk.alexandra.fresco.tools.ot.otextension;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 
 import java.lang.reflect.InvocationTargetException;
@@ -275,7 +278,81 @@ public class TestTranspose {
     }
   }
 
+  @Test
+  public void testTransposeBlock() {
+    long[] block = new long[64];
+    // Set bit (i, 3i mod 64) of each row
+    for (int i = 0; i < 64; i++) {
+      block[i] = 1L << (63 - (3 * i % 64));
+    }
+    Transpose.transposeBlock(block);
+    for (int i = 0; i < 64; i++) {
+      for (int j = 0; j < 64; j++) {
+        boolean expected = i == 3 * j % 64;
+        assertEquals(expected, (block[i] >>> (63 - j) & 1L) == 1L);
+      }
+    }
+  }
+
+  @Test
+  public void testFlatTransposeMatchesListTranspose() {
+    Drbg rand = new AesCtrDrbg(new byte[32]);
+    List<StrictBitVector> input = new ArrayList<>();
+    for (int i = 0; i < 128; i++) {
+      input.add(new StrictBitVector(1024, rand));
+    }
+    long[] matrix = new long[128 * Transpose.wordsPerRow(1024)];
+    for (int i = 0; i < 128; i++) {
+      Transpose.packRow(input.get(i).toByteArray(), matrix, i * Transpose.wordsPerRow(1024));
+    }
+    List<StrictBitVector> expected = Transpose.transpose(input);
+    List<StrictBitVector> actual =
+        Transpose.unpackRows(Transpose.transpose(matrix, 128, 1024), 1024, 128);
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void testFlatTransposeOddDimensions() {
+    Drbg rand = new AesCtrDrbg(new byte[32]);
+    int rows = 72;
+    int columns = 200;
+    List<StrictBitVector> input = new ArrayList<>();
+    long[] matrix = new long[rows * Transpose.wordsPerRow(columns)];
+    for (int i = 0; i < rows; i++) {
+      input.add(new StrictBitVector(columns, rand));
+      Transpose.packRow(input.get(i).toByteArray(), matrix, i * Transpose.wordsPerRow(columns));
+    }
+    List<StrictBitVector> res =
+        Transpose.unpackRows(Transpose.transpose(matrix, rows, columns), columns, rows);
+    assertEquals(columns, res.size());
+    for (int i = 0; i < columns; i++) {
+      for (int j = 0; j < rows; j++) {
+        assertEquals(input.get(j).getBit(i, false), res.get(i).getBit(j, false));
+      }
+    }
+  }
+
+  @Test
+  public void testFlatTransposeTwiceIsIdentity() {
+    Drbg rand = new AesCtrDrbg(new byte[32]);
+    int rows = 128;
+    int columns = 320;
+    long[] matrix = new long[rows * Transpose.wordsPerRow(columns)];
+    for (int i = 0; i < rows; i++) {
+      Transpose.packRow(new StrictBitVector(columns, rand).toByteArray(), matrix,
+          i * Transpose.wordsPerRow(columns));
+    }
+    long[] transposed = new long[columns * Transpose.wordsPerRow(rows)];
+    Transpose.transpose(matrix, rows, columns, transposed);
+    assertArrayEquals(matrix, Transpose.transpose(transposed, columns, rows));
+  }
+
   /**** NEGATIVE TESTS. ****/
+  @Test(expected = IllegalArgumentException.class)
+  public void testFlatTransposeTooSmallResult() {
+    Transpose.transpose(new long[64], 64, 64, new long[63]);
+  }
+
   @Test
   public void testWrongAmountOfRows() {
     boolean thrown;